@@ -20,6 +20,10 @@ BEGIN
     END IF;
 END $$;
 
+-- Hex SHA-256 of the trimmed, lower-cased email, for contact matching; EmailHashBackfill fills it
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_sha256 VARCHAR(64);
+CREATE INDEX IF NOT EXISTS idx_users_email_sha256 ON users(email_sha256);
+
 CREATE TABLE IF NOT EXISTS labels (
     id SERIAL PRIMARY KEY,
     user_id INTEGER NOT NULL,
@@ -74,6 +78,7 @@ CREATE TABLE IF NOT EXISTS user_board_game_labels (
 );
 
 CREATE INDEX IF NOT EXISTS idx_ubgl_label_id ON user_board_game_labels(label_id);
+CREATE INDEX IF NOT EXISTS idx_ubg_modified_at ON user_board_games(modified_at);
 
 CREATE TABLE IF NOT EXISTS reviews (
     id SERIAL PRIMARY KEY,
@@ -92,12 +97,41 @@ CREATE TABLE IF NOT EXISTS reviews (
 
 CREATE INDEX IF NOT EXISTS idx_reviews_game_id ON reviews(game_id);
 CREATE INDEX IF NOT EXISTS idx_reviews_user_id ON reviews(user_id);
+CREATE INDEX IF NOT EXISTS idx_reviews_updated_at ON reviews(updated_at);
+
+-- Deleted (user_id, game_id) rating keys, replayed as tombstones by incremental rating exports;
+-- no foreign key, the rows outlive deleted users
+CREATE TABLE IF NOT EXISTS rating_deletions (
+    id BIGSERIAL PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    game_id INTEGER NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_rating_deletions_deleted_at ON rating_deletions(deleted_at);
 
+-- Running per-user rating stats (Welford): count, mean and sum of squared deviations
+CREATE TABLE IF NOT EXISTS user_rating_stats (
+    user_id INTEGER PRIMARY KEY,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    mean DOUBLE PRECISION NOT NULL DEFAULT 0,
+    m2 DOUBLE PRECISION NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_rating_stats_user
+        FOREIGN KEY(user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
+
+-- One row per unordered pair (user_id < friend_id); requester_id says who asked
 CREATE TABLE IF NOT EXISTS friendships (
     id SERIAL PRIMARY KEY,
     user_id INTEGER NOT NULL,
     friend_id INTEGER NOT NULL,
+    requester_id INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    accepted_at TIMESTAMP WITH TIME ZONE,
     CONSTRAINT fk_friendship_user
         FOREIGN KEY(user_id)
         REFERENCES users(id)
@@ -106,12 +140,31 @@ CREATE TABLE IF NOT EXISTS friendships (
         FOREIGN KEY(friend_id)
         REFERENCES users(id)
         ON DELETE CASCADE,
-    CONSTRAINT chk_not_self CHECK (user_id != friend_id),
+    CONSTRAINT chk_friendships_canonical_pair CHECK (user_id < friend_id),
+    CONSTRAINT chk_friendships_requester CHECK (requester_id IN (user_id, friend_id)),
+    CONSTRAINT chk_friendships_status CHECK (status IN ('PENDING', 'ACCEPTED')),
     CONSTRAINT uq_friendships_user_friend UNIQUE (user_id, friend_id)
 );
 
 CREATE INDEX IF NOT EXISTS idx_friendships_friend_id ON friendships(friend_id);
-CREATE INDEX IF NOT EXISTS idx_friendships_user_id ON friendships(user_id);
+-- Covering keyset indexes for the paginated friends list: (accepted_at, id) order, other side included
+CREATE INDEX IF NOT EXISTS idx_friendships_accepted_user_page ON friendships(user_id, accepted_at DESC, id DESC) INCLUDE (friend_id) WHERE status = 'ACCEPTED';
+CREATE INDEX IF NOT EXISTS idx_friendships_accepted_friend_page ON friendships(friend_id, accepted_at DESC, id DESC) INCLUDE (user_id) WHERE status = 'ACCEPTED';
+CREATE INDEX IF NOT EXISTS idx_friendships_pending_user ON friendships(user_id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_friendships_pending_friend ON friendships(friend_id) WHERE status = 'PENDING';
+
+-- Badge counts per user, maintained by the friendship write paths
+CREATE TABLE IF NOT EXISTS user_social_counts (
+    user_id INTEGER PRIMARY KEY,
+    friend_count BIGINT NOT NULL DEFAULT 0,
+    incoming_request_count BIGINT NOT NULL DEFAULT 0,
+    outgoing_request_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_user_social_counts_user
+        FOREIGN KEY(user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE
+);
 
 CREATE TABLE IF NOT EXISTS game_plays (
     id SERIAL PRIMARY KEY,
@@ -126,8 +179,12 @@ CREATE TABLE IF NOT EXISTS game_plays (
         FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
-CREATE INDEX IF NOT EXISTS idx_game_plays_user_game ON game_plays(user_id, game_id);
-CREATE INDEX IF NOT EXISTS idx_game_plays_user_played_at ON game_plays(user_id, played_at DESC);
+-- Also serves the per-game lookups; the trailing columns let recent games read each game's last play off the index
+DROP INDEX IF EXISTS idx_game_plays_user_game;
+CREATE INDEX IF NOT EXISTS idx_game_plays_user_game_last_play ON game_plays(user_id, game_id, played_at DESC, id DESC);
+-- Keyset order of the play history, so a page reads straight off the index
+DROP INDEX IF EXISTS idx_game_plays_user_played_at;
+CREATE INDEX IF NOT EXISTS idx_game_plays_user_played_at_id ON game_plays(user_id, played_at DESC, id DESC);
 
 CREATE TABLE IF NOT EXISTS game_play_players (
     game_play_id INTEGER NOT NULL,
@@ -139,6 +196,9 @@ CREATE TABLE IF NOT EXISTS game_play_players (
         FOREIGN KEY(player_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Plays a user was tagged in; the primary key only leads with game_play_id
+CREATE INDEX IF NOT EXISTS idx_game_play_players_player ON game_play_players(player_id, game_play_id);
+
 CREATE TABLE IF NOT EXISTS game_play_winners (
     id SERIAL PRIMARY KEY,
     game_play_id INTEGER NOT NULL,
@@ -150,7 +210,21 @@ CREATE TABLE IF NOT EXISTS game_play_winners (
         FOREIGN KEY(winner_player_id) REFERENCES users(id) ON DELETE SET NULL
 );
 
+-- Times played per user, game and month (first day of the month), maintained by play writes;
+-- GamePlayMonthlyCountBackfill seeds users whose plays predate it
+CREATE TABLE IF NOT EXISTS game_play_monthly_counts (
+    user_id INTEGER NOT NULL,
+    game_id INTEGER NOT NULL,
+    month DATE NOT NULL,
+    times_played INTEGER NOT NULL,
+    PRIMARY KEY(user_id, game_id, month),
+    CONSTRAINT fk_gpmc_user
+        FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 CREATE INDEX IF NOT EXISTS idx_gpw_play_index ON game_play_winners(game_play_id, game_index);
+-- Play history filtered by winner; also keeps the ON DELETE SET NULL of a deleted user cheap
+CREATE INDEX IF NOT EXISTS idx_gpw_winner ON game_play_winners(winner_player_id, game_play_id);
 
 CREATE TABLE IF NOT EXISTS player_groups (
     id SERIAL PRIMARY KEY,
@@ -171,6 +245,35 @@ CREATE TABLE IF NOT EXISTS player_group_members (
     CONSTRAINT fk_pgm_user  FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+-- Friend activity feed: events are written with the play, review or collection change and fanned
+-- out asynchronously into feed_entries, one timeline row per friend
+CREATE TABLE IF NOT EXISTS activity_events (
+    id BIGSERIAL PRIMARY KEY,
+    actor_id INTEGER NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    game_id INTEGER NOT NULL,
+    delivery VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_activity_event_actor
+        FOREIGN KEY(actor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_activity_events_pending ON activity_events(id) WHERE delivery = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_activity_events_on_read ON activity_events(actor_id, id DESC) WHERE delivery = 'ON_READ';
+CREATE INDEX IF NOT EXISTS idx_activity_events_actor ON activity_events(actor_id);
+
+CREATE TABLE IF NOT EXISTS feed_entries (
+    user_id INTEGER NOT NULL,
+    event_id BIGINT NOT NULL,
+    PRIMARY KEY(user_id, event_id),
+    CONSTRAINT fk_feed_entry_user
+        FOREIGN KEY(user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_feed_entry_event
+        FOREIGN KEY(event_id) REFERENCES activity_events(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_feed_entries_event ON feed_entries(event_id);
+
 -- Mock seed data
 -- Note: Using BCrypt hash for password "Password123!"
 INSERT INTO users (email, name, password)
@@ -219,48 +322,30 @@ JOIN users u ON u.email = v.email
 ON CONFLICT (user_id, game_id) DO NOTHING;
 
 -- Friendships
--- Kipras ↔ Tautvydas (accepted friendship - bidirectional)
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
+-- Kipras ↔ Tautvydas (accepted friendship)
+INSERT INTO friendships (user_id, friend_id, requester_id, status, accepted_at)
+SELECT LEAST(u1.id, u2.id), GREATEST(u1.id, u2.id), u1.id, 'ACCEPTED', CURRENT_TIMESTAMP
 FROM users u1, users u2
 WHERE u1.email = 'kipras@example.com' AND u2.email = 'tautvydas@example.com'
 ON CONFLICT (user_id, friend_id) DO NOTHING;
 
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
-FROM users u1, users u2
-WHERE u1.email = 'tautvydas@example.com' AND u2.email = 'kipras@example.com'
-ON CONFLICT (user_id, friend_id) DO NOTHING;
-
--- Kipras ↔ Ignas (accepted friendship - bidirectional)
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
+-- Kipras ↔ Ignas (accepted friendship)
+INSERT INTO friendships (user_id, friend_id, requester_id, status, accepted_at)
+SELECT LEAST(u1.id, u2.id), GREATEST(u1.id, u2.id), u1.id, 'ACCEPTED', CURRENT_TIMESTAMP
 FROM users u1, users u2
 WHERE u1.email = 'kipras@example.com' AND u2.email = 'ignas@example.com'
 ON CONFLICT (user_id, friend_id) DO NOTHING;
 
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
-FROM users u1, users u2
-WHERE u1.email = 'ignas@example.com' AND u2.email = 'kipras@example.com'
-ON CONFLICT (user_id, friend_id) DO NOTHING;
-
--- Ignas ↔ Paulius (accepted friendship - bidirectional)
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
+-- Ignas ↔ Paulius (accepted friendship)
+INSERT INTO friendships (user_id, friend_id, requester_id, status, accepted_at)
+SELECT LEAST(u1.id, u2.id), GREATEST(u1.id, u2.id), u1.id, 'ACCEPTED', CURRENT_TIMESTAMP
 FROM users u1, users u2
 WHERE u1.email = 'ignas@example.com' AND u2.email = 'paulius@example.com'
 ON CONFLICT (user_id, friend_id) DO NOTHING;
 
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
-FROM users u1, users u2
-WHERE u1.email = 'paulius@example.com' AND u2.email = 'ignas@example.com'
-ON CONFLICT (user_id, friend_id) DO NOTHING;
-
--- Justas → Kipras (pending request - unidirectional)
-INSERT INTO friendships (user_id, friend_id)
-SELECT u1.id, u2.id
+-- Justas → Kipras (pending request)
+INSERT INTO friendships (user_id, friend_id, requester_id, status)
+SELECT LEAST(u1.id, u2.id), GREATEST(u1.id, u2.id), u1.id, 'PENDING'
 FROM users u1, users u2
 WHERE u1.email = 'justas@example.com' AND u2.email = 'kipras@example.com'
 ON CONFLICT (user_id, friend_id) DO NOTHING;
\ No newline at end of file
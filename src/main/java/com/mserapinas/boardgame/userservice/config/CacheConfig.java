@@ -0,0 +1,54 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto;
+import com.mserapinas.boardgame.userservice.dto.response.ReviewListDto;
+import com.mserapinas.boardgame.userservice.dto.response.TasteCompatibilityDto;
+import com.mserapinas.boardgame.userservice.service.CoalescingCache;
+import com.mserapinas.boardgame.userservice.service.TasteCompatibilityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Review list + aggregates per game, for GET /api/v1/reviews/games/{gameId}
+     */
+    @Bean
+    public CoalescingCache<Integer, ReviewListDto> reviewPageCache(
+        MeterRegistry meterRegistry,
+        @Value("${cache.review-pages.ttl:PT5M}") Duration ttl,
+        @Value("${cache.review-pages.max-entries:10000}") int maxEntries
+    ) {
+        return new CoalescingCache<>("review-pages", meterRegistry, ttl, maxEntries);
+    }
+
+    /**
+     * Taste compatibility per (requester, other user) pair and their review versions, for GET /api/v1/users/{userId}/compatibility
+     */
+    @Bean
+    public CoalescingCache<TasteCompatibilityService.UserPair, TasteCompatibilityDto> compatibilityCache(
+        MeterRegistry meterRegistry,
+        @Value("${cache.compatibility.ttl:PT1H}") Duration ttl,
+        @Value("${cache.compatibility.max-entries:50000}") int maxEntries
+    ) {
+        return new CoalescingCache<>("taste-compatibility", meterRegistry, ttl, maxEntries);
+    }
+
+    /**
+     * Player statistics per user, for GET /api/v1/plays/stats. Play writes evict only on the
+     * node that served them, so the short TTL is what bounds staleness on the other nodes.
+     */
+    @Bean
+    public CoalescingCache<Long, PlayerStatsDto> playerStatsCache(
+        MeterRegistry meterRegistry,
+        @Value("${cache.player-stats.ttl:PT1M}") Duration ttl,
+        @Value("${cache.player-stats.max-entries:20000}") int maxEntries
+    ) {
+        return new CoalescingCache<>("player-stats", meterRegistry, ttl, maxEntries);
+    }
+}
@@ -0,0 +1,52 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * CREATE INDEX CONCURRENTLY for the startup runners, which add indexes to populated tables without
+ * blocking writes.
+ *
+ * A concurrent build that fails or is interrupted (a duplicate key, a cancelled statement, a node
+ * killed mid-deploy) leaves the index behind marked INVALID: the planner never uses it, but
+ * IF NOT EXISTS would skip it on every later start. Such a leftover is dropped and built again.
+ * An index is also INVALID while another node is still building it, so one with a build in
+ * progress is left alone.
+ *
+ * Neither statement may run inside a transaction; the runners call this with JdbcTemplate
+ * autocommitting each statement.
+ */
+final class ConcurrentIndexes {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentIndexes.class);
+
+    private static final String INDEX_STATE_SQL = """
+        SELECT i.indisvalid,
+               EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = i.indexrelid)
+        FROM pg_index i
+        WHERE i.indexrelid = to_regclass(?::text)
+        """;
+
+    private ConcurrentIndexes() {}
+
+    /**
+     * @param definition everything after the index name, e.g. {@code ON users(email_sha256)}
+     */
+    static void create(JdbcTemplate jdbcTemplate, String name, String definition) {
+        List<boolean[]> state = jdbcTemplate.query(INDEX_STATE_SQL,
+            (rs, rowNum) -> new boolean[]{rs.getBoolean(1), rs.getBoolean(2)}, name);
+        if (!state.isEmpty()) {
+            boolean valid = state.getFirst()[0];
+            boolean building = state.getFirst()[1];
+            if (valid || building) {
+                return;
+            }
+            log.warn("Index {} was left INVALID by an earlier concurrent build, rebuilding it", name);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import com.mserapinas.boardgame.userservice.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Idempotent backfill of users.email_sha256 for users registered before contact matching, plus
+ * the index matching reads. Hashes are computed with {@link User#hashEmail} rather than in SQL so
+ * old and new rows are normalized the same way. A no-op once every row has a hash.
+ */
+@Component
+public class EmailHashBackfill implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailHashBackfill.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmailHashBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        long lastId = 0;
+        int hashed = 0;
+        // Keyset batches, so the heap only ever holds one batch however many users need a hash
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, email FROM users WHERE email_sha256 IS NULL AND id > ? ORDER BY id LIMIT ?",
+                lastId, BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            lastId = ((Number) rows.getLast().get("id")).longValue();
+            jdbcTemplate.batchUpdate("UPDATE users SET email_sha256 = ? WHERE id = ?", rows, BATCH_SIZE,
+                (ps, row) -> {
+                    ps.setString(1, User.hashEmail((String) row.get("email")));
+                    ps.setLong(2, ((Number) row.get("id")).longValue());
+                });
+            hashed += rows.size();
+        }
+        ConcurrentIndexes.create(jdbcTemplate, "idx_users_email_sha256", "ON users(email_sha256)");
+
+        if (hashed > 0) {
+            log.info("Email hash backfill: hashed {} emails", hashed);
+        }
+    }
+}
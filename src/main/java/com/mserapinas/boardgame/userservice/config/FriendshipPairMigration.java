@@ -0,0 +1,298 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import com.mserapinas.boardgame.userservice.service.UserSocialCountsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Migration from the two-row friendship model (a request is one directional row, a friendship is
+ * both directions) to one canonical row per pair with user_id < friend_id, requester_id, status
+ * and accepted_at.
+ *
+ * Online for the database, not for the fleet: the table stays writable throughout, but every node
+ * of the two-row version must be stopped before the first node of this one starts. The two models
+ * cannot serve side by side in one table, since a canonical row requested by its higher id reads
+ * to an old node as a request in the other direction, and new queries do not see legacy
+ * (status IS NULL) rows at all. A legacy row that appears after conversion means an old node is
+ * still writing; the run then fails startup, so this node never serves traffic, and the next start
+ * converts the stragglers.
+ *
+ * Runs as the first startup runner. Tomcat is already listening, but readiness
+ * (/actuator/health/readiness) stays OUT_OF_SERVICE until every runner has finished, so a load
+ * balancer routing on it sends the node no traffic before the rows are converted. The table is
+ * never locked as a whole: partial indexes are built CONCURRENTLY (see {@link ConcurrentIndexes}),
+ * legacy rows are converted in small keyset batches, each in its own short transaction that locks
+ * only the pairs it rewrites, and the CHECK and NOT NULL constraints are added NOT VALID and
+ * validated separately once no legacy rows remain. Idempotent, so an interrupted run simply continues on the next start.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FriendshipPairMigration implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendshipPairMigration.class);
+
+    private static final List<String> COLUMN_SQL = List.of(
+        "ALTER TABLE friendships ADD COLUMN IF NOT EXISTS requester_id INTEGER",
+        "ALTER TABLE friendships ADD COLUMN IF NOT EXISTS status VARCHAR(20)",
+        "ALTER TABLE friendships ADD COLUMN IF NOT EXISTS accepted_at TIMESTAMP WITH TIME ZONE"
+    );
+
+    private static final Map<String, String> INDEXES = Map.of(
+        "idx_friendships_accepted_user_page",
+        "ON friendships(user_id, accepted_at DESC, id DESC) INCLUDE (friend_id) WHERE status = 'ACCEPTED'",
+        "idx_friendships_accepted_friend_page",
+        "ON friendships(friend_id, accepted_at DESC, id DESC) INCLUDE (user_id) WHERE status = 'ACCEPTED'",
+        "idx_friendships_pending_user", "ON friendships(user_id) WHERE status = 'PENDING'",
+        "idx_friendships_pending_friend", "ON friendships(friend_id) WHERE status = 'PENDING'"
+    );
+
+    // Superseded by the covering _page indexes above
+    private static final List<String> SUPERSEDED_INDEXES = List.of(
+        "idx_friendships_accepted_user",
+        "idx_friendships_accepted_friend"
+    );
+
+    // Also declared in init-db.sql for new databases; existing ones get them once fully migrated
+    private static final Map<String, String> CHECK_CONSTRAINTS = Map.of(
+        "chk_friendships_canonical_pair", "user_id < friend_id",
+        "chk_friendships_requester", "requester_id IN (user_id, friend_id)",
+        "chk_friendships_status", "status IN ('PENDING', 'ACCEPTED')"
+    );
+
+    private static final List<String> NOT_NULL_COLUMNS = List.of("requester_id", "status");
+
+    private static final String LEGACY_BATCH_SQL = """
+        SELECT id, user_id, friend_id FROM friendships
+        WHERE status IS NULL AND id > ?
+        ORDER BY id
+        LIMIT ?
+        """;
+
+    // Every row of the batch's pairs, in both directions, locked until the batch commits
+    private static final String PAIR_ROWS_SQL = """
+        SELECT f.id, f.user_id, f.friend_id, f.requester_id, f.status, f.created_at, f.accepted_at
+        FROM unnest(?::bigint[], ?::bigint[]) AS p(low_id, high_id)
+        JOIN friendships f
+            ON (f.user_id = p.low_id AND f.friend_id = p.high_id)
+            OR (f.user_id = p.high_id AND f.friend_id = p.low_id)
+        ORDER BY f.created_at, f.id
+        FOR UPDATE OF f
+        """;
+
+    private static final String DELETE_SQL = "DELETE FROM friendships WHERE id = ?";
+
+    private static final String UPDATE_SQL = """
+        UPDATE friendships
+        SET user_id = ?, friend_id = ?, requester_id = ?, status = ?, created_at = ?, accepted_at = ?
+        WHERE id = ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserSocialCountsService userSocialCountsService;
+    private final int batchSize;
+
+    public FriendshipPairMigration(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        UserSocialCountsService userSocialCountsService,
+        @Value("${friendships.migration.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userSocialCountsService = userSocialCountsService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(String... args) {
+        COLUMN_SQL.forEach(jdbcTemplate::execute);
+        INDEXES.forEach((name, definition) -> ConcurrentIndexes.create(jdbcTemplate, name, definition));
+        SUPERSEDED_INDEXES.forEach(name -> jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name));
+        // status is the last column made NOT NULL, so this means a previous run finished
+        if (!isNullable("status")) {
+            return;
+        }
+
+        long lastId = 0;
+        int pairs = 0;
+        while (true) {
+            List<long[]> legacyRows = jdbcTemplate.query(LEGACY_BATCH_SQL,
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)},
+                lastId, batchSize);
+            if (legacyRows.isEmpty()) {
+                break;
+            }
+            lastId = legacyRows.getLast()[0];
+
+            Set<Pair> batch = new LinkedHashSet<>();
+            for (long[] row : legacyRows) {
+                batch.add(Pair.of(row[1], row[2]));
+            }
+            transactionTemplate.executeWithoutResult(status -> migrate(batch));
+            pairs += batch.size();
+        }
+
+        if (pairs > 0) {
+            log.info("Friendship pair migration: {} pairs converted to canonical rows", pairs);
+            // Counters seeded while legacy rows were still there counted none of them
+            userSocialCountsService.reconcile();
+        }
+
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM friendships WHERE status IS NULL)", Boolean.class))) {
+            // Only possible if a node of the two-row version is still writing
+            throw new IllegalStateException(
+                "Legacy friendship rows written during migration; stop every node of the two-row version and restart");
+        }
+        CHECK_CONSTRAINTS.forEach(this::addValidatedCheck);
+        NOT_NULL_COLUMNS.forEach(this::setNotNull);
+        jdbcTemplate.execute("ALTER TABLE friendships ALTER COLUMN status SET DEFAULT 'PENDING'");
+    }
+
+    /**
+     * Two statements, two transactions: adding NOT VALID holds the exclusive lock only for a
+     * catalog change, and the validating scan then runs under a lock that lets writes through.
+     * VALIDATE is a no-op for a constraint that is already valid.
+     */
+    private void addValidatedCheck(String name, String expression) {
+        Boolean exists = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'friendships'::regclass AND conname = ?)",
+            Boolean.class, name);
+        if (!Boolean.TRUE.equals(exists)) {
+            jdbcTemplate.execute("ALTER TABLE friendships ADD CONSTRAINT " + name + " CHECK (" + expression + ") NOT VALID");
+        }
+        jdbcTemplate.execute("ALTER TABLE friendships VALIDATE CONSTRAINT " + name);
+    }
+
+    /**
+     * SET NOT NULL skips its own full scan under the exclusive lock when a validated
+     * CHECK (column IS NOT NULL) already proves it, so one is added first and dropped after
+     */
+    private void setNotNull(String column) {
+        if (!isNullable(column)) {
+            return;
+        }
+        String helper = "chk_friendships_" + column + "_not_null";
+        addValidatedCheck(helper, column + " IS NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE friendships ALTER COLUMN " + column + " SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE friendships DROP CONSTRAINT " + helper);
+    }
+
+    private boolean isNullable(String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT is_nullable = 'YES' FROM information_schema.columns WHERE table_name = 'friendships' AND column_name = ?",
+            Boolean.class, column));
+    }
+
+    private void migrate(Set<Pair> batch) {
+        Long[] lowIds = batch.stream().map(Pair::lowId).toArray(Long[]::new);
+        Long[] highIds = batch.stream().map(Pair::highId).toArray(Long[]::new);
+
+        Map<Pair, List<Row>> rowsByPair = new LinkedHashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(PAIR_ROWS_SQL);
+            Array lows = con.createArrayOf("bigint", lowIds);
+            Array highs = con.createArrayOf("bigint", highIds);
+            ps.setArray(1, lows);
+            ps.setArray(2, highs);
+            return ps;
+        }, rs -> {
+            Row row = new Row(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getLong("friend_id"),
+                rs.getObject("requester_id", Long.class),
+                rs.getString("status"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("accepted_at", OffsetDateTime.class)
+            );
+            rowsByPair.computeIfAbsent(Pair.of(row.userId(), row.friendId()), p -> new ArrayList<>()).add(row);
+        });
+
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        rowsByPair.forEach((pair, rows) -> plan(pair, rows, deletes, updates));
+
+        // Deletes first, so moving a high->low row onto (low, high) never hits the unique constraint
+        jdbcTemplate.batchUpdate(DELETE_SQL, deletes);
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+    }
+
+    /**
+     * Collapse one pair's rows into its canonical row. In the legacy model each directional row
+     * means "its user_id asked"; both directions mean accepted, as of the later row.
+     */
+    private static void plan(Pair pair, List<Row> rows, List<Object[]> deletes, List<Object[]> updates) {
+        Row canonical = rows.stream().filter(row -> row.status() != null).findFirst().orElse(null);
+        if (canonical != null && rows.size() == 1) {
+            return;
+        }
+        if (canonical != null && canonical.isAccepted()) {
+            // Already friends; leftover directional rows add nothing
+            rows.stream().filter(row -> row != canonical).forEach(row -> deletes.add(new Object[]{row.id()}));
+            return;
+        }
+
+        // Rows are in created_at order, so the first requester asked first
+        Set<Long> requesters = new LinkedHashSet<>();
+        for (Row row : rows) {
+            requesters.add(row.status() == null ? row.userId() : row.requesterId());
+        }
+        boolean accepted = requesters.size() > 1;
+
+        Row survivor = canonical != null ? canonical : rows.stream()
+            .filter(row -> row.userId() == pair.lowId())
+            .findFirst()
+            .orElse(rows.getFirst());
+        rows.stream().filter(row -> row != survivor).forEach(row -> deletes.add(new Object[]{row.id()}));
+
+        updates.add(new Object[]{
+            pair.lowId(),
+            pair.highId(),
+            requesters.iterator().next(),
+            accepted ? "ACCEPTED" : "PENDING",
+            rows.getFirst().createdAt(),
+            accepted ? rows.getLast().createdAt() : null,
+            survivor.id()
+        });
+    }
+
+    private record Pair(long lowId, long highId) {
+        static Pair of(long a, long b) {
+            return new Pair(Math.min(a, b), Math.max(a, b));
+        }
+    }
+
+    private record Row(
+        long id,
+        long userId,
+        long friendId,
+        Long requesterId,
+        String status,
+        OffsetDateTime createdAt,
+        OffsetDateTime acceptedAt
+    ) {
+        boolean isAccepted() {
+            return "ACCEPTED".equals(status);
+        }
+    }
+}
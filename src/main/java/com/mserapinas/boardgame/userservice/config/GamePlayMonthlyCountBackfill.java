@@ -0,0 +1,41 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotent backfill of game_play_monthly_counts for users who logged plays before the rollup
+ * existed. Only users without any rollup rows are seeded, so running on every startup leaves
+ * incrementally maintained rows untouched. Play writes seed an unseeded user themselves, so a
+ * write racing this backfill still ends up with exact counts.
+ */
+@Component
+public class GamePlayMonthlyCountBackfill implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GamePlayMonthlyCountBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GamePlayMonthlyCountBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        int seeded = jdbcTemplate.update("""
+            INSERT INTO game_play_monthly_counts (user_id, game_id, month, times_played)
+            SELECT gp.user_id, gp.game_id, CAST(date_trunc('month', gp.played_at) AS DATE), SUM(gp.times_played)
+            FROM game_plays gp
+            WHERE NOT EXISTS (SELECT 1 FROM game_play_monthly_counts c WHERE c.user_id = gp.user_id)
+            GROUP BY gp.user_id, gp.game_id, CAST(date_trunc('month', gp.played_at) AS DATE)
+            ON CONFLICT (user_id, game_id, month) DO NOTHING
+            """);
+
+        if (seeded > 0) {
+            log.info("Game play monthly count backfill: seeded {} rows", seeded);
+        }
+    }
+}
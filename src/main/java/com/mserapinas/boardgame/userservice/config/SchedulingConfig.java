@@ -0,0 +1,15 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduled jobs run on Spring Boot's auto-configured scheduler. Its pool
+ * (spring.task.scheduling.pool.size) must be at least the number of @Scheduled methods: every job
+ * is fixed-delay and holds one thread while it runs, so with enough threads a long item-item
+ * rebuild or friend-graph refresh never holds up the feed fan-out or the SSE heartbeats.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
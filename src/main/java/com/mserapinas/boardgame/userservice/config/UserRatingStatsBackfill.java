@@ -0,0 +1,41 @@
+package com.mserapinas.boardgame.userservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Idempotent backfill of user_rating_stats for users who reviewed games before the table existed.
+ * Only inserts rows that are missing, so running on every startup leaves incrementally maintained
+ * rows untouched. Review writes seed a missing row themselves, so a write racing this backfill
+ * still ends up with exact values.
+ */
+@Component
+public class UserRatingStatsBackfill implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UserRatingStatsBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRatingStatsBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        int seeded = jdbcTemplate.update("""
+            INSERT INTO user_rating_stats (user_id, review_count, mean, m2, updated_at)
+            SELECT r.user_id, COUNT(*), AVG(r.rating), VAR_POP(r.rating) * COUNT(*), now()
+            FROM reviews r
+            WHERE NOT EXISTS (SELECT 1 FROM user_rating_stats s WHERE s.user_id = r.user_id)
+            GROUP BY r.user_id
+            ON CONFLICT (user_id) DO NOTHING
+            """);
+
+        if (seeded > 0) {
+            log.info("User rating stats backfill: seeded {} users", seeded);
+        }
+    }
+}
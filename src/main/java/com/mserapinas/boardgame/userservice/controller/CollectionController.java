@@ -12,11 +12,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Set;
+
 @RestController
 @Validated
 @RequestMapping("/api/v1/collections")
 public class CollectionController {
 
+    static final String INCLUDE_COMMUNITY_RATING = "communityRating";
+
     private final UserService userService;
 
     public CollectionController(UserService userService) {
@@ -24,17 +28,22 @@ public class CollectionController {
     }
 
     @GetMapping
-    public ResponseEntity<GameCollectionDto> getCurrentUserGameCollection(@CurrentUser Long userId) {
-        GameCollectionDto collection = userService.getUserGameCollection(userId);
+    public ResponseEntity<GameCollectionDto> getCurrentUserGameCollection(
+        @CurrentUser Long userId,
+        @RequestParam(required = false) Set<String> include
+    ) {
+        GameCollectionDto collection = userService.getUserGameCollection(userId, includesCommunityRating(include));
         return ResponseEntity.ok(collection);
     }
 
     @GetMapping("/users/{userId}")
     public ResponseEntity<GameCollectionDto> getUserGameCollection(
         @CurrentUser Long requesterId,
-        @PathVariable Long userId
+        @PathVariable Long userId,
+        @RequestParam(required = false) Set<String> include
     ) {
-        GameCollectionDto collection = userService.getUserGameCollection(requesterId, userId);
+        GameCollectionDto collection = userService.getUserGameCollection(
+            requesterId, userId, includesCommunityRating(include));
         return ResponseEntity.ok(collection);
     }
 
@@ -65,4 +74,16 @@ public class CollectionController {
         @PathVariable Integer gameId) {
         userService.deleteGameFromCollection(userId, gameId);
     }
-}
\ No newline at end of file
+
+    private static boolean includesCommunityRating(Set<String> include) {
+        if (include == null) {
+            return false;
+        }
+        for (String value : include) {
+            if (!INCLUDE_COMMUNITY_RATING.equals(value)) {
+                throw new IllegalArgumentException("Unsupported include value: " + value);
+            }
+        }
+        return include.contains(INCLUDE_COMMUNITY_RATING);
+    }
+}
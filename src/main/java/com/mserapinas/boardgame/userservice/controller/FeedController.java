@@ -0,0 +1,29 @@
+package com.mserapinas.boardgame.userservice.controller;
+
+import com.mserapinas.boardgame.userservice.annotation.CurrentUser;
+import com.mserapinas.boardgame.userservice.dto.response.FeedDto;
+import com.mserapinas.boardgame.userservice.service.ActivityFeedService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/feed")
+public class FeedController {
+
+    private final ActivityFeedService activityFeedService;
+
+    public FeedController(ActivityFeedService activityFeedService) {
+        this.activityFeedService = activityFeedService;
+    }
+
+    @GetMapping
+    public ResponseEntity<FeedDto> getFeed(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(activityFeedService.getFeed(userId, cursor, limit));
+    }
+}
@@ -1,14 +1,26 @@
 package com.mserapinas.boardgame.userservice.controller;
 
 import com.mserapinas.boardgame.userservice.annotation.CurrentUser;
+import com.mserapinas.boardgame.userservice.dto.request.ContactMatchRequest;
+import com.mserapinas.boardgame.userservice.dto.request.FriendRequestBatchRequest;
+import com.mserapinas.boardgame.userservice.dto.response.CollectionSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.ContactMatchDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendListDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendPathDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendRequestBatchResultDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendRequestListDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.MutualFriendsDto;
+import com.mserapinas.boardgame.userservice.dto.response.SocialCountsDto;
+import com.mserapinas.boardgame.userservice.service.FriendshipNotificationService;
 import com.mserapinas.boardgame.userservice.service.FriendshipService;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @Validated
@@ -16,9 +28,12 @@ import org.springframework.web.bind.annotation.*;
 public class FriendshipController {
 
     private final FriendshipService friendshipService;
+    private final FriendshipNotificationService friendshipNotificationService;
 
-    public FriendshipController(FriendshipService friendshipService) {
+    public FriendshipController(FriendshipService friendshipService,
+                                FriendshipNotificationService friendshipNotificationService) {
         this.friendshipService = friendshipService;
+        this.friendshipNotificationService = friendshipNotificationService;
     }
 
     /**
@@ -45,6 +60,30 @@ public class FriendshipController {
         friendshipService.acceptFriendRequest(userId, requesterUserId);
     }
 
+    /**
+     * Accept several incoming friend requests
+     * POST /api/v1/friendships/requests/batch/accept
+     */
+    @PostMapping("/requests/batch/accept")
+    public ResponseEntity<FriendRequestBatchResultDto> acceptFriendRequests(
+            @CurrentUser Long userId,
+            @Valid @RequestBody FriendRequestBatchRequest request) {
+        FriendRequestBatchResultDto result = friendshipService.acceptFriendRequests(userId, request.requesterIds());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Decline several incoming friend requests
+     * POST /api/v1/friendships/requests/batch/decline
+     */
+    @PostMapping("/requests/batch/decline")
+    public ResponseEntity<FriendRequestBatchResultDto> declineFriendRequests(
+            @CurrentUser Long userId,
+            @Valid @RequestBody FriendRequestBatchRequest request) {
+        FriendRequestBatchResultDto result = friendshipService.declineFriendRequests(userId, request.requesterIds());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Decline an incoming friend request
      * DELETE /api/v1/friendships/requests/{requesterUserId}/decline
@@ -69,6 +108,16 @@ public class FriendshipController {
         friendshipService.cancelFriendRequest(userId, friendUserId);
     }
 
+    /**
+     * Get friend and pending request counts for badges
+     * GET /api/v1/friendships/counts
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<SocialCountsDto> getSocialCounts(@CurrentUser Long userId) {
+        SocialCountsDto counts = friendshipService.getSocialCounts(userId);
+        return ResponseEntity.ok(counts);
+    }
+
     /**
      * Get incoming friend requests
      * GET /api/v1/friendships/requests/incoming
@@ -79,6 +128,15 @@ public class FriendshipController {
         return ResponseEntity.ok(requests);
     }
 
+    /**
+     * Stream friend request events (received, accepted, cancelled) as Server-Sent Events
+     * GET /api/v1/friendships/requests/stream
+     */
+    @GetMapping(path = "/requests/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFriendRequestEvents(@CurrentUser Long userId) {
+        return friendshipNotificationService.subscribe(userId);
+    }
+
     /**
      * Get outgoing friend requests
      * GET /api/v1/friendships/requests/outgoing
@@ -90,12 +148,16 @@ public class FriendshipController {
     }
 
     /**
-     * Get all friends
-     * GET /api/v1/friendships
+     * Get a page of friends, most recently accepted first
+     * GET /api/v1/friendships?limit=50&cursor=...&namePrefix=...
      */
     @GetMapping
-    public ResponseEntity<FriendListDto> getFriends(@CurrentUser Long userId) {
-        FriendListDto friends = friendshipService.getFriends(userId);
+    public ResponseEntity<FriendListDto> getFriends(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(defaultValue = "50") int limit) {
+        FriendListDto friends = friendshipService.getFriends(userId, cursor, namePrefix, limit);
         return ResponseEntity.ok(friends);
     }
 
@@ -112,12 +174,63 @@ public class FriendshipController {
     }
 
     /**
-     * Get friend suggestions (friends of friends)
-     * GET /api/v1/friendships/suggestions
+     * Get friends in common with another user
+     * GET /api/v1/friendships/mutual/{otherUserId}?limit=10
+     */
+    @GetMapping("/mutual/{otherUserId}")
+    public ResponseEntity<MutualFriendsDto> getMutualFriends(
+            @CurrentUser Long userId,
+            @PathVariable Long otherUserId,
+            @RequestParam(defaultValue = "10") int limit) {
+        MutualFriendsDto mutualFriends = friendshipService.getMutualFriends(userId, otherUserId, limit);
+        return ResponseEntity.ok(mutualFriends);
+    }
+
+    /**
+     * Get the shortest chain of friendships to another user
+     * GET /api/v1/friendships/path/{otherUserId}?maxDepth=4
+     */
+    @GetMapping("/path/{otherUserId}")
+    public ResponseEntity<FriendPathDto> getFriendPath(
+            @CurrentUser Long userId,
+            @PathVariable Long otherUserId,
+            @RequestParam(defaultValue = "4") int maxDepth) {
+        FriendPathDto path = friendshipService.getFriendPath(userId, otherUserId, maxDepth);
+        return ResponseEntity.ok(path);
+    }
+
+    /**
+     * Get friend suggestions (friends of friends, most mutual friends first)
+     * GET /api/v1/friendships/suggestions?limit=20
      */
     @GetMapping("/suggestions")
-    public ResponseEntity<FriendSuggestionDto> getFriendSuggestions(@CurrentUser Long userId) {
-        FriendSuggestionDto suggestions = friendshipService.getFriendSuggestions(userId);
+    public ResponseEntity<FriendSuggestionDto> getFriendSuggestions(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        FriendSuggestionDto suggestions = friendshipService.getFriendSuggestions(userId, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Get suggestions of users whose game collections most overlap yours
+     * GET /api/v1/friendships/suggestions/collection?limit=20
+     */
+    @GetMapping("/suggestions/collection")
+    public ResponseEntity<CollectionSuggestionDto> getCollectionSuggestions(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        CollectionSuggestionDto suggestions = friendshipService.getCollectionSuggestions(userId, limit);
         return ResponseEntity.ok(suggestions);
     }
-}
\ No newline at end of file
+
+    /**
+     * Find registered users among imported contacts, with their friendship state
+     * POST /api/v1/friendships/contacts/match
+     */
+    @PostMapping("/contacts/match")
+    public ResponseEntity<ContactMatchDto> matchContacts(
+            @CurrentUser Long userId,
+            @Valid @RequestBody ContactMatchRequest request) {
+        return ResponseEntity.ok(friendshipService.matchContacts(userId, request.emails(), request.emailHashes()));
+    }
+}
@@ -2,15 +2,22 @@ package com.mserapinas.boardgame.userservice.controller;
 
 import com.mserapinas.boardgame.userservice.annotation.CurrentUser;
 import com.mserapinas.boardgame.userservice.dto.request.CreateGamePlayRequest;
+import com.mserapinas.boardgame.userservice.dto.request.PlayHistoryQuery;
 import com.mserapinas.boardgame.userservice.dto.request.UpdateGamePlayRequest;
 import com.mserapinas.boardgame.userservice.dto.response.GamePlayDto;
+import com.mserapinas.boardgame.userservice.dto.response.GamePlayPageDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto;
 import com.mserapinas.boardgame.userservice.service.GamePlayService;
+import com.mserapinas.boardgame.userservice.service.GamePlayStatsService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -20,9 +27,11 @@ import java.util.Map;
 public class GamePlayController {
 
     private final GamePlayService gamePlayService;
+    private final GamePlayStatsService gamePlayStatsService;
 
-    public GamePlayController(GamePlayService gamePlayService) {
+    public GamePlayController(GamePlayService gamePlayService, GamePlayStatsService gamePlayStatsService) {
         this.gamePlayService = gamePlayService;
+        this.gamePlayStatsService = gamePlayStatsService;
     }
 
     @PostMapping
@@ -47,6 +56,30 @@ public class GamePlayController {
         return ResponseEntity.ok(gamePlayService.getRecentGames(userId, limit));
     }
 
+    /**
+     * Get a page of the current user's play history, narrowed by any of the query's filters
+     */
+    @GetMapping("/history")
+    public ResponseEntity<GamePlayPageDto> getPlayHistory(
+            @CurrentUser Long userId,
+            PlayHistoryQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(gamePlayService.getPlayHistory(userId, query, cursor, limit));
+    }
+
+    /**
+     * Get a page of plays the current user was tagged in by others, optionally with their own
+     */
+    @GetMapping("/tagged")
+    public ResponseEntity<GamePlayPageDto> getTaggedPlays(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeOwn,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(gamePlayService.getTaggedPlays(userId, cursor, includeOwn, limit));
+    }
+
     @GetMapping("/batch")
     public ResponseEntity<List<GamePlayDto>> getPlaysByIds(
             @RequestParam List<Long> ids) {
@@ -57,7 +90,25 @@ public class GamePlayController {
     public ResponseEntity<Map<Integer, Integer>> getPlaysThisYear(
             @CurrentUser Long userId,
             @RequestParam List<Integer> gameIds) {
-        return ResponseEntity.ok(gamePlayService.getPlaysThisYearByGames(userId, gameIds));
+        return ResponseEntity.ok(gamePlayStatsService.getPlaysThisYearByGames(userId, gameIds));
+    }
+
+    /**
+     * Times played per game and period within [from, to], optionally for the given games only
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<PlayCountsDto> getPlayCounts(
+            @CurrentUser Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "MONTH") PlayCountsDto.Granularity granularity,
+            @RequestParam(required = false) List<Integer> gameIds) {
+        return ResponseEntity.ok(gamePlayStatsService.getPlayCounts(userId, from, to, granularity, gameIds));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<PlayerStatsDto> getPlayerStats(@CurrentUser Long userId) {
+        return ResponseEntity.ok(gamePlayStatsService.getPlayerStats(userId));
     }
 
     @PutMapping("/{playId}")
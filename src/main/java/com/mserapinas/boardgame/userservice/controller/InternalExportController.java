@@ -0,0 +1,44 @@
+package com.mserapinas.boardgame.userservice.controller;
+
+import com.mserapinas.boardgame.userservice.service.RatingExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Service-to-service endpoints. Not routed through the API gateway.
+ */
+@RestController
+@Validated
+@RequestMapping("/api/v1/internal/export")
+public class InternalExportController {
+
+    static final String WATERMARK_HEADER = "X-Export-Watermark";
+
+    private final RatingExportService ratingExportService;
+
+    public InternalExportController(RatingExportService ratingExportService) {
+        this.ratingExportService = ratingExportService;
+    }
+
+    /**
+     * Stream rating/collection tuples as NDJSON; with {@code since}, deleted keys come out as tombstones
+     * GET /api/v1/internal/export/ratings?since={iso-timestamp}
+     */
+    @GetMapping(value = "/ratings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRatings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since) {
+        ratingExportService.checkSince(since);
+        OffsetDateTime watermark = ratingExportService.nextWatermark();
+        StreamingResponseBody body = out -> ratingExportService.exportRatings(since, out);
+        return ResponseEntity.ok()
+            .header(WATERMARK_HEADER, watermark.toString())
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+}
@@ -0,0 +1,31 @@
+package com.mserapinas.boardgame.userservice.controller;
+
+import com.mserapinas.boardgame.userservice.annotation.CurrentUser;
+import com.mserapinas.boardgame.userservice.dto.response.RecommendationListDto;
+import com.mserapinas.boardgame.userservice.service.ItemRecommendationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Local "because you own X" recommendations; the fallback for when recommender-service is down
+ */
+@RestController
+@RequestMapping("/api/v1/recommendations")
+public class RecommendationController {
+
+    private final ItemRecommendationService itemRecommendationService;
+
+    public RecommendationController(ItemRecommendationService itemRecommendationService) {
+        this.itemRecommendationService = itemRecommendationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RecommendationListDto> getRecommendations(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(itemRecommendationService.getRecommendations(userId, limit));
+    }
+}
@@ -2,9 +2,13 @@ package com.mserapinas.boardgame.userservice.controller;
 
 import com.mserapinas.boardgame.userservice.annotation.CurrentUser;
 import com.mserapinas.boardgame.userservice.dto.request.UpdateUserProfileRequest;
+import com.mserapinas.boardgame.userservice.dto.response.SimilarUserListDto;
+import com.mserapinas.boardgame.userservice.dto.response.TasteCompatibilityDto;
 import com.mserapinas.boardgame.userservice.dto.response.UserProfileDto;
 import com.mserapinas.boardgame.userservice.dto.response.UserResponse;
 import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import com.mserapinas.boardgame.userservice.service.SimilarUserService;
+import com.mserapinas.boardgame.userservice.service.TasteCompatibilityService;
 import com.mserapinas.boardgame.userservice.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -21,10 +25,19 @@ public class UserController {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final TasteCompatibilityService tasteCompatibilityService;
+    private final SimilarUserService similarUserService;
 
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(
+        UserService userService,
+        UserRepository userRepository,
+        TasteCompatibilityService tasteCompatibilityService,
+        SimilarUserService similarUserService
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.tasteCompatibilityService = tasteCompatibilityService;
+        this.similarUserService = similarUserService;
     }
 
     @GetMapping
@@ -55,4 +68,20 @@ public class UserController {
     public void deleteCurrentUserAccount(@CurrentUser Long userId) {
         userService.deleteUserAccount(userId);
     }
+
+    @GetMapping("/{userId}/compatibility")
+    public ResponseEntity<TasteCompatibilityDto> getTasteCompatibility(
+        @CurrentUser Long requesterId,
+        @PathVariable Long userId
+    ) {
+        return ResponseEntity.ok(tasteCompatibilityService.getCompatibility(requesterId, userId));
+    }
+
+    @GetMapping("/{userId}/similar-users")
+    public ResponseEntity<SimilarUserListDto> getSimilarUsers(
+        @PathVariable Long userId,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(similarUserService.getSimilarUsers(userId, limit));
+    }
 }
@@ -0,0 +1,20 @@
+package com.mserapinas.boardgame.userservice.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Imported contacts to look up, as plain emails, hex SHA-256 hashes of trimmed lower-case emails,
+ * or a mix of both
+ */
+public record ContactMatchRequest(
+    @Size(max = 5000, message = "Cannot match more than 5000 emails at once")
+    List<@NotBlank(message = "Email cannot be blank") String> emails,
+
+    @Size(max = 5000, message = "Cannot match more than 5000 email hashes at once")
+    List<@Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "Email hash must be 64 hex characters") String> emailHashes
+) {
+}
@@ -0,0 +1,14 @@
+package com.mserapinas.boardgame.userservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record FriendRequestBatchRequest(
+    @NotEmpty(message = "Requester IDs are required")
+    @Size(max = 100, message = "Cannot handle more than 100 requests at once")
+    List<@NotNull(message = "Requester ID cannot be null") Long> requesterIds
+) {
+}
@@ -0,0 +1,25 @@
+package com.mserapinas.boardgame.userservice.dto.request;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional play history filters, bound from query parameters; every filter that is set must match
+ *
+ * @param coPlayerId a user who must be among the play's players
+ * @param winnerId a user who must have won at least one of the play's games
+ * @param from first play date included
+ * @param to last play date included
+ * @param groupId one of the caller's player groups; every member other than the caller must be
+ *                among the play's players
+ */
+public record PlayHistoryQuery(
+    Integer gameId,
+    Long coPlayerId,
+    Long winnerId,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+    Long groupId
+) {
+}
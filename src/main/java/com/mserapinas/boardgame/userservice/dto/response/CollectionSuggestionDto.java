@@ -0,0 +1,31 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import com.mserapinas.boardgame.userservice.model.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param indexReady false while the collection index is still loading, when suggestions are always empty
+ */
+public record CollectionSuggestionDto(
+    List<CollectionMatchDto> suggestions,
+    boolean indexReady
+) {
+    /**
+     * @param users suggested users, already in ranking order
+     * @param similarities estimated Jaccard similarity by user id
+     */
+    public static CollectionSuggestionDto from(List<User> users, Map<Long, Double> similarities, boolean indexReady) {
+        List<CollectionMatchDto> suggestions = users.stream()
+            .map(user -> new CollectionMatchDto(user.getId(), user.getName(), similarities.get(user.getId())))
+            .toList();
+        return new CollectionSuggestionDto(suggestions, indexReady);
+    }
+}
+
+record CollectionMatchDto(
+    Long userId,
+    String userName,
+    Double similarity
+) {}
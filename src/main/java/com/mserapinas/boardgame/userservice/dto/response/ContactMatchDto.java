@@ -0,0 +1,28 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+/**
+ * Registered users found among imported contacts, in the order the contacts were submitted
+ */
+public record ContactMatchDto(
+    List<ContactMatchItemDto> matches
+) {
+    public enum FriendshipState {
+        NONE,
+        FRIENDS,
+        REQUEST_SENT,
+        REQUEST_RECEIVED
+    }
+
+    /**
+     * @param contact the email or hash as submitted, so the client can map it back to its contact
+     */
+    public record ContactMatchItemDto(
+        String contact,
+        Long userId,
+        String userName,
+        FriendshipState friendshipState
+    ) {
+    }
+}
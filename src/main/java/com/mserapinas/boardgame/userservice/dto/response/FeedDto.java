@@ -0,0 +1,13 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of a user's friend activity feed, newest first.
+ *
+ * @param nextCursor pass back as {@code cursor} for the next page; null on the last page
+ */
+public record FeedDto(
+    List<FeedItemDto> items,
+    String nextCursor
+) {}
@@ -0,0 +1,26 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import com.mserapinas.boardgame.userservice.model.ActivityEvent;
+import com.mserapinas.boardgame.userservice.model.ActivityType;
+
+import java.time.OffsetDateTime;
+
+public record FeedItemDto(
+    Long eventId,
+    ActivityType type,
+    Long actorId,
+    String actorName,
+    Integer gameId,
+    OffsetDateTime occurredAt
+) {
+    public static FeedItemDto from(ActivityEvent event, String actorName) {
+        return new FeedItemDto(
+            event.getId(),
+            event.getType(),
+            event.getActorId(),
+            actorName,
+            event.getGameId(),
+            event.getCreatedAt()
+        );
+    }
+}
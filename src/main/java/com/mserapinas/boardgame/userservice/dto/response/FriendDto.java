@@ -1,6 +1,7 @@
 package com.mserapinas.boardgame.userservice.dto.response;
 
 import com.mserapinas.boardgame.userservice.model.Friendship;
+import com.mserapinas.boardgame.userservice.model.User;
 
 import java.time.OffsetDateTime;
 
@@ -10,12 +11,16 @@ public record FriendDto(
     String email,
     OffsetDateTime friendsSince
 ) {
-    public static FriendDto from(Friendship friendship) {
+    /**
+     * @param viewerId the user whose friend list this is; the DTO describes the other side of the pair
+     */
+    public static FriendDto from(Friendship friendship, Long viewerId) {
+        User friend = friendship.getOtherUser(viewerId);
         return new FriendDto(
-            friendship.getFriendId(),
-            friendship.getFriend() != null ? friendship.getFriend().getName() : null,
-            friendship.getFriend() != null ? friendship.getFriend().getEmail() : null,
-            friendship.getCreatedAt()
+            friendship.getOtherUserId(viewerId),
+            friend != null ? friend.getName() : null,
+            friend != null ? friend.getEmail() : null,
+            friendship.getAcceptedAt()
         );
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,16 @@
 package com.mserapinas.boardgame.userservice.dto.response;
 
-import com.mserapinas.boardgame.userservice.model.Friendship;
-
 import java.util.List;
 
+/**
+ * One page of a friends list.
+ *
+ * @param totalCount all of the user's friends, regardless of the page or name filter
+ * @param nextCursor pass back as {@code cursor} for the next page; null on the last page
+ */
 public record FriendListDto(
     List<FriendDto> friends,
-    Long totalCount
+    Long totalCount,
+    String nextCursor
 ) {
-    public static FriendListDto from(List<Friendship> friendships) {
-        List<FriendDto> friends = friendships.stream()
-            .map(FriendDto::from)
-            .toList();
-        return new FriendListDto(friends, (long) friends.size());
-    }
-}
\ No newline at end of file
+}
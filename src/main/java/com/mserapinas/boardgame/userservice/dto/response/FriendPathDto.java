@@ -0,0 +1,35 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import com.mserapinas.boardgame.userservice.model.User;
+
+import java.util.List;
+
+/**
+ * @param path users from the caller to the other user, both included; empty when no chain was found
+ * @param degrees number of friendships in the chain, null when no chain was found
+ * @param truncated the search hit its work limit, so a longer search might still find a chain
+ */
+public record FriendPathDto(
+    List<FriendPathUserDto> path,
+    Integer degrees,
+    boolean truncated
+) {
+    public static FriendPathDto from(List<User> users, boolean truncated) {
+        List<FriendPathUserDto> path = users.stream()
+            .map(FriendPathUserDto::from)
+            .toList();
+        return new FriendPathDto(path, path.isEmpty() ? null : path.size() - 1, truncated);
+    }
+}
+
+record FriendPathUserDto(
+    Long userId,
+    String userName
+) {
+    public static FriendPathUserDto from(User user) {
+        return new FriendPathUserDto(
+            user.getId(),
+            user.getName()
+        );
+    }
+}
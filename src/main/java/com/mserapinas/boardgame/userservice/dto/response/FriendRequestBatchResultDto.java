@@ -0,0 +1,22 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch accept or decline, one entry per distinct requester id in request order
+ */
+public record FriendRequestBatchResultDto(
+    List<FriendRequestBatchItemDto> results
+) {
+    public enum Outcome {
+        ACCEPTED,
+        DECLINED,
+        NOT_FOUND
+    }
+
+    public record FriendRequestBatchItemDto(
+        Long requesterId,
+        Outcome outcome
+    ) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.mserapinas.boardgame.userservice.dto.response;
 
 import com.mserapinas.boardgame.userservice.model.Friendship;
+import com.mserapinas.boardgame.userservice.model.User;
 
 import java.time.OffsetDateTime;
 
@@ -12,25 +13,18 @@ public record FriendRequestDto(
     OffsetDateTime requestedAt,
     FriendRequestDirection direction
 ) {
-    public static FriendRequestDto fromIncoming(Friendship friendship) {
+    /**
+     * @param viewerId the user listing their requests; the DTO describes the other side of the pair
+     */
+    public static FriendRequestDto from(Friendship friendship, Long viewerId) {
+        User other = friendship.getOtherUser(viewerId);
         return new FriendRequestDto(
             friendship.getId(),
-            friendship.getUserId(),
-            friendship.getUser() != null ? friendship.getUser().getName() : null,
-            friendship.getUser() != null ? friendship.getUser().getEmail() : null,
+            friendship.getOtherUserId(viewerId),
+            other != null ? other.getName() : null,
+            other != null ? other.getEmail() : null,
             friendship.getCreatedAt(),
-            FriendRequestDirection.INCOMING
+            friendship.isRequestedBy(viewerId) ? FriendRequestDirection.OUTGOING : FriendRequestDirection.INCOMING
         );
     }
-
-    public static FriendRequestDto fromOutgoing(Friendship friendship) {
-        return new FriendRequestDto(
-            friendship.getId(),
-            friendship.getFriendId(),
-            friendship.getFriend() != null ? friendship.getFriend().getName() : null,
-            friendship.getFriend() != null ? friendship.getFriend().getEmail() : null,
-            friendship.getCreatedAt(),
-            FriendRequestDirection.OUTGOING
-        );
-    }
-}
\ No newline at end of file
+}
@@ -3,14 +3,19 @@ package com.mserapinas.boardgame.userservice.dto.response;
 import com.mserapinas.boardgame.userservice.model.User;
 
 import java.util.List;
+import java.util.Map;
 
 public record FriendSuggestionDto(
     List<UserSuggestionDto> suggestions,
     Long totalCount
 ) {
-    public static FriendSuggestionDto from(List<User> users) {
+    /**
+     * @param users suggested users, already in ranking order
+     * @param mutualFriendCounts mutual-friend count by user id
+     */
+    public static FriendSuggestionDto from(List<User> users, Map<Long, Integer> mutualFriendCounts) {
         List<UserSuggestionDto> suggestions = users.stream()
-            .map(UserSuggestionDto::from)
+            .map(user -> UserSuggestionDto.from(user, mutualFriendCounts.get(user.getId())))
             .toList();
         return new FriendSuggestionDto(suggestions, (long) suggestions.size());
     }
@@ -19,13 +24,15 @@ public record FriendSuggestionDto(
 record UserSuggestionDto(
     Long userId,
     String userName,
-    String email
+    String email,
+    Integer mutualFriends
 ) {
-    public static UserSuggestionDto from(User user) {
+    public static UserSuggestionDto from(User user, Integer mutualFriends) {
         return new UserSuggestionDto(
             user.getId(),
             user.getName(),
-            user.getEmail()
+            user.getEmail(),
+            mutualFriends
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One friend request event pushed to the notification stream
+ *
+ * @param userId the user who caused it: the requester, the accepting user, or the user who cancelled
+ */
+public record FriendshipNotificationDto(
+    Type type,
+    Long userId,
+    String userName,
+    OffsetDateTime occurredAt
+) {
+    public enum Type {
+        REQUEST_RECEIVED,
+        REQUEST_ACCEPTED,
+        REQUEST_CANCELLED
+    }
+}
@@ -13,7 +13,9 @@ public record GameCollectionItemDto(
     Integer userRating,
     OffsetDateTime modifiedAt,
     Set<LabelDto> labels,
-    CollectionStatus status
+    CollectionStatus status,
+    Double communityAverageRating,
+    Long communityReviewCount
 ) {
     public static GameCollectionItemDto from(UserBoardGame userBoardGame, Integer userRating) {
         Set<LabelDto> labelDtos = userBoardGame.getLabels() != null ?
@@ -28,7 +30,15 @@ public record GameCollectionItemDto(
             userRating,
             userBoardGame.getModifiedAt(),
             labelDtos,
-            userBoardGame.getStatus()
+            userBoardGame.getStatus(),
+            null,
+            null
+        );
+    }
+
+    public GameCollectionItemDto withCommunityRating(Double averageRating, Long reviewCount) {
+        return new GameCollectionItemDto(
+            gameId, notes, userRating, modifiedAt, labels, status, averageRating, reviewCount
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+/**
+ * One page of plays, most recently played first.
+ *
+ * @param nextCursor pass back as {@code cursor} for the next page; null on the last page
+ */
+public record GamePlayPageDto(
+    List<GamePlayDto> plays,
+    String nextCursor
+) {
+}
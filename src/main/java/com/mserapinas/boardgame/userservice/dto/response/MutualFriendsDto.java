@@ -0,0 +1,35 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import com.mserapinas.boardgame.userservice.model.User;
+
+import java.util.List;
+
+/**
+ * @param mutualFriends first page of the users both sides are friends with
+ * @param totalCount number of mutual friends overall, not just on this page
+ */
+public record MutualFriendsDto(
+    List<MutualFriendDto> mutualFriends,
+    Long totalCount
+) {
+    public static MutualFriendsDto from(List<User> users, long totalCount) {
+        List<MutualFriendDto> mutualFriends = users.stream()
+            .map(MutualFriendDto::from)
+            .toList();
+        return new MutualFriendsDto(mutualFriends, totalCount);
+    }
+}
+
+record MutualFriendDto(
+    Long userId,
+    String userName,
+    String email
+) {
+    public static MutualFriendDto from(User user) {
+        return new MutualFriendDto(
+            user.getId(),
+            user.getName(),
+            user.getEmail()
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Times a user played each game per period of {@code granularity} within [from, to], ordered by
+ * period then game. Periods and games without plays are omitted.
+ */
+public record PlayCountsDto(
+    LocalDate from,
+    LocalDate to,
+    Granularity granularity,
+    List<PlayCountDto> counts
+) {
+    /**
+     * Period length; weeks are ISO weeks starting on Monday
+     */
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH,
+        YEAR
+    }
+
+    /**
+     * @param periodStart first day of the period, which may fall before {@code from} for the first
+     *                    period; only plays inside [from, to] are counted
+     */
+    public record PlayCountDto(
+        LocalDate periodStart,
+        Integer gameId,
+        int timesPlayed
+    ) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+/**
+ * Statistics over the plays a user logged. A "game" is one of a play's {@code timesPlayed}
+ * sessions; the user wins it when they are among that session's recorded winners.
+ *
+ * @param playIndex largest h such that h different games were each played at least h times
+ */
+public record PlayerStatsDto(
+    int totalGamesPlayed,
+    int distinctGames,
+    int playIndex,
+    List<GameStatsDto> games,
+    List<OpponentRecordDto> opponents,
+    List<YearTopGameDto> mostPlayedByYear
+) {
+    /**
+     * @param gamesWithResult sessions that have at least one recorded winner
+     * @param winRate wins / gamesWithResult, null when no session has a recorded winner
+     */
+    public record GameStatsDto(
+        Integer gameId,
+        int timesPlayed,
+        int gamesWithResult,
+        int wins,
+        Double winRate
+    ) {
+    }
+
+    /**
+     * Record against one co-player over the sessions both took part in. A session counts as a
+     * win when the user won and the co-player did not, and the other way round for a loss.
+     */
+    public record OpponentRecordDto(
+        Long userId,
+        String userName,
+        int gamesTogether,
+        int wins,
+        int losses
+    ) {
+    }
+
+    public record YearTopGameDto(
+        int year,
+        Integer gameId,
+        int timesPlayed
+    ) {
+    }
+}
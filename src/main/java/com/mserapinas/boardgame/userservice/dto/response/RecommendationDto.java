@@ -0,0 +1,7 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+public record RecommendationDto(
+    Integer gameId,
+    Double score,
+    Integer becauseYouOwnGameId
+) {}
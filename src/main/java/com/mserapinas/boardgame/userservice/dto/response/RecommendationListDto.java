@@ -0,0 +1,10 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record RecommendationListDto(
+    List<RecommendationDto> recommendations,
+    String source,
+    OffsetDateTime modelBuiltAt
+) {}
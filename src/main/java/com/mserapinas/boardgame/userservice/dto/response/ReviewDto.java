@@ -1,6 +1,7 @@
 package com.mserapinas.boardgame.userservice.dto.response;
 
 import com.mserapinas.boardgame.userservice.model.Review;
+import com.mserapinas.boardgame.userservice.model.UserRatingStats;
 
 import java.time.OffsetDateTime;
 
@@ -10,20 +11,25 @@ public record ReviewDto(
     String userName,
     Integer gameId,
     Integer rating,
+    Double normalizedRating,
     String reviewText,
     OffsetDateTime createdAt,
     OffsetDateTime updatedAt
 ) {
-    public static ReviewDto from(Review review) {
+    /**
+     * @param stats the reviewer's rating stats; null leaves normalizedRating empty
+     */
+    public static ReviewDto from(Review review, UserRatingStats stats) {
         return new ReviewDto(
             review.getId(),
             review.getUserId(),
             review.getUser() != null ? review.getUser().getName() : null,
             review.getGameId(),
             review.getRating(),
+            stats != null ? stats.zScore(review.getRating()) : null,
             review.getReviewText(),
             review.getCreatedAt(),
             review.getUpdatedAt()
         );
     }
-}
\ No newline at end of file
+}
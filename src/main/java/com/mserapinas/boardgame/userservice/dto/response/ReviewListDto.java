@@ -5,6 +5,7 @@ import java.util.List;
 public record ReviewListDto(
     List<ReviewDto> reviews,
     Long totalCount,
-    Double averageRating
+    Double averageRating,
+    Double averageNormalizedRating
 ) {
-}
\ No newline at end of file
+}
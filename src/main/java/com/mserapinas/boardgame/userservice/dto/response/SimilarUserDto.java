@@ -0,0 +1,8 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+public record SimilarUserDto(
+    Long userId,
+    String name,
+    Double similarity,
+    Integer coRatedGames
+) {}
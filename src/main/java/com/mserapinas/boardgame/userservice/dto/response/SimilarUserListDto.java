@@ -0,0 +1,8 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+public record SimilarUserListDto(
+    List<SimilarUserDto> users,
+    boolean indexReady
+) {}
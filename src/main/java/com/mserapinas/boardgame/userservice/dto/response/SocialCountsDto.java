@@ -0,0 +1,17 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import com.mserapinas.boardgame.userservice.model.UserSocialCounts;
+
+public record SocialCountsDto(
+    Long friendCount,
+    Long incomingRequestCount,
+    Long outgoingRequestCount
+) {
+    public static SocialCountsDto from(UserSocialCounts counts) {
+        return new SocialCountsDto(
+            counts.getFriendCount(),
+            counts.getIncomingRequestCount(),
+            counts.getOutgoingRequestCount()
+        );
+    }
+}
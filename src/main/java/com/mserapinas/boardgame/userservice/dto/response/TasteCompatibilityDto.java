@@ -0,0 +1,14 @@
+package com.mserapinas.boardgame.userservice.dto.response;
+
+import java.util.List;
+
+public record TasteCompatibilityDto(
+    Long userId,
+    Long otherUserId,
+    Double similarity,
+    Integer matchPercent,
+    Integer coRatedGames,
+    List<Disagreement> biggestDisagreements
+) {
+    public record Disagreement(Integer gameId, Integer rating, Integer otherRating) {}
+}
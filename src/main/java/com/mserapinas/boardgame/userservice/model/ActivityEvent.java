@@ -0,0 +1,81 @@
+package com.mserapinas.boardgame.userservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Something a user did that their friends see in their feed. Written in the same transaction as
+ * the play, review or collection change it describes, then delivered to friends asynchronously:
+ * {@code delivery} starts PENDING and records how the event reached them.
+ */
+@Entity
+@Table(name = "activity_events")
+public class ActivityEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private ActivityType type;
+
+    @Column(name = "game_id", nullable = false)
+    private Integer gameId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "delivery", nullable = false, length = 20)
+    private FeedDelivery delivery = FeedDelivery.PENDING;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    public ActivityEvent() {}
+
+    public ActivityEvent(Long actorId, ActivityType type, Integer gameId) {
+        this.actorId = actorId;
+        this.type = type;
+        this.gameId = gameId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getActorId() {
+        return actorId;
+    }
+
+    public ActivityType getType() {
+        return type;
+    }
+
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public FeedDelivery getDelivery() {
+        return delivery;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
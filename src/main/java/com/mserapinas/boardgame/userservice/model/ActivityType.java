@@ -0,0 +1,7 @@
+package com.mserapinas.boardgame.userservice.model;
+
+public enum ActivityType {
+    PLAY_LOGGED,    // The user logged a play of the game
+    REVIEW_POSTED,  // The user reviewed the game
+    GAME_ADDED      // The user added the game to their collection
+}
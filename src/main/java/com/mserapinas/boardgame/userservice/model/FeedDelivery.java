@@ -0,0 +1,7 @@
+package com.mserapinas.boardgame.userservice.model;
+
+public enum FeedDelivery {
+    PENDING,    // Not yet delivered to the actor's friends
+    FAN_OUT,    // Copied into each friend's timeline (feed_entries)
+    ON_READ     // Actor had too many friends to copy to; merged into feeds at read time
+}
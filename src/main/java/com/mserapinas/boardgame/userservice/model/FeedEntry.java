@@ -0,0 +1,61 @@
+package com.mserapinas.boardgame.userservice.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One event in one user's timeline. Rows are only ever bulk-inserted by the feed fan-out and
+ * read through the (user_id, event_id) primary key, newest event first.
+ */
+@Entity
+@Table(name = "feed_entries")
+@IdClass(FeedEntry.Key.class)
+public class FeedEntry {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    public FeedEntry() {}
+
+    public FeedEntry(Long userId, Long eventId) {
+        this.userId = userId;
+        this.eventId = eventId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long eventId;
+
+        public Key() {}
+
+        public Key(Long userId, Long eventId) {
+            this.userId = userId;
+            this.eventId = eventId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(userId, key.userId) && Objects.equals(eventId, key.eventId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, eventId);
+        }
+    }
+}
@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 
 import java.time.OffsetDateTime;
 
+/**
+ * One row per unordered pair of users: {@code user} always holds the lower user id and
+ * {@code friend} the higher one, so a pair has exactly one row whichever side sent the request.
+ * {@code requesterId} records who asked; {@code status} moves from PENDING to ACCEPTED.
+ */
 @Entity
 @Table(
     name = "friendships",
@@ -26,14 +31,33 @@ public class Friendship {
     @JoinColumn(name = "friend_id", nullable = false)
     private User friend;
 
+    // Nullable at the JPA level only so schema update can add the columns to a populated table;
+    // FriendshipPairMigration fills them for rows written before the pair model, then sets NOT NULL
+    @Column(name = "requester_id")
+    private Long requesterId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private FriendshipStatus status;
+
     @Column(name = "created_at")
     private OffsetDateTime createdAt;
 
+    @Column(name = "accepted_at")
+    private OffsetDateTime acceptedAt;
+
     public Friendship() {}
 
-    public Friendship(User user, User friend) {
-        this.user = user;
-        this.friend = friend;
+    private Friendship(User requester, User addressee) {
+        boolean requesterFirst = requester.getId() < addressee.getId();
+        this.user = requesterFirst ? requester : addressee;
+        this.friend = requesterFirst ? addressee : requester;
+        this.requesterId = requester.getId();
+        this.status = FriendshipStatus.PENDING;
+    }
+
+    public static Friendship request(User requester, User addressee) {
+        return new Friendship(requester, addressee);
     }
 
     @PrePersist
@@ -41,6 +65,30 @@ public class Friendship {
         createdAt = OffsetDateTime.now();
     }
 
+    public void accept() {
+        status = FriendshipStatus.ACCEPTED;
+        acceptedAt = OffsetDateTime.now();
+    }
+
+    public boolean isAccepted() {
+        return status == FriendshipStatus.ACCEPTED;
+    }
+
+    public boolean isRequestedBy(Long userId) {
+        return requesterId != null && requesterId.equals(userId);
+    }
+
+    /**
+     * The side of the pair that is not {@code userId}
+     */
+    public User getOtherUser(Long userId) {
+        return userId.equals(getUserId()) ? friend : user;
+    }
+
+    public Long getOtherUserId(Long userId) {
+        return userId.equals(getUserId()) ? getFriendId() : getUserId();
+    }
+
     public Long getId() {
         return id;
     }
@@ -53,16 +101,16 @@ public class Friendship {
         return user;
     }
 
-    public void setUser(User user) {
-        this.user = user;
-    }
-
     public User getFriend() {
         return friend;
     }
 
-    public void setFriend(User friend) {
-        this.friend = friend;
+    public Long getRequesterId() {
+        return requesterId;
+    }
+
+    public FriendshipStatus getStatus() {
+        return status;
     }
 
     public OffsetDateTime getCreatedAt() {
@@ -73,6 +121,14 @@ public class Friendship {
         this.createdAt = createdAt;
     }
 
+    public OffsetDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(OffsetDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
     public Long getUserId() {
         return user != null ? user.getId() : null;
     }
@@ -80,4 +136,4 @@ public class Friendship {
     public Long getFriendId() {
         return friend != null ? friend.getId() : null;
     }
-}
\ No newline at end of file
+}
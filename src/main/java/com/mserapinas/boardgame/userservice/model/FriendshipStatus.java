@@ -0,0 +1,6 @@
+package com.mserapinas.boardgame.userservice.model;
+
+public enum FriendshipStatus {
+    PENDING,    // The requester is waiting for the other user to respond
+    ACCEPTED    // Both users are friends
+}
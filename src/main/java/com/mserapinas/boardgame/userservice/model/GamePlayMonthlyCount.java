@@ -0,0 +1,83 @@
+package com.mserapinas.boardgame.userservice.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Total times one user played one game in one calendar month, maintained by every play write so
+ * long-range play counts read a handful of rollup rows instead of the raw plays. {@code month} is
+ * the first day of the month. A row exists only while its total is positive.
+ */
+@Entity
+@Table(name = "game_play_monthly_counts")
+@IdClass(GamePlayMonthlyCount.Key.class)
+public class GamePlayMonthlyCount {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "game_id")
+    private Integer gameId;
+
+    @Id
+    @Column(name = "month")
+    private LocalDate month;
+
+    @Column(name = "times_played", nullable = false)
+    private int timesPlayed;
+
+    public GamePlayMonthlyCount() {}
+
+    public GamePlayMonthlyCount(Long userId, Integer gameId, LocalDate month, int timesPlayed) {
+        this.userId = userId;
+        this.gameId = gameId;
+        this.month = month;
+        this.timesPlayed = timesPlayed;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public LocalDate getMonth() {
+        return month;
+    }
+
+    public int getTimesPlayed() {
+        return timesPlayed;
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Integer gameId;
+        private LocalDate month;
+
+        public Key() {}
+
+        public Key(Long userId, Integer gameId, LocalDate month) {
+            this.userId = userId;
+            this.gameId = gameId;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(userId, key.userId)
+                && Objects.equals(gameId, key.gameId) && Objects.equals(month, key.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, gameId, month);
+        }
+    }
+}
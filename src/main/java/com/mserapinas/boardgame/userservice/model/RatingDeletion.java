@@ -0,0 +1,52 @@
+package com.mserapinas.boardgame.userservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A (user, game) key that lost its review or collection entry, logged by the delete paths so an
+ * incremental rating export can tell the recommender about it. Rows are append-only and pruned
+ * once they are older than the export's tombstone retention.
+ */
+@Entity
+@Table(name = "rating_deletions")
+public class RatingDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "game_id", nullable = false)
+    private Integer gameId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private OffsetDateTime deletedAt;
+
+    public RatingDeletion() {}
+
+    public RatingDeletion(Long userId, Integer gameId, OffsetDateTime deletedAt) {
+        this.userId = userId;
+        this.gameId = gameId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Integer getGameId() {
+        return gameId;
+    }
+
+    public OffsetDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
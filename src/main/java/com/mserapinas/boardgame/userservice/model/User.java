@@ -2,7 +2,12 @@ package com.mserapinas.boardgame.userservice.model;
 
 import jakarta.persistence.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
@@ -16,6 +21,11 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
     
+    // Hex SHA-256 of the normalized email, for contact matching. Nullable at the JPA level only so
+    // schema update can add the column to a populated table; EmailHashBackfill fills older rows
+    @Column(name = "email_sha256", length = 64)
+    private String emailSha256;
+
     @Column(nullable = false)
     private String name;
     
@@ -37,6 +47,7 @@ public class User {
     
     public User(String email, String name, String password) {
         this.email = email;
+        this.emailSha256 = hashEmail(email);
         this.name = name;
         this.password = password;
     }
@@ -55,8 +66,26 @@ public class User {
     
     public void setEmail(String email) {
         this.email = email;
+        this.emailSha256 = hashEmail(email);
     }
     
+    public String getEmailSha256() {
+        return emailSha256;
+    }
+
+    /**
+     * Hex SHA-256 of the email trimmed and lower-cased, the form clients hash contacts in
+     */
+    public static String hashEmail(String email) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     public String getName() {
         return name;
     }
@@ -0,0 +1,128 @@
+package com.mserapinas.boardgame.userservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Running count, mean and sum of squared deviations (M2) of one user's review ratings.
+ * Maintained with Welford's online updates so a review write never rescans the user's reviews.
+ * Variance is the population variance (M2 / n), matching VAR_POP in the backfill.
+ */
+@Entity
+@Table(name = "user_rating_stats")
+public class UserRatingStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(nullable = false)
+    private double mean;
+
+    @Column(nullable = false)
+    private double m2;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public UserRatingStats() {}
+
+    public UserRatingStats(Long userId, long reviewCount, double mean, double m2) {
+        this.userId = userId;
+        this.reviewCount = reviewCount;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
+    }
+
+    public void add(int rating) {
+        reviewCount++;
+        double delta = rating - mean;
+        mean += delta / reviewCount;
+        m2 += delta * (rating - mean);
+    }
+
+    public void remove(int rating) {
+        if (reviewCount <= 1) {
+            reviewCount = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        double newMean = (reviewCount * mean - rating) / (reviewCount - 1);
+        m2 -= (rating - mean) * (rating - newMean);
+        mean = newMean;
+        reviewCount--;
+        clampM2();
+    }
+
+    public void replace(int oldRating, int newRating) {
+        if (reviewCount == 0) {
+            add(newRating);
+            return;
+        }
+        double newMean = mean + (double) (newRating - oldRating) / reviewCount;
+        m2 += (newRating - oldRating) * (newRating - newMean + oldRating - mean);
+        mean = newMean;
+        clampM2();
+    }
+
+    public double variance() {
+        return reviewCount == 0 ? 0 : m2 / reviewCount;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Rating expressed in the user's own standard deviations from their mean.
+     * A user who gives every game the same score has no spread; all their ratings normalize to 0.
+     */
+    public Double zScore(Integer rating) {
+        if (rating == null || reviewCount == 0) {
+            return null;
+        }
+        double sd = standardDeviation();
+        if (sd < 1e-9) {
+            return 0.0;
+        }
+        return (rating - mean) / sd;
+    }
+
+    private void clampM2() {
+        // Removing values accumulates floating point error; M2 can never be negative
+        if (m2 < 0) {
+            m2 = 0;
+        }
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
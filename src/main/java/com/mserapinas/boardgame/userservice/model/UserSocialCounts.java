@@ -0,0 +1,89 @@
+package com.mserapinas.boardgame.userservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One user's friend, incoming-request and outgoing-request counts, kept in step with the
+ * friendships table by the friendship write paths so badge counts never scan it.
+ */
+@Entity
+@Table(name = "user_social_counts")
+public class UserSocialCounts {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "friend_count", nullable = false)
+    private long friendCount;
+
+    @Column(name = "incoming_request_count", nullable = false)
+    private long incomingRequestCount;
+
+    @Column(name = "outgoing_request_count", nullable = false)
+    private long outgoingRequestCount;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public UserSocialCounts() {}
+
+    public UserSocialCounts(Long userId, long friendCount, long incomingRequestCount, long outgoingRequestCount) {
+        this.userId = userId;
+        this.friendCount = friendCount;
+        this.incomingRequestCount = incomingRequestCount;
+        this.outgoingRequestCount = outgoingRequestCount;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now();
+    }
+
+    public void addFriend() {
+        friendCount++;
+    }
+
+    public void removeFriend() {
+        friendCount = Math.max(0, friendCount - 1);
+    }
+
+    public void addIncomingRequest() {
+        incomingRequestCount++;
+    }
+
+    public void removeIncomingRequest() {
+        incomingRequestCount = Math.max(0, incomingRequestCount - 1);
+    }
+
+    public void addOutgoingRequest() {
+        outgoingRequestCount++;
+    }
+
+    public void removeOutgoingRequest() {
+        outgoingRequestCount = Math.max(0, outgoingRequestCount - 1);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getFriendCount() {
+        return friendCount;
+    }
+
+    public long getIncomingRequestCount() {
+        return incomingRequestCount;
+    }
+
+    public long getOutgoingRequestCount() {
+        return outgoingRequestCount;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
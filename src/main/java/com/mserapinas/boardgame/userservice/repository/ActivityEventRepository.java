@@ -0,0 +1,156 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import com.mserapinas.boardgame.userservice.model.ActivityEvent;
+import com.mserapinas.boardgame.userservice.model.ActivityType;
+import com.mserapinas.boardgame.userservice.model.FeedDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Activity events and the per-user timelines (feed_entries) they are fanned out into.
+ * A feed page is a backward range scan of the reader's timeline by primary key, merged with the
+ * newest ON_READ events of their high-degree friends from idx_activity_events_on_read.
+ */
+@Repository
+public interface ActivityEventRepository extends JpaRepository<ActivityEvent, Long> {
+
+    /**
+     * Oldest undelivered events, locked until the caller's transaction ends. SKIP LOCKED lets
+     * several instances fan out side by side without handing the same event to two of them.
+     */
+    @Query(value = """
+        SELECT * FROM activity_events
+        WHERE delivery = 'PENDING'
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<ActivityEvent> lockPendingBatch(@Param("limit") int limit);
+
+    /**
+     * Share-locks the accepted friendships the events are about to be fanned out over. An unfriend
+     * that deletes one of them then either commits first, and its pair is not fanned out over, or
+     * waits for the fan-out to commit and removes the copies it made.
+     */
+    @Query(value = """
+        SELECT f.id FROM friendships f
+        WHERE f.status = 'ACCEPTED' AND f.id IN (
+            SELECT fu.id FROM activity_events e JOIN friendships fu ON fu.user_id = e.actor_id
+            WHERE e.id IN (:eventIds)
+            UNION ALL
+            SELECT ff.id FROM activity_events e JOIN friendships ff ON ff.friend_id = e.actor_id
+            WHERE e.id IN (:eventIds)
+        )
+        ORDER BY f.id
+        FOR SHARE OF f
+        """, nativeQuery = true)
+    List<Long> lockFanOutFriendships(@Param("eventIds") Collection<Long> eventIds);
+
+    /**
+     * Copy events into the timeline of every accepted friend of their actor, in one statement
+     *
+     * @return the number of timeline rows written
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO feed_entries (user_id, event_id)
+        SELECT recipient_id, event_id FROM (
+            SELECT f.friend_id AS recipient_id, e.id AS event_id
+            FROM activity_events e
+            JOIN friendships f ON f.user_id = e.actor_id AND f.status = 'ACCEPTED'
+            WHERE e.id IN (:eventIds)
+            UNION ALL
+            SELECT f.user_id, e.id
+            FROM activity_events e
+            JOIN friendships f ON f.friend_id = e.actor_id AND f.status = 'ACCEPTED'
+            WHERE e.id IN (:eventIds)
+        ) recipients
+        ON CONFLICT DO NOTHING
+        """, nativeQuery = true)
+    int fanOut(@Param("eventIds") Collection<Long> eventIds);
+
+    @Modifying
+    @Query("UPDATE ActivityEvent e SET e.delivery = :delivery WHERE e.id IN :ids")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("delivery") FeedDelivery delivery);
+
+    /**
+     * Newest events with id below {@code beforeId} from the user's timeline, merged with the
+     * ON_READ events of the user's friends who have more than {@code fanOutMaxFriends} friends.
+     * The ON_READ side joins the user's accepted friendships in the same statement, so a former
+     * friend's events drop out as soon as the friendship ends. Each side contributes at most
+     * {@code limit} before the merge is cut to {@code limit}.
+     */
+    @Query(value = """
+        SELECT e.* FROM activity_events e
+        JOIN (
+            (SELECT fe.event_id FROM feed_entries fe
+             WHERE fe.user_id = :userId AND fe.event_id < :beforeId
+             ORDER BY fe.event_id DESC
+             LIMIT :limit)
+            UNION ALL
+            (SELECT p.id FROM (
+                SELECT f.friend_id AS actor_id FROM friendships f
+                WHERE f.user_id = :userId AND f.status = 'ACCEPTED'
+                UNION ALL
+                SELECT f.user_id FROM friendships f
+                WHERE f.friend_id = :userId AND f.status = 'ACCEPTED'
+             ) friends
+             JOIN user_social_counts c ON c.user_id = friends.actor_id AND c.friend_count > :fanOutMaxFriends
+             JOIN activity_events p ON p.actor_id = friends.actor_id
+             WHERE p.delivery = 'ON_READ' AND p.id < :beforeId
+             ORDER BY p.id DESC
+             LIMIT :limit)
+        ) page ON page.event_id = e.id
+        ORDER BY e.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<ActivityEvent> findFeedPage(@Param("userId") Long userId,
+                                     @Param("beforeId") Long beforeId,
+                                     @Param("limit") int limit,
+                                     @Param("fanOutMaxFriends") int fanOutMaxFriends);
+
+    @Modifying
+    @Query(value = "DELETE FROM feed_entries WHERE user_id = :userId", nativeQuery = true)
+    int deleteTimeline(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM feed_entries
+        WHERE event_id IN (SELECT id FROM activity_events WHERE actor_id = :actorId)
+        """, nativeQuery = true)
+    int deleteTimelineEntriesOf(@Param("actorId") Long actorId);
+
+    /**
+     * Removes each user's events from the other's timeline
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM feed_entries fe
+        USING activity_events e
+        WHERE fe.event_id = e.id
+        AND ((fe.user_id = :userId AND e.actor_id = :otherUserId)
+            OR (fe.user_id = :otherUserId AND e.actor_id = :userId))
+        """, nativeQuery = true)
+    int deleteTimelineEntriesBetween(@Param("userId") Long userId, @Param("otherUserId") Long otherUserId);
+
+    @Modifying
+    @Query(value = """
+        DELETE FROM feed_entries
+        WHERE event_id IN (SELECT id FROM activity_events WHERE actor_id = :actorId AND type = :type)
+        """, nativeQuery = true)
+    int deleteTimelineEntriesOf(@Param("actorId") Long actorId, @Param("type") String type);
+
+    @Modifying
+    @Query("DELETE FROM ActivityEvent e WHERE e.actorId = :actorId")
+    int deleteByActorId(@Param("actorId") Long actorId);
+
+    @Modifying
+    @Query("DELETE FROM ActivityEvent e WHERE e.actorId = :actorId AND e.type = :type")
+    int deleteByActorIdAndType(@Param("actorId") Long actorId, @Param("type") ActivityType type);
+}
@@ -7,9 +7,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Pending friend requests: pair rows with status PENDING, served by the partial indexes
+ * idx_friendships_pending_user / _friend. The direction comes from requester_id.
+ */
 @Repository
 public interface FriendRequestRepository extends JpaRepository<Friendship, Long> {
 
@@ -17,12 +23,10 @@ public interface FriendRequestRepository extends JpaRepository<Friendship, Long>
      * Get pending outgoing requests (I sent, not accepted yet)
      */
     @Query("""
-        SELECT f FROM Friendship f JOIN FETCH f.friend
-        WHERE f.user.id = :userId
-        AND NOT EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = f.friend.id AND f2.friend.id = :userId
-        )
+        SELECT f FROM Friendship f JOIN FETCH f.user JOIN FETCH f.friend
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId = :userId
         ORDER BY f.createdAt DESC
         """)
     List<Friendship> getOutgoingRequests(@Param("userId") Long userId);
@@ -31,70 +35,95 @@ public interface FriendRequestRepository extends JpaRepository<Friendship, Long>
      * Get pending incoming requests (others sent to me, I haven't accepted)
      */
     @Query("""
-        SELECT f FROM Friendship f JOIN FETCH f.user
-        WHERE f.friend.id = :userId
-        AND NOT EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = :userId AND f2.friend.id = f.user.id
-        )
+        SELECT f FROM Friendship f JOIN FETCH f.user JOIN FETCH f.friend
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId <> :userId
         ORDER BY f.createdAt DESC
         """)
     List<Friendship> getIncomingRequests(@Param("userId") Long userId);
 
     /**
-     * Check if pending request exists (one direction, not accepted)
+     * Pending requests to userId from any of requesterIds, in one probe of the pair index per id
      */
     @Query("""
-        SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END
-        FROM Friendship f
-        WHERE f.user.id = :userId AND f.friend.id = :friendId
-        AND NOT EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = :friendId AND f2.friend.id = :userId
-        )
+        SELECT f FROM Friendship f
+        WHERE ((f.user.id = :userId AND f.friend.id IN :requesterIds)
+            OR (f.friend.id = :userId AND f.user.id IN :requesterIds))
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId <> :userId
         """)
-    boolean hasPendingRequest(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    List<Friendship> findIncomingRequestsFrom(
+        @Param("userId") Long userId,
+        @Param("requesterIds") Collection<Long> requesterIds
+    );
 
     /**
-     * Find specific pending request
+     * Accept the given pending request rows in one statement
      */
+    @Modifying
     @Query("""
-        SELECT f FROM Friendship f
-        WHERE f.user.id = :userId AND f.friend.id = :friendId
-        AND NOT EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = :friendId AND f2.friend.id = :userId
-        )
+        UPDATE Friendship f
+        SET f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.ACCEPTED,
+            f.acceptedAt = :acceptedAt
+        WHERE f.id IN :ids
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
         """)
-    Optional<Friendship> findPendingRequest(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    int acceptPendingByIds(@Param("ids") Collection<Long> ids, @Param("acceptedAt") OffsetDateTime acceptedAt);
 
     /**
-     * Check if any relationship exists (one direction, pending or accepted)
+     * Delete the given pending request rows in one statement
      */
+    @Modifying
     @Query("""
-        SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END
+        DELETE FROM Friendship f
+        WHERE f.id IN :ids
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        """)
+    int deletePendingByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of users with a pending request to or from this user
+     */
+    @Query("""
+        SELECT CASE WHEN f.user.id = :userId THEN f.friend.id ELSE f.user.id END
         FROM Friendship f
-        WHERE f.user.id = :userId AND f.friend.id = :friendId
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
         """)
-    boolean existsByUserIdAndFriendId(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    List<Long> findPendingCounterpartIds(@Param("userId") Long userId);
 
     /**
-     * Delete a single friend request (one direction only)
+     * Check if requesterId has a pending request to addresseeId (directional)
      */
-    @Modifying
-    @Query("DELETE FROM Friendship f WHERE f.user.id = :userId AND f.friend.id = :friendId")
-    void deleteByUserIdAndFriendId(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    default boolean hasPendingRequest(Long requesterId, Long addresseeId) {
+        return findPendingRequest(requesterId, addresseeId).isPresent();
+    }
+
+    /**
+     * Find the pending request sent by requesterId to addresseeId (directional)
+     */
+    default Optional<Friendship> findPendingRequest(Long requesterId, Long addresseeId) {
+        return findPendingPair(Math.min(requesterId, addresseeId), Math.max(requesterId, addresseeId), requesterId);
+    }
+
+    /**
+     * Delete the pending request sent by requesterId to addresseeId (directional)
+     *
+     * @return the number of rows deleted, 0 if there was no such request
+     */
+    default int deletePendingRequest(Long requesterId, Long addresseeId) {
+        return deletePendingPair(Math.min(requesterId, addresseeId), Math.max(requesterId, addresseeId), requesterId);
+    }
 
     /**
      * Count pending outgoing requests
      */
     @Query("""
         SELECT COUNT(f) FROM Friendship f
-        WHERE f.user.id = :userId
-        AND NOT EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = f.friend.id AND f2.friend.id = :userId
-        )
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId = :userId
         """)
     Long countOutgoingRequests(@Param("userId") Long userId);
 
@@ -103,11 +132,34 @@ public interface FriendRequestRepository extends JpaRepository<Friendship, Long>
      */
     @Query("""
         SELECT COUNT(f) FROM Friendship f
-        WHERE f.friend.id = :userId
-        AND NOT EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = :userId AND f2.friend.id = f.user.id
-        )
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId <> :userId
         """)
     Long countIncomingRequests(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    @Query("""
+        SELECT f FROM Friendship f
+        WHERE f.user.id = :lowId AND f.friend.id = :highId
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId = :requesterId
+        """)
+    Optional<Friendship> findPendingPair(
+        @Param("lowId") Long lowId,
+        @Param("highId") Long highId,
+        @Param("requesterId") Long requesterId
+    );
+
+    @Modifying
+    @Query("""
+        DELETE FROM Friendship f
+        WHERE f.user.id = :lowId AND f.friend.id = :highId
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.PENDING
+        AND f.requesterId = :requesterId
+        """)
+    int deletePendingPair(
+        @Param("lowId") Long lowId,
+        @Param("highId") Long highId,
+        @Param("requesterId") Long requesterId
+    );
+}
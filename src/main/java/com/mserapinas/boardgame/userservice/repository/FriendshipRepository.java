@@ -1,84 +1,174 @@
 package com.mserapinas.boardgame.userservice.repository;
 
 import com.mserapinas.boardgame.userservice.model.Friendship;
-import com.mserapinas.boardgame.userservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Accepted friendships. A pair is stored once with user_id < friend_id, so "my friends" is the
+ * union of two partial-index range scans (idx_friendships_accepted_user_page / _friend_page) and
+ * a pair lookup is a single probe of uq_friendships_user_friend.
+ */
 @Repository
 public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
 
     /**
-     * Get accepted friends (bidirectional check - both rows exist)
-     * Uses JOIN FETCH to eagerly load friend User objects in a single query
+     * One page of accepted friendship ids, newest first, strictly after the keyset
+     * ({@code afterAcceptedAt}, {@code afterId}). Each side of the pair is read from its covering
+     * index (idx_friendships_accepted_user_page / _friend_page) and stops after {@code limit}
+     * matches, so the cost follows the page size rather than the friend count or page depth.
+     * {@code namePattern} is a lower-case LIKE pattern on the friend's name; pass "%" for all.
+     */
+    @Query(value = """
+        SELECT CAST(p.id AS BIGINT) FROM (
+            (SELECT f.id, f.accepted_at FROM friendships f JOIN users u ON u.id = f.friend_id
+             WHERE f.user_id = :userId AND f.status = 'ACCEPTED'
+             AND (f.accepted_at, f.id) < (:afterAcceptedAt, :afterId)
+             AND lower(u.name) LIKE :namePattern
+             ORDER BY f.accepted_at DESC, f.id DESC
+             LIMIT :limit)
+            UNION ALL
+            (SELECT f.id, f.accepted_at FROM friendships f JOIN users u ON u.id = f.user_id
+             WHERE f.friend_id = :userId AND f.status = 'ACCEPTED'
+             AND (f.accepted_at, f.id) < (:afterAcceptedAt, :afterId)
+             AND lower(u.name) LIKE :namePattern
+             ORDER BY f.accepted_at DESC, f.id DESC
+             LIMIT :limit)
+        ) p
+        ORDER BY p.accepted_at DESC, p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findFriendPageIds(@Param("userId") Long userId,
+                                 @Param("afterAcceptedAt") OffsetDateTime afterAcceptedAt,
+                                 @Param("afterId") Long afterId,
+                                 @Param("namePattern") String namePattern,
+                                 @Param("limit") int limit);
+
+    /**
+     * Rows, in any state, pairing {@code userId} with one of {@code otherUserIds}
      */
     @Query("""
-        SELECT f FROM Friendship f JOIN FETCH f.friend
-        WHERE f.user.id = :userId
-        AND EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = f.friend.id AND f2.friend.id = :userId
-        )
-        ORDER BY f.createdAt DESC
+        SELECT f FROM Friendship f
+        WHERE (f.user.id = :userId AND f.friend.id IN :otherUserIds)
+           OR (f.friend.id = :userId AND f.user.id IN :otherUserIds)
         """)
-    List<Friendship> getFriends(@Param("userId") Long userId);
+    List<Friendship> findAllBetween(@Param("userId") Long userId,
+                                    @Param("otherUserIds") Collection<Long> otherUserIds);
 
     /**
-     * Get friends of friends (only accepted friendships)
-     * Returns users who are friends of my friends but NOT my direct friends
+     * Friendships by id with both sides fetched, in no particular order
      */
-    @Query("""
-        SELECT DISTINCT f2.friend FROM Friendship f1
-        JOIN Friendship f2 ON f1.friend.id = f2.user.id
-        WHERE f1.user.id = :userId
-        AND f2.friend.id != :userId
-        AND EXISTS (SELECT 1 FROM Friendship f1b WHERE f1b.user.id = f1.friend.id AND f1b.friend.id = :userId)
-        AND EXISTS (SELECT 1 FROM Friendship f2b WHERE f2b.user.id = f2.friend.id AND f2b.friend.id = f2.user.id)
-        AND f2.friend.id NOT IN (
-            SELECT f3.friend.id FROM Friendship f3
-            WHERE f3.user.id = :userId
-            AND EXISTS (SELECT 1 FROM Friendship f3b WHERE f3b.user.id = f3.friend.id AND f3b.friend.id = :userId)
+    @Query("SELECT f FROM Friendship f JOIN FETCH f.user JOIN FETCH f.friend WHERE f.id IN :ids")
+    List<Friendship> findAllWithUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Friends of friends ranked by mutual-friend count (ties by lower id), top {@code limit}.
+     * Each row is [userId, mutualFriends]. Candidates that already share a pair row with the
+     * user, accepted or pending in either direction, are left out.
+     */
+    @Query(value = """
+        WITH friends AS (
+            SELECT friend_id AS id FROM friendships WHERE user_id = :userId AND status = 'ACCEPTED'
+            UNION ALL
+            SELECT user_id FROM friendships WHERE friend_id = :userId AND status = 'ACCEPTED'
+        ),
+        two_hop AS (
+            SELECT f2.friend_id AS id FROM friends f JOIN friendships f2 ON f2.user_id = f.id AND f2.status = 'ACCEPTED'
+            UNION ALL
+            SELECT f2.user_id FROM friends f JOIN friendships f2 ON f2.friend_id = f.id AND f2.status = 'ACCEPTED'
         )
-        ORDER BY f2.friend.name
-        """)
-    List<User> getFriendsOfFriends(@Param("userId") Long userId);
+        SELECT t.id, COUNT(*) AS mutual_friends
+        FROM two_hop t
+        WHERE t.id <> :userId
+        AND NOT EXISTS (
+            SELECT 1 FROM friendships p
+            WHERE p.user_id = LEAST(t.id, :userId) AND p.friend_id = GREATEST(t.id, :userId)
+        )
+        GROUP BY t.id
+        ORDER BY mutual_friends DESC, t.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findFriendSuggestions(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Check if two users are friends (order of the arguments does not matter)
+     */
+    default boolean areFriends(Long userId, Long friendId) {
+        return existsAcceptedPair(Math.min(userId, friendId), Math.max(userId, friendId));
+    }
 
     /**
-     * Check if bidirectional friendship exists (both directions)
+     * The pair's row in any state, if one exists (order of the arguments does not matter)
+     */
+    default Optional<Friendship> findByPair(Long userId, Long otherUserId) {
+        return findByLowIdAndHighId(Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+    }
+
+    /**
+     * Ids of accepted friends, unordered
      */
     @Query("""
-        SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END
+        SELECT CASE WHEN f.user.id = :userId THEN f.friend.id ELSE f.user.id END
         FROM Friendship f
-        WHERE f.user.id = :userId AND f.friend.id = :friendId
-        AND EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = :friendId AND f2.friend.id = :userId
-        )
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.ACCEPTED
         """)
-    boolean areFriends(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    List<Long> findFriendIds(@Param("userId") Long userId);
 
     /**
-     * Delete friendship in both directions (encapsulates bidirectional implementation)
+     * Up to {@code limit} accepted pairs touching any of the users, as [userId, friendId] rows in canonical order
      */
-    @Modifying
-    @Query("DELETE FROM Friendship f WHERE (f.user.id = :userId AND f.friend.id = :friendId) OR (f.user.id = :friendId AND f.friend.id = :userId)")
-    void deleteFriendship(@Param("userId") Long userId, @Param("friendId") Long friendId);
+    @Query(value = """
+        SELECT f.user_id, f.friend_id FROM friendships f
+        WHERE (f.user_id IN (:userIds) OR f.friend_id IN (:userIds))
+        AND f.status = 'ACCEPTED'
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findAcceptedPairsOf(@Param("userIds") Collection<Long> userIds, @Param("limit") int limit);
+
+    /**
+     * Delete an accepted friendship (order of the arguments does not matter)
+     *
+     * @return the number of rows deleted, 0 if the users were not friends
+     */
+    default int deleteFriendship(Long userId, Long friendId) {
+        return deleteAcceptedPair(Math.min(userId, friendId), Math.max(userId, friendId));
+    }
 
     /**
      * Count accepted friends
      */
     @Query("""
         SELECT COUNT(f) FROM Friendship f
-        WHERE f.user.id = :userId
-        AND EXISTS (
-            SELECT 1 FROM Friendship f2
-            WHERE f2.user.id = f.friend.id AND f2.friend.id = :userId
-        )
+        WHERE (f.user.id = :userId OR f.friend.id = :userId)
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.ACCEPTED
         """)
     Long countFriends(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    @Query("""
+        SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END
+        FROM Friendship f
+        WHERE f.user.id = :lowId AND f.friend.id = :highId
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.ACCEPTED
+        """)
+    boolean existsAcceptedPair(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    @Query("SELECT f FROM Friendship f WHERE f.user.id = :lowId AND f.friend.id = :highId")
+    Optional<Friendship> findByLowIdAndHighId(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    @Modifying
+    @Query("""
+        DELETE FROM Friendship f
+        WHERE f.user.id = :lowId AND f.friend.id = :highId
+        AND f.status = com.mserapinas.boardgame.userservice.model.FriendshipStatus.ACCEPTED
+        """)
+    int deleteAcceptedPair(@Param("lowId") Long lowId, @Param("highId") Long highId);
+}
@@ -0,0 +1,17 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Play history queries whose SQL depends on which filters are set
+ */
+public interface GamePlayHistoryRepository {
+
+    /**
+     * One page of ids of plays {@code userId} logged that match {@code filter}, newest first,
+     * strictly after the keyset ({@code afterPlayedAt}, {@code afterId})
+     */
+    List<Long> findHistoryPageIds(Long userId, PlayHistoryFilter filter,
+                                  LocalDate afterPlayedAt, Long afterId, int limit);
+}
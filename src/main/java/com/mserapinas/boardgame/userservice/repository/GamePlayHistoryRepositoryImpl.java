@@ -0,0 +1,79 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the history query from only the filters that are set, so each combination gets a plan of
+ * its own instead of one generic plan full of "param IS NULL OR ..." branches:
+ * <ul>
+ *   <li>a game filter walks idx_game_plays_user_game_last_play (user_id, game_id, played_at, id)</li>
+ *   <li>otherwise the walk is on idx_game_plays_user_played_at_id (user_id, played_at, id)</li>
+ *   <li>player and winner filters are EXISTS probes, one per required player, on the
+ *       game_play_players primary key and idx_gpw_play_index, or driven from
+ *       idx_game_play_players_player / idx_gpw_winner when the planner finds them more selective</li>
+ * </ul>
+ * Both walks read rows already in (played_at, id) order, so a page stops after {@code limit} matches.
+ */
+class GamePlayHistoryRepositoryImpl implements GamePlayHistoryRepository {
+
+    private final EntityManager entityManager;
+
+    GamePlayHistoryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Long> findHistoryPageIds(Long userId, PlayHistoryFilter filter,
+                                         LocalDate afterPlayedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT CAST(gp.id AS BIGINT) FROM game_plays gp WHERE gp.user_id = :userId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+
+        if (filter.gameId() != null) {
+            sql.append(" AND gp.game_id = :gameId");
+            params.put("gameId", filter.gameId());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND gp.played_at >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            sql.append(" AND gp.played_at <= :to");
+            params.put("to", filter.to());
+        }
+        if (filter.playerIds() != null) {
+            // One probe per required player, each a single primary-key lookup
+            int player = 0;
+            for (Long playerId : filter.playerIds()) {
+                String param = "playerId" + player++;
+                sql.append(" AND EXISTS (SELECT 1 FROM game_play_players pp")
+                    .append(" WHERE pp.game_play_id = gp.id AND pp.player_id = :").append(param).append(")");
+                params.put(param, playerId);
+            }
+        }
+        if (filter.winnerId() != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM game_play_winners w")
+                .append(" WHERE w.game_play_id = gp.id AND w.winner_player_id = :winnerId)");
+            params.put("winnerId", filter.winnerId());
+        }
+
+        sql.append(" AND (gp.played_at, gp.id) < (:afterPlayedAt, :afterId)")
+            .append(" ORDER BY gp.played_at DESC, gp.id DESC")
+            .append(" LIMIT :limit");
+        params.put("afterPlayedAt", afterPlayedAt);
+        params.put("afterId", afterId);
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Long> ids = query.getResultList();
+        return ids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import com.mserapinas.boardgame.userservice.model.GamePlayMonthlyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GamePlayMonthlyCountRepository extends JpaRepository<GamePlayMonthlyCount, GamePlayMonthlyCount.Key> {
+
+    boolean existsByUserId(Long userId);
+
+    /**
+     * Seeds the user's rows from their committed plays; keys a concurrent seed already wrote are left alone
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO game_play_monthly_counts (user_id, game_id, month, times_played)
+        SELECT user_id, game_id, CAST(date_trunc('month', played_at) AS DATE), SUM(times_played)
+        FROM game_plays
+        WHERE user_id = :userId
+        GROUP BY user_id, game_id, CAST(date_trunc('month', played_at) AS DATE)
+        ON CONFLICT (user_id, game_id, month) DO NOTHING
+        """, nativeQuery = true)
+    void seedFromPlays(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO game_play_monthly_counts (user_id, game_id, month, times_played)
+        VALUES (:userId, :gameId, :month, :delta)
+        ON CONFLICT (user_id, game_id, month)
+        DO UPDATE SET times_played = game_play_monthly_counts.times_played + EXCLUDED.times_played
+        """, nativeQuery = true)
+    void addTimesPlayed(@Param("userId") Long userId,
+                        @Param("gameId") Integer gameId,
+                        @Param("month") LocalDate month,
+                        @Param("delta") int delta);
+
+    @Modifying
+    @Query("DELETE FROM GamePlayMonthlyCount c " +
+           "WHERE c.userId = :userId AND c.gameId = :gameId AND c.month = :month AND c.timesPlayed <= 0")
+    void deleteIfEmpty(@Param("userId") Long userId,
+                       @Param("gameId") Integer gameId,
+                       @Param("month") LocalDate month);
+
+    @Query("SELECT c FROM GamePlayMonthlyCount c " +
+           "WHERE c.userId = :userId AND c.month >= :fromMonth AND c.month < :toMonth")
+    List<GamePlayMonthlyCount> findInRange(@Param("userId") Long userId,
+                                           @Param("fromMonth") LocalDate fromMonth,
+                                           @Param("toMonth") LocalDate toMonth);
+
+    @Query("SELECT c FROM GamePlayMonthlyCount c " +
+           "WHERE c.userId = :userId AND c.gameId IN :gameIds AND c.month >= :fromMonth AND c.month < :toMonth")
+    List<GamePlayMonthlyCount> findInRangeForGames(@Param("userId") Long userId,
+                                                   @Param("gameIds") Collection<Integer> gameIds,
+                                                   @Param("fromMonth") LocalDate fromMonth,
+                                                   @Param("toMonth") LocalDate toMonth);
+}
@@ -1,18 +1,19 @@
 package com.mserapinas.boardgame.userservice.repository;
 
 import com.mserapinas.boardgame.userservice.model.GamePlay;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Repository
-public interface GamePlayRepository extends JpaRepository<GamePlay, Long> {
+public interface GamePlayRepository extends JpaRepository<GamePlay, Long>, GamePlayHistoryRepository {
 
     @Query("SELECT DISTINCT gp FROM GamePlay gp " +
            "LEFT JOIN FETCH gp.players " +
@@ -31,19 +32,177 @@ public interface GamePlayRepository extends JpaRepository<GamePlay, Long> {
            "ORDER BY gp.playedAt DESC, gp.id DESC")
     List<GamePlay> findByIds(@Param("ids") List<Long> ids);
 
+    /**
+     * Loads the winners of already loaded plays into the same persistence context; fetching them
+     * in {@link #findByIds} as well would multiply the players and winners rows
+     */
     @Query("SELECT DISTINCT gp FROM GamePlay gp " +
-           "LEFT JOIN FETCH gp.players " +
+           "LEFT JOIN FETCH gp.winners w " +
+           "LEFT JOIN FETCH w.winner " +
+           "WHERE gp.id IN :ids")
+    List<GamePlay> fetchWinnersByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Ids of the user's latest play of each game, for their {@code limit} most recently played
+     * games, newest first. DISTINCT ON picks each game's first row in
+     * idx_game_plays_user_game_last_play order, so no play history is loaded or paged in memory.
+     */
+    @Query(value = """
+        SELECT CAST(p.id AS BIGINT) FROM (
+            SELECT DISTINCT ON (gp.game_id) gp.id, gp.played_at
+            FROM game_plays gp
+            WHERE gp.user_id = :userId
+            ORDER BY gp.game_id, gp.played_at DESC, gp.id DESC
+        ) p
+        ORDER BY p.played_at DESC, p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findLastPlayIdPerGame(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * One page of ids of plays other users logged with {@code userId} as a player, newest first,
+     * strictly after the keyset ({@code afterPlayedAt}, {@code afterId}). The player's rows are
+     * found through idx_game_play_players_player.
+     */
+    @Query(value = """
+        SELECT CAST(gp.id AS BIGINT) FROM game_play_players pp
+        JOIN game_plays gp ON gp.id = pp.game_play_id
+        WHERE pp.player_id = :userId AND gp.user_id <> :userId
+        AND (gp.played_at, gp.id) < (:afterPlayedAt, :afterId)
+        ORDER BY gp.played_at DESC, gp.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findTaggedPlayPageIds(@Param("userId") Long userId,
+                                     @Param("afterPlayedAt") LocalDate afterPlayedAt,
+                                     @Param("afterId") Long afterId,
+                                     @Param("limit") int limit);
+
+    /**
+     * Like {@link #findTaggedPlayPageIds}, merged with the plays {@code userId} logged. The tagged
+     * side skips the user's own plays, so a play they logged and also tagged themselves in appears
+     * once. Each side stops after {@code limit} rows before the merge.
+     */
+    @Query(value = """
+        SELECT CAST(p.id AS BIGINT) FROM (
+            (SELECT gp.id, gp.played_at FROM game_plays gp
+             WHERE gp.user_id = :userId
+             AND (gp.played_at, gp.id) < (:afterPlayedAt, :afterId)
+             ORDER BY gp.played_at DESC, gp.id DESC
+             LIMIT :limit)
+            UNION ALL
+            (SELECT gp.id, gp.played_at FROM game_play_players pp
+             JOIN game_plays gp ON gp.id = pp.game_play_id
+             WHERE pp.player_id = :userId AND gp.user_id <> :userId
+             AND (gp.played_at, gp.id) < (:afterPlayedAt, :afterId)
+             ORDER BY gp.played_at DESC, gp.id DESC
+             LIMIT :limit)
+        ) p
+        ORDER BY p.played_at DESC, p.id DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Long> findTaggedOrOwnPlayPageIds(@Param("userId") Long userId,
+                                          @Param("afterPlayedAt") LocalDate afterPlayedAt,
+                                          @Param("afterId") Long afterId,
+                                          @Param("limit") int limit);
+
+    /**
+     * Times played per day and game in [from, to); a plain range on played_at, so it is served by
+     * idx_game_plays_user_played_at_id
+     */
+    @Query("SELECT gp.playedAt, gp.gameId, SUM(gp.timesPlayed) FROM GamePlay gp " +
            "WHERE gp.logger.id = :userId " +
-           "ORDER BY gp.playedAt DESC, gp.id DESC")
-    List<GamePlay> findRecentByUser(@Param("userId") Long userId, Pageable pageable);
+           "AND gp.playedAt >= :from AND gp.playedAt < :to " +
+           "GROUP BY gp.playedAt, gp.gameId")
+    List<Object[]> sumTimesPlayedByDay(@Param("userId") Long userId,
+                                       @Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
 
-    @Query("SELECT gp.gameId, SUM(gp.timesPlayed) FROM GamePlay gp " +
+    @Query("SELECT gp.playedAt, gp.gameId, SUM(gp.timesPlayed) FROM GamePlay gp " +
            "WHERE gp.logger.id = :userId " +
            "AND gp.gameId IN :gameIds " +
-           "AND YEAR(gp.playedAt) = :year " +
-           "GROUP BY gp.gameId")
-    List<Object[]> sumTimesPlayedByUserAndGamesAndYear(
-            @Param("userId") Long userId,
-            @Param("gameIds") List<Integer> gameIds,
-            @Param("year") int year);
+           "AND gp.playedAt >= :from AND gp.playedAt < :to " +
+           "GROUP BY gp.playedAt, gp.gameId")
+    List<Object[]> sumTimesPlayedByDayForGames(@Param("userId") Long userId,
+                                               @Param("gameIds") Collection<Integer> gameIds,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
+    /**
+     * Per game: times played (from game_play_monthly_counts), sessions with a recorded winner,
+     * sessions the user won, and the game's rank by times played
+     */
+    @Query(value = """
+        WITH totals AS (
+            SELECT game_id, SUM(times_played) AS times_played
+            FROM game_play_monthly_counts
+            WHERE user_id = :userId
+            GROUP BY game_id
+        ), results AS (
+            SELECT s.game_id, COUNT(*) AS decided, COUNT(*) FILTER (WHERE s.won) AS won
+            FROM (
+                SELECT gp.game_id, w.game_play_id, w.game_index,
+                       COALESCE(BOOL_OR(w.winner_player_id = :userId), FALSE) AS won
+                FROM game_plays gp
+                JOIN game_play_winners w ON w.game_play_id = gp.id
+                WHERE gp.user_id = :userId
+                GROUP BY gp.game_id, w.game_play_id, w.game_index
+            ) s
+            GROUP BY s.game_id
+        )
+        SELECT t.game_id, t.times_played, COALESCE(r.decided, 0), COALESCE(r.won, 0),
+               ROW_NUMBER() OVER (ORDER BY t.times_played DESC, t.game_id) AS play_rank
+        FROM totals t
+        LEFT JOIN results r ON r.game_id = t.game_id
+        ORDER BY play_rank
+        """, nativeQuery = true)
+    List<Object[]> findGameStatsByUser(@Param("userId") Long userId);
+
+    /**
+     * Per co-player on the user's plays: sessions together, sessions only the user won and
+     * sessions only the co-player won
+     */
+    @Query(value = """
+        SELECT pp.player_id,
+               SUM(gp.times_played),
+               COALESCE(SUM(r.wins), 0),
+               COALESCE(SUM(r.losses), 0)
+        FROM game_plays gp
+        JOIN game_play_players pp ON pp.game_play_id = gp.id AND pp.player_id <> :userId
+        LEFT JOIN LATERAL (
+            SELECT COUNT(*) FILTER (WHERE s.user_won AND NOT s.player_won) AS wins,
+                   COUNT(*) FILTER (WHERE s.player_won AND NOT s.user_won) AS losses
+            FROM (
+                SELECT COALESCE(BOOL_OR(w.winner_player_id = :userId), FALSE) AS user_won,
+                       COALESCE(BOOL_OR(w.winner_player_id = pp.player_id), FALSE) AS player_won
+                FROM game_play_winners w
+                WHERE w.game_play_id = gp.id
+                GROUP BY w.game_index
+            ) s
+        ) r ON TRUE
+        WHERE gp.user_id = :userId
+        GROUP BY pp.player_id
+        ORDER BY SUM(gp.times_played) DESC, pp.player_id
+        """, nativeQuery = true)
+    List<Object[]> findOpponentRecordsByUser(@Param("userId") Long userId);
+
+    /**
+     * The user's most played game of each year (lowest game id on a tie), from game_play_monthly_counts
+     */
+    @Query(value = """
+        SELECT y.year, y.game_id, y.times_played
+        FROM (
+            SELECT CAST(EXTRACT(YEAR FROM month) AS INTEGER) AS year, game_id,
+                   SUM(times_played) AS times_played,
+                   ROW_NUMBER() OVER (
+                       PARTITION BY EXTRACT(YEAR FROM month)
+                       ORDER BY SUM(times_played) DESC, game_id
+                   ) AS year_rank
+            FROM game_play_monthly_counts
+            WHERE user_id = :userId
+            GROUP BY EXTRACT(YEAR FROM month), game_id
+        ) y
+        WHERE y.year_rank = 1
+        ORDER BY y.year
+        """, nativeQuery = true)
+    List<Object[]> findMostPlayedGamePerYear(@Param("userId") Long userId);
 }
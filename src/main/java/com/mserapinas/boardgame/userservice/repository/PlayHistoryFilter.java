@@ -0,0 +1,23 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Optional restrictions on a user's play history; null (or an empty {@code playerIds}) means
+ * no restriction.
+ *
+ * @param playerIds users who must all be among a play's players
+ * @param from first play date included
+ * @param to last play date included
+ */
+public record PlayHistoryFilter(
+    Integer gameId,
+    Collection<Long> playerIds,
+    Long winnerId,
+    LocalDate from,
+    LocalDate to
+) {
+    public static final PlayHistoryFilter NONE = new PlayHistoryFilter(null, List.of(), null, null, null);
+}
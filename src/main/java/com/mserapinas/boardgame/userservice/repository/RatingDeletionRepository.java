@@ -0,0 +1,34 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import com.mserapinas.boardgame.userservice.model.RatingDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+
+@Repository
+public interface RatingDeletionRepository extends JpaRepository<RatingDeletion, Long> {
+
+    /**
+     * Logs every key the user still has a review or collection entry for. Must run before the
+     * user's reviews are deleted; their collection goes with the user row.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO rating_deletions (user_id, game_id, deleted_at)
+        SELECT user_id, game_id, CAST(:deletedAt AS TIMESTAMP WITH TIME ZONE)
+        FROM (
+            SELECT user_id, game_id FROM reviews WHERE user_id = :userId
+            UNION
+            SELECT user_id, game_id FROM user_board_games WHERE user_id = :userId
+        ) k
+        """, nativeQuery = true)
+    void recordUserDeleted(@Param("userId") Long userId, @Param("deletedAt") OffsetDateTime deletedAt);
+
+    @Modifying
+    @Query("DELETE FROM RatingDeletion d WHERE d.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") OffsetDateTime cutoff);
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +29,22 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r FROM Review r WHERE r.user.id = :userId AND r.gameId = :gameId")
     Optional<Review> findByUserIdAndGameId(@Param("userId") Long userId, @Param("gameId") Integer gameId);
 
+    @Query("SELECT r.gameId FROM Review r WHERE r.user.id = :userId")
+    List<Integer> findGameIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * (gameId, rating) pairs sorted by game id, for merging rating vectors; served by uq_reviews_user_game
+     */
+    @Query("SELECT r.gameId, r.rating FROM Review r WHERE r.user.id = :userId ORDER BY r.gameId")
+    List<Object[]> findRatingsByUserIdOrderByGameId(@Param("userId") Long userId);
+
+    /**
+     * (gameId, average rating, review count) for each of the given games that has reviews;
+     * one grouped query served by idx_reviews_game_id
+     */
+    @Query("SELECT r.gameId, AVG(r.rating), COUNT(r) FROM Review r WHERE r.gameId IN :gameIds GROUP BY r.gameId")
+    List<Object[]> findRatingAggregatesByGameIds(@Param("gameIds") Collection<Integer> gameIds);
+
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM Review r WHERE r.user.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
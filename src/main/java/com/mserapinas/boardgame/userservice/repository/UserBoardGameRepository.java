@@ -1,5 +1,6 @@
 package com.mserapinas.boardgame.userservice.repository;
 
+import com.mserapinas.boardgame.userservice.model.CollectionStatus;
 import com.mserapinas.boardgame.userservice.model.UserBoardGame;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -21,4 +22,10 @@ public interface UserBoardGameRepository extends JpaRepository<UserBoardGame, Lo
     
     @Query("SELECT ubg FROM UserBoardGame ubg LEFT JOIN FETCH ubg.labels WHERE ubg.userId = :userId AND ubg.gameId = :gameId")
     Optional<UserBoardGame> findByUserIdAndGameIdWithLabels(@Param("userId") Long userId, @Param("gameId") Integer gameId);
-}
\ No newline at end of file
+
+    @Query("SELECT ubg.gameId FROM UserBoardGame ubg WHERE ubg.userId = :userId")
+    List<Integer> findGameIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT ubg.gameId FROM UserBoardGame ubg WHERE ubg.userId = :userId AND ubg.status = :status")
+    List<Integer> findGameIdsByUserIdAndStatus(@Param("userId") Long userId, @Param("status") CollectionStatus status);
+}
@@ -0,0 +1,37 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import com.mserapinas.boardgame.userservice.model.UserRatingStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserRatingStatsRepository extends JpaRepository<UserRatingStats, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserRatingStats s WHERE s.userId = :userId")
+    Optional<UserRatingStats> findByIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Seeds a missing row from the user's committed reviews; a concurrent seed wins and this one is a no-op
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_rating_stats (user_id, review_count, mean, m2, updated_at)
+        SELECT :userId, COUNT(*), COALESCE(AVG(rating), 0), COALESCE(VAR_POP(rating) * COUNT(*), 0), now()
+        FROM reviews
+        WHERE user_id = :userId
+        ON CONFLICT (user_id) DO NOTHING
+        """, nativeQuery = true)
+    void seedFromReviews(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserRatingStats s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
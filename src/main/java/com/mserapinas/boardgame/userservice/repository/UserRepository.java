@@ -4,10 +4,18 @@ import com.mserapinas.boardgame.userservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByEmail(String email);
+
+    /**
+     * Users whose normalized email hashes to one of {@code emailHashes}; an index probe per hash
+     * on idx_users_email_sha256
+     */
+    List<User> findByEmailSha256In(Collection<String> emailHashes);
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import com.mserapinas.boardgame.userservice.model.UserSocialCounts;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserSocialCountsRepository extends JpaRepository<UserSocialCounts, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM UserSocialCounts c WHERE c.userId = :userId")
+    Optional<UserSocialCounts> findByIdForUpdate(@Param("userId") Long userId);
+
+    /**
+     * Locks in ascending user id order, so concurrent multi-user writers cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM UserSocialCounts c WHERE c.userId IN :userIds ORDER BY c.userId")
+    List<UserSocialCounts> findAllByIdForUpdate(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * All three counts straight from friendships in one pass over the user's pair rows:
+     * always exactly one row of [friends, incoming requests, outgoing requests]
+     */
+    @Query(value = """
+        SELECT
+            COUNT(*) FILTER (WHERE status = 'ACCEPTED'),
+            COUNT(*) FILTER (WHERE status = 'PENDING' AND requester_id <> :userId),
+            COUNT(*) FILTER (WHERE status = 'PENDING' AND requester_id = :userId)
+        FROM friendships
+        WHERE user_id = :userId OR friend_id = :userId
+        """, nativeQuery = true)
+    List<Object[]> countFromFriendships(@Param("userId") Long userId);
+
+    /**
+     * Seeds missing rows from the users' committed friendships, in ascending id order; a concurrent
+     * seed wins and this one is a no-op for that user, as is seeding a user that does not exist
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_social_counts (user_id, friend_count, incoming_request_count, outgoing_request_count, updated_at)
+        SELECT u.id,
+            COUNT(f.id) FILTER (WHERE f.status = 'ACCEPTED'),
+            COUNT(f.id) FILTER (WHERE f.status = 'PENDING' AND f.requester_id <> u.id),
+            COUNT(f.id) FILTER (WHERE f.status = 'PENDING' AND f.requester_id = u.id),
+            now()
+        FROM users u
+        LEFT JOIN friendships f ON f.user_id = u.id OR f.friend_id = u.id
+        WHERE u.id IN (:userIds)
+        GROUP BY u.id
+        ORDER BY u.id
+        ON CONFLICT (user_id) DO NOTHING
+        """, nativeQuery = true)
+    void seedFromFriendships(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Next page of counted user ids, for walking the table in keyset order
+     */
+    @Query(value = "SELECT user_id FROM user_social_counts WHERE user_id > :afterUserId ORDER BY user_id LIMIT :limit",
+        nativeQuery = true)
+    List<Long> findUserIdsAfter(@Param("afterUserId") Long afterUserId, @Param("limit") int limit);
+
+    /**
+     * Rewrites the users' counters from their friendships where they no longer match; returns
+     * how many had drifted. The rows must already be locked by this transaction, so the count
+     * runs on a snapshot taken after every writer holding them has committed.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE user_social_counts c
+        SET friend_count = n.friends,
+            incoming_request_count = n.incoming,
+            outgoing_request_count = n.outgoing,
+            updated_at = now()
+        FROM (
+            SELECT u.user_id,
+                COUNT(f.id) FILTER (WHERE f.status = 'ACCEPTED') AS friends,
+                COUNT(f.id) FILTER (WHERE f.status = 'PENDING' AND f.requester_id <> u.user_id) AS incoming,
+                COUNT(f.id) FILTER (WHERE f.status = 'PENDING' AND f.requester_id = u.user_id) AS outgoing
+            FROM user_social_counts u
+            LEFT JOIN friendships f ON f.user_id = u.user_id OR f.friend_id = u.user_id
+            WHERE u.user_id IN (:userIds)
+            GROUP BY u.user_id
+        ) n
+        WHERE c.user_id = n.user_id
+            AND (c.friend_count, c.incoming_request_count, c.outgoing_request_count)
+                IS DISTINCT FROM (n.friends, n.incoming, n.outgoing)
+        """, nativeQuery = true)
+    int recountFromFriendships(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Takes a user who is about to be deleted out of the counts of everyone they share a pair
+     * row with. Must run before the user's friendships are deleted.
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE user_social_counts c
+        SET friend_count = GREATEST(c.friend_count - d.friends, 0),
+            incoming_request_count = GREATEST(c.incoming_request_count - d.incoming, 0),
+            outgoing_request_count = GREATEST(c.outgoing_request_count - d.outgoing, 0),
+            updated_at = now()
+        FROM (
+            SELECT CASE WHEN f.user_id = :userId THEN f.friend_id ELSE f.user_id END AS other_id,
+                COUNT(*) FILTER (WHERE f.status = 'ACCEPTED') AS friends,
+                COUNT(*) FILTER (WHERE f.status = 'PENDING' AND f.requester_id = :userId) AS incoming,
+                COUNT(*) FILTER (WHERE f.status = 'PENDING' AND f.requester_id <> :userId) AS outgoing
+            FROM friendships f
+            WHERE f.user_id = :userId OR f.friend_id = :userId
+            GROUP BY 1
+        ) d
+        WHERE c.user_id = d.other_id
+        """, nativeQuery = true)
+    void releaseDeletedUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserSocialCounts c WHERE c.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Those of the users with more than {@code friendCount} friends
+     */
+    @Query("SELECT c.userId FROM UserSocialCounts c WHERE c.userId IN :userIds AND c.friendCount > :friendCount")
+    List<Long> findUserIdsWithMoreFriendsThan(@Param("userIds") Collection<Long> userIds,
+                                              @Param("friendCount") long friendCount);
+}
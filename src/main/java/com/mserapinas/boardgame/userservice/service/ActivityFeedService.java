@@ -0,0 +1,225 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.FeedDto;
+import com.mserapinas.boardgame.userservice.dto.response.FeedItemDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.model.ActivityEvent;
+import com.mserapinas.boardgame.userservice.model.ActivityType;
+import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
+import com.mserapinas.boardgame.userservice.model.FeedDelivery;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.ActivityEventRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import com.mserapinas.boardgame.userservice.repository.UserSocialCountsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Friend activity feed, fanned out on write. Play, review and collection writes record an
+ * {@link ActivityEvent} in their own transaction; a scheduled job then delivers pending events in
+ * batches, off the request thread, by copying each into the timeline of every friend of its actor
+ * with one set-based insert per batch. Reading a feed is then a primary-key range scan of the
+ * reader's timeline instead of a query over every friend's plays, reviews and collection.
+ *
+ * Actors with more than {@code feed.fan-out-max-friends} friends are not copied: their events are
+ * marked ON_READ and merged into each reader's page at read time, found through the reader's
+ * friendships in the same query, so one popular user's write never turns into tens of thousands
+ * of timeline rows. The split is by current friend count, so an actor who later drops below the
+ * limit stops contributing their older ON_READ events.
+ *
+ * Timelines only ever hold what the reader may still see: ending a friendship removes each
+ * user's events from the other's timeline, and making a collection private removes its
+ * GAME_ADDED events altogether. Neither comes back if the friendship or visibility is restored.
+ */
+@Service
+public class ActivityFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityFeedService.class);
+
+    static final int MAX_PAGE = 50;
+    // Bounds one scheduled run so a backlog is worked off over several runs rather than in one
+    static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final ActivityEventRepository activityEventRepository;
+    private final UserRepository userRepository;
+    private final UserSocialCountsRepository userSocialCountsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int fanOutMaxFriends;
+
+    public ActivityFeedService(
+        ActivityEventRepository activityEventRepository,
+        UserRepository userRepository,
+        UserSocialCountsRepository userSocialCountsRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${feed.fan-out-batch-size:200}") int batchSize,
+        @Value("${feed.fan-out-max-friends:1000}") int fanOutMaxFriends
+    ) {
+        this.activityEventRepository = activityEventRepository;
+        this.userRepository = userRepository;
+        this.userSocialCountsRepository = userSocialCountsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.fanOutMaxFriends = fanOutMaxFriends;
+    }
+
+    /**
+     * Record a logged play; call inside the transaction that saves it
+     */
+    public void recordPlayLogged(Long actorId, Integer gameId) {
+        activityEventRepository.save(new ActivityEvent(actorId, ActivityType.PLAY_LOGGED, gameId));
+    }
+
+    /**
+     * Record a new review; call inside the transaction that saves it
+     */
+    public void recordReviewPosted(Long actorId, Integer gameId) {
+        activityEventRepository.save(new ActivityEvent(actorId, ActivityType.REVIEW_POSTED, gameId));
+    }
+
+    /**
+     * Record a collection addition; call inside the transaction that saves it. Nothing is recorded
+     * for a private collection, which not even friends may see.
+     */
+    public void recordGameAdded(Long actorId, Integer gameId) {
+        boolean visibleToFriends = userRepository.findById(actorId)
+            .map(user -> user.getCollectionVisibility() != CollectionVisibility.PRIVATE)
+            .orElse(false);
+        if (visibleToFriends) {
+            activityEventRepository.save(new ActivityEvent(actorId, ActivityType.GAME_ADDED, gameId));
+        }
+    }
+
+    /**
+     * Get one page of the user's friends' activity, newest first. {@code cursor} is the previous
+     * page's nextCursor, null for the first page.
+     */
+    public FeedDto getFeed(Long userId, String cursor, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE);
+        long beforeId = parseCursor(cursor);
+        List<ActivityEvent> events = activityEventRepository.findFeedPage(userId, beforeId, pageSize, fanOutMaxFriends);
+
+        Set<Long> actorIds = new HashSet<>();
+        events.forEach(event -> actorIds.add(event.getActorId()));
+        Map<Long, String> names = userRepository.findAllById(actorIds).stream()
+            .collect(toMap(User::getId, User::getName));
+
+        List<FeedItemDto> items = events.stream()
+            .map(event -> FeedItemDto.from(event, names.get(event.getActorId())))
+            .toList();
+        String nextCursor = events.size() == pageSize ? String.valueOf(events.getLast().getId()) : null;
+        return new FeedDto(items, nextCursor);
+    }
+
+    /**
+     * Deliver pending events, a batch per transaction, until none are left or the run's batch
+     * limit is reached
+     */
+    @Scheduled(
+        initialDelayString = "${feed.fan-out-interval:PT2S}",
+        fixedDelayString = "${feed.fan-out-interval:PT2S}"
+    )
+    public void fanOutPending() {
+        try {
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                Integer delivered = transactionTemplate.execute(status -> fanOutBatch());
+                if (delivered == null || delivered < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            // The batch rolled back and stays PENDING for the next run
+            log.error("Failed to fan out activity events", e);
+        }
+    }
+
+    /**
+     * Deliver one batch of pending events; must run in a transaction, which holds their row locks
+     *
+     * @return the number of events delivered
+     */
+    int fanOutBatch() {
+        List<ActivityEvent> events = activityEventRepository.lockPendingBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> actorIds = new HashSet<>();
+        events.forEach(event -> actorIds.add(event.getActorId()));
+        Set<Long> highDegreeActors =
+            new HashSet<>(userSocialCountsRepository.findUserIdsWithMoreFriendsThan(actorIds, fanOutMaxFriends));
+
+        List<Long> fanOutIds = events.stream()
+            .filter(event -> !highDegreeActors.contains(event.getActorId()))
+            .map(ActivityEvent::getId)
+            .toList();
+        List<Long> onReadIds = events.stream()
+            .filter(event -> highDegreeActors.contains(event.getActorId()))
+            .map(ActivityEvent::getId)
+            .toList();
+
+        if (!fanOutIds.isEmpty()) {
+            activityEventRepository.lockFanOutFriendships(fanOutIds);
+            activityEventRepository.fanOut(fanOutIds);
+            activityEventRepository.markDelivered(fanOutIds, FeedDelivery.FAN_OUT);
+        }
+        if (!onReadIds.isEmpty()) {
+            activityEventRepository.markDelivered(onReadIds, FeedDelivery.ON_READ);
+        }
+        return events.size();
+    }
+
+    /**
+     * Remove each user's events from the other's timeline; call inside the transaction that
+     * ends their friendship
+     */
+    public void onFriendshipRemoved(Long userId, Long friendId) {
+        activityEventRepository.deleteTimelineEntriesBetween(userId, friendId);
+    }
+
+    /**
+     * Remove the user's collection additions, delivered or not, which friends may no longer see;
+     * call inside the transaction that makes the collection private
+     */
+    public void onCollectionHidden(Long userId) {
+        activityEventRepository.deleteTimelineEntriesOf(userId, ActivityType.GAME_ADDED.name());
+        activityEventRepository.deleteByActorIdAndType(userId, ActivityType.GAME_ADDED);
+    }
+
+    /**
+     * Remove the user's timeline, their events and every copy of them; call inside the
+     * transaction that deletes the user
+     */
+    public void onUserDeleted(Long userId) {
+        activityEventRepository.deleteTimeline(userId);
+        activityEventRepository.deleteTimelineEntriesOf(userId);
+        activityEventRepository.deleteByActorId(userId);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
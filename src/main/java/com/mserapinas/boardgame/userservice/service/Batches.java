@@ -0,0 +1,36 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Splits id lists for queries that take them as an IN list. Each element is one bind parameter
+ * and the PostgreSQL driver allows at most 32767 per statement, so a list whose length the caller
+ * does not control (a collection, a path-search frontier, an imported contact list) is sent in
+ * chunks of {@value #IN_LIST_SIZE}, well below the limit.
+ */
+final class Batches {
+
+    static final int IN_LIST_SIZE = 1_000;
+
+    private Batches() {}
+
+    /**
+     * Consecutive views of at most {@value #IN_LIST_SIZE} elements, in order. They are views of
+     * {@code list}, so it must not change while they are in use.
+     */
+    static <T> List<List<T>> chunks(List<T> list) {
+        return new AbstractList<>() {
+            @Override
+            public List<T> get(int index) {
+                int from = index * IN_LIST_SIZE;
+                return list.subList(from, Math.min(from + IN_LIST_SIZE, list.size()));
+            }
+
+            @Override
+            public int size() {
+                return (list.size() + IN_LIST_SIZE - 1) / IN_LIST_SIZE;
+            }
+        };
+    }
+}
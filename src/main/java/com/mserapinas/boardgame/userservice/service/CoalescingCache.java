@@ -0,0 +1,148 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * In-process read-through cache with single-flight loading: concurrent misses for the same key
+ * wait on one in-flight load instead of each running the query.
+ * Entries expire after a TTL as a safety net for writes made on other nodes; local writes
+ * should call {@link #invalidate} (after commit) so readers never wait for the TTL.
+ * Publishes cache.gets (result=hit|miss), cache.coalesced and cache.size, tagged with the cache name.
+ */
+public class CoalescingCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public CoalescingCache(String name, MeterRegistry meterRegistry, Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+            .description("Requests served from a completed cache entry")
+            .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+            .description("Requests that triggered a load")
+            .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.coalesced").tag("cache", name)
+            .description("Requests that waited on another request's in-flight load")
+            .register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size).tag("cache", name)
+            .register(meterRegistry);
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        while (true) {
+            Entry<V> current = entries.get(key);
+            if (current != null && !current.isExpired(System.nanoTime(), ttlNanos)) {
+                if (current.value.isDone()) {
+                    hits.increment();
+                } else {
+                    coalesced.increment();
+                }
+                return await(current.value);
+            }
+
+            Entry<V> mine = new Entry<>();
+            boolean installed = current == null
+                ? entries.putIfAbsent(key, mine) == null
+                : entries.replace(key, current, mine);
+            if (!installed) {
+                // Another request installed a load first; go wait on it
+                continue;
+            }
+
+            misses.increment();
+            evictIfFull();
+            return load(key, mine, loader);
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateIf(Predicate<? super K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private V load(K key, Entry<V> entry, Function<? super K, ? extends V> loader) {
+        try {
+            V value = loader.apply(key);
+            entry.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            // Do not cache failures; waiters see the same exception, the next request retries
+            entries.remove(key, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now, ttlNanos));
+
+        // Still full: drop arbitrary completed entries down to 90% so the sweep is not repeated on every miss
+        int target = maxEntries - maxEntries / 10;
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            if (it.next().value.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+        // Set once the load completes; in-flight entries never expire
+        private volatile long loadedAt;
+        private volatile boolean loaded;
+
+        void complete(V v) {
+            loadedAt = System.nanoTime();
+            loaded = true;
+            value.complete(v);
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return loaded && now - loadedAt >= ttlNanos;
+        }
+    }
+}
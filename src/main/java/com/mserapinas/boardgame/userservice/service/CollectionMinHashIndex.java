@@ -0,0 +1,249 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * MinHash signatures of each user's owned-game set plus an LSH banding index over them.
+ *
+ * A signature keeps, for each of {@link #HASHES} hash functions, the smallest hash of any game in
+ * the set; two signatures agree at a position with probability equal to the sets' Jaccard
+ * similarity, so the fraction of agreeing positions estimates it. The signature is split into
+ * {@link #BANDS} bands of {@link #ROWS} rows and each band is hashed into a bucket: users sharing
+ * any bucket become candidates. With 32 bands of 4 rows a pair at Jaccard 0.5 is a candidate with
+ * probability ~0.87, at 0.2 with ~0.05, so a query only looks at the few buckets it falls in rather
+ * than at every user. Each query reads at most {@code candidateBudget} bucket entries.
+ *
+ * Collections smaller than {@link #MIN_GAMES} are not indexed: they would share buckets with a
+ * large share of all users and say little about taste.
+ *
+ * Thread-safe: queries share a read lock, updates take the write lock.
+ */
+final class CollectionMinHashIndex {
+
+    static final int HASHES = 128;
+    static final int BANDS = 32;
+    static final int ROWS = HASHES / BANDS;
+    static final int MIN_GAMES = 3;
+
+    // Fixed seed: signatures must stay comparable across updates and restarts
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] INCREMENTS = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C011_EC71_0AL);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    // Lowest estimate first, then highest id, so the heap head is always the one to evict
+    private static final Comparator<Match> WEAKEST_FIRST = Comparator
+        .comparingDouble(Match::similarity)
+        .thenComparing(Comparator.comparingLong(Match::userId).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+    private final int candidateBudget;
+
+    CollectionMinHashIndex(int candidateBudget) {
+        this.candidateBudget = candidateBudget;
+    }
+
+    /**
+     * @param similarity estimated Jaccard similarity of the two owned-game sets
+     */
+    record Match(long userId, double similarity) {}
+
+    /**
+     * Replace a user's owned-game set; fewer than {@link #MIN_GAMES} games removes the user.
+     */
+    void putUser(long userId, int[] gameIds) {
+        int[] signature = gameIds.length >= MIN_GAMES ? signature(gameIds) : null;
+        lock.writeLock().lock();
+        try {
+            int[] previous = signature == null ? signatures.remove(userId) : signatures.put(userId, signature);
+            if (previous != null) {
+                for (int band = 0; band < BANDS; band++) {
+                    long key = bandKey(previous, band);
+                    Bucket bucket = buckets.get(key);
+                    if (bucket != null && bucket.remove(userId)) {
+                        buckets.remove(key);
+                    }
+                }
+            }
+            if (signature != null) {
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.computeIfAbsent(bandKey(signature, band), key -> new Bucket()).add(userId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeUser(long userId) {
+        putUser(userId, new int[0]);
+    }
+
+    /**
+     * Users whose collections most overlap this user's, best estimate first, at most {@code limit}.
+     * Candidates come only from the user's own buckets, so the cost depends on how many users
+     * share a band with them, capped by the candidate budget, not on the number of users.
+     *
+     * Bands are read in order, each bucket from its first entry. When the budget runs out part way
+     * through a bucket, the candidates taken from it are simply its first entries in storage order
+     * (see {@link Bucket}), which favours users indexed earlier; they are not ranked by
+     * similarity, and later bands are not read at all. Only the candidates read are scored.
+     *
+     * @param excluded users to leave out besides the user themselves
+     */
+    List<Match> mostSimilar(long userId, LongPredicate excluded, int limit) {
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(userId);
+            if (signature == null) {
+                return List.of();
+            }
+
+            Set<Long> seen = new HashSet<>();
+            PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+            int budget = candidateBudget;
+            for (int band = 0; band < BANDS && budget > 0; band++) {
+                Bucket bucket = buckets.get(bandKey(signature, band));
+                if (bucket == null) {
+                    continue;
+                }
+                int scan = Math.min(bucket.size, budget);
+                budget -= scan;
+                for (int i = 0; i < scan; i++) {
+                    long candidateId = bucket.userIds[i];
+                    if (candidateId == userId || !seen.add(candidateId) || excluded.test(candidateId)) {
+                        continue;
+                    }
+                    top.offer(new Match(candidateId, estimate(signature, signatures.get(candidateId))));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<Match> ranked = new ArrayList<>(top);
+            ranked.sort(WEAKEST_FIRST.reversed());
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int userCount() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int[] signature(int[] gameIds) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int gameId : gameIds) {
+            for (int i = 0; i < HASHES; i++) {
+                // Multiply-shift hashing: the high 32 bits of a*x + b for random odd a
+                int hash = (int) ((gameId * MULTIPLIERS[i] + INCREMENTS[i]) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double estimate(int[] a, int[] b) {
+        int agree = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                agree++;
+            }
+        }
+        return (double) agree / HASHES;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = (key ^ signature[row]) * 0x9E37_79B9_7F4A_7C15L;
+        }
+        return key ^ (key >>> 29);
+    }
+
+    /**
+     * User ids sharing one band, in insertion order except that a removal swaps the newest entry
+     * into the gap. Short buckets are scanned, longer ones also index id to slot so removing a user
+     * from a crowded bucket does not walk it under the write lock.
+     */
+    private static final class Bucket {
+        static final int SCAN_LIMIT = 16;
+
+        private long[] userIds = new long[4];
+        private int size;
+        private SlotIndex slots;
+
+        void add(long userId) {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+            }
+            if (slots != null) {
+                slots.put(userId, size);
+            }
+            userIds[size++] = userId;
+            if (slots == null && size > SCAN_LIMIT) {
+                slots = new SlotIndex();
+                for (int i = 0; i < size; i++) {
+                    slots.put(userIds[i], i);
+                }
+            }
+        }
+
+        /** @return whether the bucket is now empty */
+        boolean remove(long userId) {
+            int slot = slotOf(userId);
+            if (slot >= 0) {
+                userIds[slot] = userIds[--size];
+                if (slots != null) {
+                    if (slot != size) {
+                        slots.put(userIds[slot], slot);
+                    }
+                    slots.remove(userId);
+                }
+            }
+            return size == 0;
+        }
+
+        private int slotOf(long userId) {
+            if (slots != null) {
+                return slots.get(userId);
+            }
+            for (int i = 0; i < size; i++) {
+                if (userIds[i] == userId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.model.CollectionStatus;
+import com.mserapinas.boardgame.userservice.repository.UserBoardGameRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * "Players whose shelves look like yours", answered from an in-memory {@link CollectionMinHashIndex}
+ * over every user's OWNED games. The index is built once the application is ready and kept current
+ * by collection writes: after commit the user's owned set is re-read and their signature replaced.
+ * It is also rebuilt periodically, so collections changed through other instances show up within
+ * the refresh interval. Loading and replay go through a {@link SnapshotLoader}; each update
+ * replaces the whole set, so replaying one the load already saw is harmless.
+ */
+@Service
+public class CollectionSimilarityService {
+
+    private static final String LOAD_SQL =
+        "SELECT user_id, game_id FROM user_board_games WHERE status = 'OWNED' ORDER BY user_id";
+
+    private final UserBoardGameRepository userBoardGameRepository;
+    private final SnapshotLoader<CollectionMinHashIndex> index;
+    private final boolean loadOnStartup;
+
+    public CollectionSimilarityService(
+        UserBoardGameRepository userBoardGameRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${collection-similarity.candidate-budget:5000}") int candidateBudget,
+        @Value("${collection-similarity.fetch-size:5000}") int fetchSize,
+        @Value("${collection-similarity.load-on-startup:true}") boolean loadOnStartup
+    ) {
+        this.userBoardGameRepository = userBoardGameRepository;
+        this.index = new SnapshotLoader<>("Collection-similarity index", LOAD_SQL, jdbcTemplate, transactionManager,
+            fetchSize,
+            rows -> buildIndex(rows, candidateBudget),
+            loaded -> loaded.userCount() + " users");
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    public boolean isReady() {
+        return index.current() != null;
+    }
+
+    /**
+     * Users whose owned games most overlap this user's, best estimated Jaccard similarity first.
+     * Empty until the index has loaded, or when the user owns too few games to compare.
+     *
+     * @param excludedIds users to leave out besides the user themselves
+     */
+    public List<CollectionMinHashIndex.Match> findSimilarCollections(Long userId, Set<Long> excludedIds, int limit) {
+        CollectionMinHashIndex current = index.current();
+        if (current == null) {
+            return List.of();
+        }
+        return current.mostSimilar(userId, excludedIds::contains, limit);
+    }
+
+    public void onCollectionChanged(Long userId) {
+        TransactionHooks.afterCommit(() -> {
+            int[] ownedGameIds = userBoardGameRepository.findGameIdsByUserIdAndStatus(userId, CollectionStatus.OWNED)
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+            index.apply(target -> target.putUser(userId, ownedGameIds));
+        });
+    }
+
+    public void onUserDeleted(Long userId) {
+        TransactionHooks.afterCommit(() -> index.apply(target -> target.removeUser(userId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (loadOnStartup) {
+            index.loadInBackground("collection-similarity-loader");
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${collection-similarity.refresh-interval:PT1H}",
+        fixedDelayString = "${collection-similarity.refresh-interval:PT1H}"
+    )
+    public void refresh() {
+        if (loadOnStartup) {
+            index.reload();
+        }
+    }
+
+    private static CollectionMinHashIndex buildIndex(SnapshotLoader.Rows rows, int candidateBudget) {
+        CollectionMinHashIndex built = new CollectionMinHashIndex(candidateBudget);
+        SetBuilder set = new SetBuilder(built);
+
+        // Rows arrive grouped by user, so each owned set is complete when the user id changes
+        rows.forEach(rs -> set.add(rs.getLong(1), rs.getInt(2)));
+        set.flush();
+        return built;
+    }
+
+    private static final class SetBuilder {
+        private final CollectionMinHashIndex target;
+        private long userId = -1;
+        private int[] gameIds = new int[64];
+        private int size;
+
+        SetBuilder(CollectionMinHashIndex target) {
+            this.target = target;
+        }
+
+        void add(long rowUserId, int gameId) {
+            if (rowUserId != userId) {
+                flush();
+                userId = rowUserId;
+            }
+            if (size == gameIds.length) {
+                gameIds = Arrays.copyOf(gameIds, size * 2);
+            }
+            gameIds[size++] = gameId;
+        }
+
+        void flush() {
+            if (size > 0) {
+                target.putUser(userId, Arrays.copyOf(gameIds, size));
+            }
+            size = 0;
+        }
+    }
+}
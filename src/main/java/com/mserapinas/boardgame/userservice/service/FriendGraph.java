@@ -0,0 +1,275 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Undirected friendship graph held as one sorted {@code long[]} of friend ids per user.
+ * A friend list is the array itself, and sorted lists make mutual friends a merge.
+ *
+ * Arrays are never modified once published: a write replaces the affected users' arrays with
+ * updated copies (O(d)), so readers need no locking and can keep using an array they fetched.
+ * Writes are serialized so both directions of an edge change together.
+ */
+final class FriendGraph {
+
+    private static final long[] NO_FRIENDS = new long[0];
+
+    // Fewest mutual friends first, then highest id, so the heap head is always the one to evict
+    private static final Comparator<Candidate> WEAKEST_FIRST = Comparator
+        .comparingInt(Candidate::mutualFriends)
+        .thenComparing(Comparator.comparingLong(Candidate::userId).reversed());
+
+    private final Map<Long, long[]> adjacency;
+
+    private FriendGraph(Map<Long, long[]> adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    static FriendGraph empty() {
+        return new FriendGraph(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Friend ids sorted ascending. The returned array is shared and must not be modified.
+     */
+    long[] friendsOf(long userId) {
+        return adjacency.getOrDefault(userId, NO_FRIENDS);
+    }
+
+    /**
+     * Ids present in both sorted arrays, sorted. A linear merge, O(a + b), unless one side is
+     * much shorter, in which case each of its ids is binary-searched in the other, O(a log b).
+     */
+    static long[] intersect(long[] a, long[] b) {
+        if (a.length > b.length) {
+            return intersect(b, a);
+        }
+        long[] common = new long[a.length];
+        int count = 0;
+        if ((long) a.length * 16 < b.length) {
+            int from = 0;
+            for (long id : a) {
+                int pos = Arrays.binarySearch(b, from, b.length, id);
+                if (pos >= 0) {
+                    common[count++] = id;
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    common[count++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return count == common.length ? common : Arrays.copyOf(common, count);
+    }
+
+    /**
+     * Friends of friends ranked by mutual-friend count (ties by lower id), at most {@code limit}.
+     * Friends are expanded fewest-friends first until {@code budget} two-hop ids have been gathered,
+     * so scratch memory and the O(m log m) sort stay bounded however popular the user's friends
+     * are; a friend whose whole list no longer fits is skipped, and so is every larger one.
+     * Low-degree friends are the better signal anyway: sharing a friend with thousands of friends
+     * says little. The gathered ids are sorted, so each candidate's count is the length of its
+     * run; only the best {@code limit} are kept, in a bounded heap.
+     *
+     * @param excluded users to leave out besides the user and their friends
+     */
+    List<Candidate> friendsOfFriends(long userId, LongPredicate excluded, int limit, int budget) {
+        long[] friends = friendsOf(userId);
+        // Fetch each list once; a concurrent write may replace it, but never modifies it
+        long[][] friendLists = new long[friends.length][];
+        long[] byDegree = new long[friends.length];
+        for (int i = 0; i < friends.length; i++) {
+            friendLists[i] = friendsOf(friends[i]);
+            byDegree[i] = ((long) friendLists[i].length << 32) | i;
+        }
+        Arrays.sort(byDegree);
+
+        int total = 0;
+        int expanded = 0;
+        while (expanded < byDegree.length && total + (byDegree[expanded] >>> 32) <= budget) {
+            total += (int) (byDegree[expanded] >>> 32);
+            expanded++;
+        }
+        long[] twoHop = new long[total];
+        int size = 0;
+        for (int i = 0; i < expanded; i++) {
+            long[] list = friendLists[(int) byDegree[i]];
+            System.arraycopy(list, 0, twoHop, size, list.length);
+            size += list.length;
+        }
+        Arrays.sort(twoHop);
+
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, WEAKEST_FIRST);
+        int start = 0;
+        while (start < size) {
+            long candidateId = twoHop[start];
+            int end = start + 1;
+            while (end < size && twoHop[end] == candidateId) {
+                end++;
+            }
+            int mutualFriends = end - start;
+            start = end;
+
+            if (candidateId == userId
+                || Arrays.binarySearch(friends, candidateId) >= 0
+                || excluded.test(candidateId)) {
+                continue;
+            }
+            top.offer(new Candidate(candidateId, mutualFriends));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(WEAKEST_FIRST.reversed());
+        return ranked;
+    }
+
+    synchronized void addEdge(long userId, long otherUserId) {
+        adjacency.put(userId, insert(friendsOf(userId), otherUserId));
+        adjacency.put(otherUserId, insert(friendsOf(otherUserId), userId));
+    }
+
+    synchronized void removeEdge(long userId, long otherUserId) {
+        putOrRemove(userId, remove(friendsOf(userId), otherUserId));
+        putOrRemove(otherUserId, remove(friendsOf(otherUserId), userId));
+    }
+
+    synchronized void removeUser(long userId) {
+        for (long friendId : friendsOf(userId)) {
+            putOrRemove(friendId, remove(friendsOf(friendId), userId));
+        }
+        adjacency.remove(userId);
+    }
+
+    int userCount() {
+        return adjacency.size();
+    }
+
+    long edgeCount() {
+        long degrees = 0;
+        for (long[] friends : adjacency.values()) {
+            degrees += friends.length;
+        }
+        return degrees / 2;
+    }
+
+    private void putOrRemove(long userId, long[] friends) {
+        if (friends.length == 0) {
+            adjacency.remove(userId);
+        } else {
+            adjacency.put(userId, friends);
+        }
+    }
+
+    private static long[] insert(long[] sorted, long value) {
+        int pos = Arrays.binarySearch(sorted, value);
+        if (pos >= 0) {
+            return sorted;
+        }
+        int at = -pos - 1;
+        long[] copy = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(sorted, at, copy, at + 1, sorted.length - at);
+        return copy;
+    }
+
+    private static long[] remove(long[] sorted, long value) {
+        int at = Arrays.binarySearch(sorted, value);
+        if (at < 0) {
+            return sorted;
+        }
+        long[] copy = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, copy, 0, at);
+        System.arraycopy(sorted, at + 1, copy, at, sorted.length - at - 1);
+        return copy;
+    }
+
+    record Candidate(long userId, int mutualFriends) {
+    }
+
+    /**
+     * Bulk loader: collects edges in any order, then builds every adjacency array with one sort.
+     * Each directed entry is packed as (user << 32 | friend), which holds because user ids are
+     * 32-bit in the schema; sorting the packed values groups entries by user and orders friends.
+     */
+    static final class Builder {
+        private long[] packed = new long[1 << 16];
+        private int size;
+
+        void addEdge(long userId, long otherUserId) {
+            if (userId == otherUserId) {
+                return;
+            }
+            if (size + 2 > packed.length) {
+                packed = Arrays.copyOf(packed, packed.length * 2);
+            }
+            packed[size++] = pack(userId, otherUserId);
+            packed[size++] = pack(otherUserId, userId);
+        }
+
+        FriendGraph build() {
+            Arrays.parallelSort(packed, 0, size);
+
+            // First pass counts users so the map never rehashes
+            int users = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || (packed[i] >>> 32) != (packed[i - 1] >>> 32)) {
+                    users++;
+                }
+            }
+
+            Map<Long, long[]> adjacency = new ConcurrentHashMap<>(Math.max(16, (int) (users / 0.75f) + 1));
+            int start = 0;
+            while (start < size) {
+                long userId = packed[start] >>> 32;
+                int end = start;
+                while (end < size && (packed[end] >>> 32) == userId) {
+                    end++;
+                }
+                long[] friends = new long[end - start];
+                int count = 0;
+                for (int i = start; i < end; i++) {
+                    long friendId = packed[i] & 0xFFFF_FFFFL;
+                    // The same edge may have been added twice
+                    if (count == 0 || friends[count - 1] != friendId) {
+                        friends[count++] = friendId;
+                    }
+                }
+                adjacency.put(userId, count == friends.length ? friends : Arrays.copyOf(friends, count));
+                start = end;
+            }
+            packed = null;
+            return new FriendGraph(adjacency);
+        }
+
+        private static long pack(long userId, long friendId) {
+            if (userId < 0 || userId > 0xFFFF_FFFFL || friendId < 0 || friendId > 0xFFFF_FFFFL) {
+                throw new IllegalArgumentException("User id out of 32-bit range: " + userId + ", " + friendId);
+            }
+            return userId << 32 | friendId;
+        }
+    }
+}
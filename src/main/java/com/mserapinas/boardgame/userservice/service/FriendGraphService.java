@@ -0,0 +1,186 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.repository.FriendshipRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Friend-id lists, mutual friends, paths and suggestions served from an in-memory {@link FriendGraph}.
+ * The graph is loaded from accepted friendships once the application is ready and kept current
+ * by this instance's friendship writes (applied after commit). It is also rebuilt periodically
+ * so changes written by other instances, or missed for any other reason, show up within the
+ * refresh interval. Until the first load completes, callers fall back to the repository.
+ *
+ * Because of that lag the graph must not back access decisions; those check
+ * {@link FriendshipRepository#areFriends} instead. Edge updates are idempotent, as
+ * {@link SnapshotLoader} requires for replay after a load.
+ */
+@Service
+public class FriendGraphService {
+
+    private static final String LOAD_SQL = "SELECT user_id, friend_id FROM friendships WHERE status = 'ACCEPTED'";
+
+    private final FriendshipRepository friendshipRepository;
+    private final SnapshotLoader<FriendGraph> graph;
+    private final boolean loadOnStartup;
+    private final int pathVisitBudget;
+    private final int suggestionBudget;
+
+    public FriendGraphService(
+        FriendshipRepository friendshipRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${friend-graph.fetch-size:5000}") int fetchSize,
+        @Value("${friend-graph.load-on-startup:true}") boolean loadOnStartup,
+        @Value("${friend-graph.path-visit-budget:100000}") int pathVisitBudget,
+        @Value("${friend-graph.suggestion-budget:100000}") int suggestionBudget
+    ) {
+        this.friendshipRepository = friendshipRepository;
+        this.graph = new SnapshotLoader<>("Friend graph", LOAD_SQL, jdbcTemplate, transactionManager, fetchSize,
+            FriendGraphService::buildGraph,
+            loaded -> loaded.userCount() + " users, " + loaded.edgeCount() + " friendships");
+        this.loadOnStartup = loadOnStartup;
+        this.pathVisitBudget = pathVisitBudget;
+        this.suggestionBudget = suggestionBudget;
+    }
+
+    /**
+     * Friend ids sorted ascending. The returned array may be shared and must not be modified.
+     */
+    public long[] friendIds(Long userId) {
+        FriendGraph current = graph.current();
+        if (current == null) {
+            return friendshipRepository.findFriendIds(userId).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        }
+        return current.friendsOf(userId);
+    }
+
+    /**
+     * Ids of users who are friends with both, sorted ascending
+     */
+    public long[] mutualFriendIds(Long userId, Long otherUserId) {
+        return FriendGraph.intersect(friendIds(userId), friendIds(otherUserId));
+    }
+
+    /**
+     * Friends of friends ranked by mutual-friend count, at most {@code limit}. From the graph, only
+     * the user's least-connected friends are expanded, up to the suggestion budget of friend-list
+     * entries.
+     * Before the first load this runs the equivalent grouped query, which also leaves out pending
+     * pairs by itself; {@code excludedIds} is applied either way.
+     *
+     * @param excludedIds users to leave out besides the user and their friends
+     */
+    public List<FriendGraph.Candidate> suggestFriends(Long userId, Set<Long> excludedIds, int limit) {
+        FriendGraph current = graph.current();
+        if (current == null) {
+            return friendshipRepository.findFriendSuggestions(userId, limit).stream()
+                .map(row -> new FriendGraph.Candidate(((Number) row[0]).longValue(), ((Number) row[1]).intValue()))
+                .filter(candidate -> !excludedIds.contains(candidate.userId()))
+                .toList();
+        }
+        return current.friendsOfFriends(userId, excludedIds::contains, limit, suggestionBudget);
+    }
+
+    /**
+     * Shortest chain of friendships from one user to another, at most {@code maxDepth} long.
+     * Before the first load each search level is batched queries over the frontier, each limited
+     * to the visit budget still left, and no further batches are fetched once it is spent.
+     */
+    public FriendPathSearch.Result findPath(Long userId, Long otherUserId, int maxDepth) {
+        FriendGraph current = graph.current();
+        FriendPathSearch.Expander expander = current != null
+            ? (frontier, budget) -> {
+                long[][] friendLists = new long[frontier.length][];
+                for (int i = 0; i < frontier.length; i++) {
+                    friendLists[i] = current.friendsOf(frontier[i]);
+                }
+                return friendLists;
+            }
+            : this::queryFriendLists;
+        return FriendPathSearch.search(userId, otherUserId, maxDepth, pathVisitBudget, expander);
+    }
+
+    public void onFriendshipAccepted(Long userId, Long friendId) {
+        TransactionHooks.afterCommit(() -> graph.apply(target -> target.addEdge(userId, friendId)));
+    }
+
+    public void onFriendshipRemoved(Long userId, Long friendId) {
+        TransactionHooks.afterCommit(() -> graph.apply(target -> target.removeEdge(userId, friendId)));
+    }
+
+    public void onUserDeleted(Long userId) {
+        TransactionHooks.afterCommit(() -> graph.apply(target -> target.removeUser(userId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (loadOnStartup) {
+            graph.loadInBackground("friend-graph-loader");
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${friend-graph.refresh-interval:PT15M}",
+        fixedDelayString = "${friend-graph.refresh-interval:PT15M}"
+    )
+    public void refresh() {
+        if (loadOnStartup) {
+            graph.reload();
+        }
+    }
+
+    private long[][] queryFriendLists(long[] frontier, long budget) {
+        Map<Long, List<Long>> friendsById = new HashMap<>();
+        long fetched = 0;
+        for (List<Long> batch : Batches.chunks(Arrays.stream(frontier).boxed().toList())) {
+            if (fetched > budget) {
+                break;
+            }
+            Set<Long> batchIds = new HashSet<>(batch);
+            // One row past the budget is enough for the search to see it run out
+            int limit = (int) Math.min(Integer.MAX_VALUE, budget - fetched + 1);
+            for (Object[] row : friendshipRepository.findAcceptedPairsOf(batch, limit)) {
+                long userId = ((Number) row[0]).longValue();
+                long friendId = ((Number) row[1]).longValue();
+                if (batchIds.contains(userId)) {
+                    friendsById.computeIfAbsent(userId, id -> new ArrayList<>()).add(friendId);
+                    fetched++;
+                }
+                if (batchIds.contains(friendId)) {
+                    friendsById.computeIfAbsent(friendId, id -> new ArrayList<>()).add(userId);
+                    fetched++;
+                }
+            }
+        }
+        long[][] friendLists = new long[frontier.length][];
+        for (int i = 0; i < frontier.length; i++) {
+            friendLists[i] = friendsById.getOrDefault(frontier[i], List.of()).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        }
+        return friendLists;
+    }
+
+    private static FriendGraph buildGraph(SnapshotLoader.Rows rows) {
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+        rows.forEach(rs -> builder.addEdge(rs.getLong(1), rs.getLong(2)));
+        return builder.build();
+    }
+}
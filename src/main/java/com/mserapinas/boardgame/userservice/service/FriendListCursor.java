@@ -0,0 +1,46 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.model.Friendship;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position in a friends list ordered by (accepted_at, id) descending. Clients get it as an
+ * opaque URL-safe token and send it back unchanged to read the next page.
+ */
+record FriendListCursor(OffsetDateTime acceptedAt, Long id) {
+
+    /** Sorts after every real friendship, so "strictly after FIRST" is the whole list */
+    static final FriendListCursor FIRST =
+        new FriendListCursor(OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    static FriendListCursor after(Friendship friendship) {
+        return new FriendListCursor(friendship.getAcceptedAt(), friendship.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    static FriendListCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            Instant acceptedAt = Instant.parse(value.substring(0, separator));
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new FriendListCursor(acceptedAt.atOffset(ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String value = acceptedAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,186 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.Arrays;
+
+/**
+ * Shortest chain of friendships between two users, found by a bidirectional breadth-first search:
+ * each step expands whichever side has the smaller frontier, one whole level at a time, and the
+ * search stops at the first level where the two sides meet. Two searches of depth d/2 touch far
+ * fewer users than one of depth d in a graph with a high branching factor.
+ *
+ * Work is bounded twice: the chain is at most {@code maxDepth} friendships long, and at most
+ * {@code visitBudget} friend-list entries are examined in total. Hitting the budget ends the search
+ * with {@link Result#truncated()} set, so one request can never walk the whole graph.
+ */
+final class FriendPathSearch {
+
+    /**
+     * Friend ids of every user in a frontier, in the same order. Called once per level, so a
+     * database-backed implementation can fetch the whole frontier with one query.
+     *
+     * {@code budget} is how many more entries the search will examine. An implementation may
+     * stop fetching once it holds more than that and leave the remaining lists empty: the search
+     * counts entries in frontier order, so it runs out of budget before the level could be
+     * mistaken for complete.
+     */
+    @FunctionalInterface
+    interface Expander {
+        long[][] friendsOf(long[] frontier, long budget);
+    }
+
+    /**
+     * @param path user ids from the source to the target, both included; empty when none was found
+     * @param truncated the visit budget ran out before the search could finish
+     */
+    record Result(long[] path, boolean truncated) {
+
+        boolean found() {
+            return path.length > 0;
+        }
+    }
+
+    private static final long NO_PARENT = -1;
+
+    private FriendPathSearch() {
+    }
+
+    static Result search(long fromId, long toId, int maxDepth, int visitBudget, Expander expander) {
+        if (fromId == toId) {
+            return new Result(new long[] {fromId}, false);
+        }
+
+        ParentMap forward = new ParentMap();
+        ParentMap backward = new ParentMap();
+        forward.put(fromId, NO_PARENT);
+        backward.put(toId, NO_PARENT);
+        long[] forwardFrontier = {fromId};
+        long[] backwardFrontier = {toId};
+        int depth = 0;
+        long budget = visitBudget;
+
+        while (depth < maxDepth && forwardFrontier.length > 0 && backwardFrontier.length > 0) {
+            boolean expandForward = forwardFrontier.length <= backwardFrontier.length;
+            long[] frontier = expandForward ? forwardFrontier : backwardFrontier;
+            ParentMap seen = expandForward ? forward : backward;
+            ParentMap other = expandForward ? backward : forward;
+
+            long[][] friendLists = expander.friendsOf(frontier, budget);
+            long[] next = new long[16];
+            int nextSize = 0;
+            for (int i = 0; i < frontier.length; i++) {
+                long userId = frontier[i];
+                for (long friendId : friendLists[i]) {
+                    if (--budget < 0) {
+                        return new Result(new long[0], true);
+                    }
+                    if (seen.containsKey(friendId)) {
+                        continue;
+                    }
+                    seen.put(friendId, userId);
+                    if (other.containsKey(friendId)) {
+                        // Every meeting found on this level gives a chain of the same length
+                        return new Result(join(friendId, forward, backward), false);
+                    }
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = friendId;
+                }
+            }
+            if (expandForward) {
+                forwardFrontier = Arrays.copyOf(next, nextSize);
+            } else {
+                backwardFrontier = Arrays.copyOf(next, nextSize);
+            }
+            depth++;
+        }
+        return new Result(new long[0], false);
+    }
+
+    private static long[] join(long meetingId, ParentMap forward, ParentMap backward) {
+        long[] toSource = walk(meetingId, forward);
+        long[] toTarget = walk(meetingId, backward);
+        long[] path = new long[toSource.length + toTarget.length - 1];
+        for (int i = 0; i < toSource.length; i++) {
+            path[i] = toSource[toSource.length - 1 - i];
+        }
+        System.arraycopy(toTarget, 1, path, toSource.length, toTarget.length - 1);
+        return path;
+    }
+
+    /** Ids from {@code userId} back to the side's root, both included */
+    private static long[] walk(long userId, ParentMap parents) {
+        long[] chain = new long[4];
+        int size = 0;
+        for (long current = userId; current != NO_PARENT; current = parents.get(current)) {
+            if (size == chain.length) {
+                chain = Arrays.copyOf(chain, size * 2);
+            }
+            chain[size++] = current;
+        }
+        return Arrays.copyOf(chain, size);
+    }
+
+    /**
+     * Open-addressing map from user id to the id it was reached from. Ids are non-negative, so
+     * -1 never occurs as a key and doubles as the empty-slot marker.
+     */
+    private static final class ParentMap {
+        private static final long EMPTY = -1;
+
+        private long[] keys = newKeys(64);
+        private long[] values = new long[64];
+        private int size;
+
+        boolean containsKey(long key) {
+            return keys[slot(keys, key)] == key;
+        }
+
+        long get(long key) {
+            int slot = slot(keys, key);
+            return keys[slot] == key ? values[slot] : NO_PARENT;
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int slot = slot(keys, key);
+            if (keys[slot] != key) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new long[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        /** The key's slot, or the empty slot where it would go */
+        private static int slot(long[] keys, long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E37_79B9_7F4A_7C15L >>> 32) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mserapinas.boardgame.userservice.dto.response.FriendshipNotificationDto;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes friend request events to the recipient's open Server-Sent Events streams, so clients
+ * need not poll the incoming request list.
+ *
+ * Writes publish with pg_notify inside their own transaction: Postgres delivers a notification
+ * only when that transaction commits, so rolled-back writes are never announced. Every node
+ * LISTENs on the channel over one dedicated connection and forwards each notification to the
+ * streams it holds for the recipient, so a user hears about a write whichever node served it.
+ * That connection is opened straight from the driver rather than borrowed from the pool, since
+ * it is held for the node's lifetime and would otherwise leave the pool one connection short.
+ *
+ * Streams are async servlet responses: an idle stream holds no thread, only its emitter here.
+ * Writing to a stream blocks while the client's socket buffer is full, so the listener and the
+ * heartbeat job only queue events; each stream's queue is drained in order on a virtual thread,
+ * and a stream whose client stops reading is closed once {@link #MAX_QUEUED_EVENTS} pile up.
+ * Delivery is best effort; notifications sent while a client is disconnected, or while this
+ * node is reconnecting its listener, are not replayed, so clients reload the request lists
+ * when a stream (re)opens.
+ */
+@Service
+public class FriendshipNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FriendshipNotificationService.class);
+
+    static final String CHANNEL = "friendship_notifications";
+    static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    // How long one wait for notifications blocks, and so how long shutdown may wait for the listener
+    private static final int LISTEN_POLL_MILLIS = 10_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+    static final int MAX_QUEUED_EVENTS = 32;
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcConnectionDetails connectionDetails;
+    private final ObjectMapper objectMapper;
+    private final Duration streamTimeout;
+    private final int maxStreamsPerUser;
+    private final boolean listenEnabled;
+
+    private final ConcurrentMap<Long, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running;
+
+    public FriendshipNotificationService(
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        JdbcConnectionDetails connectionDetails,
+        ObjectMapper objectMapper,
+        @Value("${friend-notifications.stream-timeout:PT30M}") Duration streamTimeout,
+        @Value("${friend-notifications.max-streams-per-user:5}") int maxStreamsPerUser,
+        @Value("${friend-notifications.listen-enabled:true}") boolean listenEnabled
+    ) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.connectionDetails = connectionDetails;
+        this.objectMapper = objectMapper;
+        this.streamTimeout = streamTimeout;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.listenEnabled = listenEnabled;
+    }
+
+    /**
+     * Notification as carried on the channel: the event plus whose streams it goes to
+     */
+    record Envelope(Long recipientId, FriendshipNotificationDto notification) {}
+
+    /**
+     * Announce a friend request event to {@code recipientId}; call inside the transaction of the
+     * write it describes, which then decides whether it is delivered
+     */
+    public void publish(Long recipientId, FriendshipNotificationDto.Type type, Long actorId) {
+        String actorName = userRepository.findById(actorId).map(User::getName).orElse(null);
+        Envelope envelope = new Envelope(
+            recipientId, new FriendshipNotificationDto(type, actorId, actorName, OffsetDateTime.now()));
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize friendship notification", e);
+        }
+        jdbcTemplate.query(NOTIFY_SQL, rs -> null, CHANNEL, payload);
+    }
+
+    /**
+     * Open a stream for the user. Past {@code friend-notifications.max-streams-per-user} open
+     * streams the oldest is closed, so forgotten tabs cannot pile up.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Stream stream = new Stream(userId, emitter);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+
+        List<Stream> evicted = new ArrayList<>();
+        streams.compute(userId, (id, current) -> {
+            List<Stream> userStreams = current == null ? new CopyOnWriteArrayList<>() : current;
+            userStreams.add(stream);
+            while (userStreams.size() > maxStreamsPerUser) {
+                evicted.add(userStreams.removeFirst());
+            }
+            return userStreams;
+        });
+        evicted.forEach(Stream::complete);
+
+        // Sends the response headers right away, so proxies and clients see the stream as open
+        stream.enqueue(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * Keeps idle streams from being cut by proxies and finds streams whose client has gone
+     */
+    @Scheduled(
+        initialDelayString = "${friend-notifications.heartbeat-interval:PT25S}",
+        fixedDelayString = "${friend-notifications.heartbeat-interval:PT25S}"
+    )
+    public void sendHeartbeats() {
+        streams.values().forEach(userStreams ->
+            userStreams.forEach(stream -> stream.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!listenEnabled) {
+            return;
+        }
+        running = true;
+        Thread listener = new Thread(this::listen, "friendship-notification-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        streams.values().forEach(userStreams -> userStreams.forEach(Stream::complete));
+        sendExecutor.shutdown();
+    }
+
+    /**
+     * Forward one channel payload to the recipient's streams on this node; only queues the sends
+     */
+    void dispatch(String payload) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(payload, Envelope.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed friendship notification: {}", payload);
+            return;
+        }
+        List<Stream> userStreams = streams.get(envelope.recipientId());
+        if (userStreams == null) {
+            return;
+        }
+        FriendshipNotificationDto notification = envelope.notification();
+        for (Stream stream : userStreams) {
+            stream.enqueue(SseEmitter.event()
+                .name(notification.type().name())
+                .data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    int openStreams(Long userId) {
+        List<Stream> userStreams = streams.get(userId);
+        return userStreams == null ? 0 : userStreams.size();
+    }
+
+    private void remove(Stream stream) {
+        streams.computeIfPresent(stream.userId, (id, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private void listen() {
+        while (running) {
+            // Held for the node's lifetime: a LISTEN only lasts as long as its session
+            try (Connection connection = DriverManager.getConnection(
+                    connectionDetails.getJdbcUrl(), connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for friendship notifications on channel {}", CHANNEL);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(LISTEN_POLL_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            dispatch(notification.getParameter());
+                        } catch (RuntimeException e) {
+                            log.error("Failed to dispatch friendship notification", e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Friendship notification listener lost its connection, reconnecting in {} ms",
+                    RECONNECT_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One open stream and the events queued for it. At most one drain task runs per stream, so
+     * events reach the client in the order they were queued.
+     */
+    private final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queued = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queuedCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (queuedCount.incrementAndGet() > MAX_QUEUED_EVENTS) {
+                // The client stopped reading; closing lets it reconnect and reload instead.
+                // Completing waits for the blocked send, so that happens on a send thread too.
+                queuedCount.decrementAndGet();
+                remove(this);
+                execute(this::complete);
+                return;
+            }
+            queued.add(event);
+            if (draining.compareAndSet(false, true) && !execute(this::drain)) {
+                draining.set(false);
+            }
+        }
+
+        void complete() {
+            emitter.complete();
+        }
+
+        /** @return false if the executor is already shut down, when the stream is being completed anyway */
+        private boolean execute(Runnable task) {
+            try {
+                sendExecutor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void drain() {
+            do {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queued.poll()) != null) {
+                    queuedCount.decrementAndGet();
+                    send(event);
+                }
+                draining.set(false);
+                // An event queued after the last poll but before the flag was cleared started no task
+            } while (!queued.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the stream already ended; the container completes it
+                remove(this);
+            }
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.mserapinas.boardgame.userservice.service;
 
+import com.mserapinas.boardgame.userservice.dto.response.CollectionSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.ContactMatchDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendListDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendPathDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendRequestBatchResultDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendRequestDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendRequestListDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendshipNotificationDto;
+import com.mserapinas.boardgame.userservice.dto.response.MutualFriendsDto;
+import com.mserapinas.boardgame.userservice.dto.response.SocialCountsDto;
 import com.mserapinas.boardgame.userservice.exception.*;
+import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
 import com.mserapinas.boardgame.userservice.model.Friendship;
 import com.mserapinas.boardgame.userservice.model.User;
 import com.mserapinas.boardgame.userservice.repository.FriendRequestRepository;
@@ -13,21 +22,57 @@ import com.mserapinas.boardgame.userservice.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toMap;
 
 @Service
 public class FriendshipService {
 
+    static final int MAX_SUGGESTIONS = 50;
+    static final int MAX_MUTUAL_FRIENDS_PAGE = 50;
+    static final int MAX_FRIENDS_PAGE = 100;
+    static final int MAX_PATH_DEPTH = 6;
+    // Matches are over-fetched this many times so dropping non-public collections still fills the page
+    static final int COLLECTION_MATCH_OVERFETCH = 3;
+    static final int MAX_CONTACTS = 5000;
+
     private final FriendshipRepository friendshipRepository;
     private final FriendRequestRepository friendRequestRepository;
     private final UserRepository userRepository;
+    private final FriendGraphService friendGraphService;
+    private final UserSocialCountsService userSocialCountsService;
+    private final CollectionSimilarityService collectionSimilarityService;
+    private final FriendshipNotificationService friendshipNotificationService;
+    private final ActivityFeedService activityFeedService;
 
     public FriendshipService(FriendshipRepository friendshipRepository,
                              FriendRequestRepository friendRequestRepository,
-                             UserRepository userRepository) {
+                             UserRepository userRepository,
+                             FriendGraphService friendGraphService,
+                             UserSocialCountsService userSocialCountsService,
+                             CollectionSimilarityService collectionSimilarityService,
+                             FriendshipNotificationService friendshipNotificationService,
+                             ActivityFeedService activityFeedService) {
         this.friendshipRepository = friendshipRepository;
         this.friendRequestRepository = friendRequestRepository;
         this.userRepository = userRepository;
+        this.friendGraphService = friendGraphService;
+        this.userSocialCountsService = userSocialCountsService;
+        this.collectionSimilarityService = collectionSimilarityService;
+        this.friendshipNotificationService = friendshipNotificationService;
+        this.activityFeedService = activityFeedService;
     }
 
     /**
@@ -47,21 +92,29 @@ public class FriendshipService {
         User friend = userRepository.findById(friendId)
             .orElseThrow(() -> new UserNotFoundException(friendId));
 
-        // Check if already friends
-        if (friendshipRepository.areFriends(userId, friendId)) {
-            throw new AlreadyFriendsException(userId, friendId);
+        userSocialCountsService.lock(userId, friendId);
+        Optional<Friendship> existing = friendshipRepository.findByPair(userId, friendId);
+        if (existing.isEmpty()) {
+            friendshipRepository.save(Friendship.request(user, friend));
+            userSocialCountsService.recordRequestSent(userId, friendId);
+            friendshipNotificationService.publish(friendId, FriendshipNotificationDto.Type.REQUEST_RECEIVED, userId);
+            return;
         }
 
-        // Check if request already sent
-        if (friendRequestRepository.existsByUserIdAndFriendId(userId, friendId)) {
+        Friendship friendship = existing.get();
+        if (friendship.isAccepted()) {
+            throw new AlreadyFriendsException(userId, friendId);
+        }
+        if (friendship.isRequestedBy(userId)) {
             throw new FriendRequestAlreadySentException(userId, friendId);
         }
 
-        // Create the friendship row
-        // If friendId→userId already exists, this completes the bidirectional friendship
-        // Otherwise, this creates a pending request
-        Friendship request = new Friendship(user, friend);
-        friendshipRepository.save(request);
+        // The other user already asked: requesting back completes the friendship
+        friendship.accept();
+        friendshipRepository.save(friendship);
+        userSocialCountsService.recordRequestAccepted(friendId, userId);
+        friendGraphService.onFriendshipAccepted(userId, friendId);
+        friendshipNotificationService.publish(friendId, FriendshipNotificationDto.Type.REQUEST_ACCEPTED, userId);
     }
 
     /**
@@ -69,25 +122,57 @@ public class FriendshipService {
      */
     @Transactional
     public void acceptFriendRequest(Long userId, Long requesterId) {
-        // Verify incoming request exists
-        if (!friendRequestRepository.hasPendingRequest(requesterId, userId)) {
-            throw new FriendRequestNotFoundException(requesterId, userId);
-        }
+        userSocialCountsService.lock(userId, requesterId);
+        // A pending row for the pair means the users are not friends yet, and both still exist
+        Friendship request = friendRequestRepository.findPendingRequest(requesterId, userId)
+            .orElseThrow(() -> new FriendRequestNotFoundException(requesterId, userId));
 
-        // Check if not already friends
-        if (friendshipRepository.areFriends(userId, requesterId)) {
-            throw new AlreadyFriendsException(userId, requesterId);
+        request.accept();
+        friendshipRepository.save(request);
+        userSocialCountsService.recordRequestAccepted(requesterId, userId);
+        friendGraphService.onFriendshipAccepted(userId, requesterId);
+        friendshipNotificationService.publish(requesterId, FriendshipNotificationDto.Type.REQUEST_ACCEPTED, userId);
+    }
+
+    /**
+     * Accept several incoming friend requests at once. The requests are found with one query
+     * and accepted with one statement; ids without a pending request to this user are reported
+     * as not found rather than failing the batch.
+     */
+    @Transactional
+    public FriendRequestBatchResultDto acceptFriendRequests(Long userId, List<Long> requesterIds) {
+        List<Long> distinctIds = requesterIds.stream().distinct().toList();
+        lockCounts(userId, distinctIds);
+
+        Map<Long, Friendship> requests = findIncomingRequests(userId, distinctIds);
+        if (!requests.isEmpty()) {
+            friendRequestRepository.acceptPendingByIds(
+                requests.values().stream().map(Friendship::getId).toList(), OffsetDateTime.now());
         }
+        requests.keySet().forEach(requesterId -> {
+            userSocialCountsService.recordRequestAccepted(requesterId, userId);
+            friendGraphService.onFriendshipAccepted(userId, requesterId);
+            friendshipNotificationService.publish(requesterId, FriendshipNotificationDto.Type.REQUEST_ACCEPTED, userId);
+        });
 
-        // Get users
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException(userId));
-        User requester = userRepository.findById(requesterId)
-            .orElseThrow(() -> new UserNotFoundException(requesterId));
+        return batchResult(distinctIds, requests.keySet(), FriendRequestBatchResultDto.Outcome.ACCEPTED);
+    }
 
-        // Create reverse row to complete bidirectional friendship
-        Friendship friendship = new Friendship(user, requester);
-        friendshipRepository.save(friendship);
+    /**
+     * Decline several incoming friend requests at once, with one query and one delete
+     */
+    @Transactional
+    public FriendRequestBatchResultDto declineFriendRequests(Long userId, List<Long> requesterIds) {
+        List<Long> distinctIds = requesterIds.stream().distinct().toList();
+        lockCounts(userId, distinctIds);
+
+        Map<Long, Friendship> requests = findIncomingRequests(userId, distinctIds);
+        if (!requests.isEmpty()) {
+            friendRequestRepository.deletePendingByIds(requests.values().stream().map(Friendship::getId).toList());
+        }
+        requests.keySet().forEach(requesterId -> userSocialCountsService.recordRequestWithdrawn(requesterId, userId));
+
+        return batchResult(distinctIds, requests.keySet(), FriendRequestBatchResultDto.Outcome.DECLINED);
     }
 
     /**
@@ -95,13 +180,11 @@ public class FriendshipService {
      */
     @Transactional
     public void declineFriendRequest(Long userId, Long requesterId) {
-        // Verify incoming request exists
-        if (!friendRequestRepository.hasPendingRequest(requesterId, userId)) {
+        userSocialCountsService.lock(userId, requesterId);
+        if (friendRequestRepository.deletePendingRequest(requesterId, userId) == 0) {
             throw new FriendRequestNotFoundException(requesterId, userId);
         }
-
-        // Delete the request row
-        friendRequestRepository.deleteByUserIdAndFriendId(requesterId, userId);
+        userSocialCountsService.recordRequestWithdrawn(requesterId, userId);
     }
 
     /**
@@ -109,39 +192,77 @@ public class FriendshipService {
      */
     @Transactional
     public void cancelFriendRequest(Long userId, Long friendId) {
-        // Verify outgoing request exists
-        if (!friendRequestRepository.hasPendingRequest(userId, friendId)) {
+        userSocialCountsService.lock(userId, friendId);
+        if (friendRequestRepository.deletePendingRequest(userId, friendId) == 0) {
             throw new FriendRequestNotFoundException(userId, friendId);
         }
-
-        // Delete the request row
-        friendRequestRepository.deleteByUserIdAndFriendId(userId, friendId);
+        userSocialCountsService.recordRequestWithdrawn(userId, friendId);
+        friendshipNotificationService.publish(friendId, FriendshipNotificationDto.Type.REQUEST_CANCELLED, userId);
     }
 
     /**
-     * Remove a friend (deletes both rows)
+     * Remove a friend (deletes the pair row)
      */
     @Transactional
     public void removeFriend(Long userId, Long friendId) {
-        // Verify bidirectional friendship exists
-        if (!friendshipRepository.areFriends(userId, friendId)) {
+        userSocialCountsService.lock(userId, friendId);
+        // The delete's row count tells whether they were friends, so no separate existence check
+        if (friendshipRepository.deleteFriendship(userId, friendId) == 0) {
             throw new FriendRequestNotFoundException(userId, friendId);
         }
+        userSocialCountsService.recordFriendshipRemoved(userId, friendId);
+        activityFeedService.onFriendshipRemoved(userId, friendId);
+        friendGraphService.onFriendshipRemoved(userId, friendId);
+    }
+
+    /**
+     * Get one page of a user's friends, most recently accepted first. {@code cursor} is the
+     * previous page's nextCursor (null for the first page) and {@code namePrefix} optionally keeps
+     * only friends whose name starts with it, ignoring case. totalCount is the user's overall
+     * friend count from the badge counters, not the size of the (possibly filtered) page.
+     */
+    public FriendListDto getFriends(Long userId, String cursor, String namePrefix, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        int pageSize = Math.clamp(limit, 1, MAX_FRIENDS_PAGE);
+        FriendListCursor after = cursor == null || cursor.isBlank()
+            ? FriendListCursor.FIRST
+            : FriendListCursor.decode(cursor);
 
-        // Delete both rows (repository handles bidirectional deletion)
-        friendshipRepository.deleteFriendship(userId, friendId);
+        // One extra id tells whether another page follows without a count query
+        List<Long> ids = friendshipRepository.findFriendPageIds(
+            userId, after.acceptedAt(), after.id(), namePattern(namePrefix), pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+
+        Map<Long, Friendship> friendshipsById = pageIds.isEmpty()
+            ? Map.of()
+            : friendshipRepository.findAllWithUsersByIdIn(pageIds).stream()
+                .collect(toMap(Friendship::getId, friendship -> friendship));
+        List<Friendship> page = pageIds.stream()
+            .map(friendshipsById::get)
+            .filter(Objects::nonNull)
+            .toList();
+
+        String nextCursor = hasMore && !page.isEmpty() ? FriendListCursor.after(page.getLast()).encode() : null;
+        return new FriendListDto(
+            page.stream().map(friendship -> FriendDto.from(friendship, userId)).toList(),
+            userSocialCountsService.getCounts(userId).friendCount(),
+            nextCursor
+        );
     }
 
     /**
-     * Get all friends of a user
+     * Get friend, incoming-request and outgoing-request counts in one call
      */
-    public FriendListDto getFriends(Long userId) {
+    public SocialCountsDto getSocialCounts(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException(userId);
         }
 
-        List<Friendship> friendships = friendshipRepository.getFriends(userId);
-        return FriendListDto.from(friendships);
+        return userSocialCountsService.getCounts(userId);
     }
 
     /**
@@ -154,7 +275,7 @@ public class FriendshipService {
 
         List<Friendship> requests = friendRequestRepository.getIncomingRequests(userId);
         List<FriendRequestDto> requestDtos = requests.stream()
-            .map(FriendRequestDto::fromIncoming)
+            .map(request -> FriendRequestDto.from(request, userId))
             .toList();
 
         return new FriendRequestListDto(requestDtos, (long) requestDtos.size());
@@ -170,21 +291,216 @@ public class FriendshipService {
 
         List<Friendship> requests = friendRequestRepository.getOutgoingRequests(userId);
         List<FriendRequestDto> requestDtos = requests.stream()
-            .map(FriendRequestDto::fromOutgoing)
+            .map(request -> FriendRequestDto.from(request, userId))
             .toList();
 
         return new FriendRequestListDto(requestDtos, (long) requestDtos.size());
     }
 
     /**
-     * Get friend suggestions (friends of friends who are NOT direct friends)
+     * Get the friends two users have in common: the total count plus the first {@code limit}
+     * of them, by user id
      */
-    public FriendSuggestionDto getFriendSuggestions(Long userId) {
+    public MutualFriendsDto getMutualFriends(Long userId, Long otherUserId, int limit) {
+        if (userId.equals(otherUserId)) {
+            throw new IllegalArgumentException("Mutual friends need two different users");
+        }
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException(userId);
         }
+        if (!userRepository.existsById(otherUserId)) {
+            throw new UserNotFoundException(otherUserId);
+        }
+
+        long[] mutualIds = friendGraphService.mutualFriendIds(userId, otherUserId);
+        List<Long> pageIds = Arrays.stream(mutualIds)
+            .limit(Math.clamp(limit, 1, MAX_MUTUAL_FRIENDS_PAGE))
+            .boxed()
+            .toList();
+        Map<Long, User> usersById = userRepository.findAllById(pageIds).stream()
+            .collect(toMap(User::getId, user -> user));
+
+        List<User> page = pageIds.stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .toList();
+        return MutualFriendsDto.from(page, mutualIds.length);
+    }
+
+    /**
+     * Get the shortest chain of friendships from the user to another user, at most
+     * {@code maxDepth} friendships long
+     */
+    public FriendPathDto getFriendPath(Long userId, Long otherUserId, int maxDepth) {
+        if (userId.equals(otherUserId)) {
+            throw new IllegalArgumentException("A friend path needs two different users");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        if (!userRepository.existsById(otherUserId)) {
+            throw new UserNotFoundException(otherUserId);
+        }
 
-        List<User> suggestions = friendshipRepository.getFriendsOfFriends(userId);
-        return FriendSuggestionDto.from(suggestions);
+        FriendPathSearch.Result result =
+            friendGraphService.findPath(userId, otherUserId, Math.clamp(maxDepth, 1, MAX_PATH_DEPTH));
+        List<Long> pathIds = Arrays.stream(result.path()).boxed().toList();
+        Map<Long, User> usersById = userRepository.findAllById(pathIds).stream()
+            .collect(toMap(User::getId, user -> user));
+
+        // A user deleted since the graph was read breaks the chain, so report none rather than a gap
+        if (!usersById.keySet().containsAll(pathIds)) {
+            return FriendPathDto.from(List.of(), false);
+        }
+        return FriendPathDto.from(pathIds.stream().map(usersById::get).toList(), result.truncated());
+    }
+
+    /**
+     * Get friend suggestions: friends of friends ranked by mutual-friend count, skipping users
+     * with a pending request to or from this user
+     */
+    public FriendSuggestionDto getFriendSuggestions(Long userId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        Set<Long> pending = new HashSet<>(friendRequestRepository.findPendingCounterpartIds(userId));
+        List<FriendGraph.Candidate> candidates =
+            friendGraphService.suggestFriends(userId, pending, Math.clamp(limit, 1, MAX_SUGGESTIONS));
+
+        Map<Long, Integer> mutualFriendCounts = new LinkedHashMap<>();
+        candidates.forEach(candidate -> mutualFriendCounts.put(candidate.userId(), candidate.mutualFriends()));
+        Map<Long, User> usersById = userRepository.findAllById(mutualFriendCounts.keySet()).stream()
+            .collect(toMap(User::getId, user -> user));
+
+        // Keep the ranking; a user deleted since the graph was read just drops out
+        List<User> suggestions = mutualFriendCounts.keySet().stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .toList();
+        return FriendSuggestionDto.from(suggestions, mutualFriendCounts);
+    }
+
+    /**
+     * Get suggestions of users whose owned games most overlap this user's, by estimated Jaccard
+     * similarity. Friends, users with a pending request to or from this user, and users whose
+     * collection is not public are left out.
+     */
+    public CollectionSuggestionDto getCollectionSuggestions(Long userId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        int pageSize = Math.clamp(limit, 1, MAX_SUGGESTIONS);
+        Set<Long> excluded = new HashSet<>(friendRequestRepository.findPendingCounterpartIds(userId));
+        Arrays.stream(friendGraphService.friendIds(userId)).forEach(excluded::add);
+        List<CollectionMinHashIndex.Match> matches = collectionSimilarityService.findSimilarCollections(
+            userId, excluded, pageSize * COLLECTION_MATCH_OVERFETCH);
+
+        Map<Long, Double> similarities = new LinkedHashMap<>();
+        matches.forEach(match -> similarities.put(match.userId(), match.similarity()));
+        Map<Long, User> usersById = userRepository.findAllById(similarities.keySet()).stream()
+            .collect(toMap(User::getId, user -> user));
+
+        // Keep the ranking; only collections a stranger could look at are compared
+        List<User> suggestions = similarities.keySet().stream()
+            .map(usersById::get)
+            .filter(Objects::nonNull)
+            .filter(user -> user.getCollectionVisibility() == CollectionVisibility.PUBLIC)
+            .limit(pageSize)
+            .toList();
+        return CollectionSuggestionDto.from(suggestions, similarities, collectionSimilarityService.isReady());
+    }
+
+    /**
+     * Registered users among an imported contact list, each with where they stand with this user.
+     * Plain emails are hashed the way stored emails are, so plain and hashed contacts match alike;
+     * the hashes are resolved against idx_users_email_sha256 and the friendship rows fetched for
+     * all matches at once, both in chunked IN queries. The user themselves is left out.
+     */
+    public ContactMatchDto matchContacts(Long userId, List<String> emails, List<String> emailHashes) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        // Hash -> the contact as submitted; the first of duplicate contacts wins
+        Map<String, String> contactsByHash = new LinkedHashMap<>();
+        if (emails != null) {
+            emails.forEach(email -> contactsByHash.putIfAbsent(User.hashEmail(email), email));
+        }
+        if (emailHashes != null) {
+            emailHashes.forEach(hash -> contactsByHash.putIfAbsent(hash.toLowerCase(Locale.ROOT), hash));
+        }
+        if (contactsByHash.size() > MAX_CONTACTS) {
+            throw new IllegalArgumentException("Cannot match more than " + MAX_CONTACTS + " contacts at once");
+        }
+
+        // Emails are unique case-sensitively, so one hash can belong to several users
+        Map<String, List<User>> usersByHash = new LinkedHashMap<>();
+        List<String> hashes = new ArrayList<>(contactsByHash.keySet());
+        for (List<String> chunk : Batches.chunks(hashes)) {
+            for (User user : userRepository.findByEmailSha256In(chunk)) {
+                if (!user.getId().equals(userId)) {
+                    usersByHash.computeIfAbsent(user.getEmailSha256(), hash -> new ArrayList<>()).add(user);
+                }
+            }
+        }
+
+        List<Long> matchedIds = usersByHash.values().stream().flatMap(List::stream).map(User::getId).toList();
+        Map<Long, Friendship> friendships = new HashMap<>();
+        for (List<Long> chunk : Batches.chunks(matchedIds)) {
+            friendshipRepository.findAllBetween(userId, chunk)
+                .forEach(friendship -> friendships.put(friendship.getOtherUserId(userId), friendship));
+        }
+
+        List<ContactMatchDto.ContactMatchItemDto> matches = new ArrayList<>();
+        contactsByHash.forEach((hash, contact) -> usersByHash.getOrDefault(hash, List.of()).forEach(user ->
+            matches.add(new ContactMatchDto.ContactMatchItemDto(
+                contact, user.getId(), user.getName(), friendshipState(userId, friendships.get(user.getId()))))));
+        return new ContactMatchDto(matches);
+    }
+
+    private void lockCounts(Long userId, List<Long> requesterIds) {
+        List<Long> userIds = new ArrayList<>(requesterIds);
+        userIds.add(userId);
+        userSocialCountsService.lock(userIds);
+    }
+
+    private Map<Long, Friendship> findIncomingRequests(Long userId, List<Long> requesterIds) {
+        return friendRequestRepository.findIncomingRequestsFrom(userId, requesterIds).stream()
+            .collect(toMap(Friendship::getRequesterId, request -> request));
+    }
+
+    private static FriendRequestBatchResultDto batchResult(
+            List<Long> requesterIds, Set<Long> handled, FriendRequestBatchResultDto.Outcome outcome) {
+        return new FriendRequestBatchResultDto(requesterIds.stream()
+            .map(requesterId -> new FriendRequestBatchResultDto.FriendRequestBatchItemDto(
+                requesterId,
+                handled.contains(requesterId) ? outcome : FriendRequestBatchResultDto.Outcome.NOT_FOUND))
+            .toList());
+    }
+
+    private static ContactMatchDto.FriendshipState friendshipState(Long userId, Friendship friendship) {
+        if (friendship == null) {
+            return ContactMatchDto.FriendshipState.NONE;
+        }
+        if (friendship.isAccepted()) {
+            return ContactMatchDto.FriendshipState.FRIENDS;
+        }
+        return friendship.isRequestedBy(userId)
+            ? ContactMatchDto.FriendshipState.REQUEST_SENT
+            : ContactMatchDto.FriendshipState.REQUEST_RECEIVED;
+    }
+
+    /** Lower-case LIKE pattern matching names that start with the prefix; "%" when there is none */
+    private static String namePattern(String namePrefix) {
+        if (namePrefix == null || namePrefix.isBlank()) {
+            return "%";
+        }
+        String escaped = namePrefix.strip().toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return escaped + "%";
     }
-}
\ No newline at end of file
+}
@@ -1,41 +1,62 @@
 package com.mserapinas.boardgame.userservice.service;
 
 import com.mserapinas.boardgame.userservice.dto.request.CreateGamePlayRequest;
+import com.mserapinas.boardgame.userservice.dto.request.PlayHistoryQuery;
 import com.mserapinas.boardgame.userservice.dto.request.UpdateGamePlayRequest;
 import com.mserapinas.boardgame.userservice.dto.response.GamePlayDto;
+import com.mserapinas.boardgame.userservice.dto.response.GamePlayPageDto;
 import com.mserapinas.boardgame.userservice.exception.GamePlayNotFoundException;
 import com.mserapinas.boardgame.userservice.exception.InvalidWinnerException;
+import com.mserapinas.boardgame.userservice.exception.PlayerGroupAccessForbiddenException;
+import com.mserapinas.boardgame.userservice.exception.PlayerGroupNotFoundException;
 import com.mserapinas.boardgame.userservice.exception.UnauthorizedGamePlayAccessException;
 import com.mserapinas.boardgame.userservice.model.GamePlay;
 import com.mserapinas.boardgame.userservice.model.GamePlayWinner;
+import com.mserapinas.boardgame.userservice.model.PlayerGroup;
 import com.mserapinas.boardgame.userservice.model.User;
 import com.mserapinas.boardgame.userservice.repository.GamePlayRepository;
+import com.mserapinas.boardgame.userservice.repository.PlayHistoryFilter;
+import com.mserapinas.boardgame.userservice.repository.PlayerGroupRepository;
 import com.mserapinas.boardgame.userservice.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
-import org.springframework.data.domain.PageRequest;
-
-import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class GamePlayService {
 
+    static final int MAX_RECENT_GAMES = 100;
+    static final int MAX_PLAYS_PAGE = 50;
+    private static final Comparator<GamePlay> MOST_RECENT_FIRST =
+        Comparator.comparing(GamePlay::getPlayedAt).thenComparing(GamePlay::getId).reversed();
+
     private final GamePlayRepository gamePlayRepository;
     private final UserRepository userRepository;
+    private final ActivityFeedService activityFeedService;
+    private final GamePlayStatsService gamePlayStatsService;
+    private final PlayerGroupRepository playerGroupRepository;
 
-    public GamePlayService(GamePlayRepository gamePlayRepository, UserRepository userRepository) {
+    public GamePlayService(
+        GamePlayRepository gamePlayRepository,
+        UserRepository userRepository,
+        ActivityFeedService activityFeedService,
+        GamePlayStatsService gamePlayStatsService,
+        PlayerGroupRepository playerGroupRepository
+    ) {
         this.gamePlayRepository = gamePlayRepository;
         this.userRepository = userRepository;
+        this.activityFeedService = activityFeedService;
+        this.gamePlayStatsService = gamePlayStatsService;
+        this.playerGroupRepository = playerGroupRepository;
     }
 
     @Transactional
@@ -69,7 +90,9 @@ public class GamePlayService {
         gp.setPlayers(players);
         gp.setNotes(request.notes());
 
+        gamePlayStatsService.ensureSeeded(userId);
         GamePlay saved = gamePlayRepository.save(gp);
+        gamePlayStatsService.onPlayAdded(userId, saved.getGameId(), saved.getPlayedAt(), saved.getTimesPlayed());
 
         if (!winnerIds.isEmpty()) {
             List<GamePlayWinner> winners = new ArrayList<>();
@@ -90,6 +113,7 @@ public class GamePlayService {
             saved = gamePlayRepository.save(saved);
         }
 
+        activityFeedService.recordPlayLogged(userId, request.gameId());
         Long savedId = saved.getId();
         return GamePlayDto.from(
             gamePlayRepository.findByIdWithAssociations(savedId)
@@ -97,35 +121,120 @@ public class GamePlayService {
         );
     }
 
+    @Transactional
     public List<GamePlayDto> getPlaysForGame(Long userId, Integer gameId) {
-        return gamePlayRepository.findByLoggerAndGame(userId, gameId).stream()
+        List<GamePlay> plays = gamePlayRepository.findByLoggerAndGame(userId, gameId);
+        fetchWinners(plays.stream().map(GamePlay::getId).toList());
+        return plays.stream()
             .map(GamePlayDto::from)
             .toList();
     }
 
+    /**
+     * The user's latest play of each of their {@code limit} most recently played games, newest first
+     */
+    @Transactional
     public List<GamePlayDto> getRecentGames(Long userId, int limit) {
-        return gamePlayRepository.findRecentByUser(userId, PageRequest.of(0, limit * 3))
-            .stream()
-            .collect(Collectors.toMap(
-                GamePlay::getGameId,
-                gp -> gp,
-                (existing, replacement) -> existing,
-                LinkedHashMap::new
-            ))
-            .values()
-            .stream()
-            .limit(limit)
-            .map(GamePlayDto::from)
-            .toList();
+        List<Long> ids = gamePlayRepository.findLastPlayIdPerGame(userId, Math.clamp(limit, 1, MAX_RECENT_GAMES));
+        return getPlaysByIds(ids);
+    }
+
+    /**
+     * Get one page of plays other users logged with this user as a player, most recently played
+     * first, and with {@code includeOwn} also the plays the user logged. {@code cursor} is the
+     * previous page's nextCursor, null for the first page.
+     */
+    @Transactional
+    public GamePlayPageDto getTaggedPlays(Long userId, String cursor, boolean includeOwn, int limit) {
+        return playPage(cursor, limit, (after, size) -> includeOwn
+            ? gamePlayRepository.findTaggedOrOwnPlayPageIds(userId, after.playedAt(), after.id(), size)
+            : gamePlayRepository.findTaggedPlayPageIds(userId, after.playedAt(), after.id(), size));
     }
 
+    /**
+     * Get one page of the plays the user logged, most recently played first, narrowed by the set
+     * filters. {@code cursor} is the previous page's nextCursor, null for the first page.
+     */
+    @Transactional
+    public GamePlayPageDto getPlayHistory(Long userId, PlayHistoryQuery query, String cursor, int limit) {
+        if (query.from() != null && query.to() != null && query.from().isAfter(query.to())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        Set<Long> playerIds = new HashSet<>();
+        if (query.coPlayerId() != null) {
+            playerIds.add(query.coPlayerId());
+        }
+        if (query.groupId() != null) {
+            PlayerGroup group = playerGroupRepository.findByIdWithMembers(query.groupId())
+                .orElseThrow(() -> new PlayerGroupNotFoundException(query.groupId()));
+            if (!group.getCreator().getId().equals(userId)) {
+                throw new PlayerGroupAccessForbiddenException(query.groupId(), userId);
+            }
+            group.getMembers().stream()
+                .map(User::getId)
+                .filter(memberId -> !memberId.equals(userId))
+                .forEach(playerIds::add);
+        }
+        PlayHistoryFilter filter = new PlayHistoryFilter(
+            query.gameId(), playerIds, query.winnerId(), query.from(), query.to());
+
+        return playPage(cursor, limit, (after, size) ->
+            gamePlayRepository.findHistoryPageIds(userId, filter, after.playedAt(), after.id(), size));
+    }
+
+    /**
+     * One page of plays, most recently played first. {@code pageIds} is asked for the ids after
+     * the cursor's position, one more than the page holds: the extra id tells whether another page
+     * follows without a count query.
+     */
+    private GamePlayPageDto playPage(String cursor, int limit, BiFunction<PlayListCursor, Integer, List<Long>> pageIds) {
+        int pageSize = Math.clamp(limit, 1, MAX_PLAYS_PAGE);
+        PlayListCursor after = cursor == null || cursor.isBlank()
+            ? PlayListCursor.FIRST
+            : PlayListCursor.decode(cursor);
+
+        List<Long> ids = pageIds.apply(after, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<GamePlay> page = loadPlays(hasMore ? ids.subList(0, pageSize) : ids);
+        String nextCursor = hasMore && !page.isEmpty() ? PlayListCursor.after(page.getLast()).encode() : null;
+        return new GamePlayPageDto(page.stream().map(GamePlayDto::from).toList(), nextCursor);
+    }
+
+    @Transactional
     public List<GamePlayDto> getPlaysByIds(List<Long> ids) {
         if (ids.isEmpty()) return List.of();
-        return gamePlayRepository.findByIds(ids).stream()
+        return loadPlays(ids).stream()
             .map(GamePlayDto::from)
             .toList();
     }
 
+    /**
+     * Plays by id, most recently played first, with players and winners loaded in two queries per
+     * {@value Batches#IN_LIST_SIZE} ids rather than lazily per play. Must run in a transaction, so the
+     * winners land on the same entities.
+     */
+    private List<GamePlay> loadPlays(List<Long> ids) {
+        List<GamePlay> plays = new ArrayList<>();
+        for (List<Long> chunk : Batches.chunks(ids)) {
+            plays.addAll(gamePlayRepository.findByIds(chunk));
+        }
+        fetchWinners(ids);
+        if (ids.size() > Batches.IN_LIST_SIZE) {
+            plays.sort(MOST_RECENT_FIRST);
+        }
+        return plays;
+    }
+
+    /**
+     * Load the winners, and the winning users, of plays already in the persistence context
+     */
+    private void fetchWinners(List<Long> playIds) {
+        for (List<Long> chunk : Batches.chunks(playIds)) {
+            gamePlayRepository.fetchWinnersByIds(chunk);
+        }
+    }
+
     @Transactional
     public GamePlayDto updateGamePlay(Long userId, Long playId, UpdateGamePlayRequest request) {
         GamePlay gp = gamePlayRepository.findByIdWithAssociations(playId)
@@ -151,6 +260,9 @@ public class GamePlayService {
         Map<Long, User> playersById = players.stream()
             .collect(Collectors.toMap(User::getId, Function.identity()));
 
+        gamePlayStatsService.ensureSeeded(userId);
+        gamePlayStatsService.onPlayRemoved(userId, gp.getGameId(), gp.getPlayedAt(), gp.getTimesPlayed());
+
         gp.setPlayedAt(request.playedAt());
         gp.setTimesPlayed(request.timesPlayed());
         gp.setDurationMinutes(request.durationMinutes());
@@ -172,6 +284,7 @@ public class GamePlayService {
         }
 
         gamePlayRepository.save(gp);
+        gamePlayStatsService.onPlayAdded(userId, gp.getGameId(), gp.getPlayedAt(), gp.getTimesPlayed());
 
         return GamePlayDto.from(
             gamePlayRepository.findByIdWithAssociations(playId)
@@ -179,17 +292,6 @@ public class GamePlayService {
         );
     }
 
-    public Map<Integer, Integer> getPlaysThisYearByGames(Long userId, List<Integer> gameIds) {
-        if (gameIds.isEmpty()) return Map.of();
-        int year = LocalDate.now().getYear();
-        List<Object[]> rows = gamePlayRepository.sumTimesPlayedByUserAndGamesAndYear(userId, gameIds, year);
-        Map<Integer, Integer> result = new HashMap<>();
-        for (Object[] row : rows) {
-            result.put((Integer) row[0], ((Number) row[1]).intValue());
-        }
-        return result;
-    }
-
     @Transactional
     public void deleteGamePlay(Long userId, Long playId) {
         GamePlay gp = gamePlayRepository.findByIdWithAssociations(playId)
@@ -199,6 +301,8 @@ public class GamePlayService {
             throw new UnauthorizedGamePlayAccessException(playId, userId);
         }
 
+        gamePlayStatsService.ensureSeeded(userId);
+        gamePlayStatsService.onPlayRemoved(userId, gp.getGameId(), gp.getPlayedAt(), gp.getTimesPlayed());
         gamePlayRepository.deleteById(playId);
     }
 }
@@ -0,0 +1,254 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto.Granularity;
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto.PlayCountDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto.GameStatsDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto.OpponentRecordDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto.YearTopGameDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.model.GamePlayMonthlyCount;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.GamePlayMonthlyCountRepository;
+import com.mserapinas.boardgame.userservice.repository.GamePlayRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Play counts over arbitrary date ranges, backed by the per-user, per-game monthly rollup in
+ * {@link GamePlayMonthlyCount}. Month and year counts read whole months from the rollup and only
+ * the partial months at either end of the range from the plays themselves; day and week counts
+ * read the plays, with a plain played_at range that stays on idx_game_plays_user_played_at_id.
+ *
+ * Play writes keep the rollup current through {@link #onPlayAdded} and {@link #onPlayRemoved}.
+ * A user whose plays predate the rollup is seeded from them on their first write, and at startup
+ * by GamePlayMonthlyCountBackfill.
+ *
+ * Player statistics are computed by three aggregate queries and cached per user; the same two
+ * write hooks drop the user's entry once the write commits. That eviction only reaches this node's
+ * cache, so other nodes may serve the previous statistics for up to cache.player-stats.ttl.
+ */
+@Service
+public class GamePlayStatsService {
+
+    // Keeps a single response bounded, e.g. about 2.7 years of days
+    static final int MAX_PERIODS = 1_000;
+
+    private final GamePlayMonthlyCountRepository monthlyCountRepository;
+    private final GamePlayRepository gamePlayRepository;
+    private final UserRepository userRepository;
+    private final CoalescingCache<Long, PlayerStatsDto> playerStatsCache;
+
+    public GamePlayStatsService(
+        GamePlayMonthlyCountRepository monthlyCountRepository,
+        GamePlayRepository gamePlayRepository,
+        UserRepository userRepository,
+        CoalescingCache<Long, PlayerStatsDto> playerStatsCache
+    ) {
+        this.monthlyCountRepository = monthlyCountRepository;
+        this.gamePlayRepository = gamePlayRepository;
+        this.userRepository = userRepository;
+        this.playerStatsCache = playerStatsCache;
+    }
+
+    /**
+     * Seed the user's rollup from their existing plays if it was never built; call inside a play
+     * write's transaction before the play is inserted, changed or deleted
+     */
+    public void ensureSeeded(Long userId) {
+        if (!monthlyCountRepository.existsByUserId(userId)) {
+            monthlyCountRepository.seedFromPlays(userId);
+        }
+    }
+
+    /**
+     * Count a play (or a play's new values after an update); call inside the transaction that writes it
+     */
+    public void onPlayAdded(Long userId, Integer gameId, LocalDate playedAt, int timesPlayed) {
+        monthlyCountRepository.addTimesPlayed(userId, gameId, playedAt.withDayOfMonth(1), timesPlayed);
+        TransactionHooks.afterCommit(() -> playerStatsCache.invalidate(userId));
+    }
+
+    /**
+     * Uncount a play (or a play's old values before an update); call inside the transaction that writes it
+     */
+    public void onPlayRemoved(Long userId, Integer gameId, LocalDate playedAt, int timesPlayed) {
+        LocalDate month = playedAt.withDayOfMonth(1);
+        monthlyCountRepository.addTimesPlayed(userId, gameId, month, -timesPlayed);
+        monthlyCountRepository.deleteIfEmpty(userId, gameId, month);
+        TransactionHooks.afterCommit(() -> playerStatsCache.invalidate(userId));
+    }
+
+    /**
+     * Times the user played each game per period within [from, to], both inclusive
+     *
+     * @param gameIds games to count, or null or empty for all games
+     */
+    public PlayCountsDto getPlayCounts(Long userId, LocalDate from, LocalDate to, Granularity granularity,
+                                       List<Integer> gameIds) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        long periods = periodUnit(granularity).between(periodStart(granularity, from), periodStart(granularity, to)) + 1;
+        if (periods > MAX_PERIODS) {
+            throw new IllegalArgumentException(
+                "Date range spans more than " + MAX_PERIODS + " periods of " + granularity);
+        }
+
+        List<Integer> games = gameIds == null ? List.of() : gameIds.stream().distinct().toList();
+        LocalDate end = to.plusDays(1);
+        Map<PeriodGame, Integer> totals = new HashMap<>();
+
+        // Month and year periods are made of whole months, so whole months can come from the rollup
+        boolean monthAligned = granularity == Granularity.MONTH || granularity == Granularity.YEAR;
+        LocalDate firstWholeMonth = from.getDayOfMonth() == 1 ? from : from.withDayOfMonth(1).plusMonths(1);
+        LocalDate endWholeMonths = end.withDayOfMonth(1);
+        if (monthAligned && firstWholeMonth.isBefore(endWholeMonths)) {
+            addPlays(totals, userId, games, from, firstWholeMonth, granularity);
+            addRollup(totals, userId, games, firstWholeMonth, endWholeMonths, granularity);
+            addPlays(totals, userId, games, endWholeMonths, end, granularity);
+        } else {
+            addPlays(totals, userId, games, from, end, granularity);
+        }
+
+        List<PlayCountDto> counts = totals.entrySet().stream()
+            .map(entry -> new PlayCountDto(entry.getKey().periodStart(), entry.getKey().gameId(), entry.getValue()))
+            .sorted(Comparator.comparing(PlayCountDto::periodStart).thenComparing(PlayCountDto::gameId))
+            .toList();
+        return new PlayCountsDto(from, to, granularity, counts);
+    }
+
+    /**
+     * Times the user played each of the given games in the current calendar year
+     */
+    public Map<Integer, Integer> getPlaysThisYearByGames(Long userId, List<Integer> gameIds) {
+        if (gameIds.isEmpty()) return Map.of();
+        int year = LocalDate.now().getYear();
+        PlayCountsDto counts = getPlayCounts(
+            userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), Granularity.YEAR, gameIds);
+        Map<Integer, Integer> result = new HashMap<>();
+        for (PlayCountDto count : counts.counts()) {
+            result.put(count.gameId(), count.timesPlayed());
+        }
+        return result;
+    }
+
+    /**
+     * Play totals, win rates, play index, per-co-player records and most played game per year over
+     * the plays the user logged
+     */
+    public PlayerStatsDto getPlayerStats(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        return playerStatsCache.get(userId, this::loadPlayerStats);
+    }
+
+    private PlayerStatsDto loadPlayerStats(Long userId) {
+        List<GameStatsDto> games = new ArrayList<>();
+        int totalGamesPlayed = 0;
+        int playIndex = 0;
+        for (Object[] row : gamePlayRepository.findGameStatsByUser(userId)) {
+            int timesPlayed = ((Number) row[1]).intValue();
+            int gamesWithResult = ((Number) row[2]).intValue();
+            int wins = ((Number) row[3]).intValue();
+            long playRank = ((Number) row[4]).longValue();
+            Double winRate = gamesWithResult == 0 ? null : (double) wins / gamesWithResult;
+            games.add(new GameStatsDto((Integer) row[0], timesPlayed, gamesWithResult, wins, winRate));
+            totalGamesPlayed += timesPlayed;
+            // Rows come in play_rank order, so the index is the last rank still covered by its count
+            if (timesPlayed >= playRank) {
+                playIndex = (int) playRank;
+            }
+        }
+
+        List<Object[]> opponentRows = gamePlayRepository.findOpponentRecordsByUser(userId);
+        List<Long> opponentIds = opponentRows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        Map<Long, String> names = userRepository.findAllById(opponentIds).stream()
+            .collect(Collectors.toMap(User::getId, User::getName));
+        List<OpponentRecordDto> opponents = opponentRows.stream()
+            .map(row -> {
+                Long opponentId = ((Number) row[0]).longValue();
+                return new OpponentRecordDto(opponentId, names.get(opponentId),
+                    ((Number) row[1]).intValue(), ((Number) row[2]).intValue(), ((Number) row[3]).intValue());
+            })
+            .toList();
+
+        List<YearTopGameDto> mostPlayedByYear = gamePlayRepository.findMostPlayedGamePerYear(userId).stream()
+            .map(row -> new YearTopGameDto(
+                ((Number) row[0]).intValue(), (Integer) row[1], ((Number) row[2]).intValue()))
+            .toList();
+
+        return new PlayerStatsDto(totalGamesPlayed, games.size(), playIndex, games, opponents, mostPlayedByYear);
+    }
+
+    private void addPlays(Map<PeriodGame, Integer> totals, Long userId, List<Integer> games,
+                          LocalDate from, LocalDate to, Granularity granularity) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        if (games.isEmpty()) {
+            rows.addAll(gamePlayRepository.sumTimesPlayedByDay(userId, from, to));
+        } else {
+            for (List<Integer> chunk : Batches.chunks(games)) {
+                rows.addAll(gamePlayRepository.sumTimesPlayedByDayForGames(userId, chunk, from, to));
+            }
+        }
+        for (Object[] row : rows) {
+            add(totals, granularity, (LocalDate) row[0], (Integer) row[1], ((Number) row[2]).intValue());
+        }
+    }
+
+    private void addRollup(Map<PeriodGame, Integer> totals, Long userId, List<Integer> games,
+                           LocalDate fromMonth, LocalDate toMonth, Granularity granularity) {
+        List<GamePlayMonthlyCount> rows = new ArrayList<>();
+        if (games.isEmpty()) {
+            rows.addAll(monthlyCountRepository.findInRange(userId, fromMonth, toMonth));
+        } else {
+            for (List<Integer> chunk : Batches.chunks(games)) {
+                rows.addAll(monthlyCountRepository.findInRangeForGames(userId, chunk, fromMonth, toMonth));
+            }
+        }
+        for (GamePlayMonthlyCount row : rows) {
+            add(totals, granularity, row.getMonth(), row.getGameId(), row.getTimesPlayed());
+        }
+    }
+
+    private static void add(Map<PeriodGame, Integer> totals, Granularity granularity,
+                            LocalDate date, Integer gameId, int timesPlayed) {
+        totals.merge(new PeriodGame(periodStart(granularity, date), gameId), timesPlayed, Integer::sum);
+    }
+
+    private static LocalDate periodStart(Granularity granularity, LocalDate date) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+            case YEAR -> date.withDayOfYear(1);
+        };
+    }
+
+    private static ChronoUnit periodUnit(Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+            case MONTH -> ChronoUnit.MONTHS;
+            case YEAR -> ChronoUnit.YEARS;
+        };
+    }
+
+    private record PeriodGame(LocalDate periodStart, Integer gameId) {}
+}
@@ -0,0 +1,171 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.RecommendationDto;
+import com.mserapinas.boardgame.userservice.dto.response.RecommendationListDto;
+import com.mserapinas.boardgame.userservice.model.CollectionStatus;
+import com.mserapinas.boardgame.userservice.repository.ReviewRepository;
+import com.mserapinas.boardgame.userservice.repository.UserBoardGameRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Local item-item collaborative filtering, used when recommender-service is unavailable.
+ * A background job rebuilds the neighbourhood model from owned games and well-rated reviews;
+ * requests only read the latest snapshot, so serving costs O(collection size x neighbours).
+ */
+@Service
+public class ItemRecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemRecommendationService.class);
+
+    static final String SOURCE = "item-item";
+    static final int MAX_LIMIT = 100;
+
+    // One basket per user: games they own plus games they rated highly, de-duplicated by UNION
+    private static final String BASKETS_SQL = """
+        SELECT user_id, game_id FROM user_board_games WHERE status = 'OWNED'
+        UNION
+        SELECT user_id, game_id FROM reviews WHERE rating >= ?
+        ORDER BY user_id
+        """;
+
+    private final UserBoardGameRepository userBoardGameRepository;
+    private final ReviewRepository reviewRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int topN;
+    private final int maxBasketSize;
+    private final int likedRating;
+    private final int fetchSize;
+
+    private volatile Snapshot snapshot = new Snapshot(ItemSimilarityModel.empty(), null);
+
+    public ItemRecommendationService(
+        UserBoardGameRepository userBoardGameRepository,
+        ReviewRepository reviewRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${recommendations.item-item.parallelism:2}") int parallelism,
+        @Value("${recommendations.item-item.top-n:50}") int topN,
+        @Value("${recommendations.item-item.max-basket-size:500}") int maxBasketSize,
+        @Value("${recommendations.item-item.liked-rating:7}") int likedRating,
+        @Value("${recommendations.item-item.fetch-size:5000}") int fetchSize
+    ) {
+        this.userBoardGameRepository = userBoardGameRepository;
+        this.reviewRepository = reviewRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL only uses a cursor for setFetchSize when autocommit is off
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Dedicated pool so the rebuild never competes with request handling on the common pool
+        this.pool = new ForkJoinPool(parallelism);
+        this.topN = topN;
+        this.maxBasketSize = maxBasketSize;
+        this.likedRating = likedRating;
+        this.fetchSize = fetchSize;
+    }
+
+    public RecommendationListDto getRecommendations(Long userId, int limit) {
+        Snapshot current = snapshot;
+
+        Set<Integer> owned = new HashSet<>(
+            userBoardGameRepository.findGameIdsByUserIdAndStatus(userId, CollectionStatus.OWNED));
+        Set<Integer> excluded = new HashSet<>(userBoardGameRepository.findGameIdsByUserId(userId));
+        excluded.addAll(reviewRepository.findGameIdsByUserId(userId));
+
+        List<RecommendationDto> recommendations = current.model()
+            .recommend(owned, excluded, Math.clamp(limit, 1, MAX_LIMIT))
+            .stream()
+            .map(r -> new RecommendationDto(r.gameId(), r.score(), r.becauseGameId()))
+            .toList();
+        return new RecommendationListDto(recommendations, SOURCE, current.builtAt());
+    }
+
+    @Scheduled(
+        initialDelayString = "${recommendations.item-item.initial-delay:PT30S}",
+        fixedDelayString = "${recommendations.item-item.refresh-interval:PT1H}"
+    )
+    public void rebuild() {
+        long started = System.nanoTime();
+        try {
+            List<int[]> baskets = loadBaskets();
+            ItemSimilarityModel model = ItemSimilarityModel.build(baskets, topN, maxBasketSize, pool);
+            snapshot = new Snapshot(model, OffsetDateTime.now());
+            log.info("Item-item model rebuilt: {} users, {} games in {} ms",
+                baskets.size(), model.gameCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot
+            log.error("Item-item model rebuild failed", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private List<int[]> loadBaskets() {
+        List<int[]> baskets = new ArrayList<>();
+        BasketBuilder basket = new BasketBuilder(baskets);
+
+        RowCallbackHandler rowHandler = rs -> basket.add(rs.getLong(1), rs.getInt(2));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(BASKETS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setInt(1, likedRating);
+            return ps;
+        }, rowHandler));
+        basket.flush();
+        return baskets;
+    }
+
+    private record Snapshot(ItemSimilarityModel model, OffsetDateTime builtAt) {}
+
+    private static final class BasketBuilder {
+        private final List<int[]> target;
+        private long userId = -1;
+        private int[] gameIds = new int[64];
+        private int size;
+
+        BasketBuilder(List<int[]> target) {
+            this.target = target;
+        }
+
+        void add(long rowUserId, int gameId) {
+            if (rowUserId != userId) {
+                flush();
+                userId = rowUserId;
+            }
+            if (size == gameIds.length) {
+                gameIds = Arrays.copyOf(gameIds, size * 2);
+            }
+            gameIds[size++] = gameId;
+        }
+
+        void flush() {
+            if (size > 0) {
+                target.add(Arrays.copyOf(gameIds, size));
+            }
+            size = 0;
+        }
+    }
+}
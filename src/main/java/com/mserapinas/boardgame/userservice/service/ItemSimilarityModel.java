@@ -0,0 +1,210 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable item-item neighbourhood model: for every game, the top-N other games by cosine
+ * similarity of their user sets (co-occurrence / sqrt(count_a * count_b)).
+ *
+ * Built in one pass per game over the users who have it, counting co-occurrences in a
+ * thread-local dense counter, so the full item x item matrix is never materialized.
+ * Users with very large baskets are skipped: they add quadratic work and little signal.
+ */
+final class ItemSimilarityModel {
+
+    static final int MIN_CO_OCCURRENCE = 2;
+
+    private final Map<Integer, Neighbors> neighborsByGame;
+
+    private ItemSimilarityModel(Map<Integer, Neighbors> neighborsByGame) {
+        this.neighborsByGame = neighborsByGame;
+    }
+
+    record Recommendation(int gameId, double score, int becauseGameId) {}
+
+    record Neighbors(int[] gameIds, float[] similarities) {}
+
+    static ItemSimilarityModel empty() {
+        return new ItemSimilarityModel(Map.of());
+    }
+
+    /**
+     * @param baskets one array of game ids per user; need not be sorted, must not contain duplicates
+     */
+    static ItemSimilarityModel build(List<int[]> baskets, int topN, int maxBasketSize, ForkJoinPool pool) {
+        // Dense game ordinals so counters are plain arrays
+        Map<Integer, Integer> ordinals = new HashMap<>();
+        List<int[]> usable = new ArrayList<>(baskets.size());
+        for (int[] basket : baskets) {
+            if (basket.length < 2 || basket.length > maxBasketSize) {
+                continue;
+            }
+            int[] ords = new int[basket.length];
+            for (int i = 0; i < basket.length; i++) {
+                ords[i] = ordinals.computeIfAbsent(basket[i], g -> ordinals.size());
+            }
+            usable.add(ords);
+        }
+
+        int items = ordinals.size();
+        int[] gameIdByOrd = new int[items];
+        ordinals.forEach((gameId, ord) -> gameIdByOrd[ord] = gameId);
+
+        int[] itemCounts = new int[items];
+        for (int[] basket : usable) {
+            for (int ord : basket) {
+                itemCounts[ord]++;
+            }
+        }
+        int[][] itemUsers = new int[items][];
+        for (int ord = 0; ord < items; ord++) {
+            itemUsers[ord] = new int[itemCounts[ord]];
+        }
+        int[] fill = new int[items];
+        for (int user = 0; user < usable.size(); user++) {
+            for (int ord : usable.get(user)) {
+                itemUsers[ord][fill[ord]++] = user;
+            }
+        }
+
+        Neighbors[] neighbors = new Neighbors[items];
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(items));
+        try {
+            // A parallel stream started from inside the pool runs on that pool, not the common one
+            pool.submit(() -> IntStream.range(0, items).parallel().forEach(item ->
+                neighbors[item] = computeNeighbors(item, usable, itemUsers, itemCounts, gameIdByOrd, topN, scratch.get())
+            )).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Item similarity build interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Item similarity build failed", e.getCause());
+        }
+
+        Map<Integer, Neighbors> neighborsByGame = new HashMap<>(items * 2);
+        for (int ord = 0; ord < items; ord++) {
+            if (neighbors[ord].gameIds().length > 0) {
+                neighborsByGame.put(gameIdByOrd[ord], neighbors[ord]);
+            }
+        }
+        return new ItemSimilarityModel(neighborsByGame);
+    }
+
+    /**
+     * Sum neighbour similarities over the seed games; each recommendation remembers the seed that
+     * contributed most so it can be explained as "because you own X". O(seeds x topN).
+     */
+    List<Recommendation> recommend(Set<Integer> seedGameIds, Set<Integer> excludedGameIds, int limit) {
+        Map<Integer, double[]> scores = new HashMap<>();
+        for (Integer seed : seedGameIds) {
+            Neighbors neighbors = neighborsByGame.get(seed);
+            if (neighbors == null) {
+                continue;
+            }
+            for (int i = 0; i < neighbors.gameIds().length; i++) {
+                int gameId = neighbors.gameIds()[i];
+                if (excludedGameIds.contains(gameId) || seedGameIds.contains(gameId)) {
+                    continue;
+                }
+                double similarity = neighbors.similarities()[i];
+                // [total score, best single similarity, seed game of that similarity]
+                double[] acc = scores.computeIfAbsent(gameId, g -> new double[3]);
+                acc[0] += similarity;
+                if (similarity > acc[1]) {
+                    acc[1] = similarity;
+                    acc[2] = seed;
+                }
+            }
+        }
+
+        return scores.entrySet().stream()
+            .sorted((a, b) -> Double.compare(b.getValue()[0], a.getValue()[0]))
+            .limit(limit)
+            .map(e -> new Recommendation(e.getKey(), e.getValue()[0], (int) e.getValue()[2]))
+            .toList();
+    }
+
+    Neighbors neighborsOf(int gameId) {
+        return neighborsByGame.get(gameId);
+    }
+
+    int gameCount() {
+        return neighborsByGame.size();
+    }
+
+    private static Neighbors computeNeighbors(
+        int item,
+        List<int[]> baskets,
+        int[][] itemUsers,
+        int[] itemCounts,
+        int[] gameIdByOrd,
+        int topN,
+        Scratch scratch
+    ) {
+        int[] coCounts = scratch.coCounts;
+        int touchedCount = 0;
+        for (int user : itemUsers[item]) {
+            for (int other : baskets.get(user)) {
+                if (other != item && coCounts[other]++ == 0) {
+                    scratch.ensureTouchedCapacity(touchedCount + 1);
+                    scratch.touched[touchedCount++] = other;
+                }
+            }
+        }
+
+        // Bounded top-N kept sorted descending by insertion; N is small
+        int[] topOrds = new int[topN];
+        float[] topScores = new float[topN];
+        int size = 0;
+        double itemNorm = Math.sqrt(itemCounts[item]);
+        for (int t = 0; t < touchedCount; t++) {
+            int other = scratch.touched[t];
+            int co = coCounts[other];
+            coCounts[other] = 0;
+            if (co < MIN_CO_OCCURRENCE) {
+                continue;
+            }
+            float similarity = (float) (co / (itemNorm * Math.sqrt(itemCounts[other])));
+            if (size == topN && similarity <= topScores[size - 1]) {
+                continue;
+            }
+            int pos = size == topN ? topN - 1 : size++;
+            while (pos > 0 && topScores[pos - 1] < similarity) {
+                topScores[pos] = topScores[pos - 1];
+                topOrds[pos] = topOrds[pos - 1];
+                pos--;
+            }
+            topScores[pos] = similarity;
+            topOrds[pos] = other;
+        }
+
+        int[] gameIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            gameIds[i] = gameIdByOrd[topOrds[i]];
+        }
+        return new Neighbors(gameIds, Arrays.copyOf(topScores, size));
+    }
+
+    private static final class Scratch {
+        final int[] coCounts;
+        int[] touched = new int[256];
+
+        Scratch(int items) {
+            this.coCounts = new int[items];
+        }
+
+        void ensureTouchedCapacity(int capacity) {
+            if (capacity > touched.length) {
+                touched = Arrays.copyOf(touched, Math.max(capacity, touched.length * 2));
+            }
+        }
+    }
+}
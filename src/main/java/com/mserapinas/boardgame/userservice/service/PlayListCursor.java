@@ -0,0 +1,43 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.model.GamePlay;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Keyset position in a play list ordered by (played_at, id) descending. Clients get it as an
+ * opaque URL-safe token and send it back unchanged to read the next page.
+ */
+record PlayListCursor(LocalDate playedAt, Long id) {
+
+    /** Sorts after every real play, so "strictly after FIRST" is the whole list */
+    static final PlayListCursor FIRST = new PlayListCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    static PlayListCursor after(GamePlay play) {
+        return new PlayListCursor(play.getPlayedAt(), play.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    static PlayListCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            LocalDate playedAt = LocalDate.parse(value.substring(0, separator));
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new PlayListCursor(playedAt, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String value = playedAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
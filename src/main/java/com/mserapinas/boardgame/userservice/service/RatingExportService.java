@@ -0,0 +1,211 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.model.RatingDeletion;
+import com.mserapinas.boardgame.userservice.repository.RatingDeletionRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Streams (user_id, game_id, rating, status, updated_at) tuples for the recommender as NDJSON.
+ * Rows are read through a server-side cursor with a bounded fetch size and written straight to
+ * the response, so heap use does not depend on table size.
+ *
+ * An incremental pull also replays keys whose review or collection entry was deleted since the
+ * watermark, from the rating_deletions log. A key with neither left comes out as a tombstone:
+ * rating and status both null, updated_at the deletion time. The log is kept for
+ * {@code export.ratings.tombstone-retention}; a {@code since} older than that is rejected, and
+ * the consumer has to start over from a full export.
+ */
+@Service
+public class RatingExportService {
+
+    // Full snapshot: every (user, game) pair that has a review, a collection entry, or both
+    private static final String FULL_EXPORT_SQL = """
+        SELECT COALESCE(r.user_id, ubg.user_id) AS user_id,
+               COALESCE(r.game_id, ubg.game_id) AS game_id,
+               r.rating AS rating,
+               ubg.status AS status,
+               GREATEST(r.updated_at, ubg.modified_at) AS updated_at
+        FROM reviews r
+        FULL OUTER JOIN user_board_games ubg
+            ON ubg.user_id = r.user_id AND ubg.game_id = r.game_id
+        """;
+
+    // Incremental pull: changed keys come from the updated_at / modified_at / deleted_at indexes,
+    // the current state of each key is then looked up through the (user_id, game_id) unique indexes
+    private static final String INCREMENTAL_EXPORT_SQL = """
+        WITH changed AS (
+            SELECT user_id, game_id, MAX(deleted_at) AS deleted_at
+            FROM (
+                SELECT user_id, game_id, CAST(NULL AS TIMESTAMP WITH TIME ZONE) AS deleted_at
+                FROM reviews WHERE updated_at > ?
+                UNION ALL
+                SELECT user_id, game_id, NULL FROM user_board_games WHERE modified_at > ?
+                UNION ALL
+                SELECT user_id, game_id, deleted_at FROM rating_deletions WHERE deleted_at > ?
+            ) k
+            GROUP BY user_id, game_id
+        )
+        SELECT c.user_id AS user_id,
+               c.game_id AS game_id,
+               r.rating AS rating,
+               ubg.status AS status,
+               GREATEST(r.updated_at, ubg.modified_at, c.deleted_at) AS updated_at
+        FROM changed c
+        LEFT JOIN reviews r ON r.user_id = c.user_id AND r.game_id = c.game_id
+        LEFT JOIN user_board_games ubg ON ubg.user_id = c.user_id AND ubg.game_id = c.game_id
+        """;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RatingDeletionRepository ratingDeletionRepository;
+    private final int fetchSize;
+    private final Duration watermarkLag;
+    private final Duration tombstoneRetention;
+
+    public RatingExportService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        RatingDeletionRepository ratingDeletionRepository,
+        @Value("${export.ratings.fetch-size:1000}") int fetchSize,
+        @Value("${export.ratings.watermark-lag:PT1M}") Duration watermarkLag,
+        @Value("${export.ratings.tombstone-retention:P30D}") Duration tombstoneRetention
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ratingDeletionRepository = ratingDeletionRepository;
+        // PostgreSQL only uses a cursor for setFetchSize when autocommit is off
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.watermarkLag = watermarkLag;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Watermark the caller should pass as {@code since} on its next pull.
+     * Lags behind "now" so rows from transactions still in flight are picked up again next time;
+     * consumers are expected to upsert, so the overlap is harmless.
+     */
+    public OffsetDateTime nextWatermark() {
+        return OffsetDateTime.now().minus(watermarkLag);
+    }
+
+    /**
+     * Rejects a {@code since} whose deletions may already have been pruned; checked before the
+     * response starts streaming, so the caller gets a 400 rather than a silently incomplete delta
+     */
+    public void checkSince(OffsetDateTime since) {
+        if (since != null && since.isBefore(OffsetDateTime.now().minus(tombstoneRetention))) {
+            throw new IllegalArgumentException(
+                "since is older than the " + tombstoneRetention + " tombstone retention; run a full export");
+        }
+    }
+
+    /**
+     * Called in the transaction that deletes the review or collection entry
+     */
+    public void onRatingKeyDeleted(Long userId, Integer gameId) {
+        ratingDeletionRepository.save(new RatingDeletion(userId, gameId, OffsetDateTime.now()));
+    }
+
+    /**
+     * Called in the transaction that deletes the user, before their reviews are deleted
+     */
+    public void onUserDeleted(Long userId) {
+        ratingDeletionRepository.recordUserDeleted(userId, OffsetDateTime.now());
+    }
+
+    @Scheduled(
+        initialDelayString = "${export.ratings.tombstone-prune-interval:PT6H}",
+        fixedDelayString = "${export.ratings.tombstone-prune-interval:PT6H}"
+    )
+    @Transactional
+    public void pruneDeletions() {
+        ratingDeletionRepository.deleteOlderThan(OffsetDateTime.now().minus(tombstoneRetention));
+    }
+
+    public void exportRatings(OffsetDateTime since, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        StringBuilder line = new StringBuilder(128);
+        RowCallbackHandler rowWriter = rs -> writeRow(rs, line, writer);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                    since == null ? FULL_EXPORT_SQL : INCREMENTAL_EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                ps.setFetchSize(fetchSize);
+                if (since != null) {
+                    ps.setObject(1, since);
+                    ps.setObject(2, since);
+                    ps.setObject(3, since);
+                }
+                return ps;
+            }, rowWriter));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeRow(ResultSet rs, StringBuilder line, Writer writer) throws SQLException {
+        line.setLength(0);
+        line.append("{\"user_id\":").append(rs.getLong("user_id"))
+            .append(",\"game_id\":").append(rs.getInt("game_id"))
+            .append(",\"rating\":");
+
+        int rating = rs.getInt("rating");
+        if (rs.wasNull()) {
+            line.append("null");
+        } else {
+            line.append(rating);
+        }
+
+        // Status is an enum name and timestamps are ISO-8601, so neither needs escaping
+        String status = rs.getString("status");
+        line.append(",\"status\":");
+        if (status == null) {
+            line.append("null");
+        } else {
+            line.append('"').append(status).append('"');
+        }
+
+        OffsetDateTime updatedAt = rs.getObject("updated_at", OffsetDateTime.class);
+        line.append(",\"updated_at\":");
+        if (updatedAt == null) {
+            line.append("null");
+        } else {
+            line.append('"').append(updatedAt).append('"');
+        }
+        line.append('\n');
+
+        try {
+            writer.write(line.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
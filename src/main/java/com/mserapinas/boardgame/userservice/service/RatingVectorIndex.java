@@ -0,0 +1,452 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory sparse user rating vectors plus an inverted index from game to (user, rating) postings.
+ * Users are mapped to dense int ordinals so postings and per-query accumulators stay primitive.
+ *
+ * Top-k queries run in two phases: candidate generation walks the postings of the user's games,
+ * rarest first, under a postings budget and counts co-rated games per candidate; the best
+ * candidates by overlap are then scored exactly with mean-centered cosine over a sorted merge
+ * of the two vectors, shrunk towards zero for small overlaps.
+ *
+ * Thread-safe: queries share a read lock, updates take the write lock.
+ */
+final class RatingVectorIndex {
+
+    static final int MIN_CO_RATED = 2;
+    static final double SHRINKAGE = 10.0;
+    static final int CANDIDATES_PER_RESULT = 20;
+    static final int MIN_CANDIDATES = 200;
+
+    // Per-thread accumulators; overlap is cleared entry by entry after each query instead of reallocated
+    private static final ThreadLocal<QueryScratch> SCRATCH = ThreadLocal.withInitial(QueryScratch::new);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Integer, Postings> postingsByGame = new HashMap<>();
+    private final int postingsBudget;
+
+    private long[] userIds = new long[1024];
+    private UserVector[] vectors = new UserVector[1024];
+    private int ordinalCount;
+    private long ratingCount;
+
+    RatingVectorIndex(int postingsBudget) {
+        this.postingsBudget = postingsBudget;
+    }
+
+    record Neighbor(long userId, double similarity, int coRated) {}
+
+    /**
+     * Replace a user's whole vector. gameIds must be sorted ascending.
+     */
+    void putUser(long userId, int[] gameIds, byte[] ratings) {
+        lock.writeLock().lock();
+        try {
+            int ord = ordinalFor(userId);
+            unlinkVector(ord);
+            if (gameIds.length == 0) {
+                vectors[ord] = null;
+                return;
+            }
+            UserVector vector = new UserVector(gameIds, ratings);
+            vectors[ord] = vector;
+            for (int i = 0; i < gameIds.length; i++) {
+                postingsByGame.computeIfAbsent(gameIds[i], g -> new Postings()).add(ord, ratings[i]);
+            }
+            ratingCount += gameIds.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void upsertRating(long userId, int gameId, int rating) {
+        lock.writeLock().lock();
+        try {
+            int ord = ordinalFor(userId);
+            UserVector vector = vectors[ord];
+            byte value = (byte) rating;
+
+            int pos = vector == null ? -1 : Arrays.binarySearch(vector.gameIds, gameId);
+            if (pos >= 0) {
+                if (vector.ratings[pos] == value) {
+                    return;
+                }
+                byte[] ratings = vector.ratings.clone();
+                ratings[pos] = value;
+                vectors[ord] = new UserVector(vector.gameIds, ratings);
+                postingsByGame.get(gameId).set(ord, value);
+                return;
+            }
+
+            int insertAt = vector == null ? 0 : -pos - 1;
+            int size = vector == null ? 0 : vector.gameIds.length;
+            int[] gameIds = new int[size + 1];
+            byte[] ratings = new byte[size + 1];
+            if (vector != null) {
+                System.arraycopy(vector.gameIds, 0, gameIds, 0, insertAt);
+                System.arraycopy(vector.ratings, 0, ratings, 0, insertAt);
+                System.arraycopy(vector.gameIds, insertAt, gameIds, insertAt + 1, size - insertAt);
+                System.arraycopy(vector.ratings, insertAt, ratings, insertAt + 1, size - insertAt);
+            }
+            gameIds[insertAt] = gameId;
+            ratings[insertAt] = value;
+            vectors[ord] = new UserVector(gameIds, ratings);
+            postingsByGame.computeIfAbsent(gameId, g -> new Postings()).add(ord, value);
+            ratingCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeRating(long userId, int gameId) {
+        lock.writeLock().lock();
+        try {
+            Integer ord = ordinals.get(userId);
+            if (ord == null || vectors[ord] == null) {
+                return;
+            }
+            UserVector vector = vectors[ord];
+            int pos = Arrays.binarySearch(vector.gameIds, gameId);
+            if (pos < 0) {
+                return;
+            }
+
+            int size = vector.gameIds.length;
+            if (size == 1) {
+                vectors[ord] = null;
+            } else {
+                int[] gameIds = new int[size - 1];
+                byte[] ratings = new byte[size - 1];
+                System.arraycopy(vector.gameIds, 0, gameIds, 0, pos);
+                System.arraycopy(vector.ratings, 0, ratings, 0, pos);
+                System.arraycopy(vector.gameIds, pos + 1, gameIds, pos, size - pos - 1);
+                System.arraycopy(vector.ratings, pos + 1, ratings, pos, size - pos - 1);
+                vectors[ord] = new UserVector(gameIds, ratings);
+            }
+            removePosting(gameId, ord);
+            ratingCount--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeUser(long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer ord = ordinals.get(userId);
+            if (ord != null) {
+                unlinkVector(ord);
+                vectors[ord] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Neighbor> topSimilar(long userId, int k) {
+        lock.readLock().lock();
+        try {
+            Integer ord = ordinals.get(userId);
+            if (ord == null || vectors[ord] == null || vectors[ord].norm == 0) {
+                return List.of();
+            }
+            UserVector target = vectors[ord];
+
+            int[] candidates = generateCandidates(ord, target, Math.max(k * CANDIDATES_PER_RESULT, MIN_CANDIDATES));
+
+            PriorityQueue<Neighbor> best = new PriorityQueue<>(k + 1,
+                (a, b) -> Double.compare(a.similarity(), b.similarity()));
+            for (int candidate : candidates) {
+                Neighbor neighbor = score(target, candidate);
+                if (neighbor == null || neighbor.similarity() <= 0) {
+                    continue;
+                }
+                best.offer(neighbor);
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+
+            List<Neighbor> result = new ArrayList<>(best);
+            result.sort((a, b) -> Double.compare(b.similarity(), a.similarity()));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int userCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int i = 0; i < ordinalCount; i++) {
+                if (vectors[i] != null) count++;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long ratingCount() {
+        lock.readLock().lock();
+        try {
+            return ratingCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] generateCandidates(int ord, UserVector target, int maxCandidates) {
+        int games = target.gameIds.length;
+        if (games < MIN_CO_RATED) {
+            return new int[0];
+        }
+
+        // Walk rarest games first: their postings are short and co-rating them says the most
+        long[] bySize = new long[games];
+        for (int i = 0; i < games; i++) {
+            Postings postings = postingsByGame.get(target.gameIds[i]);
+            bySize[i] = ((long) postings.size << 32) | i;
+        }
+        Arrays.sort(bySize);
+
+        QueryScratch scratch = scratch();
+        int[] overlap = scratch.overlap;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+        long budget = postingsBudget;
+
+        for (int g = 0; g < games && budget > 0; g++) {
+            Postings postings = postingsByGame.get(target.gameIds[(int) bySize[g]]);
+            for (int i = 0; i < postings.size; i++) {
+                int other = postings.ordinals[i];
+                if (other == ord) {
+                    continue;
+                }
+                if (overlap[other]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = scratch.touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = other;
+                }
+            }
+            budget -= postings.size;
+        }
+
+        // Overlap never exceeds the user's game count, so a histogram finds the cut-off without sorting
+        int[] histogram = new int[games + 1];
+        for (int i = 0; i < touchedCount; i++) {
+            histogram[overlap[touched[i]]]++;
+        }
+        int threshold = games;
+        int selected = histogram[games];
+        while (threshold > MIN_CO_RATED && selected < maxCandidates) {
+            threshold--;
+            selected += histogram[threshold];
+        }
+
+        // Everyone above the cut-off first, then fill up with users exactly at it
+        int[] result = new int[Math.min(selected, maxCandidates)];
+        int resultCount = 0;
+        for (int i = 0; i < touchedCount && resultCount < result.length; i++) {
+            int other = touched[i];
+            if (overlap[other] > threshold) {
+                result[resultCount++] = other;
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            int other = touched[i];
+            if (overlap[other] == threshold && resultCount < result.length) {
+                result[resultCount++] = other;
+            }
+            overlap[other] = 0;
+        }
+        return result;
+    }
+
+    private QueryScratch scratch() {
+        QueryScratch scratch = SCRATCH.get();
+        if (scratch.overlap.length < ordinalCount) {
+            scratch.overlap = new int[Math.max(ordinalCount, scratch.overlap.length * 2)];
+        }
+        return scratch;
+    }
+
+    private Neighbor score(UserVector a, int otherOrd) {
+        UserVector b = vectors[otherOrd];
+        if (b == null || b.norm == 0) {
+            return null;
+        }
+
+        double dot = 0;
+        int coRated = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.gameIds.length && j < b.gameIds.length) {
+            int ga = a.gameIds[i];
+            int gb = b.gameIds[j];
+            if (ga == gb) {
+                dot += (a.ratings[i] - a.mean) * (b.ratings[j] - b.mean);
+                coRated++;
+                i++;
+                j++;
+            } else if (ga < gb) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (coRated < MIN_CO_RATED) {
+            return null;
+        }
+
+        double cosine = dot / (a.norm * b.norm);
+        double similarity = cosine * coRated / (coRated + SHRINKAGE);
+        return new Neighbor(userIds[otherOrd], similarity, coRated);
+    }
+
+    private int ordinalFor(long userId) {
+        Integer existing = ordinals.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+        if (ordinalCount == userIds.length) {
+            userIds = Arrays.copyOf(userIds, ordinalCount * 2);
+            vectors = Arrays.copyOf(vectors, ordinalCount * 2);
+        }
+        int ord = ordinalCount++;
+        userIds[ord] = userId;
+        ordinals.put(userId, ord);
+        return ord;
+    }
+
+    private void unlinkVector(int ord) {
+        UserVector vector = vectors[ord];
+        if (vector == null) {
+            return;
+        }
+        for (int gameId : vector.gameIds) {
+            removePosting(gameId, ord);
+        }
+        ratingCount -= vector.gameIds.length;
+    }
+
+    private void removePosting(int gameId, int ord) {
+        Postings postings = postingsByGame.get(gameId);
+        if (postings != null && postings.remove(ord) && postings.size == 0) {
+            postingsByGame.remove(gameId);
+        }
+    }
+
+    /**
+     * Immutable; replaced wholesale on every change so readers never see a half-updated vector
+     */
+    private static final class UserVector {
+        final int[] gameIds;
+        final byte[] ratings;
+        final double mean;
+        final double norm;
+
+        UserVector(int[] gameIds, byte[] ratings) {
+            this.gameIds = gameIds;
+            this.ratings = ratings;
+            double sum = 0;
+            for (byte r : ratings) {
+                sum += r;
+            }
+            this.mean = sum / ratings.length;
+            double squares = 0;
+            for (byte r : ratings) {
+                squares += (r - mean) * (r - mean);
+            }
+            this.norm = Math.sqrt(squares);
+        }
+    }
+
+    /**
+     * A game's (user, rating) postings in no particular order; removal swaps the last entry into
+     * the gap. Short lists are scanned, longer ones also index ordinal to slot so a write to a
+     * popular game costs the same as one to a rare game while the write lock is held.
+     */
+    private static final class Postings {
+        static final int SCAN_LIMIT = 16;
+
+        int[] ordinals = new int[4];
+        byte[] ratings = new byte[4];
+        int size;
+        SlotIndex slots;
+
+        void add(int ord, byte rating) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            ordinals[size] = ord;
+            ratings[size] = rating;
+            if (slots != null) {
+                slots.put(ord, size);
+            }
+            size++;
+            if (slots == null && size > SCAN_LIMIT) {
+                slots = new SlotIndex();
+                for (int i = 0; i < size; i++) {
+                    slots.put(ordinals[i], i);
+                }
+            }
+        }
+
+        void set(int ord, byte rating) {
+            int slot = slotOf(ord);
+            if (slot >= 0) {
+                ratings[slot] = rating;
+            }
+        }
+
+        boolean remove(int ord) {
+            int slot = slotOf(ord);
+            if (slot < 0) {
+                return false;
+            }
+            size--;
+            if (slot != size) {
+                ordinals[slot] = ordinals[size];
+                ratings[slot] = ratings[size];
+                if (slots != null) {
+                    slots.put(ordinals[slot], slot);
+                }
+            }
+            if (slots != null) {
+                slots.remove(ord);
+            }
+            return true;
+        }
+
+        private int slotOf(int ord) {
+            if (slots != null) {
+                return slots.get(ord);
+            }
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ord) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class QueryScratch {
+        int[] overlap = new int[0];
+        int[] touched = new int[1024];
+    }
+}
@@ -9,12 +9,15 @@ import com.mserapinas.boardgame.userservice.exception.ReviewNotFoundException;
 import com.mserapinas.boardgame.userservice.exception.UnauthorizedReviewAccessException;
 import com.mserapinas.boardgame.userservice.model.Review;
 import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.model.UserRatingStats;
 import com.mserapinas.boardgame.userservice.repository.ReviewRepository;
 import com.mserapinas.boardgame.userservice.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class ReviewService {
@@ -22,15 +25,33 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final RecommenderEventPublisher recommenderEventPublisher;
+    private final CoalescingCache<Integer, ReviewListDto> reviewPageCache;
+    private final TasteCompatibilityService tasteCompatibilityService;
+    private final SimilarUserService similarUserService;
+    private final UserRatingStatsService userRatingStatsService;
+    private final ActivityFeedService activityFeedService;
+    private final RatingExportService ratingExportService;
 
     public ReviewService(
         ReviewRepository reviewRepository,
         UserRepository userRepository,
-        RecommenderEventPublisher recommenderEventPublisher
+        RecommenderEventPublisher recommenderEventPublisher,
+        CoalescingCache<Integer, ReviewListDto> reviewPageCache,
+        TasteCompatibilityService tasteCompatibilityService,
+        SimilarUserService similarUserService,
+        UserRatingStatsService userRatingStatsService,
+        ActivityFeedService activityFeedService,
+        RatingExportService ratingExportService
     ) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.recommenderEventPublisher = recommenderEventPublisher;
+        this.reviewPageCache = reviewPageCache;
+        this.tasteCompatibilityService = tasteCompatibilityService;
+        this.similarUserService = similarUserService;
+        this.userRatingStatsService = userRatingStatsService;
+        this.activityFeedService = activityFeedService;
+        this.ratingExportService = ratingExportService;
     }
 
     @Transactional
@@ -42,6 +63,9 @@ public class ReviewService {
             throw new ReviewAlreadyExistsException(userId, request.gameId());
         }
 
+        // Before the insert: locks the user's stats row and, if missing, seeds it without this review
+        userRatingStatsService.recordAdded(userId, request.rating());
+
         Review review = new Review(
             user,
             request.gameId(),
@@ -55,15 +79,19 @@ public class ReviewService {
         Review reviewWithUser = reviewRepository.findByIdWithUser(savedReview.getId())
             .orElseThrow(() -> new ReviewNotFoundException(savedReview.getId()));
 
+        invalidateReviewPage(request.gameId());
+        tasteCompatibilityService.onReviewsChanged(userId);
+        similarUserService.onRatingChanged(userId, request.gameId(), request.rating());
         recommenderEventPublisher.publishReviewChanged(userId);
-        return ReviewDto.from(reviewWithUser);
+        activityFeedService.recordReviewPosted(userId, request.gameId());
+        return toDto(reviewWithUser);
     }
 
     public ReviewDto getReviewById(Long reviewId) {
         Review review = reviewRepository.findByIdWithUser(reviewId)
             .orElseThrow(() -> new ReviewNotFoundException(reviewId));
 
-        return ReviewDto.from(review);
+        return toDto(review);
     }
 
     public List<ReviewDto> getReviewsByUser(Long userId) {
@@ -71,17 +99,27 @@ public class ReviewService {
             throw new IllegalArgumentException("User not found");
         }
 
+        UserRatingStats stats = userRatingStatsService.findByUserId(userId).orElse(null);
         return reviewRepository.findByUserIdWithUser(userId)
             .stream()
-            .map(ReviewDto::from)
+            .map(review -> ReviewDto.from(review, stats))
             .toList();
     }
 
+    /**
+     * Served from the review page cache; concurrent misses for a trending game share one query
+     */
     public ReviewListDto getReviewsByGame(Integer gameId) {
+        return reviewPageCache.get(gameId, this::loadReviewsByGame);
+    }
+
+    private ReviewListDto loadReviewsByGame(Integer gameId) {
         List<Review> reviewEntities = reviewRepository.findByGameIdWithUser(gameId);
 
+        Map<Long, UserRatingStats> stats = userRatingStatsService.findByUserIds(
+            reviewEntities.stream().map(Review::getUserId).distinct().toList());
         List<ReviewDto> reviews = reviewEntities.stream()
-            .map(ReviewDto::from)
+            .map(review -> ReviewDto.from(review, stats.get(review.getUserId())))
             .toList();
 
         Long totalCount = (long) reviewEntities.size();
@@ -93,7 +131,17 @@ public class ReviewService {
             .findFirst()
             .orElse(null);
 
-        return new ReviewListDto(reviews, totalCount, averageRating);
+        Double averageNormalizedRating = reviews.stream()
+            .map(ReviewDto::normalizedRating)
+            .filter(Objects::nonNull)
+            .mapToDouble(Double::doubleValue)
+            .average()
+            .stream()
+            .boxed()
+            .findFirst()
+            .orElse(null);
+
+        return new ReviewListDto(reviews, totalCount, averageRating, averageNormalizedRating);
     }
 
     @Transactional
@@ -105,6 +153,9 @@ public class ReviewService {
             throw new UnauthorizedReviewAccessException(reviewId, userId);
         }
 
+        // Before changing the entity, so an auto-flush cannot put the new rating into a stats seed
+        userRatingStatsService.recordReplaced(userId, review.getRating(), request.rating());
+
         review.setRating(request.rating());
         review.setReviewText(request.reviewText());
 
@@ -114,8 +165,11 @@ public class ReviewService {
         Review reviewWithUser = reviewRepository.findByIdWithUser(savedReview.getId())
             .orElseThrow(() -> new ReviewNotFoundException(savedReview.getId()));
 
+        invalidateReviewPage(review.getGameId());
+        tasteCompatibilityService.onReviewsChanged(userId);
+        similarUserService.onRatingChanged(userId, review.getGameId(), request.rating());
         recommenderEventPublisher.publishReviewChanged(userId);
-        return ReviewDto.from(reviewWithUser);
+        return toDto(reviewWithUser);
     }
 
     @Transactional
@@ -127,7 +181,25 @@ public class ReviewService {
             throw new UnauthorizedReviewAccessException(reviewId, userId);
         }
 
+        userRatingStatsService.recordRemoved(userId, review.getRating());
         reviewRepository.delete(review);
+        ratingExportService.onRatingKeyDeleted(userId, review.getGameId());
+        invalidateReviewPage(review.getGameId());
+        tasteCompatibilityService.onReviewsChanged(userId);
+        similarUserService.onRatingRemoved(userId, review.getGameId());
         recommenderEventPublisher.publishReviewChanged(userId);
     }
+
+    private ReviewDto toDto(Review review) {
+        return ReviewDto.from(review, userRatingStatsService.findByUserId(review.getUserId()).orElse(null));
+    }
+
+    /**
+     * Only the written game's page is evicted. The write also moves the reviewer's mean and spread,
+     * so their normalized ratings on other games' cached pages lag by up to the page TTL; evicting
+     * every game they ever reviewed would flush trending pages on each edit by a prolific reviewer.
+     */
+    private void invalidateReviewPage(Integer gameId) {
+        TransactionHooks.afterCommit(() -> reviewPageCache.invalidate(gameId));
+    }
 }
\ No newline at end of file
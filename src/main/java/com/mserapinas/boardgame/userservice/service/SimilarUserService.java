@@ -0,0 +1,157 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.SimilarUserDto;
+import com.mserapinas.boardgame.userservice.dto.response.SimilarUserListDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * "Players with similar taste", answered from an in-memory {@link RatingVectorIndex} over all reviews.
+ * The index is built from the database once the application is ready and then kept current by
+ * review writes (applied after commit). It is also rebuilt periodically, so reviews written through
+ * other instances show up within the refresh interval. Loading and replay go through a
+ * {@link SnapshotLoader}; every update is an idempotent upsert/remove, so replaying one the load
+ * already saw is harmless.
+ */
+@Service
+public class SimilarUserService {
+
+    static final int MAX_LIMIT = 50;
+
+    private static final String LOAD_SQL = "SELECT user_id, game_id, rating FROM reviews ORDER BY user_id, game_id";
+
+    private final UserRepository userRepository;
+    private final SnapshotLoader<RatingVectorIndex> index;
+    private final boolean loadOnStartup;
+
+    public SimilarUserService(
+        UserRepository userRepository,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        @Value("${similar-users.postings-budget:250000}") int postingsBudget,
+        @Value("${similar-users.fetch-size:5000}") int fetchSize,
+        @Value("${similar-users.load-on-startup:true}") boolean loadOnStartup
+    ) {
+        this.userRepository = userRepository;
+        this.index = new SnapshotLoader<>("Similar-user index", LOAD_SQL, jdbcTemplate, transactionManager, fetchSize,
+            rows -> buildIndex(rows, postingsBudget),
+            loaded -> loaded.userCount() + " users, " + loaded.ratingCount() + " ratings");
+        this.loadOnStartup = loadOnStartup;
+    }
+
+    public SimilarUserListDto getSimilarUsers(Long userId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+
+        RatingVectorIndex current = index.current();
+        if (current == null) {
+            return new SimilarUserListDto(List.of(), false);
+        }
+
+        int k = Math.clamp(limit, 1, MAX_LIMIT);
+        List<RatingVectorIndex.Neighbor> neighbors = current.topSimilar(userId, k);
+        Map<Long, String> names = userRepository.findAllById(
+                neighbors.stream().map(RatingVectorIndex.Neighbor::userId).toList())
+            .stream()
+            .collect(toMap(User::getId, User::getName));
+
+        // Users deleted since their ratings were indexed have no name and are skipped
+        List<SimilarUserDto> users = neighbors.stream()
+            .filter(neighbor -> names.containsKey(neighbor.userId()))
+            .map(neighbor -> new SimilarUserDto(
+                neighbor.userId(),
+                names.get(neighbor.userId()),
+                neighbor.similarity(),
+                neighbor.coRated()
+            ))
+            .toList();
+        return new SimilarUserListDto(users, true);
+    }
+
+    public void onRatingChanged(Long userId, Integer gameId, Integer rating) {
+        TransactionHooks.afterCommit(() -> index.apply(target -> target.upsertRating(userId, gameId, rating)));
+    }
+
+    public void onRatingRemoved(Long userId, Integer gameId) {
+        TransactionHooks.afterCommit(() -> index.apply(target -> target.removeRating(userId, gameId)));
+    }
+
+    public void onUserDeleted(Long userId) {
+        TransactionHooks.afterCommit(() -> index.apply(target -> target.removeUser(userId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (loadOnStartup) {
+            index.loadInBackground("similar-user-index-loader");
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${similar-users.refresh-interval:PT1H}",
+        fixedDelayString = "${similar-users.refresh-interval:PT1H}"
+    )
+    public void refresh() {
+        if (loadOnStartup) {
+            index.reload();
+        }
+    }
+
+    private static RatingVectorIndex buildIndex(SnapshotLoader.Rows rows, int postingsBudget) {
+        RatingVectorIndex built = new RatingVectorIndex(postingsBudget);
+        VectorBuilder vector = new VectorBuilder(built);
+
+        // Rows arrive grouped by user and sorted by game, which is exactly the vector layout
+        rows.forEach(rs -> vector.add(rs.getLong(1), rs.getInt(2), rs.getInt(3)));
+        vector.flush();
+        return built;
+    }
+
+    private static final class VectorBuilder {
+        private final RatingVectorIndex target;
+        private long userId = -1;
+        private int[] gameIds = new int[64];
+        private byte[] ratings = new byte[64];
+        private int size;
+
+        VectorBuilder(RatingVectorIndex target) {
+            this.target = target;
+        }
+
+        void add(long rowUserId, int gameId, int rating) {
+            if (rowUserId != userId) {
+                flush();
+                userId = rowUserId;
+            }
+            if (size == gameIds.length) {
+                gameIds = Arrays.copyOf(gameIds, size * 2);
+                ratings = Arrays.copyOf(ratings, size * 2);
+            }
+            gameIds[size] = gameId;
+            ratings[size] = (byte) rating;
+            size++;
+        }
+
+        void flush() {
+            if (size > 0) {
+                target.putUser(userId, Arrays.copyOf(gameIds, size), Arrays.copyOf(ratings, size));
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from a non-negative id to the slot holding it in an unordered array, for the
+ * in-memory indexes whose lists remove by swapping the last entry into the gap. Lets such a list
+ * find an entry without scanning it. Ids are non-negative, so -1 never occurs as a key and
+ * doubles as the empty-slot marker; removal shifts the rest of the probe run back instead of
+ * leaving tombstones, so a list that churns never fills up with them.
+ *
+ * Not thread-safe; the owning index guards it.
+ */
+final class SlotIndex {
+
+    private static final long EMPTY = -1;
+
+    private long[] keys = newKeys(64);
+    private int[] slots = new int[64];
+    private int size;
+
+    /**
+     * The id's slot, or -1 if it is not present
+     */
+    int get(long id) {
+        int at = find(keys, id);
+        return keys[at] == id ? slots[at] : -1;
+    }
+
+    void put(long id, int slot) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int at = find(keys, id);
+        if (keys[at] != id) {
+            keys[at] = id;
+            size++;
+        }
+        slots[at] = slot;
+    }
+
+    void remove(long id) {
+        int mask = keys.length - 1;
+        int gap = find(keys, id);
+        if (keys[gap] != id) {
+            return;
+        }
+        size--;
+        for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            // Move an entry back into the gap unless its home lies between the gap and itself
+            int home = home(keys[next], mask);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                slots[gap] = slots[next];
+                gap = next;
+            }
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = newKeys(oldKeys.length * 2);
+        slots = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int at = find(keys, oldKeys[i]);
+                keys[at] = oldKeys[i];
+                slots[at] = oldSlots[i];
+            }
+        }
+    }
+
+    /** The id's position, or the empty position where it would go */
+    private static int find(long[] keys, long id) {
+        int mask = keys.length - 1;
+        int at = home(id, mask);
+        while (keys[at] != EMPTY && keys[at] != id) {
+            at = (at + 1) & mask;
+        }
+        return at;
+    }
+
+    private static int home(long id, int mask) {
+        return (int) (id * 0x9E37_79B9_7F4A_7C15L >>> 32) & mask;
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+}
@@ -0,0 +1,153 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An in-memory structure built from one full read of the database and kept current by this
+ * instance's writes, for the services that answer queries from memory ({@link FriendGraph},
+ * {@link RatingVectorIndex}, {@link CollectionMinHashIndex}).
+ *
+ * A load streams the load query through a server-side cursor into a fresh snapshot, then swaps it
+ * in. Updates that arrive while a load is running are applied to the current snapshot (if any) and
+ * queued for replay on the new one, so every update must be idempotent: replaying one the load
+ * already saw has to be harmless. Only one load runs at a time; a failed load keeps the previous
+ * snapshot.
+ */
+final class SnapshotLoader<T> {
+
+    /**
+     * The load query's rows, streamed to the handler one at a time
+     */
+    @FunctionalInterface
+    interface Rows {
+        void forEach(RowCallbackHandler rowHandler);
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotLoader.class);
+
+    private final String name;
+    private final String loadSql;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+    private final Function<Rows, T> builder;
+    private final Function<T, String> summary;
+
+    private final Object updateLock = new Object();
+    private final List<Consumer<T>> pendingUpdates = new ArrayList<>();
+    private volatile T current;
+    private boolean loading;
+
+    /**
+     * @param name what is loaded, for log messages
+     * @param builder builds a snapshot from the load query's rows
+     * @param summary describes a loaded snapshot's size, for log messages
+     */
+    SnapshotLoader(
+        String name,
+        String loadSql,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        int fetchSize,
+        Function<Rows, T> builder,
+        Function<T, String> summary
+    ) {
+        this.name = name;
+        this.loadSql = loadSql;
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL only uses a cursor for setFetchSize when autocommit is off
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+        this.builder = builder;
+        this.summary = summary;
+    }
+
+    /**
+     * The latest loaded snapshot, or null until the first load completes
+     */
+    T current() {
+        return current;
+    }
+
+    /**
+     * Starts a load on a daemon thread, unless one is already running
+     */
+    void loadInBackground(String threadName) {
+        if (!beginLoad()) {
+            return;
+        }
+        Thread loader = new Thread(this::load, threadName);
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Loads on the calling thread, unless a load is already running
+     */
+    void reload() {
+        if (beginLoad()) {
+            load();
+        }
+    }
+
+    void apply(Consumer<T> update) {
+        synchronized (updateLock) {
+            if (current != null) {
+                update.accept(current);
+            }
+            if (loading) {
+                pendingUpdates.add(update);
+            }
+        }
+    }
+
+    private boolean beginLoad() {
+        synchronized (updateLock) {
+            if (loading) {
+                return false;
+            }
+            loading = true;
+            return true;
+        }
+    }
+
+    /**
+     * Must be preceded by a successful {@link #beginLoad()}, so updates from then on are queued
+     */
+    private void load() {
+        long started = System.nanoTime();
+        try {
+            T loaded = transactionTemplate.execute(status -> builder.apply(rowHandler -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(loadSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, rowHandler)));
+            synchronized (updateLock) {
+                pendingUpdates.forEach(update -> update.accept(loaded));
+                pendingUpdates.clear();
+                current = loaded;
+                loading = false;
+            }
+            log.info("{} loaded: {} in {} ms", name, summary.apply(loaded), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (updateLock) {
+                pendingUpdates.clear();
+                loading = false;
+            }
+            log.error("Failed to load {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.TasteCompatibilityDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.repository.ReviewRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pearson correlation between two users' ratings over the games both of them reviewed.
+ * Results are cached per user pair until either user writes a review.
+ *
+ * Cache keys carry each user's review version, bumped on every committed review write, so a
+ * write makes that user's entries unreachable in O(1) instead of scanning the cache for them;
+ * the orphaned entries age out through the cache's TTL and size bound. Versions come from one
+ * clock and never repeat. One version is kept per user who has written a review since startup.
+ */
+@Service
+public class TasteCompatibilityService {
+
+    static final int MAX_DISAGREEMENTS = 3;
+
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final CoalescingCache<UserPair, TasteCompatibilityDto> compatibilityCache;
+    private final Map<Long, Long> reviewVersions = new ConcurrentHashMap<>();
+    private final AtomicLong versionClock = new AtomicLong();
+
+    public TasteCompatibilityService(
+        ReviewRepository reviewRepository,
+        UserRepository userRepository,
+        CoalescingCache<UserPair, TasteCompatibilityDto> compatibilityCache
+    ) {
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.compatibilityCache = compatibilityCache;
+    }
+
+    public TasteCompatibilityDto getCompatibility(Long userId, Long otherUserId) {
+        if (userId.equals(otherUserId)) {
+            throw new IllegalArgumentException("Cannot compare taste with yourself");
+        }
+        if (!userRepository.existsById(otherUserId)) {
+            throw new UserNotFoundException(otherUserId);
+        }
+
+        UserPair pair = new UserPair(userId, otherUserId, reviewVersion(userId), reviewVersion(otherUserId));
+        return compatibilityCache.get(pair, this::compute);
+    }
+
+    /**
+     * Retire every cached score involving this user once the review write commits
+     */
+    public void onReviewsChanged(Long userId) {
+        TransactionHooks.afterCommit(() -> reviewVersions.put(userId, versionClock.incrementAndGet()));
+    }
+
+    private long reviewVersion(Long userId) {
+        return reviewVersions.getOrDefault(userId, 0L);
+    }
+
+    private TasteCompatibilityDto compute(UserPair pair) {
+        RatingVector mine = loadRatings(pair.userId());
+        RatingVector theirs = loadRatings(pair.otherUserId());
+        return compare(pair, mine, theirs);
+    }
+
+    private RatingVector loadRatings(Long userId) {
+        List<Object[]> rows = reviewRepository.findRatingsByUserIdOrderByGameId(userId);
+        int[] gameIds = new int[rows.size()];
+        int[] ratings = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            gameIds[i] = ((Number) row[0]).intValue();
+            ratings[i] = ((Number) row[1]).intValue();
+        }
+        return new RatingVector(gameIds, ratings);
+    }
+
+    static TasteCompatibilityDto compare(UserPair pair, RatingVector mine, RatingVector theirs) {
+        int capacity = Math.min(mine.size(), theirs.size());
+        int[] coGameIds = new int[capacity];
+        int[] x = new int[capacity];
+        int[] y = new int[capacity];
+        int n = 0;
+
+        // Both vectors are sorted by game id, so the co-rated set is a linear merge
+        int i = 0;
+        int j = 0;
+        while (i < mine.size() && j < theirs.size()) {
+            int a = mine.gameIds()[i];
+            int b = theirs.gameIds()[j];
+            if (a == b) {
+                coGameIds[n] = a;
+                x[n] = mine.ratings()[i];
+                y[n] = theirs.ratings()[j];
+                n++;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        Double similarity = pearson(x, y, n);
+        Integer matchPercent = similarity == null ? null : (int) Math.round((similarity + 1.0) * 50.0);
+
+        return new TasteCompatibilityDto(
+            pair.userId(),
+            pair.otherUserId(),
+            similarity,
+            matchPercent,
+            n,
+            biggestDisagreements(coGameIds, x, y, n)
+        );
+    }
+
+    /**
+     * Undefined (null) with fewer than two co-rated games or when either side rated them all the same
+     */
+    private static Double pearson(int[] x, int[] y, int n) {
+        if (n < 2) {
+            return null;
+        }
+
+        double sumX = 0;
+        double sumY = 0;
+        for (int k = 0; k < n; k++) {
+            sumX += x[k];
+            sumY += y[k];
+        }
+        double meanX = sumX / n;
+        double meanY = sumY / n;
+
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (int k = 0; k < n; k++) {
+            double dx = x[k] - meanX;
+            double dy = y[k] - meanY;
+            covariance += dx * dy;
+            varianceX += dx * dx;
+            varianceY += dy * dy;
+        }
+
+        if (varianceX == 0 || varianceY == 0) {
+            return null;
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+
+    private static List<TasteCompatibilityDto.Disagreement> biggestDisagreements(int[] gameIds, int[] x, int[] y, int n) {
+        // Keep the top few by absolute difference with a tiny insertion-sorted buffer
+        int[] top = new int[MAX_DISAGREEMENTS];
+        int size = 0;
+        for (int k = 0; k < n; k++) {
+            int diff = Math.abs(x[k] - y[k]);
+            if (diff == 0) {
+                continue;
+            }
+            int pos = size;
+            while (pos > 0 && Math.abs(x[top[pos - 1]] - y[top[pos - 1]]) < diff) {
+                pos--;
+            }
+            if (pos >= MAX_DISAGREEMENTS) {
+                continue;
+            }
+            int end = Math.min(size, MAX_DISAGREEMENTS - 1);
+            System.arraycopy(top, pos, top, pos + 1, end - pos);
+            top[pos] = k;
+            size = Math.min(size + 1, MAX_DISAGREEMENTS);
+        }
+
+        List<TasteCompatibilityDto.Disagreement> result = new ArrayList<>(size);
+        for (int k = 0; k < size; k++) {
+            int idx = top[k];
+            result.add(new TasteCompatibilityDto.Disagreement(gameIds[idx], x[idx], y[idx]));
+        }
+        return result;
+    }
+
+    /**
+     * Cache key: the pair plus each side's review version at the time of the request
+     */
+    public record UserPair(Long userId, Long otherUserId, long userVersion, long otherVersion) {}
+
+    record RatingVector(int[] gameIds, int[] ratings) {
+        int size() {
+            return gameIds.length;
+        }
+    }
+}
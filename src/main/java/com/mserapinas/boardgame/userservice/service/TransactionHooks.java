@@ -0,0 +1,27 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (cache invalidation, index updates) until the surrounding
+ * transaction commits, so readers never repopulate them from uncommitted state and rolled-back
+ * writes never leak into them. Runs immediately when no transaction is active.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
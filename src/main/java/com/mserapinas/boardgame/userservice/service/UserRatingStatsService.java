@@ -0,0 +1,65 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.model.UserRatingStats;
+import com.mserapinas.boardgame.userservice.repository.UserRatingStatsRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Per-user rating mean/variance used to normalize ratings into z-scores.
+ *
+ * Writers lock the user's stats row before touching the review, which serializes a user's
+ * review writes and keeps the running values exact. The record* methods must therefore be
+ * called before the review row is inserted, changed or deleted: a missing row is seeded from
+ * the user's reviews as they stand at that moment.
+ */
+@Service
+public class UserRatingStatsService {
+
+    private final UserRatingStatsRepository userRatingStatsRepository;
+
+    public UserRatingStatsService(UserRatingStatsRepository userRatingStatsRepository) {
+        this.userRatingStatsRepository = userRatingStatsRepository;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordAdded(Long userId, int rating) {
+        lock(userId).add(rating);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordReplaced(Long userId, int oldRating, int newRating) {
+        if (oldRating != newRating) {
+            lock(userId).replace(oldRating, newRating);
+        }
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordRemoved(Long userId, int rating) {
+        lock(userId).remove(rating);
+    }
+
+    public Optional<UserRatingStats> findByUserId(Long userId) {
+        return userRatingStatsRepository.findById(userId);
+    }
+
+    public Map<Long, UserRatingStats> findByUserIds(Collection<Long> userIds) {
+        return userRatingStatsRepository.findAllById(userIds).stream()
+            .collect(toMap(UserRatingStats::getUserId, Function.identity()));
+    }
+
+    private UserRatingStats lock(Long userId) {
+        return userRatingStatsRepository.findByIdForUpdate(userId).orElseGet(() -> {
+            userRatingStatsRepository.seedFromReviews(userId);
+            return userRatingStatsRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Rating stats missing for user " + userId));
+        });
+    }
+}
@@ -5,6 +5,7 @@ import com.mserapinas.boardgame.userservice.dto.request.UpdateGameCollectionRequ
 import com.mserapinas.boardgame.userservice.dto.request.UpdateUserProfileRequest;
 import com.mserapinas.boardgame.userservice.dto.response.GameCollectionDto;
 import com.mserapinas.boardgame.userservice.dto.response.GameCollectionItemDto;
+import com.mserapinas.boardgame.userservice.dto.response.ReviewListDto;
 import com.mserapinas.boardgame.userservice.dto.response.UserResponse;
 import com.mserapinas.boardgame.userservice.exception.CollectionAccessForbiddenException;
 import com.mserapinas.boardgame.userservice.exception.InvalidCredentialsException;
@@ -17,6 +18,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -32,7 +34,15 @@ public class UserService {
     private final LabelRepository labelRepository;
     private final ReviewRepository reviewRepository;
     private final FriendshipRepository friendshipRepository;
+    private final FriendGraphService friendGraphService;
+    private final UserSocialCountsService userSocialCountsService;
     private final RecommenderEventPublisher recommenderEventPublisher;
+    private final CoalescingCache<Integer, ReviewListDto> reviewPageCache;
+    private final SimilarUserService similarUserService;
+    private final CollectionSimilarityService collectionSimilarityService;
+    private final ActivityFeedService activityFeedService;
+    private final UserRatingStatsRepository userRatingStatsRepository;
+    private final RatingExportService ratingExportService;
 
     public UserService(
         UserRepository userRepository,
@@ -40,14 +50,30 @@ public class UserService {
         LabelRepository labelRepository,
         ReviewRepository reviewRepository,
         FriendshipRepository friendshipRepository,
-        RecommenderEventPublisher recommenderEventPublisher
+        FriendGraphService friendGraphService,
+        UserSocialCountsService userSocialCountsService,
+        RecommenderEventPublisher recommenderEventPublisher,
+        CoalescingCache<Integer, ReviewListDto> reviewPageCache,
+        SimilarUserService similarUserService,
+        CollectionSimilarityService collectionSimilarityService,
+        ActivityFeedService activityFeedService,
+        UserRatingStatsRepository userRatingStatsRepository,
+        RatingExportService ratingExportService
     ) {
         this.userRepository = userRepository;
         this.userBoardGameRepository = userBoardGameRepository;
         this.labelRepository = labelRepository;
         this.reviewRepository = reviewRepository;
         this.friendshipRepository = friendshipRepository;
+        this.friendGraphService = friendGraphService;
+        this.userSocialCountsService = userSocialCountsService;
         this.recommenderEventPublisher = recommenderEventPublisher;
+        this.reviewPageCache = reviewPageCache;
+        this.similarUserService = similarUserService;
+        this.collectionSimilarityService = collectionSimilarityService;
+        this.activityFeedService = activityFeedService;
+        this.userRatingStatsRepository = userRatingStatsRepository;
+        this.ratingExportService = ratingExportService;
     }
 
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -59,12 +85,20 @@ public class UserService {
         User user = userRepository.findById(userId)
             .orElseThrow(InvalidCredentialsException::new);
 
+        if (user.getCollectionVisibility() != CollectionVisibility.PRIVATE
+                && request.collectionVisibility() == CollectionVisibility.PRIVATE) {
+            activityFeedService.onCollectionHidden(userId);
+        }
         user.setName(request.name());
         user.setCollectionVisibility(request.collectionVisibility());
         return userRepository.save(user);
     }
 
     public GameCollectionDto getUserGameCollection(Long userId) {
+        return getUserGameCollection(userId, false);
+    }
+
+    public GameCollectionDto getUserGameCollection(Long userId, boolean includeCommunityRating) {
         if (!userRepository.existsById(userId)) {
             throw new InvalidCredentialsException();
         }
@@ -82,10 +116,18 @@ public class UserService {
             })
             .toList();
 
+        if (includeCommunityRating) {
+            games = withCommunityRatings(games);
+        }
+
         return GameCollectionDto.from(games);
     }
 
     public GameCollectionDto getUserGameCollection(Long requesterId, Long targetUserId) {
+        return getUserGameCollection(requesterId, targetUserId, false);
+    }
+
+    public GameCollectionDto getUserGameCollection(Long requesterId, Long targetUserId, boolean includeCommunityRating) {
         User targetUser = userRepository.findById(targetUserId)
             .orElseThrow(() -> new UserNotFoundException(targetUserId));
 
@@ -94,7 +136,7 @@ public class UserService {
 
         // If it's the user's own collection, always allow
         if (requesterId.equals(targetUserId)) {
-            return getUserGameCollection(targetUserId);
+            return getUserGameCollection(targetUserId, includeCommunityRating);
         }
 
         // Check visibility permissions
@@ -103,7 +145,8 @@ public class UserService {
                 // Everyone can see public collections
                 break;
             case FRIENDS:
-                // Only friends can see
+                // Only friends can see. Checked against the database, not the friend graph: the graph
+                // can lag other instances' unfriends by up to its refresh interval
                 if (!friendshipRepository.areFriends(requesterId, targetUserId)) {
                     throw new CollectionAccessForbiddenException();
                 }
@@ -113,7 +156,31 @@ public class UserService {
                 throw new CollectionAccessForbiddenException();
         }
 
-        return getUserGameCollection(targetUserId);
+        return getUserGameCollection(targetUserId, includeCommunityRating);
+    }
+
+    /**
+     * Community average and review count for every game in the collection, fetched with one grouped
+     * query per chunk of game ids rather than one query per game. Games nobody has reviewed get a
+     * count of zero and no average.
+     */
+    private List<GameCollectionItemDto> withCommunityRatings(List<GameCollectionItemDto> games) {
+        List<Integer> gameIds = games.stream().map(GameCollectionItemDto::gameId).toList();
+        Map<Integer, Object[]> aggregates = new HashMap<>();
+        for (List<Integer> chunk : Batches.chunks(gameIds)) {
+            for (Object[] row : reviewRepository.findRatingAggregatesByGameIds(chunk)) {
+                aggregates.put((Integer) row[0], row);
+            }
+        }
+
+        return games.stream()
+            .map(game -> {
+                Object[] row = aggregates.get(game.gameId());
+                return row == null
+                    ? game.withCommunityRating(null, 0L)
+                    : game.withCommunityRating(((Number) row[1]).doubleValue(), ((Number) row[2]).longValue());
+            })
+            .toList();
     }
 
     @Transactional
@@ -144,6 +211,8 @@ public class UserService {
             .map(Review::getRating)
             .orElse(null);
         recommenderEventPublisher.publishCollectionChanged(userId);
+        collectionSimilarityService.onCollectionChanged(userId);
+        activityFeedService.recordGameAdded(userId, request.gameId());
         return GameCollectionItemDto.from(savedGame, userRating);
     }
 
@@ -180,7 +249,9 @@ public class UserService {
         }
 
         userBoardGameRepository.deleteByUserIdAndGameId(userId, gameId);
+        ratingExportService.onRatingKeyDeleted(userId, gameId);
         recommenderEventPublisher.publishCollectionChanged(userId);
+        collectionSimilarityService.onCollectionChanged(userId);
     }
 
     @Transactional
@@ -209,6 +280,7 @@ public class UserService {
             .map(Review::getRating)
             .orElse(null);
         recommenderEventPublisher.publishCollectionChanged(userId);
+        collectionSimilarityService.onCollectionChanged(userId);
         return GameCollectionItemDto.from(savedGame, userRating);
     }
 
@@ -217,8 +289,21 @@ public class UserService {
         User user = userRepository.findById(userId)
             .orElseThrow(InvalidCredentialsException::new);
 
+        // Cached review pages of every game this user reviewed go stale with the bulk delete
+        List<Integer> reviewedGameIds = reviewRepository.findGameIdsByUserId(userId);
+        // Tombstones for the recommender, while the reviews and collection are still there to list
+        ratingExportService.onUserDeleted(userId);
+
         // Bulk delete all reviews to avoid N+1 problem and transient object issues
         reviewRepository.deleteByUserId(userId);
+        TransactionHooks.afterCommit(() -> reviewedGameIds.forEach(reviewPageCache::invalidate));
+        similarUserService.onUserDeleted(userId);
+        collectionSimilarityService.onUserDeleted(userId);
+        activityFeedService.onUserDeleted(userId);
+        friendGraphService.onUserDeleted(userId);
+        // Before the user row goes, while their friendships still say whose counts to lower
+        userSocialCountsService.onUserDeleted(userId);
+        userRatingStatsRepository.deleteByUserId(userId);
 
         userRepository.delete(user);
     }
@@ -0,0 +1,167 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.SocialCountsDto;
+import com.mserapinas.boardgame.userservice.model.UserSocialCounts;
+import com.mserapinas.boardgame.userservice.repository.UserSocialCountsRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Per-user friend and request counts for badges, maintained by the friendship write paths.
+ *
+ * A write must call {@link #lock} for every user involved before it reads or changes their pair
+ * rows, then the record* methods once the changes are made. Locking holds the users' counts rows
+ * (ascending id) until commit, which serializes writes touching any of them and keeps the counts
+ * exact; a missing row is first seeded from friendships as they stand at that moment.
+ *
+ * Deltas cannot repair a counter that went wrong some other way (a write path that skipped the
+ * record* call, a manual fix to friendships, rows seeded before the pair migration), and the
+ * floor at zero would hide it. {@link #reconcile} therefore recounts every row from friendships
+ * periodically and after the pair migration, and logs how many had drifted.
+ */
+@Service
+public class UserSocialCountsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSocialCountsService.class);
+
+    private final UserSocialCountsRepository userSocialCountsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int reconcileBatchSize;
+
+    public UserSocialCountsService(
+        UserSocialCountsRepository userSocialCountsRepository,
+        PlatformTransactionManager transactionManager,
+        @Value("${social-counts.reconcile-batch-size:500}") int reconcileBatchSize
+    ) {
+        this.userSocialCountsRepository = userSocialCountsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileBatchSize = reconcileBatchSize;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void lock(Long userId, Long otherUserId) {
+        lock(List.of(userId, otherUserId));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void lock(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().distinct().sorted().toList();
+        Set<Long> missing = new TreeSet<>(ids);
+        userSocialCountsRepository.findAllByIdForUpdate(ids)
+            .forEach(counts -> missing.remove(counts.getUserId()));
+        if (missing.isEmpty()) {
+            return;
+        }
+        // Existing rows are locked before any are inserted, and inserts go in id order. A seed that
+        // conflicts with another transaction's uncommitted seed waits for it, so the second lock
+        // sees that row; users still missing after it do not exist.
+        userSocialCountsRepository.seedFromFriendships(missing);
+        userSocialCountsRepository.findAllByIdForUpdate(missing);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordRequestSent(Long requesterId, Long addresseeId) {
+        update(requesterId, UserSocialCounts::addOutgoingRequest);
+        update(addresseeId, UserSocialCounts::addIncomingRequest);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordRequestAccepted(Long requesterId, Long addresseeId) {
+        update(requesterId, counts -> {
+            counts.removeOutgoingRequest();
+            counts.addFriend();
+        });
+        update(addresseeId, counts -> {
+            counts.removeIncomingRequest();
+            counts.addFriend();
+        });
+    }
+
+    /**
+     * A pending request went away without a friendship: declined or cancelled
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordRequestWithdrawn(Long requesterId, Long addresseeId) {
+        update(requesterId, UserSocialCounts::removeOutgoingRequest);
+        update(addresseeId, UserSocialCounts::removeIncomingRequest);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordFriendshipRemoved(Long userId, Long friendId) {
+        update(userId, UserSocialCounts::removeFriend);
+        update(friendId, UserSocialCounts::removeFriend);
+    }
+
+    /**
+     * Must be called before the user's friendships are deleted
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void onUserDeleted(Long userId) {
+        userSocialCountsRepository.releaseDeletedUser(userId);
+        userSocialCountsRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Recounts every counters row from friendships in keyset batches, each its own transaction
+     * that takes the same row locks as a friendship write, so it never races one. Returns how
+     * many rows had drifted.
+     */
+    @Scheduled(
+        initialDelayString = "${social-counts.reconcile-interval:PT6H}",
+        fixedDelayString = "${social-counts.reconcile-interval:PT6H}"
+    )
+    public int reconcile() {
+        long lastUserId = 0;
+        int drifted = 0;
+        while (true) {
+            List<Long> userIds = userSocialCountsRepository.findUserIdsAfter(lastUserId, reconcileBatchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            lastUserId = userIds.getLast();
+            Integer recounted = transactionTemplate.execute(status -> {
+                userSocialCountsRepository.findAllByIdForUpdate(userIds);
+                return userSocialCountsRepository.recountFromFriendships(userIds);
+            });
+            drifted += recounted == null ? 0 : recounted;
+        }
+        if (drifted > 0) {
+            log.warn("Social counts reconciliation: {} users' counters had drifted and were recounted", drifted);
+        }
+        return drifted;
+    }
+
+    /**
+     * Counters when the user has them; otherwise counted from friendships in one query,
+     * without seeding, so reads never write
+     */
+    public SocialCountsDto getCounts(Long userId) {
+        return userSocialCountsRepository.findById(userId)
+            .map(SocialCountsDto::from)
+            .orElseGet(() -> {
+                Object[] row = userSocialCountsRepository.countFromFriendships(userId).getFirst();
+                return new SocialCountsDto(
+                    ((Number) row[0]).longValue(),
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue()
+                );
+            });
+    }
+
+    private void update(Long userId, Consumer<UserSocialCounts> change) {
+        // Locked by lock() and already managed; never seeds here, the change would be counted twice
+        userSocialCountsRepository.findByIdForUpdate(userId).ifPresent(change);
+    }
+}
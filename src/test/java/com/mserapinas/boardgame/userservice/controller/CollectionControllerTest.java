@@ -57,11 +57,11 @@ class CollectionControllerTest {
     void shouldGetCurrentUserGameCollectionSuccessfully() throws Exception {
         LabelDto labelDto = new LabelDto(1L, "Strategy");
         GameCollectionItemDto gameItem = new GameCollectionItemDto(
-            1001, "Great game", 8, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.OWNED
+            1001, "Great game", 8, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.OWNED, null, null
         );
         GameCollectionDto collection = new GameCollectionDto(List.of(gameItem));
 
-        when(userService.getUserGameCollection(TEST_USER_ID)).thenReturn(collection);
+        when(userService.getUserGameCollection(TEST_USER_ID, false)).thenReturn(collection);
 
         mockMvc.perform(get(BASE_URL)
                 .header(USER_ID_HEADER, TEST_USER_ID))
@@ -73,7 +73,7 @@ class CollectionControllerTest {
                 .andExpect(jsonPath("$.games[0].labels[0].id").value(1L))
                 .andExpect(jsonPath("$.games[0].labels[0].name").value("Strategy"));
 
-        verify(userService).getUserGameCollection(TEST_USER_ID);
+        verify(userService).getUserGameCollection(TEST_USER_ID, false);
     }
 
     @Test
@@ -86,14 +86,44 @@ class CollectionControllerTest {
     @Test
     @DisplayName("Should return unauthorized when user not found")
     void shouldReturnUnauthorizedWhenUserNotFound() throws Exception {
-        when(userService.getUserGameCollection(TEST_USER_ID))
+        when(userService.getUserGameCollection(TEST_USER_ID, false))
             .thenThrow(new com.mserapinas.boardgame.userservice.exception.InvalidCredentialsException());
 
         mockMvc.perform(get(BASE_URL)
                 .header(USER_ID_HEADER, TEST_USER_ID))
                 .andExpect(status().isUnauthorized());
 
-        verify(userService).getUserGameCollection(TEST_USER_ID);
+        verify(userService).getUserGameCollection(TEST_USER_ID, false);
+    }
+
+    @Test
+    @DisplayName("Should include community rating when requested")
+    void shouldIncludeCommunityRatingWhenRequested() throws Exception {
+        GameCollectionItemDto gameItem = new GameCollectionItemDto(
+            1001, null, 8, OffsetDateTime.now(), Set.of(), CollectionStatus.OWNED, 7.5, 12L
+        );
+        when(userService.getUserGameCollection(TEST_USER_ID, true))
+            .thenReturn(new GameCollectionDto(List.of(gameItem)));
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("include", "communityRating"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.games[0].communityAverageRating").value(7.5))
+                .andExpect(jsonPath("$.games[0].communityReviewCount").value(12));
+
+        verify(userService).getUserGameCollection(TEST_USER_ID, true);
+    }
+
+    @Test
+    @DisplayName("Should return bad request for unsupported include value")
+    void shouldReturnBadRequestForUnsupportedInclude() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/users/{userId}", 2L)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("include", "everything"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -105,7 +135,7 @@ class CollectionControllerTest {
 
         LabelDto labelDto = new LabelDto(1L, "Strategy");
         GameCollectionItemDto responseItem = new GameCollectionItemDto(
-            1001, "New game notes", null, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.OWNED
+            1001, "New game notes", null, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.OWNED, null, null
         );
 
         when(userService.addGameToCollection(eq(TEST_USER_ID), any(AddGameToCollectionRequest.class))).thenReturn(responseItem);
@@ -181,7 +211,7 @@ class CollectionControllerTest {
 
         LabelDto labelDto = new LabelDto(1L, "Updated");
         GameCollectionItemDto responseItem = new GameCollectionItemDto(
-            gameId, "Updated notes", 7, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.OWNED
+            gameId, "Updated notes", 7, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.OWNED, null, null
         );
 
         when(userService.updateGameInCollection(eq(TEST_USER_ID), eq(gameId), any(UpdateGameCollectionRequest.class)))
@@ -340,7 +370,7 @@ class CollectionControllerTest {
 
         LabelDto labelDto = new LabelDto(1L, "Default");
         GameCollectionItemDto responseItem = new GameCollectionItemDto(
-            1001, null, null, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.WANT_TO_OWN
+            1001, null, null, OffsetDateTime.now(), Set.of(labelDto), CollectionStatus.WANT_TO_OWN, null, null
         );
 
         when(userService.addGameToCollection(eq(TEST_USER_ID), any(AddGameToCollectionRequest.class))).thenReturn(responseItem);
@@ -363,7 +393,7 @@ class CollectionControllerTest {
         );
 
         GameCollectionItemDto responseItem = new GameCollectionItemDto(
-            gameId, null, null, OffsetDateTime.now(), Set.of(), CollectionStatus.OWNED
+            gameId, null, null, OffsetDateTime.now(), Set.of(), CollectionStatus.OWNED, null, null
         );
 
         when(userService.updateGameInCollection(eq(TEST_USER_ID), eq(gameId), any(UpdateGameCollectionRequest.class)))
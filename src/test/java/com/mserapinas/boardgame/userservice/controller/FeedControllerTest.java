@@ -0,0 +1,80 @@
+package com.mserapinas.boardgame.userservice.controller;
+
+import com.mserapinas.boardgame.userservice.dto.response.FeedDto;
+import com.mserapinas.boardgame.userservice.dto.response.FeedItemDto;
+import com.mserapinas.boardgame.userservice.model.ActivityType;
+import com.mserapinas.boardgame.userservice.service.ActivityFeedService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = FeedController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class FeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ActivityFeedService activityFeedService;
+
+    private static final String BASE_URL = "/api/v1/feed";
+    private static final String USER_ID_HEADER = "X-User-ID";
+    private static final Long TEST_USER_ID = 1L;
+    private static final Long FRIEND_USER_ID = 2L;
+
+    @Test
+    @DisplayName("Should return the first feed page with a next cursor")
+    void shouldReturnFirstFeedPage() throws Exception {
+        FeedItemDto item = new FeedItemDto(
+            42L, ActivityType.PLAY_LOGGED, FRIEND_USER_ID, "Kipras", 1001, OffsetDateTime.now());
+        when(activityFeedService.getFeed(TEST_USER_ID, null, 20)).thenReturn(new FeedDto(List.of(item), "42"));
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].eventId").value(42))
+                .andExpect(jsonPath("$.items[0].type").value("PLAY_LOGGED"))
+                .andExpect(jsonPath("$.items[0].actorName").value("Kipras"))
+                .andExpect(jsonPath("$.nextCursor").value("42"));
+
+        verify(activityFeedService).getFeed(TEST_USER_ID, null, 20);
+    }
+
+    @Test
+    @DisplayName("Should pass the cursor and limit through")
+    void shouldPassCursorAndLimit() throws Exception {
+        when(activityFeedService.getFeed(TEST_USER_ID, "42", 10)).thenReturn(new FeedDto(List.of(), null));
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("cursor", "42")
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an invalid cursor")
+    void shouldReturnBadRequestForInvalidCursor() throws Exception {
+        when(activityFeedService.getFeed(TEST_USER_ID, "oops", 20))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("cursor", "oops"))
+                .andExpect(status().isBadRequest());
+    }
+}
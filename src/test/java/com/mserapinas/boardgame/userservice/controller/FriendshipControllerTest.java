@@ -1,9 +1,16 @@
 package com.mserapinas.boardgame.userservice.controller;
 
+import com.mserapinas.boardgame.userservice.dto.response.CollectionSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.ContactMatchDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendListDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendPathDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendRequestBatchResultDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendRequestListDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.MutualFriendsDto;
+import com.mserapinas.boardgame.userservice.dto.response.SocialCountsDto;
 import com.mserapinas.boardgame.userservice.exception.*;
+import com.mserapinas.boardgame.userservice.service.FriendshipNotificationService;
 import com.mserapinas.boardgame.userservice.service.FriendshipService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,8 +20,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +39,9 @@ class FriendshipControllerTest {
     @MockitoBean
     private FriendshipService friendshipService;
 
+    @MockitoBean
+    private FriendshipNotificationService friendshipNotificationService;
+
     private static final String BASE_URL = "/api/v1/friendships";
     private static final String USER_ID_HEADER = "X-User-ID";
     private static final Long TEST_USER_ID = 1L;
@@ -159,6 +171,55 @@ class FriendshipControllerTest {
         verify(friendshipService).acceptFriendRequest(TEST_USER_ID, FRIEND_USER_ID);
     }
 
+    // ========== Batch Friend Request Tests ==========
+
+    @Test
+    @DisplayName("Should accept a batch of friend requests and report each outcome")
+    void shouldAcceptFriendRequestBatch() throws Exception {
+        when(friendshipService.acceptFriendRequests(TEST_USER_ID, List.of(2L, 3L)))
+                .thenReturn(new FriendRequestBatchResultDto(List.of(
+                        new FriendRequestBatchResultDto.FriendRequestBatchItemDto(2L, FriendRequestBatchResultDto.Outcome.ACCEPTED),
+                        new FriendRequestBatchResultDto.FriendRequestBatchItemDto(3L, FriendRequestBatchResultDto.Outcome.NOT_FOUND))));
+
+        mockMvc.perform(post(BASE_URL + "/requests/batch/accept")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"requesterIds\": [2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].requesterId").value(2))
+                .andExpect(jsonPath("$.results[0].outcome").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"));
+
+        verify(friendshipService).acceptFriendRequests(TEST_USER_ID, List.of(2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Should decline a batch of friend requests")
+    void shouldDeclineFriendRequestBatch() throws Exception {
+        when(friendshipService.declineFriendRequests(TEST_USER_ID, List.of(2L)))
+                .thenReturn(new FriendRequestBatchResultDto(List.of(
+                        new FriendRequestBatchResultDto.FriendRequestBatchItemDto(2L, FriendRequestBatchResultDto.Outcome.DECLINED))));
+
+        mockMvc.perform(post(BASE_URL + "/requests/batch/decline")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"requesterIds\": [2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].outcome").value("DECLINED"));
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an empty batch")
+    void shouldReturnBadRequestForEmptyBatch() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/requests/batch/accept")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"requesterIds\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(friendshipService, never()).acceptFriendRequests(any(), any());
+    }
+
     // ========== Decline Friend Request Tests ==========
 
     @Test
@@ -271,6 +332,31 @@ class FriendshipControllerTest {
         verify(friendshipService).getIncomingRequests(TEST_USER_ID);
     }
 
+    // ========== Friend Request Stream Tests ==========
+
+    @Test
+    @DisplayName("Should open an event stream for friend request notifications")
+    void shouldOpenFriendRequestStream() throws Exception {
+        when(friendshipNotificationService.subscribe(TEST_USER_ID)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(BASE_URL + "/requests/stream")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(friendshipNotificationService).subscribe(TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("Should return bad request when opening the stream without X-User-ID header")
+    void shouldReturnBadRequestWhenOpeningStreamWithoutHeader() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/requests/stream"))
+                .andExpect(status().isBadRequest());
+
+        verify(friendshipNotificationService, never()).subscribe(any());
+    }
+
     // ========== Get Outgoing Requests Tests ==========
 
     @Test
@@ -316,17 +402,48 @@ class FriendshipControllerTest {
     @Test
     @DisplayName("Should get friends list successfully")
     void shouldGetFriendsListSuccessfully() throws Exception {
-        FriendListDto friendListDto = new FriendListDto(Collections.emptyList(), 0L);
-        when(friendshipService.getFriends(TEST_USER_ID)).thenReturn(friendListDto);
+        FriendListDto friendListDto = new FriendListDto(Collections.emptyList(), 0L, null);
+        when(friendshipService.getFriends(TEST_USER_ID, null, null, 50)).thenReturn(friendListDto);
 
         mockMvc.perform(get(BASE_URL)
                 .header(USER_ID_HEADER, TEST_USER_ID))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.friends").isArray())
-                .andExpect(jsonPath("$.totalCount").value(0));
+                .andExpect(jsonPath("$.totalCount").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(friendshipService).getFriends(TEST_USER_ID, null, null, 50);
+    }
 
-        verify(friendshipService).getFriends(TEST_USER_ID);
+    @Test
+    @DisplayName("Should pass cursor, name prefix and limit through when getting friends")
+    void shouldPassPaginationParametersWhenGettingFriends() throws Exception {
+        FriendListDto friendListDto = new FriendListDto(Collections.emptyList(), 12L, "next");
+        when(friendshipService.getFriends(TEST_USER_ID, "abc", "jo", 10)).thenReturn(friendListDto);
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("cursor", "abc")
+                .param("namePrefix", "jo")
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCount").value(12))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(friendshipService).getFriends(TEST_USER_ID, "abc", "jo", 10);
+    }
+
+    @Test
+    @DisplayName("Should return bad request when getting friends with an invalid cursor")
+    void shouldReturnBadRequestWhenGettingFriendsWithInvalidCursor() throws Exception {
+        when(friendshipService.getFriends(TEST_USER_ID, "garbage", null, 50))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -335,20 +452,20 @@ class FriendshipControllerTest {
         mockMvc.perform(get(BASE_URL))
                 .andExpect(status().isBadRequest());
 
-        verify(friendshipService, never()).getFriends(any());
+        verify(friendshipService, never()).getFriends(any(), any(), any(), anyInt());
     }
 
     @Test
     @DisplayName("Should return not found when getting friends for non-existent user")
     void shouldReturnNotFoundWhenGettingFriendsForNonExistentUser() throws Exception {
-        when(friendshipService.getFriends(TEST_USER_ID))
+        when(friendshipService.getFriends(TEST_USER_ID, null, null, 50))
                 .thenThrow(new UserNotFoundException(TEST_USER_ID));
 
         mockMvc.perform(get(BASE_URL)
                 .header(USER_ID_HEADER, TEST_USER_ID))
                 .andExpect(status().isNotFound());
 
-        verify(friendshipService).getFriends(TEST_USER_ID);
+        verify(friendshipService).getFriends(TEST_USER_ID, null, null, 50);
     }
 
     // ========== Remove Friend Tests ==========
@@ -387,13 +504,99 @@ class FriendshipControllerTest {
         verify(friendshipService).removeFriend(TEST_USER_ID, FRIEND_USER_ID);
     }
 
+    // ========== Get Social Counts Tests ==========
+
+    @Test
+    @DisplayName("Should get social counts successfully")
+    void shouldGetSocialCountsSuccessfully() throws Exception {
+        when(friendshipService.getSocialCounts(TEST_USER_ID)).thenReturn(new SocialCountsDto(12L, 2L, 1L));
+
+        mockMvc.perform(get(BASE_URL + "/counts")
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.friendCount").value(12))
+                .andExpect(jsonPath("$.incomingRequestCount").value(2))
+                .andExpect(jsonPath("$.outgoingRequestCount").value(1));
+
+        verify(friendshipService).getSocialCounts(TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("Should return bad request when getting social counts without X-User-ID header")
+    void shouldReturnBadRequestWhenGettingSocialCountsWithoutHeader() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/counts"))
+                .andExpect(status().isBadRequest());
+
+        verify(friendshipService, never()).getSocialCounts(any());
+    }
+
+    // ========== Get Mutual Friends Tests ==========
+
+    @Test
+    @DisplayName("Should get mutual friends successfully")
+    void shouldGetMutualFriendsSuccessfully() throws Exception {
+        MutualFriendsDto mutualFriendsDto = new MutualFriendsDto(Collections.emptyList(), 12L);
+        when(friendshipService.getMutualFriends(TEST_USER_ID, FRIEND_USER_ID, 10)).thenReturn(mutualFriendsDto);
+
+        mockMvc.perform(get(BASE_URL + "/mutual/" + FRIEND_USER_ID)
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.mutualFriends").isArray())
+                .andExpect(jsonPath("$.totalCount").value(12));
+
+        verify(friendshipService).getMutualFriends(TEST_USER_ID, FRIEND_USER_ID, 10);
+    }
+
+    @Test
+    @DisplayName("Should return bad request when getting mutual friends with yourself")
+    void shouldReturnBadRequestWhenGettingMutualFriendsWithSelf() throws Exception {
+        when(friendshipService.getMutualFriends(TEST_USER_ID, TEST_USER_ID, 10))
+                .thenThrow(new IllegalArgumentException("Mutual friends need two different users"));
+
+        mockMvc.perform(get(BASE_URL + "/mutual/" + TEST_USER_ID)
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ========== Get Friend Path Tests ==========
+
+    @Test
+    @DisplayName("Should get friend path with the default depth limit")
+    void shouldGetFriendPathSuccessfully() throws Exception {
+        FriendPathDto friendPathDto = new FriendPathDto(Collections.emptyList(), null, false);
+        when(friendshipService.getFriendPath(TEST_USER_ID, FRIEND_USER_ID, 4)).thenReturn(friendPathDto);
+
+        mockMvc.perform(get(BASE_URL + "/path/" + FRIEND_USER_ID)
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.path").isArray())
+                .andExpect(jsonPath("$.truncated").value(false));
+
+        verify(friendshipService).getFriendPath(TEST_USER_ID, FRIEND_USER_ID, 4);
+    }
+
+    @Test
+    @DisplayName("Should return not found when the other user does not exist")
+    void shouldReturnNotFoundWhenGettingFriendPathToNonExistentUser() throws Exception {
+        when(friendshipService.getFriendPath(TEST_USER_ID, FRIEND_USER_ID, 2))
+                .thenThrow(new UserNotFoundException(FRIEND_USER_ID));
+
+        mockMvc.perform(get(BASE_URL + "/path/" + FRIEND_USER_ID)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("maxDepth", "2"))
+                .andExpect(status().isNotFound());
+    }
+
     // ========== Get Friend Suggestions Tests ==========
 
     @Test
     @DisplayName("Should get friend suggestions successfully")
     void shouldGetFriendSuggestionsSuccessfully() throws Exception {
         FriendSuggestionDto suggestionDto = new FriendSuggestionDto(Collections.emptyList(), 0L);
-        when(friendshipService.getFriendSuggestions(TEST_USER_ID)).thenReturn(suggestionDto);
+        when(friendshipService.getFriendSuggestions(TEST_USER_ID, 20)).thenReturn(suggestionDto);
 
         mockMvc.perform(get(BASE_URL + "/suggestions")
                 .header(USER_ID_HEADER, TEST_USER_ID))
@@ -402,7 +605,21 @@ class FriendshipControllerTest {
                 .andExpect(jsonPath("$.suggestions").isArray())
                 .andExpect(jsonPath("$.totalCount").value(0));
 
-        verify(friendshipService).getFriendSuggestions(TEST_USER_ID);
+        verify(friendshipService).getFriendSuggestions(TEST_USER_ID, 20);
+    }
+
+    @Test
+    @DisplayName("Should pass the suggestion limit to the service")
+    void shouldPassSuggestionLimit() throws Exception {
+        when(friendshipService.getFriendSuggestions(TEST_USER_ID, 5))
+                .thenReturn(new FriendSuggestionDto(Collections.emptyList(), 0L));
+
+        mockMvc.perform(get(BASE_URL + "/suggestions")
+                .param("limit", "5")
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk());
+
+        verify(friendshipService).getFriendSuggestions(TEST_USER_ID, 5);
     }
 
     @Test
@@ -411,20 +628,20 @@ class FriendshipControllerTest {
         mockMvc.perform(get(BASE_URL + "/suggestions"))
                 .andExpect(status().isBadRequest());
 
-        verify(friendshipService, never()).getFriendSuggestions(any());
+        verify(friendshipService, never()).getFriendSuggestions(any(), anyInt());
     }
 
     @Test
     @DisplayName("Should return not found when getting friend suggestions for non-existent user")
     void shouldReturnNotFoundWhenGettingFriendSuggestionsForNonExistentUser() throws Exception {
-        when(friendshipService.getFriendSuggestions(TEST_USER_ID))
+        when(friendshipService.getFriendSuggestions(TEST_USER_ID, 20))
                 .thenThrow(new UserNotFoundException(TEST_USER_ID));
 
         mockMvc.perform(get(BASE_URL + "/suggestions")
                 .header(USER_ID_HEADER, TEST_USER_ID))
                 .andExpect(status().isNotFound());
 
-        verify(friendshipService).getFriendSuggestions(TEST_USER_ID);
+        verify(friendshipService).getFriendSuggestions(TEST_USER_ID, 20);
     }
 
     @Test
@@ -434,4 +651,55 @@ class FriendshipControllerTest {
                 .header(USER_ID_HEADER, "invalid-id"))
                 .andExpect(status().isBadRequest());
     }
+
+    // ========== Get Collection Suggestions Tests ==========
+
+    @Test
+    @DisplayName("Should get collection suggestions with the default limit")
+    void shouldGetCollectionSuggestionsSuccessfully() throws Exception {
+        CollectionSuggestionDto suggestionDto = new CollectionSuggestionDto(Collections.emptyList(), true);
+        when(friendshipService.getCollectionSuggestions(TEST_USER_ID, 20)).thenReturn(suggestionDto);
+
+        mockMvc.perform(get(BASE_URL + "/suggestions/collection")
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.suggestions").isArray())
+                .andExpect(jsonPath("$.indexReady").value(true));
+
+        verify(friendshipService).getCollectionSuggestions(TEST_USER_ID, 20);
+    }
+
+    // ========== Contact Match Tests ==========
+
+    @Test
+    @DisplayName("Should match contacts and return each match's friendship state")
+    void shouldMatchContacts() throws Exception {
+        when(friendshipService.matchContacts(TEST_USER_ID, List.of("kipras@example.com"), null))
+                .thenReturn(new ContactMatchDto(List.of(new ContactMatchDto.ContactMatchItemDto(
+                        "kipras@example.com", FRIEND_USER_ID, "Kipras", ContactMatchDto.FriendshipState.REQUEST_SENT))));
+
+        mockMvc.perform(post(BASE_URL + "/contacts/match")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emails\": [\"kipras@example.com\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matches[0].contact").value("kipras@example.com"))
+                .andExpect(jsonPath("$.matches[0].userId").value(FRIEND_USER_ID))
+                .andExpect(jsonPath("$.matches[0].friendshipState").value("REQUEST_SENT"));
+
+        verify(friendshipService).matchContacts(TEST_USER_ID, List.of("kipras@example.com"), null);
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an email hash that is not 64 hex characters")
+    void shouldRejectMalformedEmailHash() throws Exception {
+        mockMvc.perform(post(BASE_URL + "/contacts/match")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emailHashes\": [\"not-a-hash\"]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(friendshipService, never()).matchContacts(any(), any(), any());
+    }
 }
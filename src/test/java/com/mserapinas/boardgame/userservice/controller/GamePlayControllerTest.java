@@ -2,9 +2,14 @@ package com.mserapinas.boardgame.userservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mserapinas.boardgame.userservice.dto.request.CreateGamePlayRequest;
+import com.mserapinas.boardgame.userservice.dto.request.PlayHistoryQuery;
 import com.mserapinas.boardgame.userservice.dto.response.GamePlayDto;
+import com.mserapinas.boardgame.userservice.dto.response.GamePlayPageDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto;
 import com.mserapinas.boardgame.userservice.exception.InvalidWinnerException;
 import com.mserapinas.boardgame.userservice.service.GamePlayService;
+import com.mserapinas.boardgame.userservice.service.GamePlayStatsService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +44,9 @@ class GamePlayControllerTest {
     @MockitoBean
     private GamePlayService gamePlayService;
 
+    @MockitoBean
+    private GamePlayStatsService gamePlayStatsService;
+
     private static final String BASE_URL = "/api/v1/plays";
     private static final String USER_ID_HEADER = "X-User-ID";
     private static final Long TEST_USER_ID = 1L;
@@ -149,4 +157,151 @@ class GamePlayControllerTest {
 
         verify(gamePlayService).getPlaysForGame(TEST_USER_ID, TEST_GAME_ID);
     }
+
+    @Test
+    @DisplayName("Should return play counts for a range, defaulting to monthly periods")
+    void shouldReturnPlayCounts() throws Exception {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        when(gamePlayStatsService.getPlayCounts(TEST_USER_ID, from, to, PlayCountsDto.Granularity.MONTH, null))
+            .thenReturn(new PlayCountsDto(from, to, PlayCountsDto.Granularity.MONTH, List.of(
+                new PlayCountsDto.PlayCountDto(LocalDate.of(2024, 3, 1), TEST_GAME_ID, 4))));
+
+        mockMvc.perform(get(BASE_URL + "/counts")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("from", "2024-01-01")
+                .param("to", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("MONTH"))
+                .andExpect(jsonPath("$.counts[0].periodStart").value("2024-03-01"))
+                .andExpect(jsonPath("$.counts[0].gameId").value(TEST_GAME_ID))
+                .andExpect(jsonPath("$.counts[0].timesPlayed").value(4));
+    }
+
+    @Test
+    @DisplayName("Should pass granularity and game filter through")
+    void shouldPassGranularityAndGameFilter() throws Exception {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        when(gamePlayStatsService.getPlayCounts(
+                TEST_USER_ID, from, to, PlayCountsDto.Granularity.WEEK, List.of(TEST_GAME_ID, 2002)))
+            .thenReturn(new PlayCountsDto(from, to, PlayCountsDto.Granularity.WEEK, List.of()));
+
+        mockMvc.perform(get(BASE_URL + "/counts")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("from", "2025-06-01")
+                .param("to", "2025-06-30")
+                .param("granularity", "WEEK")
+                .param("gameIds", TEST_GAME_ID.toString(), "2002"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an unknown granularity")
+    void shouldRejectUnknownGranularity() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/counts")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("from", "2025-06-01")
+                .param("to", "2025-06-30")
+                .param("granularity", "DECADE"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(gamePlayStatsService);
+    }
+
+    @Test
+    @DisplayName("Should return the current user's player stats")
+    void shouldReturnPlayerStats() throws Exception {
+        PlayerStatsDto stats = new PlayerStatsDto(5, 1, 1,
+            List.of(new PlayerStatsDto.GameStatsDto(TEST_GAME_ID, 5, 4, 2, 0.5)),
+            List.of(new PlayerStatsDto.OpponentRecordDto(2L, "Kipras", 5, 2, 2)),
+            List.of(new PlayerStatsDto.YearTopGameDto(2026, TEST_GAME_ID, 5)));
+        when(gamePlayStatsService.getPlayerStats(TEST_USER_ID)).thenReturn(stats);
+
+        mockMvc.perform(get(BASE_URL + "/stats")
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.playIndex").value(1))
+                .andExpect(jsonPath("$.games[0].winRate").value(0.5))
+                .andExpect(jsonPath("$.opponents[0].userName").value("Kipras"))
+                .andExpect(jsonPath("$.mostPlayedByYear[0].year").value(2026));
+    }
+
+    @Test
+    @DisplayName("Should return a page of tagged plays with defaults")
+    void shouldReturnTaggedPlays() throws Exception {
+        when(gamePlayService.getTaggedPlays(TEST_USER_ID, null, false, 20))
+            .thenReturn(new GamePlayPageDto(List.of(sampleDto()), "next"));
+
+        mockMvc.perform(get(BASE_URL + "/tagged")
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays[0].id").value(TEST_PLAY_ID))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("Should pass cursor, includeOwn and limit through for tagged plays")
+    void shouldPassTaggedPlaysParameters() throws Exception {
+        when(gamePlayService.getTaggedPlays(TEST_USER_ID, "abc", true, 5))
+            .thenReturn(new GamePlayPageDto(List.of(), null));
+
+        mockMvc.perform(get(BASE_URL + "/tagged")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("cursor", "abc")
+                .param("includeOwn", "true")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return bad request for an invalid tagged plays cursor")
+    void shouldRejectInvalidTaggedPlaysCursor() throws Exception {
+        when(gamePlayService.getTaggedPlays(TEST_USER_ID, "oops", false, 20))
+            .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get(BASE_URL + "/tagged")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("cursor", "oops"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should bind play history filters from query parameters")
+    void shouldBindPlayHistoryFilters() throws Exception {
+        PlayHistoryQuery query = new PlayHistoryQuery(
+            TEST_GAME_ID, 2L, 3L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31), 7L);
+        when(gamePlayService.getPlayHistory(TEST_USER_ID, query, "abc", 10))
+            .thenReturn(new GamePlayPageDto(List.of(sampleDto()), null));
+
+        mockMvc.perform(get(BASE_URL + "/history")
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("gameId", TEST_GAME_ID.toString())
+                .param("coPlayerId", "2")
+                .param("winnerId", "3")
+                .param("from", "2025-01-01")
+                .param("to", "2025-12-31")
+                .param("groupId", "7")
+                .param("cursor", "abc")
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays[0].id").value(TEST_PLAY_ID))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should return unfiltered play history with defaults")
+    void shouldReturnUnfilteredPlayHistory() throws Exception {
+        PlayHistoryQuery query = new PlayHistoryQuery(null, null, null, null, null, null);
+        when(gamePlayService.getPlayHistory(TEST_USER_ID, query, null, 20))
+            .thenReturn(new GamePlayPageDto(List.of(), null));
+
+        mockMvc.perform(get(BASE_URL + "/history")
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays").isEmpty());
+    }
 }
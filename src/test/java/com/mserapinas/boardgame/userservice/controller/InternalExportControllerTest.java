@@ -0,0 +1,98 @@
+package com.mserapinas.boardgame.userservice.controller;
+
+import com.mserapinas.boardgame.userservice.service.RatingExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = InternalExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class InternalExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private RatingExportService ratingExportService;
+
+    private static final String BASE_URL = "/api/v1/internal/export";
+    private static final String ROW = "{\"user_id\":1,\"game_id\":1001,\"rating\":8,\"status\":\"OWNED\",\"updated_at\":\"2026-01-01T00:00Z\"}\n";
+
+    @Test
+    @DisplayName("Should stream full rating export as NDJSON with a watermark header")
+    void shouldStreamFullExport() throws Exception {
+        OffsetDateTime watermark = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        when(ratingExportService.nextWatermark()).thenReturn(watermark);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(ROW.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(ratingExportService).exportRatings(isNull(), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/ratings"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Export-Watermark", watermark.toString()))
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(ROW));
+    }
+
+    @Test
+    @DisplayName("Should pass since watermark to incremental export")
+    void shouldPassSinceToIncrementalExport() throws Exception {
+        OffsetDateTime since = OffsetDateTime.parse("2025-12-31T23:00:00Z");
+        when(ratingExportService.nextWatermark()).thenReturn(OffsetDateTime.now());
+
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/ratings").param("since", since.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        verify(ratingExportService).exportRatings(eq(since), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should return bad request for malformed since watermark")
+    void shouldRejectMalformedSince() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/ratings").param("since", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        verify(ratingExportService, never()).exportRatings(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return bad request when since is older than the tombstone retention")
+    void shouldRejectSinceOlderThanRetention() throws Exception {
+        OffsetDateTime since = OffsetDateTime.parse("2020-01-01T00:00:00Z");
+        doThrow(new IllegalArgumentException("since is older than the tombstone retention"))
+            .when(ratingExportService).checkSince(since);
+
+        mockMvc.perform(get(BASE_URL + "/ratings").param("since", since.toString()))
+                .andExpect(status().isBadRequest());
+
+        verify(ratingExportService, never()).exportRatings(any(), any());
+    }
+}
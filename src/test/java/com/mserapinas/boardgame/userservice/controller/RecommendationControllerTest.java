@@ -0,0 +1,55 @@
+package com.mserapinas.boardgame.userservice.controller;
+
+import com.mserapinas.boardgame.userservice.dto.response.RecommendationDto;
+import com.mserapinas.boardgame.userservice.dto.response.RecommendationListDto;
+import com.mserapinas.boardgame.userservice.service.ItemRecommendationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = RecommendationController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class RecommendationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ItemRecommendationService itemRecommendationService;
+
+    private static final String BASE_URL = "/api/v1/recommendations";
+    private static final String USER_ID_HEADER = "X-User-ID";
+    private static final Long TEST_USER_ID = 1L;
+
+    @Test
+    @DisplayName("Should return item-item recommendations for the current user")
+    void shouldReturnRecommendations() throws Exception {
+        RecommendationListDto recommendations = new RecommendationListDto(
+            List.of(new RecommendationDto(1002, 1.25, 1001)),
+            "item-item",
+            OffsetDateTime.now()
+        );
+        when(itemRecommendationService.getRecommendations(TEST_USER_ID, 5)).thenReturn(recommendations);
+
+        mockMvc.perform(get(BASE_URL)
+                .header(USER_ID_HEADER, TEST_USER_ID)
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.source").value("item-item"))
+                .andExpect(jsonPath("$.recommendations[0].gameId").value(1002))
+                .andExpect(jsonPath("$.recommendations[0].becauseYouOwnGameId").value(1001));
+    }
+}
@@ -57,6 +57,7 @@ class ReviewControllerTest {
             "Test User",
             TEST_GAME_ID,
             5,
+            0.5,
             "Amazing game!",
             OffsetDateTime.now(),
             OffsetDateTime.now()
@@ -146,6 +147,7 @@ class ReviewControllerTest {
             "Test User",
             TEST_GAME_ID,
             4,
+            0.5,
             null,
             OffsetDateTime.now(),
             OffsetDateTime.now()
@@ -191,6 +193,7 @@ class ReviewControllerTest {
             "Test User",
             TEST_GAME_ID,
             5,
+            0.5,
             "Great game!",
             OffsetDateTime.now(),
             OffsetDateTime.now()
@@ -228,6 +231,7 @@ class ReviewControllerTest {
             "Test User",
             TEST_GAME_ID,
             5,
+            0.5,
             "Great!",
             OffsetDateTime.now(),
             OffsetDateTime.now()
@@ -254,11 +258,12 @@ class ReviewControllerTest {
             "Test User",
             TEST_GAME_ID,
             5,
+            0.5,
             "Great!",
             OffsetDateTime.now(),
             OffsetDateTime.now()
         );
-        ReviewListDto reviewListDto = new ReviewListDto(List.of(reviewDto), 1L, 5.0);
+        ReviewListDto reviewListDto = new ReviewListDto(List.of(reviewDto), 1L, 5.0, 0.5);
 
         when(reviewService.getReviewsByGame(TEST_GAME_ID)).thenReturn(reviewListDto);
 
@@ -267,7 +272,9 @@ class ReviewControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.reviews").isArray())
                 .andExpect(jsonPath("$.totalCount").value(1))
-                .andExpect(jsonPath("$.averageRating").value(5.0));
+                .andExpect(jsonPath("$.averageRating").value(5.0))
+                .andExpect(jsonPath("$.averageNormalizedRating").value(0.5))
+                .andExpect(jsonPath("$.reviews[0].normalizedRating").value(0.5));
 
         verify(reviewService).getReviewsByGame(TEST_GAME_ID);
     }
@@ -282,6 +289,7 @@ class ReviewControllerTest {
             "Test User",
             TEST_GAME_ID,
             4,
+            0.5,
             "Updated review",
             OffsetDateTime.now(),
             OffsetDateTime.now()
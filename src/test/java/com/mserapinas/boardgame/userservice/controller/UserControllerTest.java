@@ -4,9 +4,15 @@ import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mserapinas.boardgame.userservice.dto.request.UpdateUserProfileRequest;
+import com.mserapinas.boardgame.userservice.dto.response.SimilarUserDto;
+import com.mserapinas.boardgame.userservice.dto.response.SimilarUserListDto;
+import com.mserapinas.boardgame.userservice.dto.response.TasteCompatibilityDto;
 import com.mserapinas.boardgame.userservice.exception.InvalidCredentialsException;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
 import com.mserapinas.boardgame.userservice.model.User;
 import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import com.mserapinas.boardgame.userservice.service.SimilarUserService;
+import com.mserapinas.boardgame.userservice.service.TasteCompatibilityService;
 import com.mserapinas.boardgame.userservice.service.UserService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +24,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -42,6 +49,12 @@ class UserControllerTest {
     @MockitoBean
     private UserRepository userRepository;
 
+    @MockitoBean
+    private TasteCompatibilityService tasteCompatibilityService;
+
+    @MockitoBean
+    private SimilarUserService similarUserService;
+
     private static final String BASE_URL = "/api/v1/users";
     private static final String USER_ID_HEADER = "X-User-ID";
     private static final Long TEST_USER_ID = 1L;
@@ -259,4 +272,50 @@ class UserControllerTest {
                 .header(USER_ID_HEADER, "invalid-id"))
                 .andExpect(status().isBadRequest()); // Invalid user ID format
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return taste compatibility with another user")
+    void shouldReturnTasteCompatibility() throws Exception {
+        TasteCompatibilityDto compatibility = new TasteCompatibilityDto(
+            TEST_USER_ID, 2L, 0.74, 87, 12,
+            List.of(new TasteCompatibilityDto.Disagreement(1001, 9, 3))
+        );
+        when(tasteCompatibilityService.getCompatibility(TEST_USER_ID, 2L)).thenReturn(compatibility);
+
+        mockMvc.perform(get(BASE_URL + "/{userId}/compatibility", 2L)
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matchPercent").value(87))
+                .andExpect(jsonPath("$.coRatedGames").value(12))
+                .andExpect(jsonPath("$.biggestDisagreements[0].gameId").value(1001));
+    }
+
+    @Test
+    @DisplayName("Should return not found for compatibility with unknown user")
+    void shouldReturnNotFoundForCompatibilityWithUnknownUser() throws Exception {
+        when(tasteCompatibilityService.getCompatibility(TEST_USER_ID, 999L))
+            .thenThrow(new UserNotFoundException(999L));
+
+        mockMvc.perform(get(BASE_URL + "/{userId}/compatibility", 999L)
+                .header(USER_ID_HEADER, TEST_USER_ID))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should return similar users")
+    void shouldReturnSimilarUsers() throws Exception {
+        SimilarUserListDto similarUsers = new SimilarUserListDto(
+            List.of(new SimilarUserDto(2L, "Other User", 0.62, 14)),
+            true
+        );
+        when(similarUserService.getSimilarUsers(TEST_USER_ID, 5)).thenReturn(similarUsers);
+
+        mockMvc.perform(get(BASE_URL + "/{userId}/similar-users", TEST_USER_ID)
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.indexReady").value(true))
+                .andExpect(jsonPath("$.users[0].userId").value(2))
+                .andExpect(jsonPath("$.users[0].name").value("Other User"))
+                .andExpect(jsonPath("$.users[0].coRatedGames").value(14));
+    }
+}
@@ -0,0 +1,140 @@
+package com.mserapinas.boardgame.userservice.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mserapinas.boardgame.userservice.dto.request.AddGameToCollectionRequest;
+import com.mserapinas.boardgame.userservice.dto.request.CreateReviewRequest;
+import com.mserapinas.boardgame.userservice.dto.request.RegisterRequest;
+import com.mserapinas.boardgame.userservice.dto.request.UpdateUserProfileRequest;
+import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
+import com.mserapinas.boardgame.userservice.service.ActivityFeedService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Feed writes, fan-out and reads against a real database. Not {@code @Transactional}: events are
+ * fanned out in their own transactions and only committed rows are delivered. The scheduled
+ * fan-out is pushed out of the way and run explicitly instead.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "feed.fan-out-interval=PT1H")
+class FeedIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ActivityFeedService activityFeedService;
+
+    private static final String USER_ID_HEADER = "X-User-ID";
+    private static final Integer GAME_ID = 1001;
+
+    private Long aliceId;
+    private Long bobId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        aliceId = register("feed-alice@example.com", "Alice");
+        bobId = register("feed-bob@example.com", "Bob");
+
+        mockMvc.perform(post("/api/v1/friendships/requests/" + aliceId)
+                .header(USER_ID_HEADER, bobId)
+                .with(csrf()))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/v1/friendships/requests/" + bobId + "/accept")
+                .header(USER_ID_HEADER, aliceId)
+                .with(csrf()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should drop each side's events from the other's feed once they unfriend")
+    void shouldDropEventsAfterUnfriending() throws Exception {
+        addToCollection(bobId, GAME_ID);
+        createReview(aliceId, GAME_ID, 7);
+        activityFeedService.fanOutPending();
+
+        assertEquals(1, feed(aliceId).size());
+        assertEquals(bobId, feed(aliceId).get(0).get("actorId").asLong());
+        assertEquals(1, feed(bobId).size());
+
+        mockMvc.perform(delete("/api/v1/friendships/" + bobId)
+                .header(USER_ID_HEADER, aliceId)
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        assertTrue(feed(aliceId).isEmpty());
+        assertTrue(feed(bobId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should drop past collection additions from friends' feeds when the collection becomes private")
+    void shouldDropCollectionEventsWhenMadePrivate() throws Exception {
+        addToCollection(bobId, GAME_ID);
+        createReview(bobId, GAME_ID, 9);
+        activityFeedService.fanOutPending();
+        assertEquals(2, feed(aliceId).size());
+
+        mockMvc.perform(put("/api/v1/users/me")
+                .header(USER_ID_HEADER, bobId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateUserProfileRequest("Bob", CollectionVisibility.PRIVATE))))
+                .andExpect(status().isOk());
+
+        JsonNode items = feed(aliceId);
+        assertEquals(1, items.size());
+        assertEquals("REVIEW_POSTED", items.get(0).get("type").asText());
+    }
+
+    private JsonNode feed(Long userId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/feed")
+                .header(USER_ID_HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("items");
+    }
+
+    private Long register(String email, String name) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/register")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(email, name, "Password123!"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private void createReview(Long userId, Integer gameId, int rating) throws Exception {
+        mockMvc.perform(post("/api/v1/reviews")
+                .header(USER_ID_HEADER, userId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateReviewRequest(gameId, rating, null))))
+                .andExpect(status().isCreated());
+    }
+
+    private void addToCollection(Long userId, Integer gameId) throws Exception {
+        mockMvc.perform(post("/api/v1/collections/games")
+                .header(USER_ID_HEADER, userId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AddGameToCollectionRequest(gameId, null, null))))
+                .andExpect(status().isCreated());
+    }
+}
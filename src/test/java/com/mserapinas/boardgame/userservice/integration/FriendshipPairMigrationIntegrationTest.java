@@ -0,0 +1,149 @@
+package com.mserapinas.boardgame.userservice.integration;
+
+import com.mserapinas.boardgame.userservice.config.FriendshipPairMigration;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FriendshipPairMigrationIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private FriendshipPairMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long user1;
+    private Long user2;
+    private Long user3;
+    private Long user4;
+
+    @BeforeEach
+    void setUp() {
+        user1 = userRepository.save(new User("user1@example.com", "User One", "password")).getId();
+        user2 = userRepository.save(new User("user2@example.com", "User Two", "password")).getId();
+        user3 = userRepository.save(new User("user3@example.com", "User Three", "password")).getId();
+        user4 = userRepository.save(new User("user4@example.com", "User Four", "password")).getId();
+
+        // Back to the pre-migration schema; the startup run already constrained the empty table
+        jdbcTemplate.execute("""
+            ALTER TABLE friendships
+                DROP CONSTRAINT IF EXISTS chk_friendships_canonical_pair,
+                DROP CONSTRAINT IF EXISTS chk_friendships_requester,
+                DROP CONSTRAINT IF EXISTS chk_friendships_status,
+                ALTER COLUMN requester_id DROP NOT NULL,
+                ALTER COLUMN status DROP NOT NULL,
+                ALTER COLUMN status DROP DEFAULT
+            """);
+    }
+
+    @Test
+    @DisplayName("Should collapse legacy directional rows into one canonical row per pair")
+    void shouldCollapseLegacyRowsIntoCanonicalPairs() {
+        // user3 asked user1 first, user1 answered: accepted friendship stored as two rows
+        insertLegacyRow(user3, user1, "2024-01-01T10:00:00Z");
+        insertLegacyRow(user1, user3, "2024-01-02T10:00:00Z");
+        // Pending requests in both id orders
+        insertLegacyRow(user4, user2, "2024-01-03T10:00:00Z");
+        insertLegacyRow(user1, user2, "2024-01-04T10:00:00Z");
+
+        migration.run();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT user_id, friend_id, requester_id, status, accepted_at FROM friendships ORDER BY user_id, friend_id");
+        assertThat(rows).hasSize(3);
+        assertThat(rows).allSatisfy(row ->
+            assertThat(((Number) row.get("user_id")).longValue()).isLessThan(((Number) row.get("friend_id")).longValue()));
+
+        Map<String, Object> accepted = row(rows, user1, user3);
+        assertThat(accepted.get("status")).isEqualTo("ACCEPTED");
+        assertThat(((Number) accepted.get("requester_id")).longValue()).isEqualTo(user3);
+        assertThat(accepted.get("accepted_at")).isNotNull();
+
+        Map<String, Object> pendingFromHigh = row(rows, user2, user4);
+        assertThat(pendingFromHigh.get("status")).isEqualTo("PENDING");
+        assertThat(((Number) pendingFromHigh.get("requester_id")).longValue()).isEqualTo(user4);
+
+        Map<String, Object> pendingFromLow = row(rows, user1, user2);
+        assertThat(pendingFromLow.get("status")).isEqualTo("PENDING");
+        assertThat(((Number) pendingFromLow.get("requester_id")).longValue()).isEqualTo(user1);
+    }
+
+    @Test
+    @DisplayName("Should be a no-op when run again")
+    void shouldBeIdempotent() {
+        insertLegacyRow(user2, user1, "2024-01-01T10:00:00Z");
+        migration.run();
+        List<Map<String, Object>> first = jdbcTemplate.queryForList("SELECT * FROM friendships");
+
+        migration.run();
+
+        assertThat(jdbcTemplate.queryForList("SELECT * FROM friendships")).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("Should add validated constraints and NOT NULL once no legacy rows remain")
+    void shouldConstrainTableOnceMigrated() {
+        insertLegacyRow(user2, user1, "2024-01-01T10:00:00Z");
+
+        migration.run();
+
+        List<Map<String, Object>> constraints = jdbcTemplate.queryForList(
+            "SELECT conname, convalidated FROM pg_constraint WHERE conrelid = 'friendships'::regclass AND contype = 'c'");
+        assertThat(constraints)
+            .extracting(row -> row.get("conname"))
+            .contains("chk_friendships_canonical_pair", "chk_friendships_requester", "chk_friendships_status");
+        assertThat(constraints).allSatisfy(row -> assertThat(row.get("convalidated")).isEqualTo(true));
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT column_name FROM information_schema.columns "
+                + "WHERE table_name = 'friendships' AND column_name IN ('requester_id', 'status') AND is_nullable = 'NO'",
+            String.class))
+            .containsExactlyInAnyOrder("requester_id", "status");
+
+        assertThatThrownBy(() -> insertLegacyRow(user3, user4, "2024-01-02T10:00:00Z"))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @DisplayName("Should rebuild an index left INVALID by an interrupted concurrent build")
+    void shouldRebuildInvalidIndex() {
+        // What a failed CREATE INDEX CONCURRENTLY leaves behind
+        jdbcTemplate.update(
+            "UPDATE pg_index SET indisvalid = false WHERE indexrelid = 'idx_friendships_pending_user'::regclass");
+
+        migration.run();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT indisvalid FROM pg_index WHERE indexrelid = 'idx_friendships_pending_user'::regclass",
+            Boolean.class))
+            .isTrue();
+    }
+
+    private void insertLegacyRow(Long userId, Long friendId, String createdAt) {
+        jdbcTemplate.update(
+            "INSERT INTO friendships (user_id, friend_id, created_at) VALUES (?, ?, ?::timestamptz)",
+            userId, friendId, createdAt);
+    }
+
+    private static Map<String, Object> row(List<Map<String, Object>> rows, Long lowId, Long highId) {
+        return rows.stream()
+            .filter(row -> ((Number) row.get("user_id")).longValue() == lowId
+                && ((Number) row.get("friend_id")).longValue() == highId)
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -3,7 +3,9 @@ package com.mserapinas.boardgame.userservice.integration;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mserapinas.boardgame.userservice.dto.request.CreateGamePlayRequest;
+import com.mserapinas.boardgame.userservice.dto.request.CreatePlayerGroupRequest;
 import com.mserapinas.boardgame.userservice.dto.request.RegisterRequest;
+import com.mserapinas.boardgame.userservice.dto.request.UpdateGamePlayRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -35,6 +37,7 @@ class GamePlayIntegrationTest extends BaseIntegrationTest {
 
     private static final String PLAYS_URL = "/api/v1/plays";
     private static final String AUTH_URL = "/api/v1/auth";
+    private static final String GROUPS_URL = "/api/v1/player-groups";
     private static final String USER_ID_HEADER = "X-User-ID";
     private static final Integer GAME_ID = 1001;
 
@@ -144,4 +147,221 @@ class GamePlayIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
     }
+
+    @Test
+    @DisplayName("Should return the last play of exactly limit games even when one game dominates the history")
+    @Transactional
+    void shouldReturnRecentGamesWithoutCrowdingOut() throws Exception {
+        LocalDate today = LocalDate.now();
+        logPlay(2001, today.minusDays(10));
+        logPlay(2002, today.minusDays(5));
+        for (int day = 0; day < 8; day++) {
+            logPlay(GAME_ID, today.minusDays(day));
+        }
+
+        mockMvc.perform(get(PLAYS_URL + "/recent-games")
+                .header(USER_ID_HEADER, userId1)
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].gameId").value(GAME_ID))
+                .andExpect(jsonPath("$[0].playedAt").value(today.toString()))
+                .andExpect(jsonPath("$[1].gameId").value(2002));
+
+        mockMvc.perform(get(PLAYS_URL + "/recent-games")
+                .header(USER_ID_HEADER, userId1)
+                .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].gameId").value(2001));
+    }
+
+    @Test
+    @DisplayName("Should keep monthly play counts current through creates, updates and deletes")
+    @Transactional
+    void shouldMaintainPlayCounts() throws Exception {
+        logPlay(GAME_ID, LocalDate.of(2024, 3, 10), 2);
+        Long movedPlayId = logPlay(GAME_ID, LocalDate.of(2024, 3, 20), 1);
+        Long deletedPlayId = logPlay(2002, LocalDate.of(2025, 1, 5), 3);
+
+        UpdateGamePlayRequest update = new UpdateGamePlayRequest(
+            LocalDate.of(2024, 5, 2), 4, null, Set.of(), List.of(), null
+        );
+        mockMvc.perform(put(PLAYS_URL + "/" + movedPlayId)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(PLAYS_URL + "/" + deletedPlayId)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(PLAYS_URL + "/counts")
+                .header(USER_ID_HEADER, userId1)
+                .param("from", "2024-01-01")
+                .param("to", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.length()").value(2))
+                .andExpect(jsonPath("$.counts[0].periodStart").value("2024-03-01"))
+                .andExpect(jsonPath("$.counts[0].timesPlayed").value(2))
+                .andExpect(jsonPath("$.counts[1].periodStart").value("2024-05-01"))
+                .andExpect(jsonPath("$.counts[1].timesPlayed").value(4));
+
+        mockMvc.perform(get(PLAYS_URL + "/counts")
+                .header(USER_ID_HEADER, userId1)
+                .param("from", "2024-03-15")
+                .param("to", "2024-12-31")
+                .param("granularity", "YEAR")
+                .param("gameIds", GAME_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.length()").value(1))
+                .andExpect(jsonPath("$.counts[0].periodStart").value("2024-01-01"))
+                .andExpect(jsonPath("$.counts[0].timesPlayed").value(4));
+    }
+
+    @Test
+    @DisplayName("Should compute win rates, play index and head-to-head records from logged plays")
+    @Transactional
+    void shouldComputePlayerStats() throws Exception {
+        LocalDate playedAt = LocalDate.of(2025, 4, 12);
+        CreateGamePlayRequest rematch = new CreateGamePlayRequest(
+            GAME_ID, playedAt, 2, null, Set.of(userId1, userId2), List.of(List.of(userId1), List.of(userId2)), null
+        );
+        CreateGamePlayRequest solo = new CreateGamePlayRequest(
+            2002, playedAt, 1, null, Set.of(userId1), List.of(List.of(userId1)), null
+        );
+        for (CreateGamePlayRequest request : List.of(rematch, solo)) {
+            mockMvc.perform(post(PLAYS_URL)
+                    .header(USER_ID_HEADER, userId1)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get(PLAYS_URL + "/stats")
+                .header(USER_ID_HEADER, userId1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalGamesPlayed").value(3))
+                .andExpect(jsonPath("$.distinctGames").value(2))
+                .andExpect(jsonPath("$.playIndex").value(1))
+                .andExpect(jsonPath("$.games[0].gameId").value(GAME_ID))
+                .andExpect(jsonPath("$.games[0].wins").value(1))
+                .andExpect(jsonPath("$.games[0].winRate").value(0.5))
+                .andExpect(jsonPath("$.games[1].winRate").value(1.0))
+                .andExpect(jsonPath("$.opponents.length()").value(1))
+                .andExpect(jsonPath("$.opponents[0].userId").value(userId2))
+                .andExpect(jsonPath("$.opponents[0].userName").value("Player Two"))
+                .andExpect(jsonPath("$.opponents[0].gamesTogether").value(2))
+                .andExpect(jsonPath("$.opponents[0].wins").value(1))
+                .andExpect(jsonPath("$.opponents[0].losses").value(1))
+                .andExpect(jsonPath("$.mostPlayedByYear[0].year").value(2025))
+                .andExpect(jsonPath("$.mostPlayedByYear[0].gameId").value(GAME_ID));
+    }
+
+    @Test
+    @DisplayName("Should page through plays the user was tagged in, optionally merged with their own")
+    @Transactional
+    void shouldListTaggedPlays() throws Exception {
+        LocalDate today = LocalDate.now();
+        for (int day = 1; day <= 3; day++) {
+            CreateGamePlayRequest tagged = new CreateGamePlayRequest(
+                GAME_ID, today.minusDays(day), 1, null, Set.of(userId1), List.of(), null
+            );
+            mockMvc.perform(post(PLAYS_URL)
+                    .header(USER_ID_HEADER, userId2)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(tagged)))
+                    .andExpect(status().isCreated());
+        }
+        logPlay(2002, today);
+
+        MvcResult firstPage = mockMvc.perform(get(PLAYS_URL + "/tagged")
+                .header(USER_ID_HEADER, userId1)
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays.length()").value(2))
+                .andExpect(jsonPath("$.plays[0].loggerId").value(userId2))
+                .andExpect(jsonPath("$.plays[0].playedAt").value(today.minusDays(1).toString()))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        String cursor = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get(PLAYS_URL + "/tagged")
+                .header(USER_ID_HEADER, userId1)
+                .param("limit", "2")
+                .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays.length()").value(1))
+                .andExpect(jsonPath("$.plays[0].playedAt").value(today.minusDays(3).toString()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get(PLAYS_URL + "/tagged")
+                .header(USER_ID_HEADER, userId1)
+                .param("includeOwn", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays.length()").value(4))
+                .andExpect(jsonPath("$.plays[0].gameId").value(2002))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should filter play history by player group and reject another user's group")
+    @Transactional
+    void shouldFilterPlayHistoryByGroup() throws Exception {
+        CreatePlayerGroupRequest groupRequest = new CreatePlayerGroupRequest("Game night", Set.of(userId2));
+        MvcResult groupResult = mockMvc.perform(post(GROUPS_URL)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(groupRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long groupId = objectMapper.readTree(groupResult.getResponse().getContentAsString()).get("id").asLong();
+
+        CreateGamePlayRequest withGroup = new CreateGamePlayRequest(
+            GAME_ID, LocalDate.of(2025, 5, 1), 1, null, Set.of(userId2), List.of(List.of(userId2)), null
+        );
+        mockMvc.perform(post(PLAYS_URL)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(withGroup)))
+                .andExpect(status().isCreated());
+        logPlay(GAME_ID, LocalDate.of(2025, 5, 2));
+
+        mockMvc.perform(get(PLAYS_URL + "/history")
+                .header(USER_ID_HEADER, userId1)
+                .param("groupId", String.valueOf(groupId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plays.length()").value(1))
+                .andExpect(jsonPath("$.plays[0].playedAt").value("2025-05-01"))
+                .andExpect(jsonPath("$.plays[0].winners[0][0].id").value(userId2));
+
+        mockMvc.perform(get(PLAYS_URL + "/history")
+                .header(USER_ID_HEADER, userId2)
+                .param("groupId", String.valueOf(groupId)))
+                .andExpect(status().isForbidden());
+    }
+
+    private Long logPlay(Integer gameId, LocalDate playedAt) throws Exception {
+        return logPlay(gameId, playedAt, 1);
+    }
+
+    private Long logPlay(Integer gameId, LocalDate playedAt, int timesPlayed) throws Exception {
+        CreateGamePlayRequest request = new CreateGamePlayRequest(
+            gameId, playedAt, timesPlayed, null, null, List.of(), null
+        );
+        MvcResult result = mockMvc.perform(post(PLAYS_URL)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
 }
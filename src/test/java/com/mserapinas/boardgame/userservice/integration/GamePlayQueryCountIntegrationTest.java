@@ -0,0 +1,154 @@
+package com.mserapinas.boardgame.userservice.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mserapinas.boardgame.userservice.dto.request.CreateGamePlayRequest;
+import com.mserapinas.boardgame.userservice.dto.request.RegisterRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Play list endpoints must load a page of plays with their players and winners in a fixed number
+ * of statements. Each test counts the JDBC statements of one request, logs more plays and counts
+ * again; the two counts must match the expected constant.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class GamePlayQueryCountIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final String PLAYS_URL = "/api/v1/plays";
+    private static final String AUTH_URL = "/api/v1/auth";
+    private static final String USER_ID_HEADER = "X-User-ID";
+    private static final Integer GAME_ID = 1001;
+
+    private Long userId1;
+    private Long userId2;
+    private Long userId3;
+    private final List<Long> loggedPlayIds = new ArrayList<>();
+    private int gameOffset;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId1 = register("counter1@example.com", "Counter One");
+        userId2 = register("counter2@example.com", "Counter Two");
+        userId3 = register("counter3@example.com", "Counter Three");
+    }
+
+    // ========== Statement Count Tests ==========
+
+    @Test
+    @DisplayName("Should list plays for a game in a constant number of statements")
+    void shouldListPlaysForGameInConstantStatements() throws Exception {
+        assertConstantStatements(2, userId1, () -> get(PLAYS_URL).param("gameId", GAME_ID.toString()));
+    }
+
+    @Test
+    @DisplayName("Should load recent games in a constant number of statements")
+    void shouldLoadRecentGamesInConstantStatements() throws Exception {
+        assertConstantStatements(3, userId1, () -> get(PLAYS_URL + "/recent-games").param("limit", "100"));
+    }
+
+    @Test
+    @DisplayName("Should load plays by id in a constant number of statements")
+    void shouldLoadPlaysByIdsInConstantStatements() throws Exception {
+        assertConstantStatements(2, userId1, () -> get(PLAYS_URL + "/batch")
+            .param("ids", loggedPlayIds.stream().map(String::valueOf).toArray(String[]::new)));
+    }
+
+    @Test
+    @DisplayName("Should page tagged plays in a constant number of statements")
+    void shouldPageTaggedPlaysInConstantStatements() throws Exception {
+        assertConstantStatements(3, userId2, () -> get(PLAYS_URL + "/tagged").param("limit", "50"));
+    }
+
+    @Test
+    @DisplayName("Should page play history in a constant number of statements")
+    void shouldPagePlayHistoryInConstantStatements() throws Exception {
+        assertConstantStatements(3, userId1, () -> get(PLAYS_URL + "/history").param("limit", "50"));
+    }
+
+    /**
+     * Log a few plays, count the request's statements, log many more and count again
+     */
+    private void assertConstantStatements(long expected, Long readerId,
+                                          Supplier<MockHttpServletRequestBuilder> request) throws Exception {
+        logPlays(2);
+        assertEquals(expected, statementsFor(request.get().header(USER_ID_HEADER, readerId)));
+
+        logPlays(10);
+        assertEquals(expected, statementsFor(request.get().header(USER_ID_HEADER, readerId)));
+    }
+
+    private long statementsFor(MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Plays by user 1 with users 1 to 3 as players, two games each won by a different player; every
+     * other play is of GAME_ID, the rest each of a game of its own
+     */
+    private void logPlays(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            Integer gameId = i % 2 == 0 ? GAME_ID : GAME_ID + 1 + gameOffset++;
+            CreateGamePlayRequest request = new CreateGamePlayRequest(
+                gameId, LocalDate.now().minusDays(loggedPlayIds.size()), 2, 60,
+                Set.of(userId1, userId2, userId3), List.of(List.of(userId2), List.of(userId3)), null
+            );
+            MvcResult result = mockMvc.perform(post(PLAYS_URL)
+                    .header(USER_ID_HEADER, userId1)
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            loggedPlayIds.add(objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong());
+        }
+    }
+
+    private Long register(String email, String name) throws Exception {
+        RegisterRequest req = new RegisterRequest(email, name, "Password123!");
+        MvcResult result = mockMvc.perform(post(AUTH_URL + "/register")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        return body.get("id").asLong();
+    }
+}
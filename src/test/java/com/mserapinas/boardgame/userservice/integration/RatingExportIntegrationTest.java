@@ -0,0 +1,216 @@
+package com.mserapinas.boardgame.userservice.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mserapinas.boardgame.userservice.dto.request.AddGameToCollectionRequest;
+import com.mserapinas.boardgame.userservice.dto.request.CreateReviewRequest;
+import com.mserapinas.boardgame.userservice.dto.request.RegisterRequest;
+import com.mserapinas.boardgame.userservice.dto.request.UpdateReviewRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the export SQL against a real database. Not {@code @Transactional}: the export reads
+ * through its own cursor transaction on the async thread and only sees committed rows.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "export.ratings.watermark-lag=PT0S",
+    "export.ratings.fetch-size=1"
+})
+class RatingExportIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final String EXPORT_URL = "/api/v1/internal/export/ratings";
+    private static final String USER_ID_HEADER = "X-User-ID";
+    private static final Integer GAME_A = 1001;
+    private static final Integer GAME_B = 1002;
+
+    private Long userId1;
+    private Long userId2;
+    private Long reviewId1;
+    private Long reviewId2;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userId1 = register("export1@example.com");
+        userId2 = register("export2@example.com");
+
+        reviewId1 = createReview(userId1, GAME_A, 8);
+        addToCollection(userId1, GAME_A);
+        addToCollection(userId1, GAME_B);
+        reviewId2 = createReview(userId2, GAME_B, 6);
+    }
+
+    @Test
+    @DisplayName("Should stream every reviewed or collected key through the cursor on a full export")
+    void shouldStreamFullExport() throws Exception {
+        List<JsonNode> rows = export(null).rows();
+
+        assertEquals(3, rows.size());
+        assertRow(rows.get(0), userId1, GAME_A, 8, "OWNED");
+        assertRow(rows.get(1), userId1, GAME_B, null, "OWNED");
+        assertRow(rows.get(2), userId2, GAME_B, 6, null);
+        rows.forEach(row -> assertFalse(row.get("updated_at").isNull()));
+    }
+
+    @Test
+    @DisplayName("Should return only keys changed after the watermark on a since pull")
+    void shouldReturnChangedKeysSinceWatermark() throws Exception {
+        OffsetDateTime watermark = export(null).watermark();
+
+        mockMvc.perform(put("/api/v1/reviews/" + reviewId1)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateReviewRequest(9, "Even better"))))
+                .andExpect(status().isOk());
+
+        List<JsonNode> rows = export(watermark).rows();
+
+        assertEquals(1, rows.size());
+        assertRow(rows.get(0), userId1, GAME_A, 9, "OWNED");
+    }
+
+    @Test
+    @DisplayName("Should emit tombstones for deleted reviews and collection entries on a since pull")
+    void shouldEmitTombstonesForDeletedKeys() throws Exception {
+        OffsetDateTime watermark = export(null).watermark();
+
+        mockMvc.perform(delete("/api/v1/reviews/" + reviewId2)
+                .header(USER_ID_HEADER, userId2)
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/collections/games/" + GAME_A)
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        List<JsonNode> rows = export(watermark).rows();
+
+        assertEquals(2, rows.size());
+        // The review is still there, only the collection side is gone
+        assertRow(rows.get(0), userId1, GAME_A, 8, null);
+        // Nothing left for this key: a tombstone stamped with the deletion time
+        assertRow(rows.get(1), userId2, GAME_B, null, null);
+        assertFalse(OffsetDateTime.parse(rows.get(1).get("updated_at").asText()).isBefore(watermark));
+    }
+
+    @Test
+    @DisplayName("Should emit tombstones for every key of a deleted account on a since pull")
+    void shouldEmitTombstonesForDeletedAccount() throws Exception {
+        OffsetDateTime watermark = export(null).watermark();
+
+        mockMvc.perform(delete("/api/v1/users/me")
+                .header(USER_ID_HEADER, userId1)
+                .with(csrf()))
+                .andExpect(status().isNoContent());
+
+        List<JsonNode> rows = export(watermark).rows();
+
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), userId1, GAME_A, null, null);
+        assertRow(rows.get(1), userId1, GAME_B, null, null);
+        assertEquals(1, export(null).rows().size());
+    }
+
+    @Test
+    @DisplayName("Should reject a since older than the tombstone retention")
+    void shouldRejectSinceOlderThanRetention() throws Exception {
+        mockMvc.perform(get(EXPORT_URL).param("since", OffsetDateTime.now().minusDays(31).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Export export(OffsetDateTime since) throws Exception {
+        var requestBuilder = get(EXPORT_URL);
+        if (since != null) {
+            requestBuilder.param("since", since.toString());
+        }
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        rows.sort(Comparator.<JsonNode>comparingLong(row -> row.get("user_id").asLong())
+            .thenComparingInt(row -> row.get("game_id").asInt()));
+        OffsetDateTime watermark = OffsetDateTime.parse(result.getResponse().getHeader("X-Export-Watermark"));
+        return new Export(rows, watermark);
+    }
+
+    private static void assertRow(JsonNode row, Long userId, Integer gameId, Integer rating, String status) {
+        assertEquals(userId, row.get("user_id").asLong());
+        assertEquals(gameId, row.get("game_id").asInt());
+        if (rating == null) {
+            assertTrue(row.get("rating").isNull());
+        } else {
+            assertEquals(rating, row.get("rating").asInt());
+        }
+        if (status == null) {
+            assertTrue(row.get("status").isNull());
+        } else {
+            assertEquals(status, row.get("status").asText());
+        }
+    }
+
+    private Long register(String email) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/register")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(email, "Export User", "Password123!"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private Long createReview(Long userId, Integer gameId, int rating) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/reviews")
+                .header(USER_ID_HEADER, userId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateReviewRequest(gameId, rating, null))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private void addToCollection(Long userId, Integer gameId) throws Exception {
+        mockMvc.perform(post("/api/v1/collections/games")
+                .header(USER_ID_HEADER, userId)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AddGameToCollectionRequest(gameId, null, null))))
+                .andExpect(status().isCreated());
+    }
+
+    private record Export(List<JsonNode> rows, OffsetDateTime watermark) {}
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,21 +47,19 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return outgoing pending requests")
     void shouldReturnOutgoingPendingRequests() {
-        Friendship request = new Friendship(user1, user2);
-        entityManager.persist(request);
+        pending(user1, user2);
         entityManager.flush();
 
         List<Friendship> outgoing = friendRequestRepository.getOutgoingRequests(user1.getId());
 
         assertThat(outgoing).hasSize(1);
-        assertThat(outgoing.getFirst().getFriend().getId()).isEqualTo(user2.getId());
+        assertThat(outgoing.getFirst().getOtherUserId(user1.getId())).isEqualTo(user2.getId());
     }
 
     @Test
     @DisplayName("Should not return accepted friendships in outgoing requests")
     void shouldNotReturnAcceptedFriendshipsInOutgoingRequests() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         List<Friendship> outgoing = friendRequestRepository.getOutgoingRequests(user1.getId());
@@ -71,14 +70,14 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return multiple outgoing requests")
     void shouldReturnMultipleOutgoingRequests() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user1, user3));
+        pending(user1, user2);
+        pending(user1, user3);
         entityManager.flush();
 
         List<Friendship> outgoing = friendRequestRepository.getOutgoingRequests(user1.getId());
 
         assertThat(outgoing).hasSize(2);
-        assertThat(outgoing).extracting(f -> f.getFriend().getId())
+        assertThat(outgoing).extracting(f -> f.getOtherUserId(user1.getId()))
                 .containsExactlyInAnyOrder(user2.getId(), user3.getId());
     }
 
@@ -95,21 +94,19 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return incoming pending requests")
     void shouldReturnIncomingPendingRequests() {
-        Friendship request = new Friendship(user2, user1);
-        entityManager.persist(request);
+        pending(user2, user1);
         entityManager.flush();
 
         List<Friendship> incoming = friendRequestRepository.getIncomingRequests(user1.getId());
 
         assertThat(incoming).hasSize(1);
-        assertThat(incoming.getFirst().getUser().getId()).isEqualTo(user2.getId());
+        assertThat(incoming.getFirst().getRequesterId()).isEqualTo(user2.getId());
     }
 
     @Test
     @DisplayName("Should not return accepted friendships in incoming requests")
     void shouldNotReturnAcceptedFriendshipsInIncomingRequests() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         List<Friendship> incoming = friendRequestRepository.getIncomingRequests(user1.getId());
@@ -120,14 +117,14 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return multiple incoming requests")
     void shouldReturnMultipleIncomingRequests() {
-        entityManager.persist(new Friendship(user2, user1));
-        entityManager.persist(new Friendship(user3, user1));
+        pending(user2, user1);
+        pending(user3, user1);
         entityManager.flush();
 
         List<Friendship> incoming = friendRequestRepository.getIncomingRequests(user1.getId());
 
         assertThat(incoming).hasSize(2);
-        assertThat(incoming).extracting(f -> f.getUser().getId())
+        assertThat(incoming).extracting(Friendship::getRequesterId)
                 .containsExactlyInAnyOrder(user2.getId(), user3.getId());
     }
 
@@ -144,7 +141,7 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return true when pending request exists")
     void shouldReturnTrueWhenPendingRequestExists() {
-        entityManager.persist(new Friendship(user1, user2));
+        pending(user1, user2);
         entityManager.flush();
 
         boolean hasPending = friendRequestRepository.hasPendingRequest(user1.getId(), user2.getId());
@@ -163,8 +160,7 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return false when friendship is accepted")
     void shouldReturnFalseWhenFriendshipIsAccepted() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         boolean hasPending = friendRequestRepository.hasPendingRequest(user1.getId(), user2.getId());
@@ -175,7 +171,7 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should be directional for pending requests")
     void shouldBeDirectionalForPendingRequests() {
-        entityManager.persist(new Friendship(user1, user2));
+        pending(user1, user2);
         entityManager.flush();
 
         boolean user1ToUser2 = friendRequestRepository.hasPendingRequest(user1.getId(), user2.getId());
@@ -190,15 +186,14 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should find pending request when exists")
     void shouldFindPendingRequestWhenExists() {
-        Friendship request = new Friendship(user1, user2);
-        entityManager.persist(request);
+        pending(user1, user2);
         entityManager.flush();
 
         Optional<Friendship> found = friendRequestRepository.findPendingRequest(user1.getId(), user2.getId());
 
         assertThat(found).isPresent();
-        assertThat(found.get().getUser().getId()).isEqualTo(user1.getId());
-        assertThat(found.get().getFriend().getId()).isEqualTo(user2.getId());
+        assertThat(found.get().getRequesterId()).isEqualTo(user1.getId());
+        assertThat(found.get().getOtherUserId(user1.getId())).isEqualTo(user2.getId());
     }
 
     @Test
@@ -212,8 +207,7 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should return empty when friendship is accepted")
     void shouldReturnEmptyWhenFriendshipIsAccepted() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         Optional<Friendship> found = friendRequestRepository.findPendingRequest(user1.getId(), user2.getId());
@@ -221,91 +215,56 @@ class FriendRequestRepositoryTest {
         assertThat(found).isEmpty();
     }
 
-    // ========== Exists By User ID And Friend ID Tests ==========
+    // ========== Delete Pending Request Tests ==========
 
     @Test
-    @DisplayName("Should return true when any relationship exists")
-    void shouldReturnTrueWhenAnyRelationshipExists() {
-        entityManager.persist(new Friendship(user1, user2));
+    @DisplayName("Should delete pending request sent by the requester")
+    void shouldDeletePendingRequestSentByRequester() {
+        pending(user2, user1);
         entityManager.flush();
 
-        boolean exists = friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId());
-
-        assertThat(exists).isTrue();
-    }
-
-    @Test
-    @DisplayName("Should return true for accepted friendship")
-    void shouldReturnTrueForAcceptedFriendship() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        friendRequestRepository.deletePendingRequest(user2.getId(), user1.getId());
         entityManager.flush();
 
-        boolean exists = friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId());
-
-        assertThat(exists).isTrue();
-    }
-
-    @Test
-    @DisplayName("Should return false when no relationship exists")
-    void shouldReturnFalseWhenNoRelationshipExists() {
-        boolean exists = friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId());
-
-        assertThat(exists).isFalse();
+        assertThat(friendRequestRepository.hasPendingRequest(user2.getId(), user1.getId())).isFalse();
     }
 
     @Test
-    @DisplayName("Should be directional for exists check")
-    void shouldBeDirectionalForExistsCheck() {
-        entityManager.persist(new Friendship(user1, user2));
+    @DisplayName("Should not delete a request sent in the other direction")
+    void shouldNotDeleteRequestSentInOtherDirection() {
+        pending(user2, user1);
         entityManager.flush();
 
-        boolean user1ToUser2 = friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId());
-        boolean user2ToUser1 = friendRequestRepository.existsByUserIdAndFriendId(user2.getId(), user1.getId());
+        friendRequestRepository.deletePendingRequest(user1.getId(), user2.getId());
+        entityManager.flush();
 
-        assertThat(user1ToUser2).isTrue();
-        assertThat(user2ToUser1).isFalse();
+        assertThat(friendRequestRepository.hasPendingRequest(user2.getId(), user1.getId())).isTrue();
     }
 
-    // ========== Delete By User ID And Friend ID Tests ==========
-
     @Test
-    @DisplayName("Should delete specific request direction only")
-    void shouldDeleteSpecificRequestDirectionOnly() {
-        Friendship request1 = new Friendship(user1, user2);
-        Friendship request2 = new Friendship(user2, user1);
-        entityManager.persist(request1);
-        entityManager.persist(request2);
+    @DisplayName("Should not delete accepted friendships")
+    void shouldNotDeleteAcceptedFriendships() {
+        accepted(user1, user2);
         entityManager.flush();
 
-        friendRequestRepository.deleteByUserIdAndFriendId(user1.getId(), user2.getId());
-        entityManager.flush();
-
-        assertThat(friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId())).isFalse();
-        assertThat(friendRequestRepository.existsByUserIdAndFriendId(user2.getId(), user1.getId())).isTrue();
-    }
-
-    @Test
-    @DisplayName("Should handle delete when request does not exist")
-    void shouldHandleDeleteWhenRequestDoesNotExist() {
-        friendRequestRepository.deleteByUserIdAndFriendId(user1.getId(), user2.getId());
+        friendRequestRepository.deletePendingRequest(user1.getId(), user2.getId());
         entityManager.flush();
 
-        assertThat(friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId())).isFalse();
+        assertThat(friendRequestRepository.count()).isEqualTo(1L);
     }
 
     @Test
     @DisplayName("Should delete only specified request, not others")
     void shouldDeleteOnlySpecifiedRequestNotOthers() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user1, user3));
+        pending(user1, user2);
+        pending(user1, user3);
         entityManager.flush();
 
-        friendRequestRepository.deleteByUserIdAndFriendId(user1.getId(), user2.getId());
+        friendRequestRepository.deletePendingRequest(user1.getId(), user2.getId());
         entityManager.flush();
 
-        assertThat(friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user2.getId())).isFalse();
-        assertThat(friendRequestRepository.existsByUserIdAndFriendId(user1.getId(), user3.getId())).isTrue();
+        assertThat(friendRequestRepository.hasPendingRequest(user1.getId(), user2.getId())).isFalse();
+        assertThat(friendRequestRepository.hasPendingRequest(user1.getId(), user3.getId())).isTrue();
     }
 
     // ========== Count Outgoing Requests Tests ==========
@@ -313,8 +272,8 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should count outgoing pending requests correctly")
     void shouldCountOutgoingPendingRequestsCorrectly() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user1, user3));
+        pending(user1, user2);
+        pending(user1, user3);
         entityManager.flush();
 
         Long count = friendRequestRepository.countOutgoingRequests(user1.getId());
@@ -325,8 +284,7 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should not count accepted friendships in outgoing count")
     void shouldNotCountAcceptedFriendshipsInOutgoingCount() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         Long count = friendRequestRepository.countOutgoingRequests(user1.getId());
@@ -347,8 +305,8 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should count incoming pending requests correctly")
     void shouldCountIncomingPendingRequestsCorrectly() {
-        entityManager.persist(new Friendship(user2, user1));
-        entityManager.persist(new Friendship(user3, user1));
+        pending(user2, user1);
+        pending(user3, user1);
         entityManager.flush();
 
         Long count = friendRequestRepository.countIncomingRequests(user1.getId());
@@ -359,8 +317,7 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should not count accepted friendships in incoming count")
     void shouldNotCountAcceptedFriendshipsInIncomingCount() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         Long count = friendRequestRepository.countIncomingRequests(user1.getId());
@@ -379,8 +336,8 @@ class FriendRequestRepositoryTest {
     @Test
     @DisplayName("Should differentiate between incoming and outgoing in counts")
     void shouldDifferentiateBetweenIncomingAndOutgoingInCounts() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user3, user1));
+        pending(user1, user2);
+        pending(user3, user1);
         entityManager.flush();
 
         Long outgoingCount = friendRequestRepository.countOutgoingRequests(user1.getId());
@@ -389,4 +346,53 @@ class FriendRequestRepositoryTest {
         assertThat(outgoingCount).isEqualTo(1L);
         assertThat(incomingCount).isEqualTo(1L);
     }
+
+    // ========== Batch Tests ==========
+
+    @Test
+    @DisplayName("Should find incoming requests from several requesters in one query")
+    void shouldFindIncomingRequestsFromRequesters() {
+        // user2 -> user1 and user3 -> user1 are incoming; user1 -> user2 direction would be outgoing
+        pending(user2, user1);
+        pending(user3, user1);
+        entityManager.flush();
+
+        List<Friendship> incoming = friendRequestRepository.findIncomingRequestsFrom(
+            user1.getId(), List.of(user2.getId(), user3.getId(), 9_999L));
+
+        assertThat(incoming).extracting(Friendship::getRequesterId)
+            .containsExactlyInAnyOrder(user2.getId(), user3.getId());
+        assertThat(friendRequestRepository.findIncomingRequestsFrom(user2.getId(), List.of(user1.getId()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should accept and delete pending rows by id in one statement each")
+    void shouldAcceptAndDeletePendingByIds() {
+        Friendship toAccept = pending(user2, user1);
+        Friendship toDecline = pending(user3, user1);
+        Friendship alreadyAccepted = accepted(user2, user3);
+        entityManager.flush();
+
+        int acceptedRows = friendRequestRepository.acceptPendingByIds(
+            List.of(toAccept.getId(), alreadyAccepted.getId()), OffsetDateTime.now());
+        int deletedRows = friendRequestRepository.deletePendingByIds(
+            List.of(toDecline.getId(), alreadyAccepted.getId()));
+        entityManager.clear();
+
+        assertThat(acceptedRows).isEqualTo(1);
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(entityManager.find(Friendship.class, toAccept.getId()).isAccepted()).isTrue();
+        assertThat(entityManager.find(Friendship.class, toDecline.getId())).isNull();
+        assertThat(entityManager.find(Friendship.class, alreadyAccepted.getId())).isNotNull();
+    }
+
+    private Friendship accepted(User requester, User addressee) {
+        Friendship friendship = Friendship.request(requester, addressee);
+        friendship.accept();
+        return entityManager.persist(friendship);
+    }
+
+    private Friendship pending(User requester, User addressee) {
+        return entityManager.persist(Friendship.request(requester, addressee));
+    }
 }
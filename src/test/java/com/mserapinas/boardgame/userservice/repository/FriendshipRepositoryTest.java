@@ -10,6 +10,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,147 +44,189 @@ class FriendshipRepositoryTest {
         entityManager.flush();
     }
 
-    // ========== Get Friends Tests ==========
+    // ========== Friend Page Tests ==========
 
     @Test
-    @DisplayName("Should return friends when bidirectional friendship exists")
-    void shouldReturnFriendsWhenBidirectionalFriendshipExists() {
-        Friendship friendship1 = new Friendship(user1, user2);
-        Friendship friendship2 = new Friendship(user2, user1);
-        entityManager.persist(friendship1);
-        entityManager.persist(friendship2);
+    @DisplayName("Should return friends when accepted friendship exists")
+    void shouldReturnFriendsWhenAcceptedFriendshipExists() {
+        Friendship friendship = accepted(user1, user2);
         entityManager.flush();
 
-        List<Friendship> friends = friendshipRepository.getFriends(user1.getId());
+        List<Long> ids = firstPage(user1, "%", 10);
 
-        assertThat(friends).hasSize(1);
-        assertThat(friends.getFirst().getFriend().getId()).isEqualTo(user2.getId());
+        assertThat(ids).containsExactly(friendship.getId());
     }
 
     @Test
     @DisplayName("Should not return pending requests in friends list")
     void shouldNotReturnPendingRequestsInFriendsList() {
-        Friendship pendingRequest = new Friendship(user1, user2);
-        entityManager.persist(pendingRequest);
+        pending(user1, user2);
         entityManager.flush();
 
-        List<Friendship> friends = friendshipRepository.getFriends(user1.getId());
-
-        assertThat(friends).isEmpty();
+        assertThat(firstPage(user1, "%", 10)).isEmpty();
     }
 
     @Test
-    @DisplayName("Should return multiple friends")
-    void shouldReturnMultipleFriends() {
-        Friendship friendship1to2 = new Friendship(user1, user2);
-        Friendship friendship2to1 = new Friendship(user2, user1);
-        Friendship friendship1to3 = new Friendship(user1, user3);
-        Friendship friendship3to1 = new Friendship(user3, user1);
-
-        entityManager.persist(friendship1to2);
-        entityManager.persist(friendship2to1);
-        entityManager.persist(friendship1to3);
-        entityManager.persist(friendship3to1);
+    @DisplayName("Should return friends from both sides of the pair, newest first")
+    void shouldReturnMultipleFriendsNewestFirst() {
+        Friendship older = accepted(user1, user2);
+        older.setAcceptedAt(OffsetDateTime.now().minusDays(1));
+        Friendship newer = accepted(user3, user1);
         entityManager.flush();
 
-        List<Friendship> friends = friendshipRepository.getFriends(user1.getId());
-
-        assertThat(friends).hasSize(2);
-        assertThat(friends).extracting(f -> f.getFriend().getId())
-                .containsExactlyInAnyOrder(user2.getId(), user3.getId());
+        assertThat(firstPage(user1, "%", 10)).containsExactly(newer.getId(), older.getId());
     }
 
     @Test
     @DisplayName("Should return empty list when user has no friends")
     void shouldReturnEmptyListWhenUserHasNoFriends() {
-        List<Friendship> friends = friendshipRepository.getFriends(user1.getId());
+        assertThat(firstPage(user1, "%", 10)).isEmpty();
+    }
 
-        assertThat(friends).isEmpty();
+    @Test
+    @DisplayName("Should continue strictly after the cursor without repeating or skipping friends")
+    void shouldPageThroughFriendsWithKeysetCursor() {
+        OffsetDateTime acceptedAt = OffsetDateTime.now().withNano(0);
+        Friendship first = accepted(user1, user2);
+        Friendship second = accepted(user3, user1);
+        Friendship third = accepted(user1, user4);
+        // Same timestamp everywhere, so only the id breaks ties
+        for (Friendship friendship : List.of(first, second, third)) {
+            friendship.setAcceptedAt(acceptedAt);
+        }
+        entityManager.flush();
+
+        List<Long> page1 = firstPage(user1, "%", 2);
+        Long lastId = page1.getLast();
+        List<Long> page2 = friendshipRepository.findFriendPageIds(user1.getId(), acceptedAt, lastId, "%", 2);
+
+        assertThat(page1).containsExactly(third.getId(), second.getId());
+        assertThat(page2).containsExactly(first.getId());
     }
 
-    // ========== Get Friends of Friends Tests ==========
+    @Test
+    @DisplayName("Should keep only friends whose name matches the pattern")
+    void shouldFilterFriendsByNamePattern() {
+        accepted(user1, user2);
+        Friendship three = accepted(user1, user3);
+        entityManager.flush();
+
+        assertThat(firstPage(user1, "user th%", 10)).containsExactly(three.getId());
+    }
 
     @Test
-    @DisplayName("Should return friends of friends excluding direct friends")
-    void shouldReturnFriendsOfFriendsExcludingDirectFriends() {
-        // user1 <-> user2 (friends)
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+    @DisplayName("Should load friendships with both users by id")
+    void shouldLoadFriendshipsWithUsersById() {
+        Friendship friendship = accepted(user1, user2);
+        entityManager.flush();
+        entityManager.clear();
 
-        // user2 <-> user3 (friends)
-        entityManager.persist(new Friendship(user2, user3));
-        entityManager.persist(new Friendship(user3, user2));
+        List<Friendship> found = friendshipRepository.findAllWithUsersByIdIn(List.of(friendship.getId()));
+
+        assertThat(found).hasSize(1);
+        assertThat(found.getFirst().getOtherUser(user1.getId()).getName()).isEqualTo("User Two");
+    }
+
+    // ========== Friend Suggestions Tests ==========
 
-        // user2 <-> user4 (friends)
-        entityManager.persist(new Friendship(user2, user4));
-        entityManager.persist(new Friendship(user4, user2));
+    @Test
+    @DisplayName("Should rank friends of friends by mutual-friend count")
+    void shouldRankFriendsOfFriendsByMutualFriends() {
+        // user1 <-> user2, user1 <-> user3 (friends)
+        accepted(user1, user2);
+        accepted(user1, user3);
+
+        // user4 knows both of user1's friends
+        accepted(user2, user4);
+        accepted(user3, user4);
+
+        // user5 knows only one
+        User user5 = entityManager.persist(new User("user5@example.com", "User Five", "password"));
+        accepted(user5, user2);
         entityManager.flush();
 
-        List<User> suggestions = friendshipRepository.getFriendsOfFriends(user1.getId());
+        List<Object[]> suggestions = friendshipRepository.findFriendSuggestions(user1.getId(), 10);
 
-        assertThat(suggestions).hasSize(2);
-        assertThat(suggestions).extracting(User::getId)
-                .containsExactlyInAnyOrder(user3.getId(), user4.getId());
+        assertThat(suggestions).extracting(row -> ((Number) row[0]).longValue())
+                .containsExactly(user4.getId(), user5.getId());
+        assertThat(suggestions).extracting(row -> ((Number) row[1]).intValue())
+                .containsExactly(2, 1);
     }
 
     @Test
     @DisplayName("Should not suggest users who are already direct friends")
     void shouldNotSuggestUsersWhoAreAlreadyDirectFriends() {
         // user1 <-> user2 (friends)
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
 
         // user1 <-> user3 (already friends)
-        entityManager.persist(new Friendship(user1, user3));
-        entityManager.persist(new Friendship(user3, user1));
+        accepted(user1, user3);
 
         // user2 <-> user3 (friends)
-        entityManager.persist(new Friendship(user2, user3));
-        entityManager.persist(new Friendship(user3, user2));
+        accepted(user2, user3);
         entityManager.flush();
 
-        List<User> suggestions = friendshipRepository.getFriendsOfFriends(user1.getId());
-
-        assertThat(suggestions).isEmpty();
+        assertThat(friendshipRepository.findFriendSuggestions(user1.getId(), 10)).isEmpty();
     }
 
     @Test
     @DisplayName("Should not suggest self")
     void shouldNotSuggestSelf() {
         // user1 <-> user2 (friends)
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
-
-        // user2 <-> user1 (already covered above, but checking circular case)
+        accepted(user1, user2);
         entityManager.flush();
 
-        List<User> suggestions = friendshipRepository.getFriendsOfFriends(user1.getId());
-
-        assertThat(suggestions).doesNotContain(user1);
+        assertThat(friendshipRepository.findFriendSuggestions(user1.getId(), 10)).isEmpty();
     }
 
     @Test
     @DisplayName("Should return empty list when no friends of friends exist")
     void shouldReturnEmptyListWhenNoFriendsOfFriendsExist() {
-        List<User> suggestions = friendshipRepository.getFriendsOfFriends(user1.getId());
-
-        assertThat(suggestions).isEmpty();
+        assertThat(friendshipRepository.findFriendSuggestions(user1.getId(), 10)).isEmpty();
     }
 
     @Test
     @DisplayName("Should not suggest users from pending requests")
     void shouldNotSuggestUsersFromPendingRequests() {
         // user1 <-> user2 (friends)
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
 
         // user2 -> user3 (pending request, not accepted)
-        entityManager.persist(new Friendship(user2, user3));
+        pending(user2, user3);
+        entityManager.flush();
+
+        assertThat(friendshipRepository.findFriendSuggestions(user1.getId(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not suggest users with a pending request to or from the user")
+    void shouldNotSuggestUsersWithPendingRequestWithUser() {
+        accepted(user1, user2);
+        accepted(user2, user3);
+        accepted(user2, user4);
+
+        // user1 -> user3 and user4 -> user1 are pending
+        pending(user1, user3);
+        pending(user4, user1);
+        entityManager.flush();
+
+        assertThat(friendshipRepository.findFriendSuggestions(user1.getId(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return at most limit suggestions")
+    void shouldLimitSuggestions() {
+        accepted(user1, user2);
+        accepted(user2, user3);
+        accepted(user2, user4);
         entityManager.flush();
 
-        List<User> suggestions = friendshipRepository.getFriendsOfFriends(user1.getId());
+        List<Object[]> suggestions = friendshipRepository.findFriendSuggestions(user1.getId(), 1);
 
-        assertThat(suggestions).isEmpty();
+        // Tie on mutual friends: lower id wins
+        assertThat(suggestions).hasSize(1);
+        assertThat(((Number) suggestions.getFirst()[0]).longValue())
+                .isEqualTo(Math.min(user3.getId(), user4.getId()));
     }
 
     // ========== Are Friends Tests ==========
@@ -191,8 +234,7 @@ class FriendshipRepositoryTest {
     @Test
     @DisplayName("Should return true when users are friends")
     void shouldReturnTrueWhenUsersAreFriends() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         boolean areFriends = friendshipRepository.areFriends(user1.getId(), user2.getId());
@@ -201,9 +243,9 @@ class FriendshipRepositoryTest {
     }
 
     @Test
-    @DisplayName("Should return false when only one direction exists")
-    void shouldReturnFalseWhenOnlyOneDirectionExists() {
-        entityManager.persist(new Friendship(user1, user2));
+    @DisplayName("Should return false when request is still pending")
+    void shouldReturnFalseWhenRequestIsStillPending() {
+        pending(user1, user2);
         entityManager.flush();
 
         boolean areFriends = friendshipRepository.areFriends(user1.getId(), user2.getId());
@@ -222,8 +264,7 @@ class FriendshipRepositoryTest {
     @Test
     @DisplayName("Should work symmetrically for areFriends check")
     void shouldWorkSymmetricallyForAreFriendsCheck() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
+        accepted(user1, user2);
         entityManager.flush();
 
         boolean areFriends1to2 = friendshipRepository.areFriends(user1.getId(), user2.getId());
@@ -233,18 +274,42 @@ class FriendshipRepositoryTest {
         assertThat(areFriends2to1).isTrue();
     }
 
+    // ========== Accepted Pairs Tests ==========
+
+    @Test
+    @DisplayName("Should return accepted pairs touching any of the users")
+    void shouldReturnAcceptedPairsOfUsers() {
+        accepted(user1, user2);
+        accepted(user3, user4);
+        pending(user2, user3);
+        entityManager.flush();
+
+        List<Object[]> pairs = friendshipRepository.findAcceptedPairsOf(List.of(user2.getId(), user4.getId()), 10);
+
+        assertThat(pairs).extracting(row -> ((Number) row[0]).longValue())
+                .containsExactlyInAnyOrder(user1.getId(), user3.getId());
+    }
+
+    @Test
+    @DisplayName("Should return no more accepted pairs than the limit")
+    void shouldLimitAcceptedPairs() {
+        accepted(user1, user2);
+        accepted(user1, user3);
+        accepted(user1, user4);
+        entityManager.flush();
+
+        assertThat(friendshipRepository.findAcceptedPairsOf(List.of(user1.getId()), 2)).hasSize(2);
+    }
+
     // ========== Delete Friendship Tests ==========
 
     @Test
-    @DisplayName("Should delete friendship in both directions")
-    void shouldDeleteFriendshipInBothDirections() {
-        Friendship friendship1 = new Friendship(user1, user2);
-        Friendship friendship2 = new Friendship(user2, user1);
-        entityManager.persist(friendship1);
-        entityManager.persist(friendship2);
+    @DisplayName("Should delete friendship regardless of argument order")
+    void shouldDeleteFriendshipRegardlessOfArgumentOrder() {
+        accepted(user1, user2);
         entityManager.flush();
 
-        friendshipRepository.deleteFriendship(user1.getId(), user2.getId());
+        friendshipRepository.deleteFriendship(user2.getId(), user1.getId());
         entityManager.flush();
 
         assertThat(friendshipRepository.areFriends(user1.getId(), user2.getId())).isFalse();
@@ -262,10 +327,8 @@ class FriendshipRepositoryTest {
     @Test
     @DisplayName("Should delete only specified friendship, not others")
     void shouldDeleteOnlySpecifiedFriendshipNotOthers() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
-        entityManager.persist(new Friendship(user1, user3));
-        entityManager.persist(new Friendship(user3, user1));
+        accepted(user1, user2);
+        accepted(user1, user3);
         entityManager.flush();
 
         friendshipRepository.deleteFriendship(user1.getId(), user2.getId());
@@ -275,15 +338,48 @@ class FriendshipRepositoryTest {
         assertThat(friendshipRepository.areFriends(user1.getId(), user3.getId())).isTrue();
     }
 
+    // ========== Find By Pair Tests ==========
+
+    @Test
+    @DisplayName("Should store one row per pair with the lower user id first")
+    void shouldStoreOneRowPerPairWithLowerUserIdFirst() {
+        pending(user2, user1);
+        entityManager.flush();
+
+        Friendship found = friendshipRepository.findByPair(user1.getId(), user2.getId()).orElseThrow();
+
+        assertThat(found.getUserId()).isEqualTo(user1.getId());
+        assertThat(found.getFriendId()).isEqualTo(user2.getId());
+        assertThat(found.getRequesterId()).isEqualTo(user2.getId());
+        assertThat(friendshipRepository.findByPair(user2.getId(), user1.getId())).contains(found);
+    }
+
+    // ========== Find All Between Tests ==========
+
+    @Test
+    @DisplayName("Should find rows in any state on either side of the pair, only with the given users")
+    void shouldFindAllBetweenUserAndOthers() {
+        Friendship friends = accepted(user2, user1);
+        Friendship outgoing = pending(user1, user3);
+        accepted(user2, user4);
+        entityManager.flush();
+
+        List<Friendship> rows = friendshipRepository.findAllBetween(
+            user2.getId(), List.of(user1.getId(), user3.getId(), user4.getId()));
+        List<Friendship> user1Rows = friendshipRepository.findAllBetween(
+            user1.getId(), List.of(user2.getId(), user3.getId()));
+
+        assertThat(rows).extracting(Friendship::getId).hasSize(2).doesNotContain(outgoing.getId());
+        assertThat(user1Rows).extracting(Friendship::getId).containsExactlyInAnyOrder(friends.getId(), outgoing.getId());
+    }
+
     // ========== Count Friends Tests ==========
 
     @Test
     @DisplayName("Should count accepted friends correctly")
     void shouldCountAcceptedFriendsCorrectly() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user2, user1));
-        entityManager.persist(new Friendship(user1, user3));
-        entityManager.persist(new Friendship(user3, user1));
+        accepted(user1, user2);
+        accepted(user1, user3);
         entityManager.flush();
 
         Long count = friendshipRepository.countFriends(user1.getId());
@@ -294,8 +390,8 @@ class FriendshipRepositoryTest {
     @Test
     @DisplayName("Should not count pending requests in friend count")
     void shouldNotCountPendingRequestsInFriendCount() {
-        entityManager.persist(new Friendship(user1, user2));
-        entityManager.persist(new Friendship(user1, user3));
+        pending(user1, user2);
+        pending(user1, user3);
         entityManager.flush();
 
         Long count = friendshipRepository.countFriends(user1.getId());
@@ -310,4 +406,19 @@ class FriendshipRepositoryTest {
 
         assertThat(count).isZero();
     }
+
+    private List<Long> firstPage(User user, String namePattern, int limit) {
+        return friendshipRepository.findFriendPageIds(
+            user.getId(), OffsetDateTime.parse("9999-12-31T00:00:00Z"), Long.MAX_VALUE, namePattern, limit);
+    }
+
+    private Friendship accepted(User requester, User addressee) {
+        Friendship friendship = Friendship.request(requester, addressee);
+        friendship.accept();
+        return entityManager.persist(friendship);
+    }
+
+    private Friendship pending(User requester, User addressee) {
+        return entityManager.persist(Friendship.request(requester, addressee));
+    }
 }
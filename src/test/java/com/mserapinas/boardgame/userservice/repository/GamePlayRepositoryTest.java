@@ -0,0 +1,124 @@
+package com.mserapinas.boardgame.userservice.repository;
+
+import com.mserapinas.boardgame.userservice.model.GamePlay;
+import com.mserapinas.boardgame.userservice.model.GamePlayWinner;
+import com.mserapinas.boardgame.userservice.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GamePlayRepositoryTest {
+
+    private static final Integer GAME_ID = 1001;
+    private static final Integer OTHER_GAME_ID = 2002;
+    private static final LocalDate FIRST_PAGE_DATE = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private GamePlayRepository gamePlayRepository;
+
+    private User logger;
+    private User friend;
+    private User otherFriend;
+
+    @BeforeEach
+    void setUp() {
+        logger = new User("logger@example.com", "Logger", "password");
+        friend = new User("friend@example.com", "Friend", "password");
+        otherFriend = new User("other@example.com", "Other Friend", "password");
+
+        entityManager.persist(logger);
+        entityManager.persist(friend);
+        entityManager.persist(otherFriend);
+        entityManager.flush();
+    }
+
+    private GamePlay play(Integer gameId, LocalDate playedAt, Set<User> players, User winner) {
+        GamePlay play = new GamePlay();
+        play.setLogger(logger);
+        play.setGameId(gameId);
+        play.setPlayedAt(playedAt);
+        play.setTimesPlayed(1);
+        play.setPlayers(new HashSet<>(players));
+        if (winner != null) {
+            play.getWinners().add(new GamePlayWinner(play, 0, winner));
+        }
+        return entityManager.persist(play);
+    }
+
+    private List<Long> firstPage(PlayHistoryFilter filter, int limit) {
+        return gamePlayRepository.findHistoryPageIds(logger.getId(), filter, FIRST_PAGE_DATE, Long.MAX_VALUE, limit);
+    }
+
+    // ========== Play History Tests ==========
+
+    @Test
+    @DisplayName("Should return the logger's plays newest first and continue after the keyset")
+    void shouldPageHistoryNewestFirst() {
+        GamePlay oldest = play(GAME_ID, LocalDate.of(2025, 1, 1), Set.of(), null);
+        GamePlay middle = play(GAME_ID, LocalDate.of(2025, 2, 1), Set.of(), null);
+        GamePlay newest = play(OTHER_GAME_ID, LocalDate.of(2025, 3, 1), Set.of(), null);
+        entityManager.flush();
+
+        assertThat(firstPage(PlayHistoryFilter.NONE, 2)).containsExactly(newest.getId(), middle.getId());
+        assertThat(gamePlayRepository.findHistoryPageIds(
+                logger.getId(), PlayHistoryFilter.NONE, middle.getPlayedAt(), middle.getId(), 2))
+            .containsExactly(oldest.getId());
+    }
+
+    @Test
+    @DisplayName("Should filter history by game and date range")
+    void shouldFilterByGameAndDateRange() {
+        play(GAME_ID, LocalDate.of(2024, 12, 31), Set.of(), null);
+        GamePlay inRange = play(GAME_ID, LocalDate.of(2025, 6, 1), Set.of(), null);
+        play(OTHER_GAME_ID, LocalDate.of(2025, 6, 2), Set.of(), null);
+        entityManager.flush();
+
+        PlayHistoryFilter filter = new PlayHistoryFilter(
+            GAME_ID, List.of(), null, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+        assertThat(firstPage(filter, 10)).containsExactly(inRange.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep only plays with every required player")
+    void shouldRequireEveryPlayer() {
+        play(GAME_ID, LocalDate.of(2025, 1, 1), Set.of(friend), null);
+        GamePlay both = play(GAME_ID, LocalDate.of(2025, 1, 2), Set.of(friend, otherFriend), null);
+        play(GAME_ID, LocalDate.of(2025, 1, 3), Set.of(otherFriend), null);
+        entityManager.flush();
+
+        PlayHistoryFilter filter = new PlayHistoryFilter(
+            null, Set.of(friend.getId(), otherFriend.getId()), null, null, null);
+
+        assertThat(firstPage(filter, 10)).containsExactly(both.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep only plays the given user won")
+    void shouldFilterByWinner() {
+        GamePlay won = play(GAME_ID, LocalDate.of(2025, 1, 1), Set.of(friend, otherFriend), friend);
+        play(GAME_ID, LocalDate.of(2025, 1, 2), Set.of(friend, otherFriend), otherFriend);
+        play(GAME_ID, LocalDate.of(2025, 1, 3), Set.of(friend), null);
+        entityManager.flush();
+
+        PlayHistoryFilter filter = new PlayHistoryFilter(null, List.of(), friend.getId(), null, null);
+
+        assertThat(firstPage(filter, 10)).containsExactly(won.getId());
+    }
+}
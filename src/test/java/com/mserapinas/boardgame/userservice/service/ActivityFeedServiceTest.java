@@ -0,0 +1,200 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.FeedDto;
+import com.mserapinas.boardgame.userservice.dto.response.FeedItemDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.model.ActivityEvent;
+import com.mserapinas.boardgame.userservice.model.ActivityType;
+import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
+import com.mserapinas.boardgame.userservice.model.FeedDelivery;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.ActivityEventRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import com.mserapinas.boardgame.userservice.repository.UserSocialCountsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityFeedServiceTest {
+
+    private static final Long READER_ID = 1L;
+    private static final Long FRIEND_ID = 2L;
+    private static final Long POPULAR_FRIEND_ID = 3L;
+    private static final Integer GAME_ID = 1001;
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_FRIENDS = 100;
+
+    @Mock
+    private ActivityEventRepository activityEventRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSocialCountsRepository userSocialCountsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ActivityFeedService activityFeedService;
+
+    @BeforeEach
+    void setUp() {
+        activityFeedService = new ActivityFeedService(activityEventRepository, userRepository,
+            userSocialCountsRepository, transactionManager, BATCH_SIZE, MAX_FRIENDS);
+    }
+
+    private static ActivityEvent event(long id, Long actorId, ActivityType type) {
+        ActivityEvent event = new ActivityEvent(actorId, type, GAME_ID);
+        event.setId(id);
+        return event;
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User(name.toLowerCase() + "@example.com", name, "password");
+        user.setId(id);
+        return user;
+    }
+
+    // ========== Recording Tests ==========
+
+    @Test
+    @DisplayName("Should record a game added to a visible collection")
+    void shouldRecordGameAddedToVisibleCollection() {
+        User friend = user(FRIEND_ID, "Kipras");
+        friend.setCollectionVisibility(CollectionVisibility.FRIENDS);
+        when(userRepository.findById(FRIEND_ID)).thenReturn(Optional.of(friend));
+
+        activityFeedService.recordGameAdded(FRIEND_ID, GAME_ID);
+
+        verify(activityEventRepository).save(any(ActivityEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should not record a game added to a private collection")
+    void shouldNotRecordGameAddedToPrivateCollection() {
+        User friend = user(FRIEND_ID, "Kipras");
+        friend.setCollectionVisibility(CollectionVisibility.PRIVATE);
+        when(userRepository.findById(FRIEND_ID)).thenReturn(Optional.of(friend));
+
+        activityFeedService.recordGameAdded(FRIEND_ID, GAME_ID);
+
+        verify(activityEventRepository, never()).save(any());
+    }
+
+    // ========== Fan-out Tests ==========
+
+    @Test
+    @DisplayName("Should copy events to friends' timelines and leave high-degree actors' events for read time")
+    void shouldSplitBatchByActorDegree() {
+        when(activityEventRepository.lockPendingBatch(BATCH_SIZE)).thenReturn(List.of(
+            event(10, FRIEND_ID, ActivityType.PLAY_LOGGED),
+            event(11, POPULAR_FRIEND_ID, ActivityType.REVIEW_POSTED),
+            event(12, FRIEND_ID, ActivityType.GAME_ADDED)
+        ));
+        when(userSocialCountsRepository.findUserIdsWithMoreFriendsThan(Set.of(FRIEND_ID, POPULAR_FRIEND_ID), MAX_FRIENDS))
+            .thenReturn(List.of(POPULAR_FRIEND_ID));
+
+        int delivered = activityFeedService.fanOutBatch();
+
+        assertEquals(3, delivered);
+        verify(activityEventRepository).lockFanOutFriendships(List.of(10L, 12L));
+        verify(activityEventRepository).fanOut(List.of(10L, 12L));
+        verify(activityEventRepository).markDelivered(List.of(10L, 12L), FeedDelivery.FAN_OUT);
+        verify(activityEventRepository).markDelivered(List.of(11L), FeedDelivery.ON_READ);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no events are pending")
+    void shouldDoNothingWhenNothingPending() {
+        when(activityEventRepository.lockPendingBatch(BATCH_SIZE)).thenReturn(List.of());
+
+        assertEquals(0, activityFeedService.fanOutBatch());
+
+        verify(activityEventRepository, never()).fanOut(anyCollection());
+        verifyNoInteractions(userSocialCountsRepository);
+    }
+
+    @Test
+    @DisplayName("Should stop a run once a batch comes back short")
+    void shouldStopRunOnShortBatch() {
+        when(activityEventRepository.lockPendingBatch(BATCH_SIZE))
+            .thenReturn(List.of(event(10, FRIEND_ID, ActivityType.PLAY_LOGGED)));
+
+        activityFeedService.fanOutPending();
+
+        verify(activityEventRepository, times(1)).lockPendingBatch(BATCH_SIZE);
+        verify(transactionManager).commit(any());
+    }
+
+    // ========== Read Tests ==========
+
+    @Test
+    @DisplayName("Should read the first page and return a cursor after a full page")
+    void shouldReadFirstPage() {
+        when(userRepository.existsById(READER_ID)).thenReturn(true);
+        when(activityEventRepository.findFeedPage(READER_ID, Long.MAX_VALUE, 2, MAX_FRIENDS)).thenReturn(List.of(
+            event(12, FRIEND_ID, ActivityType.GAME_ADDED),
+            event(10, FRIEND_ID, ActivityType.PLAY_LOGGED)
+        ));
+        when(userRepository.findAllById(Set.of(FRIEND_ID))).thenReturn(List.of(user(FRIEND_ID, "Kipras")));
+
+        FeedDto feed = activityFeedService.getFeed(READER_ID, null, 2);
+
+        assertEquals(2, feed.items().size());
+        assertEquals(12L, feed.items().getFirst().eventId());
+        assertEquals("Kipras", feed.items().getFirst().actorName());
+        assertEquals("10", feed.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should name the actors of merged pages and end on a short page")
+    void shouldMergeOnReadEvents() {
+        when(userRepository.existsById(READER_ID)).thenReturn(true);
+        when(activityEventRepository.findFeedPage(READER_ID, 20L, 5, MAX_FRIENDS)).thenReturn(List.of(
+            event(11, POPULAR_FRIEND_ID, ActivityType.REVIEW_POSTED),
+            event(10, FRIEND_ID, ActivityType.PLAY_LOGGED)
+        ));
+        when(userRepository.findAllById(Set.of(FRIEND_ID, POPULAR_FRIEND_ID)))
+            .thenReturn(List.of(user(FRIEND_ID, "Kipras"), user(POPULAR_FRIEND_ID, "Tautvydas")));
+
+        FeedDto feed = activityFeedService.getFeed(READER_ID, "20", 5);
+
+        assertEquals(List.of(11L, 10L), feed.items().stream().map(FeedItemDto::eventId).toList());
+        assertEquals("Tautvydas", feed.items().getFirst().actorName());
+        assertNull(feed.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that is not an event id")
+    void shouldRejectInvalidCursor() {
+        when(userRepository.existsById(READER_ID)).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> activityFeedService.getFeed(READER_ID, "not-a-cursor", 20));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should throw when the reader does not exist")
+    void shouldThrowForUnknownReader() {
+        when(userRepository.existsById(READER_ID)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> activityFeedService.getFeed(READER_ID, null, 20));
+    }
+}
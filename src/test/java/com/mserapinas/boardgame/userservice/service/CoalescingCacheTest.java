@@ -0,0 +1,127 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingCache<Integer, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CoalescingCache<>("test", meterRegistry, Duration.ofMinutes(1), 100);
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent misses onto one load")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(1, key -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                awaitQuietly(releaseLoader);
+                return "value-" + key;
+            })));
+            assertThat(loaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(1, key -> {
+                    loads.incrementAndGet();
+                    return "unexpected";
+                })));
+            }
+            // Give the waiters time to find the in-flight entry before releasing the loader
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.coalesced").counter().count()).isEqualTo(callers - 1.0);
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void shouldReloadAfterInvalidation() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> "v" + loads.incrementAndGet());
+        assertThat(cache.get(1, key -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+
+        cache.invalidate(1);
+
+        assertThat(cache.get(1, key -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Should reload after TTL expires")
+    void shouldReloadAfterTtlExpires() {
+        CoalescingCache<Integer, String> shortLived =
+            new CoalescingCache<>("short", meterRegistry, Duration.ZERO, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        shortLived.get(1, key -> "v" + loads.incrementAndGet());
+
+        assertThat(shortLived.get(1, key -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Should not cache failed loads")
+    void shouldNotCacheFailedLoads() {
+        assertThatThrownBy(() -> cache.get(1, key -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(1, key -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    @DisplayName("Should invalidate matching keys")
+    void shouldInvalidateMatchingKeys() {
+        cache.get(1, key -> "one");
+        cache.get(2, key -> "two");
+
+        cache.invalidateIf(key -> key % 2 == 0);
+
+        assertThat(cache.get(1, key -> "reloaded")).isEqualTo("one");
+        assertThat(cache.get(2, key -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
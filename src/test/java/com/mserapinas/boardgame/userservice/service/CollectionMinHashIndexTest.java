@@ -0,0 +1,136 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CollectionMinHashIndexTest {
+
+    private CollectionMinHashIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CollectionMinHashIndex(5_000);
+    }
+
+    @Test
+    @DisplayName("Should estimate Jaccard similarity from signatures")
+    void shouldEstimateJaccardSimilarity() {
+        // 100 shared games out of 300 distinct: Jaccard 1/3
+        int[] a = IntStream.range(0, 200).toArray();
+        int[] b = IntStream.range(100, 300).toArray();
+
+        double estimate = CollectionMinHashIndex.estimate(
+            CollectionMinHashIndex.signature(a), CollectionMinHashIndex.signature(b));
+
+        assertThat(estimate).isCloseTo(1.0 / 3, within(0.15));
+        assertThat(CollectionMinHashIndex.estimate(
+            CollectionMinHashIndex.signature(a), CollectionMinHashIndex.signature(a.clone()))).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should find users with overlapping collections, best match first")
+    void shouldRankOverlappingCollections() {
+        index.putUser(1L, IntStream.range(0, 40).toArray());
+        index.putUser(2L, IntStream.range(0, 40).toArray());
+        index.putUser(3L, IntStream.range(5, 45).toArray());
+        index.putUser(4L, IntStream.range(1_000, 1_040).toArray());
+
+        List<CollectionMinHashIndex.Match> matches = index.mostSimilar(1L, id -> false, 10);
+
+        assertThat(matches).extracting(CollectionMinHashIndex.Match::userId).containsExactly(2L, 3L);
+        assertThat(matches.getFirst().similarity()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should leave out excluded users and respect the limit")
+    void shouldRespectExclusionsAndLimit() {
+        int[] games = IntStream.range(0, 20).toArray();
+        for (long userId = 1; userId <= 5; userId++) {
+            index.putUser(userId, games);
+        }
+
+        List<CollectionMinHashIndex.Match> matches = index.mostSimilar(1L, id -> id == 2L, 2);
+
+        // Ties go to the lower id
+        assertThat(matches).extracting(CollectionMinHashIndex.Match::userId).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should not index collections below the minimum size")
+    void shouldSkipSmallCollections() {
+        index.putUser(1L, new int[]{1, 2});
+        index.putUser(2L, new int[]{1, 2});
+
+        assertThat(index.userCount()).isZero();
+        assertThat(index.mostSimilar(1L, id -> false, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should move users between buckets when their collection changes or they leave")
+    void shouldUpdateAndRemoveUsers() {
+        index.putUser(1L, IntStream.range(0, 30).toArray());
+        index.putUser(2L, IntStream.range(0, 30).toArray());
+
+        index.putUser(2L, IntStream.range(500, 530).toArray());
+        assertThat(index.mostSimilar(1L, id -> false, 10)).isEmpty();
+
+        index.putUser(2L, IntStream.range(0, 30).toArray());
+        index.removeUser(1L);
+        assertThat(index.mostSimilar(2L, id -> false, 10)).isEmpty();
+        assertThat(index.userCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should remove users from crowded buckets and keep the rest findable")
+    void shouldRemoveFromCrowdedBuckets() {
+        int[] games = IntStream.range(0, 20).toArray();
+        for (long userId = 1; userId <= 100; userId++) {
+            index.putUser(userId, games);
+        }
+        for (long userId = 2; userId <= 100; userId += 2) {
+            index.removeUser(userId);
+        }
+
+        List<CollectionMinHashIndex.Match> matches = index.mostSimilar(1L, id -> false, 100);
+
+        assertThat(matches).hasSize(49);
+        assertThat(matches).allSatisfy(match -> assertThat(match.userId() % 2).isEqualTo(1L));
+        assertThat(index.userCount()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should take a budget-cut bucket's first entries in storage order")
+    void shouldTakeFirstEntriesWhenBudgetCutsBucket() {
+        index = new CollectionMinHashIndex(3);
+        int[] games = IntStream.range(0, 20).toArray();
+        for (long userId = 1; userId <= 10; userId++) {
+            index.putUser(userId, games);
+        }
+        // Swaps the newest entry, user 10, into user 2's slot
+        index.removeUser(2L);
+
+        assertThat(index.mostSimilar(1L, id -> false, 10))
+            .extracting(CollectionMinHashIndex.Match::userId)
+            .containsExactly(3L, 10L);
+    }
+
+    @Test
+    @DisplayName("Should stop reading buckets once the candidate budget is spent")
+    void shouldStopAtCandidateBudget() {
+        index = new CollectionMinHashIndex(3);
+        int[] games = IntStream.range(0, 20).toArray();
+        for (long userId = 1; userId <= 10; userId++) {
+            index.putUser(userId, games);
+        }
+
+        // Every user shares every bucket, but only three entries are read
+        assertThat(index.mostSimilar(1L, id -> false, 10).size()).isLessThanOrEqualTo(3);
+    }
+}
@@ -0,0 +1,155 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load time, heap footprint and query latency of the friend graph at 200k users / 2M friendships,
+ * with a skewed (Zipf-like) degree distribution so a few users have very long friend lists.
+ * Queries are the ones the service answers from the graph: friend lists, mutual friends
+ * (intersect) and friend suggestions (friendsOfFriends).
+ * Excluded from the default test task; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class FriendGraphBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int EDGES = 2_000_000;
+    private static final int WARMUP_QUERIES = 100_000;
+    private static final int MEASURED_QUERIES = 1_000_000;
+    // Suggestions walk every friend's list, so far fewer of them fit in a reasonable run
+    private static final int SUGGESTION_WARMUP_QUERIES = 2_000;
+    private static final int SUGGESTION_QUERIES = 20_000;
+    private static final int SUGGESTION_LIMIT = 20;
+    private static final int SUGGESTION_BUDGET = 100_000;
+
+    @Test
+    @DisplayName("Should load 2M friendships quickly and answer friend-list queries in microseconds")
+    void benchmarkFriendGraph() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] popularity = cumulativePopularity();
+        long[] from = new long[EDGES];
+        long[] to = new long[EDGES];
+        for (int i = 0; i < EDGES; i++) {
+            from[i] = sampleUser(random, popularity);
+            to[i] = sampleUser(random, popularity);
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapBefore = usedHeap(memory);
+
+        // Rows arrive from the cursor one by one, as in FriendGraphService
+        long loadStarted = System.nanoTime();
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+        for (int i = 0; i < EDGES; i++) {
+            builder.addEdge(from[i], to[i]);
+        }
+        FriendGraph graph = builder.build();
+        long loadMillis = (System.nanoTime() - loadStarted) / 1_000_000;
+
+        // The builder's scratch array is garbage by now, so this is the graph alone
+        long graphBytes = usedHeap(memory) - heapBefore;
+        long edgeCount = graph.edgeCount();
+        assertThat(edgeCount).isGreaterThan(EDGES * 9L / 10);
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            checksum += graph.friendsOf(sampleUser(random, popularity)).length;
+            checksum += FriendGraph.intersect(
+                graph.friendsOf(sampleUser(random, popularity)),
+                graph.friendsOf(sampleUser(random, popularity))).length;
+        }
+
+        long[] friendsOfLatencies = new long[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long a = sampleUser(random, popularity);
+            long started = System.nanoTime();
+            checksum += graph.friendsOf(a).length;
+            friendsOfLatencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(friendsOfLatencies);
+
+        long[] mutualLatencies = new long[MEASURED_QUERIES];
+        int withMutualFriends = 0;
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long a = sampleUser(random, popularity);
+            long b = sampleUser(random, popularity);
+            long started = System.nanoTime();
+            long[] mutual = FriendGraph.intersect(graph.friendsOf(a), graph.friendsOf(b));
+            mutualLatencies[i] = System.nanoTime() - started;
+            if (mutual.length > 0) {
+                withMutualFriends++;
+            }
+        }
+        Arrays.sort(mutualLatencies);
+
+        for (int i = 0; i < SUGGESTION_WARMUP_QUERIES; i++) {
+            checksum += graph.friendsOfFriends(sampleUser(random, popularity), id -> false, SUGGESTION_LIMIT, SUGGESTION_BUDGET).size();
+        }
+        long[] suggestionLatencies = new long[SUGGESTION_QUERIES];
+        for (int i = 0; i < SUGGESTION_QUERIES; i++) {
+            long a = sampleUser(random, popularity);
+            long started = System.nanoTime();
+            checksum += graph.friendsOfFriends(a, id -> false, SUGGESTION_LIMIT, SUGGESTION_BUDGET).size();
+            suggestionLatencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(suggestionLatencies);
+
+        System.out.printf(
+            "FriendGraph: %,d users, %,d friendships, loaded in %,d ms, ~%,d MB heap (~%,d MB per million friendships)%n" +
+            "  friendsOf over %,d queries: %s%n" +
+            "  intersect over %,d queries: %s, %d%% with mutual friends%n" +
+            "  friendsOfFriends (top %d) over %,d queries: %s%n",
+            graph.userCount(), edgeCount, loadMillis,
+            graphBytes >> 20, (graphBytes * 1_000_000 / edgeCount) >> 20,
+            MEASURED_QUERIES, percentiles(friendsOfLatencies),
+            MEASURED_QUERIES, percentiles(mutualLatencies), withMutualFriends * 100 / MEASURED_QUERIES,
+            SUGGESTION_LIMIT, SUGGESTION_QUERIES, percentiles(suggestionLatencies)
+        );
+        // Keeps the JIT from dropping query results nothing else reads
+        assertThat(checksum).isPositive();
+        assertThat(graph.userCount()).isGreaterThan(USERS / 2);
+    }
+
+    private static double[] cumulativePopularity() {
+        double[] cumulative = new double[USERS];
+        double total = 0;
+        for (int rank = 0; rank < USERS; rank++) {
+            total += 1.0 / Math.pow(rank + 1, 0.6);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < USERS; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private static long sampleUser(SplittableRandom random, double[] popularity) {
+        int pos = Arrays.binarySearch(popularity, random.nextDouble());
+        return 1 + (pos >= 0 ? pos : Math.min(-pos - 1, USERS - 1));
+    }
+
+    private static long usedHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String percentiles(long[] sortedNanos) {
+        return String.format("p50=%.2f us p95=%.2f us p99=%.2f us max=%.2f us",
+            micros(sortedNanos, 0.50), micros(sortedNanos, 0.95), micros(sortedNanos, 0.99),
+            sortedNanos[sortedNanos.length - 1] / 1e3);
+    }
+
+    private static double micros(long[] sortedNanos, double percentile) {
+        int idx = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, idx)] / 1e3;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FriendGraphTest {
+
+    private FriendGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+        builder.addEdge(1L, 3L);
+        builder.addEdge(2L, 1L);
+        builder.addEdge(1L, 4L);
+        builder.addEdge(3L, 4L);
+        // Duplicate in the other direction
+        builder.addEdge(3L, 1L);
+        graph = builder.build();
+    }
+
+    @Test
+    @DisplayName("Should build sorted, deduplicated friend lists in both directions")
+    void shouldBuildSortedFriendLists() {
+        assertThat(graph.friendsOf(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(graph.friendsOf(3L)).containsExactly(1L, 4L);
+        assertThat(graph.friendsOf(99L)).isEmpty();
+        assertThat(graph.userCount()).isEqualTo(4);
+        assertThat(graph.edgeCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should store every edge in both directions")
+    void shouldStoreBothDirections() {
+        assertThat(graph.friendsOf(2L)).containsExactly(1L);
+        assertThat(graph.friendsOf(4L)).containsExactly(1L, 3L);
+        assertThat(graph.friendsOf(2L)).doesNotContain(3L);
+    }
+
+    @Test
+    @DisplayName("Should add and remove edges without touching arrays already handed out")
+    void shouldCopyOnWrite() {
+        long[] before = graph.friendsOf(2L);
+
+        graph.addEdge(2L, 4L);
+        graph.removeEdge(1L, 2L);
+
+        assertThat(before).containsExactly(1L);
+        assertThat(graph.friendsOf(2L)).containsExactly(4L);
+        assertThat(graph.friendsOf(4L)).containsExactly(1L, 2L, 3L);
+        assertThat(graph.friendsOf(1L)).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should treat repeated updates as no-ops")
+    void shouldBeIdempotent() {
+        graph.addEdge(1L, 2L);
+        graph.removeEdge(2L, 3L);
+
+        assertThat(graph.friendsOf(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(graph.edgeCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should drop a deleted user from every friend list")
+    void shouldRemoveUser() {
+        graph.removeUser(1L);
+
+        assertThat(graph.friendsOf(1L)).isEmpty();
+        assertThat(graph.friendsOf(3L)).containsExactly(4L);
+        // user 2 had no other friends
+        assertThat(graph.userCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should intersect sorted friend lists by merge or by binary search")
+    void shouldIntersectFriendLists() {
+        long[] many = new long[1_000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = i * 2L;
+        }
+
+        assertThat(FriendGraph.intersect(new long[]{1, 3, 4, 8}, new long[]{2, 3, 8, 9})).containsExactly(3L, 8L);
+        assertThat(FriendGraph.intersect(new long[]{3, 4, 998, 1_999}, many)).containsExactly(4L, 998L);
+        assertThat(FriendGraph.intersect(many, new long[0])).isEmpty();
+        assertThat(FriendGraph.intersect(graph.friendsOf(1L), graph.friendsOf(4L))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should rank friends of friends by mutual friends and keep only the top ones")
+    void shouldRankFriendsOfFriends() {
+        graph.addEdge(2L, 5L);
+        graph.addEdge(3L, 5L);
+        graph.addEdge(4L, 5L);
+        graph.addEdge(2L, 6L);
+        graph.addEdge(3L, 7L);
+
+        // 5 shares 2, 3 and 4 with user 1; 6 and 7 share one each, the lower id wins the tie
+        assertThat(graph.friendsOfFriends(1L, id -> false, 2, 1_000))
+            .containsExactly(new FriendGraph.Candidate(5L, 3), new FriendGraph.Candidate(6L, 1));
+    }
+
+    @Test
+    @DisplayName("Should expand only the least-connected friends that fit the budget")
+    void shouldExpandLowestDegreeFriendsWithinBudget() {
+        graph.addEdge(2L, 5L);
+        graph.addEdge(3L, 6L);
+        graph.addEdge(3L, 7L);
+        graph.addEdge(3L, 8L);
+
+        // 2 (2 friends) and 4 (2 friends) fit in 4 entries; 3 (5 friends) does not and is skipped
+        assertThat(graph.friendsOfFriends(1L, id -> false, 10, 4))
+            .containsExactly(new FriendGraph.Candidate(5L, 1));
+        assertThat(graph.friendsOfFriends(1L, id -> false, 10, 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should leave out self, friends and excluded users from suggestions")
+    void shouldExcludeFromFriendsOfFriends() {
+        graph.addEdge(2L, 5L);
+        graph.addEdge(2L, 6L);
+
+        // 3 and 4 are friends of 1 and of each other; 5 has a pending request
+        assertThat(graph.friendsOfFriends(1L, id -> id == 5L, 10, 1_000))
+            .containsExactly(new FriendGraph.Candidate(6L, 1));
+        assertThat(graph.friendsOfFriends(99L, id -> false, 10, 1_000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should reject ids that do not fit the packed layout")
+    void shouldRejectOutOfRangeIds() {
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+
+        assertThatThrownBy(() -> builder.addEdge(1L, 1L << 32))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,136 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FriendPathSearchTest {
+
+    private FriendGraph graph;
+    private int expansions;
+
+    @BeforeEach
+    void setUp() {
+        // 1 - 2 - 3 - 4 - 5 - 6, plus a shortcut 2 - 7 - 5 and an island 8 - 9
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+        builder.addEdge(1L, 2L);
+        builder.addEdge(2L, 3L);
+        builder.addEdge(3L, 4L);
+        builder.addEdge(4L, 5L);
+        builder.addEdge(5L, 6L);
+        builder.addEdge(2L, 7L);
+        builder.addEdge(7L, 5L);
+        builder.addEdge(8L, 9L);
+        graph = builder.build();
+        expansions = 0;
+    }
+
+    @Test
+    @DisplayName("Should find the shortest chain between two users")
+    void shouldFindShortestChain() {
+        FriendPathSearch.Result result = search(1L, 6L, 6, 1_000);
+
+        assertThat(result.found()).isTrue();
+        assertThat(result.path()).containsExactly(1L, 2L, 7L, 5L, 6L);
+        assertThat(result.truncated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should return a direct friendship as a one-step chain")
+    void shouldReturnDirectFriendship() {
+        assertThat(search(4L, 3L, 4, 1_000).path()).containsExactly(4L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should not return chains longer than the depth limit")
+    void shouldRespectDepthLimit() {
+        FriendPathSearch.Result result = search(1L, 6L, 3, 1_000);
+
+        assertThat(result.found()).isFalse();
+        assertThat(result.truncated()).isFalse();
+        assertThat(search(1L, 5L, 3, 1_000).path()).containsExactly(1L, 2L, 7L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should stop early when the users are in different components")
+    void shouldStopWhenComponentsAreDisconnected() {
+        FriendPathSearch.Result result = search(1L, 9L, 6, 1_000);
+
+        assertThat(result.found()).isFalse();
+        assertThat(result.truncated()).isFalse();
+        // Ends once the island side has nothing left to expand, before the depth limit
+        assertThat(expansions).isLessThan(6);
+    }
+
+    @Test
+    @DisplayName("Should give up and report truncation when the visit budget runs out")
+    void shouldReportTruncationWhenBudgetRunsOut() {
+        FriendPathSearch.Result result = search(1L, 6L, 6, 3);
+
+        assertThat(result.found()).isFalse();
+        assertThat(result.truncated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should report truncation when the expander stops fetching past the remaining budget")
+    void shouldTruncateWhenExpanderStopsAtBudget() {
+        // A star of 100 users around 1; the expander hands out one entry past the budget and no more
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+        for (long id = 10; id < 110; id++) {
+            builder.addEdge(1L, id);
+            builder.addEdge(id, 2_000L);
+        }
+        graph = builder.build();
+        long[] fetched = {0};
+
+        FriendPathSearch.Result result = FriendPathSearch.search(1L, 3_000L, 4, 10, (frontier, budget) -> {
+            long[][] friendLists = new long[frontier.length][];
+            for (int i = 0; i < frontier.length; i++) {
+                long[] friends = graph.friendsOf(frontier[i]);
+                int take = (int) Math.max(0, Math.min(friends.length, budget + 1 - fetched[0]));
+                friendLists[i] = Arrays.copyOf(friends, take);
+                fetched[0] += take;
+            }
+            return friendLists;
+        });
+
+        assertThat(result.found()).isFalse();
+        assertThat(result.truncated()).isTrue();
+        assertThat(fetched[0]).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("Should handle frontiers large enough to grow the visited sets")
+    void shouldHandleLargeFrontiers() {
+        // A star of 1000 users around 1, each also friends with 2000, which knows 3000
+        FriendGraph.Builder builder = new FriendGraph.Builder();
+        for (long id = 10; id < 1_010; id++) {
+            builder.addEdge(1L, id);
+            builder.addEdge(id, 2_000L);
+        }
+        builder.addEdge(2_000L, 3_000L);
+        graph = builder.build();
+
+        FriendPathSearch.Result result = search(1L, 3_000L, 4, 10_000);
+
+        assertThat(result.path()).hasSize(4);
+        assertThat(result.path()[0]).isEqualTo(1L);
+        assertThat(result.path()[2]).isEqualTo(2_000L);
+        assertThat(result.path()[3]).isEqualTo(3_000L);
+    }
+
+    private FriendPathSearch.Result search(long fromId, long toId, int maxDepth, int visitBudget) {
+        return FriendPathSearch.search(fromId, toId, maxDepth, visitBudget, (frontier, budget) -> {
+            expansions++;
+            long[][] friendLists = new long[frontier.length][];
+            for (int i = 0; i < frontier.length; i++) {
+                friendLists[i] = graph.friendsOf(frontier[i]);
+            }
+            return friendLists;
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mserapinas.boardgame.userservice.dto.response.FriendshipNotificationDto;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendshipNotificationServiceTest {
+
+    private static final Long USER_1_ID = 1L;
+    private static final Long USER_2_ID = 2L;
+    private static final int MAX_STREAMS = 2;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JdbcConnectionDetails connectionDetails;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private FriendshipNotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new FriendshipNotificationService(userRepository, jdbcTemplate, connectionDetails,
+            objectMapper, Duration.ofMinutes(30), MAX_STREAMS, false);
+    }
+
+    @Test
+    @DisplayName("Should publish the event and the recipient on the notification channel")
+    void shouldPublishOnChannel() throws Exception {
+        User requester = new User("user1@example.com", "User One", "password");
+        requester.setId(USER_1_ID);
+        when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(requester));
+
+        notificationService.publish(USER_2_ID, FriendshipNotificationDto.Type.REQUEST_RECEIVED, USER_1_ID);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(eq(FriendshipNotificationService.NOTIFY_SQL), ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+            eq(FriendshipNotificationService.CHANNEL), payload.capture());
+        FriendshipNotificationService.Envelope envelope =
+            objectMapper.readValue(payload.getValue(), FriendshipNotificationService.Envelope.class);
+        assertThat(envelope.recipientId()).isEqualTo(USER_2_ID);
+        assertThat(envelope.notification().type()).isEqualTo(FriendshipNotificationDto.Type.REQUEST_RECEIVED);
+        assertThat(envelope.notification().userId()).isEqualTo(USER_1_ID);
+        assertThat(envelope.notification().userName()).isEqualTo("User One");
+    }
+
+    @Test
+    @DisplayName("Should close the oldest stream once a user opens more than the limit")
+    void shouldCapStreamsPerUser() {
+        notificationService.subscribe(USER_1_ID);
+        notificationService.subscribe(USER_1_ID);
+        notificationService.subscribe(USER_1_ID);
+        notificationService.subscribe(USER_2_ID);
+
+        assertThat(notificationService.openStreams(USER_1_ID)).isEqualTo(MAX_STREAMS);
+        assertThat(notificationService.openStreams(USER_2_ID)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should ignore a malformed payload instead of stopping the listener")
+    void shouldIgnoreMalformedPayload() {
+        notificationService.subscribe(USER_1_ID);
+
+        assertThatCode(() -> notificationService.dispatch("not json")).doesNotThrowAnyException();
+        assertThat(notificationService.openStreams(USER_1_ID)).isEqualTo(1);
+    }
+}
@@ -1,10 +1,19 @@
 package com.mserapinas.boardgame.userservice.service;
 
+import com.mserapinas.boardgame.userservice.dto.response.CollectionSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.ContactMatchDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendListDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendPathDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendRequestBatchResultDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendRequestListDto;
 import com.mserapinas.boardgame.userservice.dto.response.FriendSuggestionDto;
+import com.mserapinas.boardgame.userservice.dto.response.FriendshipNotificationDto;
+import com.mserapinas.boardgame.userservice.dto.response.MutualFriendsDto;
+import com.mserapinas.boardgame.userservice.dto.response.SocialCountsDto;
 import com.mserapinas.boardgame.userservice.exception.*;
+import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
 import com.mserapinas.boardgame.userservice.model.Friendship;
+import com.mserapinas.boardgame.userservice.model.FriendshipStatus;
 import com.mserapinas.boardgame.userservice.model.User;
 import com.mserapinas.boardgame.userservice.repository.FriendRequestRepository;
 import com.mserapinas.boardgame.userservice.repository.FriendshipRepository;
@@ -13,17 +22,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +54,21 @@ class FriendshipServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private FriendGraphService friendGraphService;
+
+    @Mock
+    private UserSocialCountsService userSocialCountsService;
+
+    @Mock
+    private CollectionSimilarityService collectionSimilarityService;
+
+    @Mock
+    private FriendshipNotificationService friendshipNotificationService;
+
+    @Mock
+    private ActivityFeedService activityFeedService;
+
     @InjectMocks
     private FriendshipService friendshipService;
 
@@ -62,16 +93,37 @@ class FriendshipServiceTest {
     void shouldSendFriendRequestSuccessfully() {
         when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(user1));
         when(userRepository.findById(USER_2_ID)).thenReturn(Optional.of(user2));
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(false);
-        when(friendRequestRepository.existsByUserIdAndFriendId(USER_1_ID, USER_2_ID)).thenReturn(false);
+        when(friendshipRepository.findByPair(USER_1_ID, USER_2_ID)).thenReturn(Optional.empty());
 
         friendshipService.sendFriendRequest(USER_1_ID, USER_2_ID);
 
-        verify(friendshipRepository).save(any(Friendship.class));
+        ArgumentCaptor<Friendship> captor = ArgumentCaptor.forClass(Friendship.class);
+        verify(friendshipRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(FriendshipStatus.PENDING);
+        assertThat(captor.getValue().getRequesterId()).isEqualTo(USER_1_ID);
         verify(userRepository).findById(USER_1_ID);
         verify(userRepository).findById(USER_2_ID);
-        verify(friendshipRepository).areFriends(USER_1_ID, USER_2_ID);
-        verify(friendRequestRepository).existsByUserIdAndFriendId(USER_1_ID, USER_2_ID);
+        verify(friendshipRepository).findByPair(USER_1_ID, USER_2_ID);
+        verify(userSocialCountsService).recordRequestSent(USER_1_ID, USER_2_ID);
+        verify(friendshipNotificationService)
+            .publish(USER_2_ID, FriendshipNotificationDto.Type.REQUEST_RECEIVED, USER_1_ID);
+    }
+
+    @Test
+    @DisplayName("Should accept the pending request when the other user already sent one")
+    void shouldAutoAcceptWhenOtherUserAlreadySentRequest() {
+        Friendship incoming = Friendship.request(user2, user1);
+        when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(user1));
+        when(userRepository.findById(USER_2_ID)).thenReturn(Optional.of(user2));
+        when(friendshipRepository.findByPair(USER_1_ID, USER_2_ID)).thenReturn(Optional.of(incoming));
+
+        friendshipService.sendFriendRequest(USER_1_ID, USER_2_ID);
+
+        assertThat(incoming.isAccepted()).isTrue();
+        assertThat(incoming.getAcceptedAt()).isNotNull();
+        verify(friendshipRepository).save(incoming);
+        verify(friendshipNotificationService)
+            .publish(USER_2_ID, FriendshipNotificationDto.Type.REQUEST_ACCEPTED, USER_1_ID);
     }
 
     @Test
@@ -115,7 +167,7 @@ class FriendshipServiceTest {
     void shouldThrowAlreadyFriendsExceptionWhenAlreadyFriends() {
         when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(user1));
         when(userRepository.findById(USER_2_ID)).thenReturn(Optional.of(user2));
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(true);
+        when(friendshipRepository.findByPair(USER_1_ID, USER_2_ID)).thenReturn(Optional.of(accepted(user2, user1)));
 
         assertThatThrownBy(() -> friendshipService.sendFriendRequest(USER_1_ID, USER_2_ID))
                 .isInstanceOf(AlreadyFriendsException.class);
@@ -128,8 +180,8 @@ class FriendshipServiceTest {
     void shouldThrowFriendRequestAlreadySentExceptionWhenRequestAlreadySent() {
         when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(user1));
         when(userRepository.findById(USER_2_ID)).thenReturn(Optional.of(user2));
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(false);
-        when(friendRequestRepository.existsByUserIdAndFriendId(USER_1_ID, USER_2_ID)).thenReturn(true);
+        when(friendshipRepository.findByPair(USER_1_ID, USER_2_ID))
+            .thenReturn(Optional.of(Friendship.request(user1, user2)));
 
         assertThatThrownBy(() -> friendshipService.sendFriendRequest(USER_1_ID, USER_2_ID))
                 .isInstanceOf(FriendRequestAlreadySentException.class);
@@ -142,22 +194,24 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should accept friend request successfully")
     void shouldAcceptFriendRequestSuccessfully() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(false);
-        when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(user1));
-        when(userRepository.findById(USER_2_ID)).thenReturn(Optional.of(user2));
+        Friendship request = Friendship.request(user2, user1);
+        when(friendRequestRepository.findPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(Optional.of(request));
 
         friendshipService.acceptFriendRequest(USER_1_ID, USER_2_ID);
 
-        verify(friendshipRepository).save(any(Friendship.class));
-        verify(friendRequestRepository).hasPendingRequest(USER_2_ID, USER_1_ID);
-        verify(friendshipRepository).areFriends(USER_1_ID, USER_2_ID);
+        assertThat(request.isAccepted()).isTrue();
+        verify(friendshipRepository).save(request);
+        verify(friendRequestRepository).findPendingRequest(USER_2_ID, USER_1_ID);
+        verify(userSocialCountsService).recordRequestAccepted(USER_2_ID, USER_1_ID);
+        verify(friendGraphService).onFriendshipAccepted(USER_1_ID, USER_2_ID);
+        verify(friendshipNotificationService)
+            .publish(USER_2_ID, FriendshipNotificationDto.Type.REQUEST_ACCEPTED, USER_1_ID);
     }
 
     @Test
     @DisplayName("Should throw FriendRequestNotFoundException when accepting non-existent request")
     void shouldThrowFriendRequestNotFoundExceptionWhenAcceptingNonExistentRequest() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(false);
+        when(friendRequestRepository.findPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> friendshipService.acceptFriendRequest(USER_1_ID, USER_2_ID))
                 .isInstanceOf(FriendRequestNotFoundException.class);
@@ -165,43 +219,60 @@ class FriendshipServiceTest {
         verify(friendshipRepository, never()).save(any());
     }
 
-    @Test
-    @DisplayName("Should throw AlreadyFriendsException when accepting from already friend")
-    void shouldThrowAlreadyFriendsExceptionWhenAcceptingFromAlreadyFriend() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(true);
-
-        assertThatThrownBy(() -> friendshipService.acceptFriendRequest(USER_1_ID, USER_2_ID))
-                .isInstanceOf(AlreadyFriendsException.class);
+    // ========== Batch Friend Request Tests ==========
 
+    @Test
+    @DisplayName("Should accept all pending requests of a batch in one statement and report the rest as not found")
+    void shouldAcceptFriendRequestBatch() {
+        Friendship request = Friendship.request(user2, user1);
+        request.setId(10L);
+        when(friendRequestRepository.findIncomingRequestsFrom(USER_1_ID, List.of(USER_2_ID, 3L)))
+            .thenReturn(List.of(request));
+
+        FriendRequestBatchResultDto result =
+            friendshipService.acceptFriendRequests(USER_1_ID, List.of(USER_2_ID, 3L, USER_2_ID));
+
+        assertThat(result.results())
+            .extracting(FriendRequestBatchResultDto.FriendRequestBatchItemDto::requesterId,
+                FriendRequestBatchResultDto.FriendRequestBatchItemDto::outcome)
+            .containsExactly(
+                tuple(USER_2_ID, FriendRequestBatchResultDto.Outcome.ACCEPTED),
+                tuple(3L, FriendRequestBatchResultDto.Outcome.NOT_FOUND));
+        verify(userSocialCountsService).lock(List.of(USER_2_ID, 3L, USER_1_ID));
+        verify(friendRequestRepository).acceptPendingByIds(eq(List.of(10L)), any());
+        verify(userSocialCountsService).recordRequestAccepted(USER_2_ID, USER_1_ID);
+        verify(friendGraphService).onFriendshipAccepted(USER_1_ID, USER_2_ID);
         verify(friendshipRepository, never()).save(any());
     }
 
     @Test
-    @DisplayName("Should throw UserNotFoundException when accepting user does not exist")
-    void shouldThrowUserNotFoundExceptionWhenAcceptingUserDoesNotExist() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(false);
-        when(userRepository.findById(USER_1_ID)).thenReturn(Optional.empty());
+    @DisplayName("Should not write anything when no request of the batch is pending")
+    void shouldSkipWritesWhenNothingInBatchIsPending() {
+        when(friendRequestRepository.findIncomingRequestsFrom(USER_1_ID, List.of(USER_2_ID)))
+            .thenReturn(Collections.emptyList());
 
-        assertThatThrownBy(() -> friendshipService.acceptFriendRequest(USER_1_ID, USER_2_ID))
-                .isInstanceOf(UserNotFoundException.class);
+        FriendRequestBatchResultDto result = friendshipService.declineFriendRequests(USER_1_ID, List.of(USER_2_ID));
 
-        verify(friendshipRepository, never()).save(any());
+        assertThat(result.results()).extracting(FriendRequestBatchResultDto.FriendRequestBatchItemDto::outcome)
+            .containsExactly(FriendRequestBatchResultDto.Outcome.NOT_FOUND);
+        verify(friendRequestRepository, never()).deletePendingByIds(any());
+        verify(userSocialCountsService, never()).recordRequestWithdrawn(any(), any());
     }
 
     @Test
-    @DisplayName("Should throw UserNotFoundException when requester does not exist")
-    void shouldThrowUserNotFoundExceptionWhenRequesterDoesNotExist() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(false);
-        when(userRepository.findById(USER_1_ID)).thenReturn(Optional.of(user1));
-        when(userRepository.findById(USER_2_ID)).thenReturn(Optional.empty());
-
-        assertThatThrownBy(() -> friendshipService.acceptFriendRequest(USER_1_ID, USER_2_ID))
-                .isInstanceOf(UserNotFoundException.class);
-
-        verify(friendshipRepository, never()).save(any());
+    @DisplayName("Should decline all pending requests of a batch in one statement")
+    void shouldDeclineFriendRequestBatch() {
+        Friendship request = Friendship.request(user2, user1);
+        request.setId(10L);
+        when(friendRequestRepository.findIncomingRequestsFrom(USER_1_ID, List.of(USER_2_ID)))
+            .thenReturn(List.of(request));
+
+        FriendRequestBatchResultDto result = friendshipService.declineFriendRequests(USER_1_ID, List.of(USER_2_ID));
+
+        assertThat(result.results()).extracting(FriendRequestBatchResultDto.FriendRequestBatchItemDto::outcome)
+            .containsExactly(FriendRequestBatchResultDto.Outcome.DECLINED);
+        verify(friendRequestRepository).deletePendingByIds(List.of(10L));
+        verify(userSocialCountsService).recordRequestWithdrawn(USER_2_ID, USER_1_ID);
     }
 
     // ========== Decline Friend Request Tests ==========
@@ -209,23 +280,24 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should decline friend request successfully")
     void shouldDeclineFriendRequestSuccessfully() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(true);
+        when(friendRequestRepository.deletePendingRequest(USER_2_ID, USER_1_ID)).thenReturn(1);
 
         friendshipService.declineFriendRequest(USER_1_ID, USER_2_ID);
 
-        verify(friendRequestRepository).deleteByUserIdAndFriendId(USER_2_ID, USER_1_ID);
-        verify(friendRequestRepository).hasPendingRequest(USER_2_ID, USER_1_ID);
+        verify(userSocialCountsService).lock(USER_1_ID, USER_2_ID);
+        verify(friendRequestRepository).deletePendingRequest(USER_2_ID, USER_1_ID);
+        verify(userSocialCountsService).recordRequestWithdrawn(USER_2_ID, USER_1_ID);
     }
 
     @Test
     @DisplayName("Should throw FriendRequestNotFoundException when declining non-existent request")
     void shouldThrowFriendRequestNotFoundExceptionWhenDecliningNonExistentRequest() {
-        when(friendRequestRepository.hasPendingRequest(USER_2_ID, USER_1_ID)).thenReturn(false);
+        when(friendRequestRepository.deletePendingRequest(USER_2_ID, USER_1_ID)).thenReturn(0);
 
         assertThatThrownBy(() -> friendshipService.declineFriendRequest(USER_1_ID, USER_2_ID))
                 .isInstanceOf(FriendRequestNotFoundException.class);
 
-        verify(friendRequestRepository, never()).deleteByUserIdAndFriendId(any(), any());
+        verify(userSocialCountsService, never()).recordRequestWithdrawn(any(), any());
     }
 
     // ========== Cancel Friend Request Tests ==========
@@ -233,23 +305,26 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should cancel friend request successfully")
     void shouldCancelFriendRequestSuccessfully() {
-        when(friendRequestRepository.hasPendingRequest(USER_1_ID, USER_2_ID)).thenReturn(true);
+        when(friendRequestRepository.deletePendingRequest(USER_1_ID, USER_2_ID)).thenReturn(1);
 
         friendshipService.cancelFriendRequest(USER_1_ID, USER_2_ID);
 
-        verify(friendRequestRepository).deleteByUserIdAndFriendId(USER_1_ID, USER_2_ID);
-        verify(friendRequestRepository).hasPendingRequest(USER_1_ID, USER_2_ID);
+        verify(userSocialCountsService).lock(USER_1_ID, USER_2_ID);
+        verify(friendRequestRepository).deletePendingRequest(USER_1_ID, USER_2_ID);
+        verify(userSocialCountsService).recordRequestWithdrawn(USER_1_ID, USER_2_ID);
+        verify(friendshipNotificationService)
+            .publish(USER_2_ID, FriendshipNotificationDto.Type.REQUEST_CANCELLED, USER_1_ID);
     }
 
     @Test
     @DisplayName("Should throw FriendRequestNotFoundException when canceling non-existent request")
     void shouldThrowFriendRequestNotFoundExceptionWhenCancelingNonExistentRequest() {
-        when(friendRequestRepository.hasPendingRequest(USER_1_ID, USER_2_ID)).thenReturn(false);
+        when(friendRequestRepository.deletePendingRequest(USER_1_ID, USER_2_ID)).thenReturn(0);
 
         assertThatThrownBy(() -> friendshipService.cancelFriendRequest(USER_1_ID, USER_2_ID))
                 .isInstanceOf(FriendRequestNotFoundException.class);
 
-        verify(friendRequestRepository, never()).deleteByUserIdAndFriendId(any(), any());
+        verify(userSocialCountsService, never()).recordRequestWithdrawn(any(), any());
     }
 
     // ========== Remove Friend Tests ==========
@@ -257,23 +332,26 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should remove friend successfully")
     void shouldRemoveFriendSuccessfully() {
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(true);
+        when(friendshipRepository.deleteFriendship(USER_1_ID, USER_2_ID)).thenReturn(1);
 
         friendshipService.removeFriend(USER_1_ID, USER_2_ID);
 
         verify(friendshipRepository).deleteFriendship(USER_1_ID, USER_2_ID);
-        verify(friendshipRepository).areFriends(USER_1_ID, USER_2_ID);
+        verify(userSocialCountsService).recordFriendshipRemoved(USER_1_ID, USER_2_ID);
+        verify(activityFeedService).onFriendshipRemoved(USER_1_ID, USER_2_ID);
+        verify(friendGraphService).onFriendshipRemoved(USER_1_ID, USER_2_ID);
     }
 
     @Test
     @DisplayName("Should throw FriendRequestNotFoundException when removing non-existent friend")
     void shouldThrowFriendRequestNotFoundExceptionWhenRemovingNonExistentFriend() {
-        when(friendshipRepository.areFriends(USER_1_ID, USER_2_ID)).thenReturn(false);
+        when(friendshipRepository.deleteFriendship(USER_1_ID, USER_2_ID)).thenReturn(0);
 
         assertThatThrownBy(() -> friendshipService.removeFriend(USER_1_ID, USER_2_ID))
                 .isInstanceOf(FriendRequestNotFoundException.class);
 
-        verify(friendshipRepository, never()).deleteFriendship(any(), any());
+        verify(friendGraphService, never()).onFriendshipRemoved(any(), any());
+        verify(activityFeedService, never()).onFriendshipRemoved(any(), any());
     }
 
     // ========== Get Friends Tests ==========
@@ -281,30 +359,73 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should get friends list successfully")
     void shouldGetFriendsListSuccessfully() {
-        Friendship friendship = new Friendship(user1, user2);
+        Friendship friendship = accepted(user1, user2);
+        friendship.setId(10L);
         when(userRepository.existsById(USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.getFriends(USER_1_ID)).thenReturn(List.of(friendship));
+        when(friendshipRepository.findFriendPageIds(USER_1_ID, FriendListCursor.FIRST.acceptedAt(),
+                FriendListCursor.FIRST.id(), "%", 51)).thenReturn(List.of(10L));
+        when(friendshipRepository.findAllWithUsersByIdIn(List.of(10L))).thenReturn(List.of(friendship));
+        when(userSocialCountsService.getCounts(USER_1_ID)).thenReturn(new SocialCountsDto(1L, 0L, 0L));
 
-        FriendListDto result = friendshipService.getFriends(USER_1_ID);
+        FriendListDto result = friendshipService.getFriends(USER_1_ID, null, null, 50);
 
         assertThat(result).isNotNull();
         assertThat(result.friends()).hasSize(1);
+        assertThat(result.friends().getFirst().userId()).isEqualTo(USER_2_ID);
         assertThat(result.totalCount()).isEqualTo(1L);
-        verify(userRepository).existsById(USER_1_ID);
-        verify(friendshipRepository).getFriends(USER_1_ID);
+        assertThat(result.nextCursor()).isNull();
     }
 
     @Test
-    @DisplayName("Should return empty list when user has no friends")
-    void shouldReturnEmptyListWhenUserHasNoFriends() {
+    @DisplayName("Should return next cursor that resumes after the last friend on the page")
+    void shouldReturnNextCursorWhenMoreFriendsFollow() {
+        Friendship first = accepted(user1, user2);
+        first.setId(10L);
+        User user3 = new User("user3@example.com", "User Three", "password");
+        user3.setId(3L);
+        Friendship second = accepted(user3, user1);
+        second.setId(11L);
         when(userRepository.existsById(USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.getFriends(USER_1_ID)).thenReturn(Collections.emptyList());
+        when(friendshipRepository.findFriendPageIds(eq(USER_1_ID), any(), any(), eq("%"), eq(3)))
+            .thenReturn(List.of(11L, 10L, 12L));
+        when(friendshipRepository.findAllWithUsersByIdIn(List.of(11L, 10L))).thenReturn(List.of(first, second));
+        when(userSocialCountsService.getCounts(USER_1_ID)).thenReturn(new SocialCountsDto(3L, 0L, 0L));
+
+        FriendListDto result = friendshipService.getFriends(USER_1_ID, null, null, 2);
+
+        assertThat(result.friends()).extracting(friend -> friend.userId()).containsExactly(3L, USER_2_ID);
+        assertThat(result.totalCount()).isEqualTo(3L);
+        FriendListCursor next = FriendListCursor.decode(result.nextCursor());
+        assertThat(next.id()).isEqualTo(10L);
+        assertThat(next.acceptedAt().toInstant()).isEqualTo(first.getAcceptedAt().toInstant());
+    }
 
-        FriendListDto result = friendshipService.getFriends(USER_1_ID);
+    @Test
+    @DisplayName("Should resume from cursor and filter by escaped lower-case name prefix")
+    void shouldResumeFromCursorAndFilterByNamePrefix() {
+        FriendListCursor cursor = new FriendListCursor(OffsetDateTime.parse("2025-01-02T03:04:05.123456Z"), 42L);
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(friendshipRepository.findFriendPageIds(USER_1_ID, cursor.acceptedAt(), 42L, "jo\\_%", 11))
+            .thenReturn(Collections.emptyList());
+        when(userSocialCountsService.getCounts(USER_1_ID)).thenReturn(new SocialCountsDto(5L, 0L, 0L));
+
+        FriendListDto result = friendshipService.getFriends(USER_1_ID, cursor.encode(), " Jo_ ", 10);
 
-        assertThat(result).isNotNull();
         assertThat(result.friends()).isEmpty();
-        assertThat(result.totalCount()).isZero();
+        assertThat(result.totalCount()).isEqualTo(5L);
+        assertThat(result.nextCursor()).isNull();
+        verify(friendshipRepository, never()).findAllWithUsersByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor it did not issue")
+    void shouldRejectInvalidCursor() {
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+
+        assertThatThrownBy(() -> friendshipService.getFriends(USER_1_ID, "not-a-cursor", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(friendshipRepository, never()).findFriendPageIds(any(), any(), any(), any(), anyInt());
     }
 
     @Test
@@ -312,10 +433,10 @@ class FriendshipServiceTest {
     void shouldThrowUserNotFoundExceptionWhenGettingFriendsForNonExistentUser() {
         when(userRepository.existsById(USER_1_ID)).thenReturn(false);
 
-        assertThatThrownBy(() -> friendshipService.getFriends(USER_1_ID))
+        assertThatThrownBy(() -> friendshipService.getFriends(USER_1_ID, null, null, 10))
                 .isInstanceOf(UserNotFoundException.class);
 
-        verify(friendshipRepository, never()).getFriends(any());
+        verify(friendshipRepository, never()).findFriendPageIds(any(), any(), any(), any(), anyInt());
     }
 
     // ========== Get Incoming Requests Tests ==========
@@ -323,7 +444,7 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should get incoming friend requests successfully")
     void shouldGetIncomingFriendRequestsSuccessfully() {
-        Friendship request = new Friendship(user2, user1);
+        Friendship request = Friendship.request(user2, user1);
         when(userRepository.existsById(USER_1_ID)).thenReturn(true);
         when(friendRequestRepository.getIncomingRequests(USER_1_ID)).thenReturn(List.of(request));
 
@@ -365,7 +486,7 @@ class FriendshipServiceTest {
     @Test
     @DisplayName("Should get outgoing friend requests successfully")
     void shouldGetOutgoingFriendRequestsSuccessfully() {
-        Friendship request = new Friendship(user1, user2);
+        Friendship request = Friendship.request(user1, user2);
         when(userRepository.existsById(USER_1_ID)).thenReturn(true);
         when(friendRequestRepository.getOutgoingRequests(USER_1_ID)).thenReturn(List.of(request));
 
@@ -402,33 +523,207 @@ class FriendshipServiceTest {
         verify(friendRequestRepository, never()).getOutgoingRequests(any());
     }
 
+    // ========== Get Social Counts Tests ==========
+
+    @Test
+    @DisplayName("Should get social counts from the counters service")
+    void shouldGetSocialCounts() {
+        SocialCountsDto counts = new SocialCountsDto(12L, 2L, 1L);
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(userSocialCountsService.getCounts(USER_1_ID)).thenReturn(counts);
+
+        assertThat(friendshipService.getSocialCounts(USER_1_ID)).isEqualTo(counts);
+    }
+
+    @Test
+    @DisplayName("Should throw UserNotFoundException when getting social counts for non-existent user")
+    void shouldThrowUserNotFoundExceptionWhenGettingSocialCountsForNonExistentUser() {
+        when(userRepository.existsById(USER_1_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> friendshipService.getSocialCounts(USER_1_ID))
+                .isInstanceOf(UserNotFoundException.class);
+
+        verify(userSocialCountsService, never()).getCounts(any());
+    }
+
+    // ========== Get Mutual Friends Tests ==========
+
+    @Test
+    @DisplayName("Should return mutual friend count and the first page of users")
+    void shouldGetMutualFriends() {
+        User user3 = new User("user3@example.com", "User Three", "password");
+        user3.setId(3L);
+        User user5 = new User("user5@example.com", "User Five", "password");
+        user5.setId(5L);
+
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(friendGraphService.mutualFriendIds(USER_1_ID, USER_2_ID)).thenReturn(new long[]{3L, 5L, 7L});
+        when(userRepository.findAllById(List.of(3L, 5L))).thenReturn(List.of(user5, user3));
+
+        MutualFriendsDto result = friendshipService.getMutualFriends(USER_1_ID, USER_2_ID, 2);
+
+        assertThat(result.totalCount()).isEqualTo(3L);
+        assertThat(result.mutualFriends()).extracting("userId").containsExactly(3L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should reject mutual friends with yourself")
+    void shouldRejectMutualFriendsWithSelf() {
+        assertThatThrownBy(() -> friendshipService.getMutualFriends(USER_1_ID, USER_1_ID, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(friendGraphService, never()).mutualFriendIds(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should throw UserNotFoundException when the other user does not exist")
+    void shouldThrowUserNotFoundExceptionWhenGettingMutualFriendsWithNonExistentUser() {
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(userRepository.existsById(USER_2_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> friendshipService.getMutualFriends(USER_1_ID, USER_2_ID, 10))
+                .isInstanceOf(UserNotFoundException.class);
+
+        verify(friendGraphService, never()).mutualFriendIds(any(), any());
+    }
+
+    // ========== Get Friend Path Tests ==========
+
+    @Test
+    @DisplayName("Should return the chain of users and its length")
+    void shouldGetFriendPath() {
+        User user3 = new User("user3@example.com", "User Three", "password");
+        user3.setId(3L);
+
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(friendGraphService.findPath(USER_1_ID, USER_2_ID, 4))
+            .thenReturn(new FriendPathSearch.Result(new long[]{1L, 3L, 2L}, false));
+        when(userRepository.findAllById(List.of(1L, 3L, 2L))).thenReturn(List.of(user2, user1, user3));
+
+        FriendPathDto result = friendshipService.getFriendPath(USER_1_ID, USER_2_ID, 4);
+
+        assertThat(result.path()).extracting("userId").containsExactly(1L, 3L, 2L);
+        assertThat(result.degrees()).isEqualTo(2);
+        assertThat(result.truncated()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should clamp the depth limit and report an empty, truncated search")
+    void shouldClampDepthAndReportTruncatedSearch() {
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(friendGraphService.findPath(USER_1_ID, USER_2_ID, FriendshipService.MAX_PATH_DEPTH))
+            .thenReturn(new FriendPathSearch.Result(new long[0], true));
+
+        FriendPathDto result = friendshipService.getFriendPath(USER_1_ID, USER_2_ID, 100);
+
+        assertThat(result.path()).isEmpty();
+        assertThat(result.degrees()).isNull();
+        assertThat(result.truncated()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject a friend path to yourself")
+    void shouldRejectFriendPathToSelf() {
+        assertThatThrownBy(() -> friendshipService.getFriendPath(USER_1_ID, USER_1_ID, 4))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(friendGraphService, never()).findPath(any(), any(), anyInt());
+    }
+
+    // ========== Get Collection Suggestions Tests ==========
+
+    @Test
+    @DisplayName("Should suggest public collections by estimated overlap, excluding friends and pending requests")
+    void shouldGetCollectionSuggestions() {
+        User user3 = new User("user3@example.com", "User Three", "password");
+        user3.setId(3L);
+        user3.setCollectionVisibility(CollectionVisibility.PUBLIC);
+        User user4 = new User("user4@example.com", "User Four", "password");
+        user4.setId(4L);
+        user4.setCollectionVisibility(CollectionVisibility.PRIVATE);
+        User user5 = new User("user5@example.com", "User Five", "password");
+        user5.setId(5L);
+        user5.setCollectionVisibility(CollectionVisibility.PUBLIC);
+
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(friendRequestRepository.findPendingCounterpartIds(USER_1_ID)).thenReturn(List.of(6L));
+        when(friendGraphService.friendIds(USER_1_ID)).thenReturn(new long[]{USER_2_ID});
+        when(collectionSimilarityService.findSimilarCollections(USER_1_ID, Set.of(USER_2_ID, 6L),
+                2 * FriendshipService.COLLECTION_MATCH_OVERFETCH))
+            .thenReturn(List.of(
+                new CollectionMinHashIndex.Match(4L, 0.9),
+                new CollectionMinHashIndex.Match(5L, 0.6),
+                new CollectionMinHashIndex.Match(3L, 0.4)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user3, user4, user5));
+        when(collectionSimilarityService.isReady()).thenReturn(true);
+
+        CollectionSuggestionDto result = friendshipService.getCollectionSuggestions(USER_1_ID, 2);
+
+        assertThat(result.suggestions())
+            .extracting("userId", "similarity")
+            .containsExactly(tuple(5L, 0.6), tuple(3L, 0.4));
+        assertThat(result.indexReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should throw UserNotFoundException when getting collection suggestions for non-existent user")
+    void shouldThrowUserNotFoundExceptionWhenGettingCollectionSuggestionsForNonExistentUser() {
+        when(userRepository.existsById(USER_1_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> friendshipService.getCollectionSuggestions(USER_1_ID, 10))
+                .isInstanceOf(UserNotFoundException.class);
+
+        verify(collectionSimilarityService, never()).findSimilarCollections(any(), any(), anyInt());
+    }
+
     // ========== Get Friend Suggestions Tests ==========
 
     @Test
-    @DisplayName("Should get friend suggestions successfully")
+    @DisplayName("Should get ranked friend suggestions with mutual-friend counts")
     void shouldGetFriendSuggestionsSuccessfully() {
         User user3 = new User("user3@example.com", "User Three", "password");
         user3.setId(3L);
+        User user4 = new User("user4@example.com", "User Four", "password");
+        user4.setId(4L);
 
         when(userRepository.existsById(USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.getFriendsOfFriends(USER_1_ID)).thenReturn(List.of(user3));
+        when(friendRequestRepository.findPendingCounterpartIds(USER_1_ID)).thenReturn(List.of(USER_2_ID));
+        when(friendGraphService.suggestFriends(USER_1_ID, Set.of(USER_2_ID), 10))
+            .thenReturn(List.of(new FriendGraph.Candidate(4L, 3), new FriendGraph.Candidate(3L, 1)));
+        // Repository order must not matter
+        when(userRepository.findAllById(any())).thenReturn(List.of(user3, user4));
+
+        FriendSuggestionDto result = friendshipService.getFriendSuggestions(USER_1_ID, 10);
+
+        assertThat(result.suggestions())
+            .extracting("userId", "mutualFriends")
+            .containsExactly(tuple(4L, 3), tuple(3L, 1));
+        assertThat(result.totalCount()).isEqualTo(2L);
+    }
 
-        FriendSuggestionDto result = friendshipService.getFriendSuggestions(USER_1_ID);
+    @Test
+    @DisplayName("Should clamp the suggestion limit")
+    void shouldClampSuggestionLimit() {
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(friendRequestRepository.findPendingCounterpartIds(USER_1_ID)).thenReturn(Collections.emptyList());
+        when(friendGraphService.suggestFriends(eq(USER_1_ID), any(), anyInt())).thenReturn(Collections.emptyList());
 
-        assertThat(result).isNotNull();
-        assertThat(result.suggestions()).hasSize(1);
-        assertThat(result.totalCount()).isEqualTo(1L);
-        verify(userRepository).existsById(USER_1_ID);
-        verify(friendshipRepository).getFriendsOfFriends(USER_1_ID);
+        friendshipService.getFriendSuggestions(USER_1_ID, 10_000);
+
+        verify(friendGraphService).suggestFriends(USER_1_ID, Set.of(), FriendshipService.MAX_SUGGESTIONS);
     }
 
     @Test
     @DisplayName("Should return empty list when user has no friend suggestions")
     void shouldReturnEmptyListWhenUserHasNoFriendSuggestions() {
         when(userRepository.existsById(USER_1_ID)).thenReturn(true);
-        when(friendshipRepository.getFriendsOfFriends(USER_1_ID)).thenReturn(Collections.emptyList());
+        when(friendRequestRepository.findPendingCounterpartIds(USER_1_ID)).thenReturn(Collections.emptyList());
+        when(friendGraphService.suggestFriends(USER_1_ID, Set.of(), 20)).thenReturn(Collections.emptyList());
 
-        FriendSuggestionDto result = friendshipService.getFriendSuggestions(USER_1_ID);
+        FriendSuggestionDto result = friendshipService.getFriendSuggestions(USER_1_ID, 20);
 
         assertThat(result).isNotNull();
         assertThat(result.suggestions()).isEmpty();
@@ -440,9 +735,61 @@ class FriendshipServiceTest {
     void shouldThrowUserNotFoundExceptionWhenGettingSuggestionsForNonExistentUser() {
         when(userRepository.existsById(USER_1_ID)).thenReturn(false);
 
-        assertThatThrownBy(() -> friendshipService.getFriendSuggestions(USER_1_ID))
+        assertThatThrownBy(() -> friendshipService.getFriendSuggestions(USER_1_ID, 20))
                 .isInstanceOf(UserNotFoundException.class);
 
-        verify(friendshipRepository, never()).getFriendsOfFriends(any());
+        verify(friendGraphService, never()).suggestFriends(any(), any(), anyInt());
+    }
+
+    // ========== Contact Match Tests ==========
+
+    @Test
+    @DisplayName("Should match plain and hashed contacts and report each match's friendship state")
+    void shouldMatchContactsWithFriendshipState() {
+        User user3 = new User("user3@example.com", "User Three", "password");
+        user3.setId(3L);
+        User user4 = new User("user4@example.com", "User Four", "password");
+        user4.setId(4L);
+        String user3Hash = User.hashEmail("user3@example.com");
+        Friendship incoming = Friendship.request(user3, user1);
+
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+        when(userRepository.findByEmailSha256In(List.of(
+                user2.getEmailSha256(), User.hashEmail("nobody@example.com"), user3Hash, user4.getEmailSha256(),
+                user1.getEmailSha256())))
+            .thenReturn(List.of(user1, user2, user3, user4));
+        when(friendshipRepository.findAllBetween(USER_1_ID, List.of(2L, 3L, 4L)))
+            .thenReturn(List.of(accepted(user1, user2), incoming));
+
+        ContactMatchDto result = friendshipService.matchContacts(USER_1_ID,
+            List.of("  User2@Example.com ", "nobody@example.com", "user2@example.com"),
+            List.of(user3Hash.toUpperCase(), user4.getEmailSha256(), user1.getEmailSha256()));
+
+        assertThat(result.matches())
+            .extracting("contact", "userId", "friendshipState")
+            .containsExactly(
+                tuple("  User2@Example.com ", USER_2_ID, ContactMatchDto.FriendshipState.FRIENDS),
+                tuple(user3Hash.toUpperCase(), 3L, ContactMatchDto.FriendshipState.REQUEST_RECEIVED),
+                tuple(user4.getEmailSha256(), 4L, ContactMatchDto.FriendshipState.NONE));
+    }
+
+    @Test
+    @DisplayName("Should reject more distinct contacts than one match may look up")
+    void shouldRejectTooManyContacts() {
+        List<String> emails = IntStream.rangeClosed(0, FriendshipService.MAX_CONTACTS)
+            .mapToObj(i -> "contact" + i + "@example.com")
+            .toList();
+        when(userRepository.existsById(USER_1_ID)).thenReturn(true);
+
+        assertThatThrownBy(() -> friendshipService.matchContacts(USER_1_ID, emails, null))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        verify(userRepository, never()).findByEmailSha256In(any());
+    }
+
+    private static Friendship accepted(User requester, User addressee) {
+        Friendship friendship = Friendship.request(requester, addressee);
+        friendship.accept();
+        return friendship;
     }
 }
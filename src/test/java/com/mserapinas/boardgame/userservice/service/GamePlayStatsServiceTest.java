@@ -0,0 +1,228 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto.Granularity;
+import com.mserapinas.boardgame.userservice.dto.response.PlayCountsDto.PlayCountDto;
+import com.mserapinas.boardgame.userservice.dto.response.PlayerStatsDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.model.GamePlayMonthlyCount;
+import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.repository.GamePlayMonthlyCountRepository;
+import com.mserapinas.boardgame.userservice.repository.GamePlayRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GamePlayStatsServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Integer GAME_ID = 1001;
+    private static final Integer OTHER_GAME_ID = 2002;
+
+    @Mock
+    private GamePlayMonthlyCountRepository monthlyCountRepository;
+
+    @Mock
+    private GamePlayRepository gamePlayRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private GamePlayStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        CoalescingCache<Long, PlayerStatsDto> playerStatsCache =
+            new CoalescingCache<>("test-player-stats", new SimpleMeterRegistry(), Duration.ofMinutes(5), 100);
+        statsService = new GamePlayStatsService(monthlyCountRepository, gamePlayRepository, userRepository,
+            playerStatsCache);
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User(name.toLowerCase() + "@example.com", name, "password");
+        user.setId(id);
+        return user;
+    }
+
+    // ========== Rollup Maintenance Tests ==========
+
+    @Test
+    @DisplayName("Should seed the rollup from existing plays only when the user has none")
+    void shouldSeedOnlyWhenMissing() {
+        when(monthlyCountRepository.existsByUserId(USER_ID)).thenReturn(false, true);
+
+        statsService.ensureSeeded(USER_ID);
+        statsService.ensureSeeded(USER_ID);
+
+        verify(monthlyCountRepository, times(1)).seedFromPlays(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Should count a play in the month it was played")
+    void shouldCountPlayInItsMonth() {
+        statsService.onPlayAdded(USER_ID, GAME_ID, LocalDate.of(2025, 3, 17), 2);
+
+        verify(monthlyCountRepository).addTimesPlayed(USER_ID, GAME_ID, LocalDate.of(2025, 3, 1), 2);
+    }
+
+    @Test
+    @DisplayName("Should uncount a play and drop the month once it is empty")
+    void shouldUncountPlay() {
+        statsService.onPlayRemoved(USER_ID, GAME_ID, LocalDate.of(2025, 3, 17), 2);
+
+        verify(monthlyCountRepository).addTimesPlayed(USER_ID, GAME_ID, LocalDate.of(2025, 3, 1), -2);
+        verify(monthlyCountRepository).deleteIfEmpty(USER_ID, GAME_ID, LocalDate.of(2025, 3, 1));
+    }
+
+    // ========== Read Tests ==========
+
+    @Test
+    @DisplayName("Should read whole months from the rollup and only the partial edge months from plays")
+    void shouldSplitRangeBetweenRollupAndPlays() {
+        LocalDate from = LocalDate.of(2024, 1, 15);
+        LocalDate to = LocalDate.of(2025, 6, 10);
+        when(gamePlayRepository.sumTimesPlayedByDay(USER_ID, from, LocalDate.of(2024, 2, 1)))
+            .thenReturn(List.<Object[]>of(new Object[] {LocalDate.of(2024, 1, 20), GAME_ID, 1L}));
+        when(monthlyCountRepository.findInRange(USER_ID, LocalDate.of(2024, 2, 1), LocalDate.of(2025, 6, 1)))
+            .thenReturn(List.of(
+                new GamePlayMonthlyCount(USER_ID, GAME_ID, LocalDate.of(2024, 5, 1), 3),
+                new GamePlayMonthlyCount(USER_ID, OTHER_GAME_ID, LocalDate.of(2025, 2, 1), 4)
+            ));
+        when(gamePlayRepository.sumTimesPlayedByDay(USER_ID, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 11)))
+            .thenReturn(List.<Object[]>of(new Object[] {LocalDate.of(2025, 6, 5), OTHER_GAME_ID, 2L}));
+
+        PlayCountsDto counts = statsService.getPlayCounts(USER_ID, from, to, Granularity.YEAR, null);
+
+        assertEquals(List.of(
+            new PlayCountDto(LocalDate.of(2024, 1, 1), GAME_ID, 4),
+            new PlayCountDto(LocalDate.of(2025, 1, 1), OTHER_GAME_ID, 6)
+        ), counts.counts());
+    }
+
+    @Test
+    @DisplayName("Should bucket plays into ISO weeks without touching the rollup")
+    void shouldBucketWeeksFromPlays() {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        when(gamePlayRepository.sumTimesPlayedByDayForGames(USER_ID, List.of(GAME_ID), from, LocalDate.of(2025, 7, 1)))
+            .thenReturn(List.of(
+                new Object[] {LocalDate.of(2025, 6, 3), GAME_ID, 1L},
+                new Object[] {LocalDate.of(2025, 6, 8), GAME_ID, 2L},
+                new Object[] {LocalDate.of(2025, 6, 9), GAME_ID, 5L}
+            ));
+
+        PlayCountsDto counts = statsService.getPlayCounts(USER_ID, from, to, Granularity.WEEK, List.of(GAME_ID));
+
+        assertEquals(List.of(
+            new PlayCountDto(LocalDate.of(2025, 6, 2), GAME_ID, 3),
+            new PlayCountDto(LocalDate.of(2025, 6, 9), GAME_ID, 5)
+        ), counts.counts());
+        verifyNoInteractions(monthlyCountRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a range whose start is after its end")
+    void shouldRejectInvertedRange() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> statsService.getPlayCounts(USER_ID, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1),
+                Granularity.DAY, null));
+
+        assertEquals("from must not be after to", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a range with too many periods")
+    void shouldRejectTooManyPeriods() {
+        assertThrows(IllegalArgumentException.class,
+            () -> statsService.getPlayCounts(USER_ID, LocalDate.of(2000, 1, 1), LocalDate.of(2025, 1, 1),
+                Granularity.DAY, null));
+
+        verifyNoInteractions(gamePlayRepository, monthlyCountRepository);
+    }
+
+    @Test
+    @DisplayName("Should total this year's plays per game from the rollup")
+    void shouldTotalPlaysThisYear() {
+        int year = LocalDate.now().getYear();
+        when(monthlyCountRepository.findInRangeForGames(
+                USER_ID, List.of(GAME_ID), LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1)))
+            .thenReturn(List.of(
+                new GamePlayMonthlyCount(USER_ID, GAME_ID, LocalDate.of(year, 1, 1), 2),
+                new GamePlayMonthlyCount(USER_ID, GAME_ID, LocalDate.of(year, 4, 1), 3)
+            ));
+
+        assertEquals(Map.of(GAME_ID, 5), statsService.getPlaysThisYearByGames(USER_ID, List.of(GAME_ID)));
+        verify(gamePlayRepository, never()).sumTimesPlayedByDayForGames(any(), any(), any(), any());
+    }
+
+    // ========== Player Stats Tests ==========
+
+    @Test
+    @DisplayName("Should assemble win rates, play index, opponent records and yearly top games")
+    void shouldAssemblePlayerStats() {
+        Long opponentId = 2L;
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(gamePlayRepository.findGameStatsByUser(USER_ID)).thenReturn(List.of(
+            new Object[] {GAME_ID, 5L, 4L, 3L, 1L},
+            new Object[] {OTHER_GAME_ID, 2L, 0L, 0L, 2L},
+            new Object[] {3003, 1L, 0L, 0L, 3L}
+        ));
+        when(gamePlayRepository.findOpponentRecordsByUser(USER_ID))
+            .thenReturn(List.<Object[]>of(new Object[] {2, 6L, 3L, 1L}));
+        when(userRepository.findAllById(List.of(opponentId))).thenReturn(List.of(user(opponentId, "Kipras")));
+        when(gamePlayRepository.findMostPlayedGamePerYear(USER_ID))
+            .thenReturn(List.<Object[]>of(new Object[] {2025, GAME_ID, 5L}));
+
+        PlayerStatsDto stats = statsService.getPlayerStats(USER_ID);
+
+        assertEquals(8, stats.totalGamesPlayed());
+        assertEquals(3, stats.distinctGames());
+        assertEquals(2, stats.playIndex());
+        assertEquals(0.75, stats.games().getFirst().winRate());
+        assertNull(stats.games().get(1).winRate());
+        assertEquals(new PlayerStatsDto.OpponentRecordDto(opponentId, "Kipras", 6, 3, 1), stats.opponents().getFirst());
+        assertEquals(new PlayerStatsDto.YearTopGameDto(2025, GAME_ID, 5), stats.mostPlayedByYear().getFirst());
+    }
+
+    @Test
+    @DisplayName("Should serve repeat reads from the cache until the user's next play write")
+    void shouldCacheStatsUntilPlayWrite() {
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+        when(gamePlayRepository.findGameStatsByUser(USER_ID)).thenReturn(List.of());
+        when(gamePlayRepository.findOpponentRecordsByUser(USER_ID)).thenReturn(List.of());
+        when(userRepository.findAllById(List.of())).thenReturn(List.of());
+        when(gamePlayRepository.findMostPlayedGamePerYear(USER_ID)).thenReturn(List.of());
+
+        statsService.getPlayerStats(USER_ID);
+        statsService.getPlayerStats(USER_ID);
+        verify(gamePlayRepository, times(1)).findGameStatsByUser(USER_ID);
+
+        statsService.onPlayAdded(USER_ID, GAME_ID, LocalDate.of(2025, 3, 17), 1);
+        statsService.getPlayerStats(USER_ID);
+        verify(gamePlayRepository, times(2)).findGameStatsByUser(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Should throw when the user does not exist")
+    void shouldThrowForUnknownUser() {
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> statsService.getPlayerStats(USER_ID));
+        verifyNoInteractions(gamePlayRepository);
+    }
+}
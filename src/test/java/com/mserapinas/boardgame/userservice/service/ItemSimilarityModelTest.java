@@ -0,0 +1,82 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ItemSimilarityModelTest {
+
+    private static final List<int[]> BASKETS = List.of(
+        new int[]{1, 2, 3},
+        new int[]{1, 2, 3},
+        new int[]{1, 2},
+        new int[]{3, 4},
+        new int[]{4, 3},
+        new int[]{5}
+    );
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should rank neighbours by cosine similarity of co-occurrence")
+    void shouldRankNeighboursByCosine() {
+        ItemSimilarityModel model = ItemSimilarityModel.build(BASKETS, 10, 100, pool);
+
+        ItemSimilarityModel.Neighbors neighbors = model.neighborsOf(1);
+        assertThat(neighbors.gameIds()).containsExactly(2, 3);
+        assertThat((double) neighbors.similarities()[0]).isCloseTo(1.0, within(1e-6));
+        assertThat((double) neighbors.similarities()[1]).isCloseTo(2 / Math.sqrt(12), within(1e-6));
+        // Single-game baskets carry no co-occurrence
+        assertThat(model.neighborsOf(5)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep only the top N neighbours per game")
+    void shouldKeepOnlyTopN() {
+        ItemSimilarityModel model = ItemSimilarityModel.build(BASKETS, 1, 100, pool);
+
+        assertThat(model.neighborsOf(3).gameIds()).containsExactly(4);
+    }
+
+    @Test
+    @DisplayName("Should explain recommendations by the owned game contributing most")
+    void shouldExplainRecommendationsByStrongestSeed() {
+        ItemSimilarityModel model = ItemSimilarityModel.build(BASKETS, 10, 100, pool);
+
+        List<ItemSimilarityModel.Recommendation> recommendations = model.recommend(Set.of(1, 4), Set.of(2), 10);
+
+        assertThat(recommendations).hasSize(1);
+        ItemSimilarityModel.Recommendation recommendation = recommendations.get(0);
+        assertThat(recommendation.gameId()).isEqualTo(3);
+        assertThat(recommendation.becauseGameId()).isEqualTo(4);
+        assertThat(recommendation.score()).isCloseTo(2 / Math.sqrt(12) + 2 / Math.sqrt(8), within(1e-6));
+    }
+
+    @Test
+    @DisplayName("Should skip baskets larger than the configured maximum")
+    void shouldSkipOversizedBaskets() {
+        ItemSimilarityModel model = ItemSimilarityModel.build(BASKETS, 10, 2, pool);
+
+        // Without the two three-game baskets, games 1 and 2 co-occur only once
+        assertThat(model.neighborsOf(1)).isNull();
+        assertThat(model.neighborsOf(3).gameIds()).containsExactly(4);
+    }
+}
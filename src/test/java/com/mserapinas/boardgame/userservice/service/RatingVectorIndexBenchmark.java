@@ -0,0 +1,124 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query latency of the similar-user index at production scale: 100k users, 5M ratings over 20k games
+ * with a skewed (Zipf-like) popularity curve and clustered taste, so popular games have very long
+ * postings lists. Excluded from the default test task; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class RatingVectorIndexBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int RATINGS_PER_USER = 50;
+    private static final int GAMES = 20_000;
+    private static final int TASTE_CLUSTERS = 25;
+    private static final int WARMUP_QUERIES = 1_000;
+    private static final int MEASURED_QUERIES = 5_000;
+    private static final int K = 20;
+
+    @Test
+    @DisplayName("Should answer top-k similar users at 100k users / 5M ratings")
+    void benchmarkTopSimilar() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] popularity = cumulativePopularity();
+        double[][] clusterAffinity = clusterAffinity(random);
+
+        RatingVectorIndex index = new RatingVectorIndex(250_000);
+        long buildStarted = System.nanoTime();
+        for (long userId = 1; userId <= USERS; userId++) {
+            int cluster = random.nextInt(TASTE_CLUSTERS);
+            int[] gameIds = sampleGames(random, popularity);
+            byte[] ratings = new byte[gameIds.length];
+            for (int i = 0; i < gameIds.length; i++) {
+                double rating = clusterAffinity[cluster][gameIds[i]] + random.nextDouble(-1.5, 1.5);
+                ratings[i] = (byte) Math.max(1, Math.min(10, Math.round(rating)));
+            }
+            index.putUser(userId, gameIds, ratings);
+        }
+        long buildMillis = (System.nanoTime() - buildStarted) / 1_000_000;
+        assertThat(index.ratingCount()).isEqualTo((long) USERS * RATINGS_PER_USER);
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            index.topSimilar(1 + random.nextInt(USERS), K);
+        }
+
+        long[] latencies = new long[MEASURED_QUERIES];
+        int answered = 0;
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long userId = 1 + random.nextInt(USERS);
+            long started = System.nanoTime();
+            int found = index.topSimilar(userId, K).size();
+            latencies[i] = System.nanoTime() - started;
+            if (found > 0) {
+                answered++;
+            }
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf(
+            "RatingVectorIndex: %,d users, %,d ratings, built in %,d ms%n" +
+            "  top-%d latency over %,d queries: p50=%.2f ms p95=%.2f ms p99=%.2f ms max=%.2f ms, %d%% with results%n",
+            index.userCount(), index.ratingCount(), buildMillis,
+            K, MEASURED_QUERIES,
+            millis(latencies, 0.50), millis(latencies, 0.95), millis(latencies, 0.99),
+            latencies[latencies.length - 1] / 1e6,
+            answered * 100 / MEASURED_QUERIES
+        );
+        assertThat(answered).isGreaterThan(MEASURED_QUERIES * 9 / 10);
+    }
+
+    private static double[] cumulativePopularity() {
+        double[] cumulative = new double[GAMES];
+        double total = 0;
+        for (int rank = 0; rank < GAMES; rank++) {
+            total += 1.0 / Math.pow(rank + 1, 0.9);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < GAMES; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private static double[][] clusterAffinity(SplittableRandom random) {
+        double[][] affinity = new double[TASTE_CLUSTERS][GAMES];
+        for (double[] cluster : affinity) {
+            for (int game = 0; game < GAMES; game++) {
+                cluster[game] = random.nextDouble(1.0, 10.0);
+            }
+        }
+        return affinity;
+    }
+
+    private static int[] sampleGames(SplittableRandom random, double[] popularity) {
+        int[] gameIds = new int[RATINGS_PER_USER];
+        int size = 0;
+        while (size < RATINGS_PER_USER) {
+            int pos = Arrays.binarySearch(popularity, random.nextDouble());
+            int gameId = pos >= 0 ? pos : Math.min(-pos - 1, GAMES - 1);
+            boolean duplicate = false;
+            for (int i = 0; i < size && !duplicate; i++) {
+                duplicate = gameIds[i] == gameId;
+            }
+            if (!duplicate) {
+                gameIds[size++] = gameId;
+            }
+        }
+        Arrays.sort(gameIds);
+        return gameIds;
+    }
+
+    private static double millis(long[] sortedNanos, double percentile) {
+        int idx = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, idx)] / 1e6;
+    }
+}
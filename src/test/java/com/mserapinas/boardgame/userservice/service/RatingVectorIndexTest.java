@@ -0,0 +1,118 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RatingVectorIndexTest {
+
+    private RatingVectorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RatingVectorIndex(1_000);
+        index.putUser(1L, games(1, 2, 3, 4, 5), ratings(9, 8, 2, 3, 7));
+        // Same taste, one point harsher across the board
+        index.putUser(2L, games(1, 2, 3, 4, 5), ratings(8, 7, 1, 2, 6));
+        // Opposite taste
+        index.putUser(3L, games(1, 2, 3, 4, 5), ratings(2, 3, 9, 8, 4));
+        // Only one game in common
+        index.putUser(4L, games(5, 6, 7), ratings(7, 2, 9));
+    }
+
+    @Test
+    @DisplayName("Should return only positively correlated users with enough overlap")
+    void shouldReturnPositivelyCorrelatedUsers() {
+        List<RatingVectorIndex.Neighbor> neighbors = index.topSimilar(1L, 10);
+
+        assertThat(neighbors).extracting(RatingVectorIndex.Neighbor::userId).containsExactly(2L);
+        RatingVectorIndex.Neighbor neighbor = neighbors.get(0);
+        assertThat(neighbor.coRated()).isEqualTo(5);
+        // Perfect correlation shrunk by 5 / (5 + 10)
+        assertThat(neighbor.similarity()).isCloseTo(1.0 / 3.0, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Should reflect incremental rating updates and removals")
+    void shouldReflectIncrementalUpdates() {
+        index.upsertRating(4L, 1, 9);
+        index.upsertRating(4L, 3, 1);
+
+        assertThat(index.topSimilar(1L, 10))
+            .extracting(RatingVectorIndex.Neighbor::userId)
+            .contains(4L);
+
+        index.removeRating(4L, 1);
+        index.removeRating(4L, 3);
+        assertThat(index.topSimilar(1L, 10))
+            .extracting(RatingVectorIndex.Neighbor::userId)
+            .doesNotContain(4L);
+
+        index.removeUser(2L);
+        assertThat(index.topSimilar(1L, 10))
+            .extracting(RatingVectorIndex.Neighbor::userId)
+            .doesNotContain(2L);
+        assertThat(index.ratingCount()).isEqualTo(5 + 5 + 3);
+    }
+
+    @Test
+    @DisplayName("Should update and remove postings of a game rated by many users")
+    void shouldUpdatePopularGamePostings() {
+        for (long userId = 100; userId < 200; userId++) {
+            index.putUser(userId, games(1, 2, 8), ratings(9, 8, 2));
+        }
+        for (long userId = 100; userId < 200; userId += 2) {
+            index.removeRating(userId, 1);
+        }
+        for (long userId = 101; userId < 200; userId += 2) {
+            index.upsertRating(userId, 1, 1);
+        }
+
+        // Even users now share only game 2 with user 1, too little overlap to be scored
+        List<Long> expected = new ArrayList<>(List.of(2L));
+        for (long userId = 101; userId < 200; userId += 2) {
+            expected.add(userId);
+        }
+        assertThat(index.topSimilar(1L, 200))
+            .extracting(RatingVectorIndex.Neighbor::userId)
+            .containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(index.ratingCount()).isEqualTo(5 + 5 + 5 + 3 + 100 * 3 - 50);
+    }
+
+    @Test
+    @DisplayName("Should keep only the top k neighbours in descending order")
+    void shouldKeepTopKInDescendingOrder() {
+        index.putUser(5L, games(1, 2, 3), ratings(9, 8, 2));
+        index.putUser(6L, games(1, 2, 3, 4), ratings(9, 8, 2, 3));
+
+        List<RatingVectorIndex.Neighbor> neighbors = index.topSimilar(1L, 2);
+
+        assertThat(neighbors).hasSize(2);
+        assertThat(neighbors.get(0).similarity()).isGreaterThanOrEqualTo(neighbors.get(1).similarity());
+        assertThat(neighbors).extracting(RatingVectorIndex.Neighbor::userId).containsExactly(2L, 6L);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a user without ratings")
+    void shouldReturnNothingForUnknownUser() {
+        assertThat(index.topSimilar(99L, 10)).isEmpty();
+    }
+
+    private static int[] games(int... gameIds) {
+        return gameIds;
+    }
+
+    private static byte[] ratings(int... values) {
+        byte[] ratings = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ratings[i] = (byte) values[i];
+        }
+        return ratings;
+    }
+}
@@ -9,8 +9,10 @@ import com.mserapinas.boardgame.userservice.exception.ReviewNotFoundException;
 import com.mserapinas.boardgame.userservice.exception.UnauthorizedReviewAccessException;
 import com.mserapinas.boardgame.userservice.model.Review;
 import com.mserapinas.boardgame.userservice.model.User;
+import com.mserapinas.boardgame.userservice.model.UserRatingStats;
 import com.mserapinas.boardgame.userservice.repository.ReviewRepository;
 import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,8 +20,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +42,23 @@ class ReviewServiceTest {
     @Mock
     private RecommenderEventPublisher recommenderEventPublisher;
 
+    @Mock
+    private TasteCompatibilityService tasteCompatibilityService;
+
+    @Mock
+    private SimilarUserService similarUserService;
+
+    @Mock
+    private UserRatingStatsService userRatingStatsService;
+
+    @Mock
+    private ActivityFeedService activityFeedService;
+
+    @Mock
+    private RatingExportService ratingExportService;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private ReviewService reviewService;
 
     private User testUser;
@@ -48,7 +69,10 @@ class ReviewServiceTest {
 
     @BeforeEach
     void setUp() {
-        reviewService = new ReviewService(reviewRepository, userRepository, recommenderEventPublisher);
+        meterRegistry = new SimpleMeterRegistry();
+        CoalescingCache<Integer, ReviewListDto> reviewPageCache =
+            new CoalescingCache<>("review-pages", meterRegistry, Duration.ofMinutes(5), 100);
+        reviewService = new ReviewService(reviewRepository, userRepository, recommenderEventPublisher, reviewPageCache, tasteCompatibilityService, similarUserService, userRatingStatsService, activityFeedService, ratingExportService);
 
         testUser = new User();
         testUser.setId(TEST_USER_ID);
@@ -85,6 +109,7 @@ class ReviewServiceTest {
         verify(reviewRepository).existsByUserIdAndGameId(TEST_USER_ID, TEST_GAME_ID);
         verify(reviewRepository).save(any(Review.class));
         verify(reviewRepository).findByIdWithUser(TEST_REVIEW_ID);
+        verify(activityFeedService).recordReviewPosted(TEST_USER_ID, TEST_GAME_ID);
     }
 
     @Test
@@ -186,6 +211,24 @@ class ReviewServiceTest {
         verify(reviewRepository).findByGameIdWithUser(TEST_GAME_ID);
     }
 
+    @Test
+    @DisplayName("Should normalize game review ratings with each reviewer's stats")
+    void shouldNormalizeGameReviewRatings() {
+        // Reviewer's ratings so far: 3, 5, 7 -> mean 5, population sd sqrt(8/3)
+        UserRatingStats stats = new UserRatingStats(TEST_USER_ID, 3, 5.0, 8.0);
+        Review highRating = new Review(testUser, TEST_GAME_ID, 7, "Loved it");
+        highRating.setId(2L);
+
+        when(reviewRepository.findByGameIdWithUser(TEST_GAME_ID)).thenReturn(List.of(highRating));
+        when(userRatingStatsService.findByUserIds(List.of(TEST_USER_ID))).thenReturn(Map.of(TEST_USER_ID, stats));
+
+        ReviewListDto result = reviewService.getReviewsByGame(TEST_GAME_ID);
+
+        double expected = 2 / Math.sqrt(8.0 / 3.0);
+        assertEquals(expected, result.reviews().getFirst().normalizedRating(), 1e-9);
+        assertEquals(expected, result.averageNormalizedRating(), 1e-9);
+    }
+
     @Test
     @DisplayName("Should handle empty reviews for game")
     void shouldHandleEmptyReviewsForGame() {
@@ -201,6 +244,47 @@ class ReviewServiceTest {
         verify(reviewRepository).findByGameIdWithUser(TEST_GAME_ID);
     }
 
+    @Test
+    @DisplayName("Should serve repeated game review requests from cache")
+    void shouldServeRepeatedGameReviewRequestsFromCache() {
+        when(reviewRepository.findByGameIdWithUser(TEST_GAME_ID)).thenReturn(List.of(testReview));
+
+        ReviewListDto first = reviewService.getReviewsByGame(TEST_GAME_ID);
+        ReviewListDto second = reviewService.getReviewsByGame(TEST_GAME_ID);
+
+        assertSame(first, second);
+        verify(reviewRepository, times(1)).findByGameIdWithUser(TEST_GAME_ID);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should reload game reviews after a review write")
+    void shouldReloadGameReviewsAfterReviewWrite() {
+        when(reviewRepository.findByGameIdWithUser(TEST_GAME_ID)).thenReturn(List.of(testReview));
+        when(reviewRepository.findById(TEST_REVIEW_ID)).thenReturn(Optional.of(testReview));
+
+        reviewService.getReviewsByGame(TEST_GAME_ID);
+        reviewService.deleteReview(TEST_USER_ID, TEST_REVIEW_ID);
+        reviewService.getReviewsByGame(TEST_GAME_ID);
+
+        verify(reviewRepository, times(2)).findByGameIdWithUser(TEST_GAME_ID);
+    }
+
+    @Test
+    @DisplayName("Should keep other games' cached pages on a review write")
+    void shouldKeepOtherGamesPagesOnReviewWrite() {
+        Integer otherGameId = 2002;
+        when(reviewRepository.findByGameIdWithUser(otherGameId)).thenReturn(List.of());
+        when(reviewRepository.findById(TEST_REVIEW_ID)).thenReturn(Optional.of(testReview));
+
+        reviewService.getReviewsByGame(otherGameId);
+        reviewService.deleteReview(TEST_USER_ID, TEST_REVIEW_ID);
+        reviewService.getReviewsByGame(otherGameId);
+
+        verify(reviewRepository, times(1)).findByGameIdWithUser(otherGameId);
+        verify(reviewRepository, never()).findGameIdsByUserId(any());
+    }
+
     @Test
     @DisplayName("Should update review successfully")
     void shouldUpdateReviewSuccessfully() {
@@ -215,6 +299,7 @@ class ReviewServiceTest {
         assertNotNull(result);
         assertEquals(4, testReview.getRating());
         assertEquals("Updated review", testReview.getReviewText());
+        verify(userRatingStatsService).recordReplaced(TEST_USER_ID, 5, 4);
 
         verify(reviewRepository).findById(TEST_REVIEW_ID);
         verify(reviewRepository).save(testReview);
@@ -259,6 +344,8 @@ class ReviewServiceTest {
 
         verify(reviewRepository).findById(TEST_REVIEW_ID);
         verify(reviewRepository).delete(testReview);
+        verify(userRatingStatsService).recordRemoved(TEST_USER_ID, 5);
+        verify(ratingExportService).onRatingKeyDeleted(TEST_USER_ID, TEST_GAME_ID);
     }
 
     @Test
@@ -0,0 +1,83 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotLoaderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SnapshotLoader<List<String>> loader;
+    private Function<SnapshotLoader.Rows, List<String>> builder;
+
+    @BeforeEach
+    void setUp() {
+        loader = new SnapshotLoader<>("Test snapshot", "SELECT 1", jdbcTemplate, transactionManager, 100,
+            rows -> builder.apply(rows), List::toString);
+    }
+
+    @Test
+    @DisplayName("Should drop updates before the first load starts")
+    void shouldDropUpdatesBeforeFirstLoad() {
+        loader.apply(snapshot -> snapshot.add("early"));
+        builder = rows -> new ArrayList<>(List.of("loaded"));
+
+        loader.reload();
+
+        assertThat(loader.current()).containsExactly("loaded");
+    }
+
+    @Test
+    @DisplayName("Should apply updates to the current snapshot and replay them on the one being loaded")
+    void shouldReplayUpdatesArrivingDuringLoad() {
+        builder = rows -> new ArrayList<>(List.of("first"));
+        loader.reload();
+        List<String> first = loader.current();
+
+        builder = rows -> {
+            loader.apply(snapshot -> snapshot.add("during"));
+            return new ArrayList<>(List.of("second"));
+        };
+        loader.reload();
+
+        assertThat(first).containsExactly("first", "during");
+        assertThat(loader.current()).containsExactly("second", "during");
+
+        loader.apply(snapshot -> snapshot.add("after"));
+        assertThat(loader.current()).containsExactly("second", "during", "after");
+    }
+
+    @Test
+    @DisplayName("Should keep the previous snapshot and allow another load when a load fails")
+    void shouldKeepPreviousSnapshotWhenLoadFails() {
+        builder = rows -> new ArrayList<>(List.of("first"));
+        loader.reload();
+
+        builder = rows -> {
+            throw new IllegalStateException("database unavailable");
+        };
+        loader.reload();
+        assertThat(loader.current()).containsExactly("first");
+
+        builder = rows -> new ArrayList<>(List.of("second"));
+        loader.reload();
+        assertThat(loader.current()).containsExactly("second");
+    }
+}
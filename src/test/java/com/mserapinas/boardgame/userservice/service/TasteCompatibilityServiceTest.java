@@ -0,0 +1,151 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.TasteCompatibilityDto;
+import com.mserapinas.boardgame.userservice.exception.UserNotFoundException;
+import com.mserapinas.boardgame.userservice.repository.ReviewRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TasteCompatibilityServiceTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TasteCompatibilityService service;
+
+    private static final Long USER_1_ID = 1L;
+    private static final Long USER_2_ID = 2L;
+
+    @BeforeEach
+    void setUp() {
+        CoalescingCache<TasteCompatibilityService.UserPair, TasteCompatibilityDto> cache =
+            new CoalescingCache<>("test", new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+        service = new TasteCompatibilityService(reviewRepository, userRepository, cache);
+    }
+
+    @Test
+    @DisplayName("Should compute Pearson correlation over co-rated games only")
+    void shouldComputePearsonOverCoRatedGames() {
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(USER_1_ID))
+            .thenReturn(ratings(1, 2, 2, 4, 3, 6, 5, 10));
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(USER_2_ID))
+            .thenReturn(ratings(2, 3, 3, 5, 4, 1, 5, 9));
+
+        TasteCompatibilityDto result = service.getCompatibility(USER_1_ID, USER_2_ID);
+
+        // Co-rated games 2, 3, 5: (4, 6, 10) vs (3, 5, 9) move together perfectly
+        assertThat(result.coRatedGames()).isEqualTo(3);
+        assertThat(result.similarity()).isCloseTo(1.0, within(1e-9));
+        assertThat(result.matchPercent()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should list biggest disagreements first")
+    void shouldListBiggestDisagreementsFirst() {
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(USER_1_ID))
+            .thenReturn(ratings(1, 9, 2, 5, 3, 7, 4, 2, 5, 8));
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(USER_2_ID))
+            .thenReturn(ratings(1, 2, 2, 5, 3, 3, 4, 10, 5, 7));
+
+        TasteCompatibilityDto result = service.getCompatibility(USER_1_ID, USER_2_ID);
+
+        assertThat(result.biggestDisagreements())
+            .extracting(TasteCompatibilityDto.Disagreement::gameId)
+            .containsExactly(4, 1, 3);
+        assertThat(result.biggestDisagreements().getFirst().rating()).isEqualTo(2);
+        assertThat(result.biggestDisagreements().getFirst().otherRating()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should leave score undefined with fewer than two co-rated games")
+    void shouldLeaveScoreUndefinedWithTooFewCoRatedGames() {
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(USER_1_ID)).thenReturn(ratings(1, 8));
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(USER_2_ID)).thenReturn(ratings(1, 3, 2, 6));
+
+        TasteCompatibilityDto result = service.getCompatibility(USER_1_ID, USER_2_ID);
+
+        assertThat(result.coRatedGames()).isEqualTo(1);
+        assertThat(result.similarity()).isNull();
+        assertThat(result.matchPercent()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should cache result until either user writes a review")
+    void shouldCacheUntilReviewWrite() {
+        when(userRepository.existsById(USER_2_ID)).thenReturn(true);
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(anyLong())).thenReturn(ratings(1, 5, 2, 6));
+
+        service.getCompatibility(USER_1_ID, USER_2_ID);
+        service.getCompatibility(USER_1_ID, USER_2_ID);
+        verify(reviewRepository, times(2)).findRatingsByUserIdOrderByGameId(anyLong());
+
+        service.onReviewsChanged(USER_2_ID);
+        service.getCompatibility(USER_1_ID, USER_2_ID);
+        verify(reviewRepository, times(4)).findRatingsByUserIdOrderByGameId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should keep cached pairs of users who did not write")
+    void shouldKeepPairsOfUsersWhoDidNotWrite() {
+        Long user3Id = 3L;
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(reviewRepository.findRatingsByUserIdOrderByGameId(anyLong())).thenReturn(ratings(1, 5, 2, 6));
+
+        service.getCompatibility(USER_1_ID, USER_2_ID);
+        service.getCompatibility(USER_1_ID, user3Id);
+        verify(reviewRepository, times(4)).findRatingsByUserIdOrderByGameId(anyLong());
+
+        service.onReviewsChanged(user3Id);
+        service.getCompatibility(USER_1_ID, USER_2_ID);
+        verify(reviewRepository, times(4)).findRatingsByUserIdOrderByGameId(anyLong());
+
+        service.getCompatibility(USER_1_ID, user3Id);
+        verify(reviewRepository, times(6)).findRatingsByUserIdOrderByGameId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown other user")
+    void shouldRejectUnknownOtherUser() {
+        when(userRepository.existsById(USER_2_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getCompatibility(USER_1_ID, USER_2_ID))
+            .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject comparing with yourself")
+    void shouldRejectComparingWithYourself() {
+        assertThatThrownBy(() -> service.getCompatibility(USER_1_ID, USER_1_ID))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Object[]> ratings(int... gameIdRatingPairs) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < gameIdRatingPairs.length; i += 2) {
+            rows.add(new Object[]{gameIdRatingPairs[i], gameIdRatingPairs[i + 1]});
+        }
+        return rows;
+    }
+}
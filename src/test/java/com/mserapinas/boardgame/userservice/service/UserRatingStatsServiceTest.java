@@ -0,0 +1,96 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.model.UserRatingStats;
+import com.mserapinas.boardgame.userservice.repository.UserRatingStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRatingStatsServiceTest {
+
+    private static final Long TEST_USER_ID = 1L;
+
+    @Mock
+    private UserRatingStatsRepository userRatingStatsRepository;
+
+    @InjectMocks
+    private UserRatingStatsService userRatingStatsService;
+
+    private UserRatingStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new UserRatingStats(TEST_USER_ID, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should track mean and variance exactly through adds, replaces and removes")
+    void shouldTrackMeanAndVarianceIncrementally() {
+        when(userRatingStatsRepository.findByIdForUpdate(TEST_USER_ID)).thenReturn(Optional.of(stats));
+        List<Integer> ratings = new ArrayList<>();
+
+        for (int rating : new int[]{8, 9, 10, 9, 3, 7}) {
+            userRatingStatsService.recordAdded(TEST_USER_ID, rating);
+            ratings.add(rating);
+        }
+        assertMatches(ratings);
+
+        userRatingStatsService.recordReplaced(TEST_USER_ID, 3, 6);
+        ratings.set(ratings.indexOf(3), 6);
+        assertMatches(ratings);
+
+        userRatingStatsService.recordRemoved(TEST_USER_ID, 10);
+        ratings.remove(Integer.valueOf(10));
+        userRatingStatsService.recordRemoved(TEST_USER_ID, 8);
+        ratings.remove(Integer.valueOf(8));
+        assertMatches(ratings);
+    }
+
+    @Test
+    @DisplayName("Should seed missing stats from existing reviews before applying the change")
+    void shouldSeedMissingStats() {
+        UserRatingStats seeded = new UserRatingStats(TEST_USER_ID, 2, 6.0, 8.0);
+        when(userRatingStatsRepository.findByIdForUpdate(TEST_USER_ID))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(seeded));
+
+        userRatingStatsService.recordAdded(TEST_USER_ID, 9);
+
+        verify(userRatingStatsRepository).seedFromReviews(TEST_USER_ID);
+        assertEquals(3, seeded.getReviewCount());
+        assertEquals(7.0, seeded.getMean(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should normalize a user who rates everything the same to zero")
+    void shouldNormalizeConstantRaterToZero() {
+        when(userRatingStatsRepository.findByIdForUpdate(TEST_USER_ID)).thenReturn(Optional.of(stats));
+
+        userRatingStatsService.recordAdded(TEST_USER_ID, 9);
+        userRatingStatsService.recordAdded(TEST_USER_ID, 9);
+
+        assertEquals(0.0, stats.zScore(9));
+        assertNull(new UserRatingStats(2L, 0, 0, 0).zScore(9));
+    }
+
+    private void assertMatches(List<Integer> ratings) {
+        double mean = ratings.stream().mapToInt(Integer::intValue).average().orElseThrow();
+        double variance = ratings.stream().mapToDouble(r -> (r - mean) * (r - mean)).sum() / ratings.size();
+
+        assertEquals(ratings.size(), stats.getReviewCount());
+        assertEquals(mean, stats.getMean(), 1e-9);
+        assertEquals(variance, stats.variance(), 1e-9);
+    }
+}
@@ -5,6 +5,8 @@ import com.mserapinas.boardgame.userservice.dto.request.UpdateGameCollectionRequ
 import com.mserapinas.boardgame.userservice.dto.request.UpdateUserProfileRequest;
 import com.mserapinas.boardgame.userservice.dto.response.GameCollectionDto;
 import com.mserapinas.boardgame.userservice.dto.response.GameCollectionItemDto;
+import com.mserapinas.boardgame.userservice.dto.response.ReviewListDto;
+import com.mserapinas.boardgame.userservice.exception.CollectionAccessForbiddenException;
 import com.mserapinas.boardgame.userservice.exception.InvalidCredentialsException;
 import com.mserapinas.boardgame.userservice.model.CollectionVisibility;
 import com.mserapinas.boardgame.userservice.model.Label;
@@ -14,6 +16,7 @@ import com.mserapinas.boardgame.userservice.repository.FriendshipRepository;
 import com.mserapinas.boardgame.userservice.repository.LabelRepository;
 import com.mserapinas.boardgame.userservice.repository.ReviewRepository;
 import com.mserapinas.boardgame.userservice.repository.UserBoardGameRepository;
+import com.mserapinas.boardgame.userservice.repository.UserRatingStatsRepository;
 import com.mserapinas.boardgame.userservice.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -49,9 +52,33 @@ class UserServiceTest {
     @Mock
     private FriendshipRepository friendshipRepository;
 
+    @Mock
+    private FriendGraphService friendGraphService;
+
+    @Mock
+    private UserSocialCountsService userSocialCountsService;
+
     @Mock
     private RecommenderEventPublisher recommenderEventPublisher;
 
+    @Mock
+    private CoalescingCache<Integer, ReviewListDto> reviewPageCache;
+
+    @Mock
+    private SimilarUserService similarUserService;
+
+    @Mock
+    private CollectionSimilarityService collectionSimilarityService;
+
+    @Mock
+    private ActivityFeedService activityFeedService;
+
+    @Mock
+    private UserRatingStatsRepository userRatingStatsRepository;
+
+    @Mock
+    private RatingExportService ratingExportService;
+
     private UserService userService;
 
     private User testUser;
@@ -61,7 +88,7 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, userBoardGameRepository, labelRepository, reviewRepository, friendshipRepository, recommenderEventPublisher);
+        userService = new UserService(userRepository, userBoardGameRepository, labelRepository, reviewRepository, friendshipRepository, friendGraphService, userSocialCountsService, recommenderEventPublisher, reviewPageCache, similarUserService, collectionSimilarityService, activityFeedService, userRatingStatsRepository, ratingExportService);
 
         testUser = new User();
         testUser.setId(TEST_USER_ID);
@@ -95,6 +122,19 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    @DisplayName("Should drop past collection activity from feeds when the collection becomes private")
+    void shouldHideCollectionActivityWhenMadePrivate() {
+        testUser.setCollectionVisibility(CollectionVisibility.FRIENDS);
+        when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updateUserProfile(TEST_USER_ID, new UpdateUserProfileRequest("Test User", CollectionVisibility.PRIVATE));
+        userService.updateUserProfile(TEST_USER_ID, new UpdateUserProfileRequest("Test User", CollectionVisibility.PRIVATE));
+
+        verify(activityFeedService, times(1)).onCollectionHidden(TEST_USER_ID);
+    }
+
     @Test
     @DisplayName("Should throw exception when updating profile for non-existent user")
     void shouldThrowExceptionWhenUpdatingProfileForNonExistentUser() {
@@ -124,6 +164,26 @@ class UserServiceTest {
 
         verify(userRepository).existsById(TEST_USER_ID);
         verify(userBoardGameRepository).findByUserIdWithLabels(TEST_USER_ID);
+        verify(reviewRepository, never()).findRatingAggregatesByGameIds(any());
+    }
+
+    @Test
+    @DisplayName("Should enrich collection with community ratings in one batched lookup")
+    void shouldEnrichCollectionWithCommunityRatings() {
+        UserBoardGame unreviewedGame = new UserBoardGame(TEST_USER_ID, 1002, null);
+        when(userRepository.existsById(TEST_USER_ID)).thenReturn(true);
+        when(userBoardGameRepository.findByUserIdWithLabels(TEST_USER_ID))
+            .thenReturn(List.of(testUserBoardGame, unreviewedGame));
+        when(reviewRepository.findRatingAggregatesByGameIds(List.of(1001, 1002)))
+            .thenReturn(List.<Object[]>of(new Object[]{1001, 7.25, 4L}));
+
+        GameCollectionDto result = userService.getUserGameCollection(TEST_USER_ID, true);
+
+        assertEquals(7.25, result.games().get(0).communityAverageRating());
+        assertEquals(4L, result.games().get(0).communityReviewCount());
+        assertNull(result.games().get(1).communityAverageRating());
+        assertEquals(0L, result.games().get(1).communityReviewCount());
+        verify(reviewRepository, times(1)).findRatingAggregatesByGameIds(any());
     }
 
     @Test
@@ -138,6 +198,22 @@ class UserServiceTest {
         verify(userBoardGameRepository, never()).findByUserIdWithLabels(any());
     }
 
+    @Test
+    @DisplayName("Should authorize a friends-only collection against the database, not the friend graph")
+    void shouldCheckFriendsOnlyCollectionAgainstRepository() {
+        Long requesterId = 2L;
+        testUser.setCollectionVisibility(CollectionVisibility.FRIENDS);
+        when(userRepository.findById(TEST_USER_ID)).thenReturn(Optional.of(testUser));
+        when(friendshipRepository.areFriends(requesterId, TEST_USER_ID)).thenReturn(false);
+
+        assertThrows(CollectionAccessForbiddenException.class,
+            () -> userService.getUserGameCollection(requesterId, TEST_USER_ID));
+
+        verify(friendshipRepository).areFriends(requesterId, TEST_USER_ID);
+        verifyNoInteractions(friendGraphService);
+        verify(userBoardGameRepository, never()).findByUserIdWithLabels(any());
+    }
+
     @Test
     @DisplayName("Should add game to collection successfully")
     void shouldAddGameToCollectionSuccessfully() {
@@ -162,6 +238,8 @@ class UserServiceTest {
         verify(userRepository).existsById(TEST_USER_ID);
         verify(userBoardGameRepository).existsByUserIdAndGameId(TEST_USER_ID, gameId);
         verify(userBoardGameRepository).save(any(UserBoardGame.class));
+        verify(collectionSimilarityService).onCollectionChanged(TEST_USER_ID);
+        verify(activityFeedService).recordGameAdded(TEST_USER_ID, gameId);
     }
 
     @Test
@@ -261,6 +339,8 @@ class UserServiceTest {
         verify(userRepository).existsById(TEST_USER_ID);
         verify(userBoardGameRepository).existsByUserIdAndGameId(TEST_USER_ID, gameId);
         verify(userBoardGameRepository).deleteByUserIdAndGameId(TEST_USER_ID, gameId);
+        verify(ratingExportService).onRatingKeyDeleted(TEST_USER_ID, gameId);
+        verify(collectionSimilarityService).onCollectionChanged(TEST_USER_ID);
     }
 
     @Test
@@ -301,6 +381,9 @@ class UserServiceTest {
         assertDoesNotThrow(() -> userService.deleteUserAccount(TEST_USER_ID));
 
         verify(userRepository).findById(TEST_USER_ID);
+        verify(userSocialCountsService).onUserDeleted(TEST_USER_ID);
+        verify(activityFeedService).onUserDeleted(TEST_USER_ID);
+        verify(ratingExportService).onUserDeleted(TEST_USER_ID);
         verify(userRepository).delete(testUser);
     }
 
@@ -0,0 +1,144 @@
+package com.mserapinas.boardgame.userservice.service;
+
+import com.mserapinas.boardgame.userservice.dto.response.SocialCountsDto;
+import com.mserapinas.boardgame.userservice.model.UserSocialCounts;
+import com.mserapinas.boardgame.userservice.repository.UserSocialCountsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSocialCountsServiceTest {
+
+    private static final Long ALICE_ID = 1L;
+    private static final Long BOB_ID = 2L;
+
+    @Mock
+    private UserSocialCountsRepository userSocialCountsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserSocialCountsService userSocialCountsService;
+
+    private UserSocialCounts alice;
+    private UserSocialCounts bob;
+
+    @BeforeEach
+    void setUp() {
+        userSocialCountsService = new UserSocialCountsService(userSocialCountsRepository, transactionManager, 2);
+        alice = new UserSocialCounts(ALICE_ID, 3, 0, 0);
+        bob = new UserSocialCounts(BOB_ID, 5, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Should move a request from pending counts to friend counts when accepted")
+    void shouldTrackRequestThroughAcceptance() {
+        when(userSocialCountsRepository.findByIdForUpdate(ALICE_ID)).thenReturn(Optional.of(alice));
+        when(userSocialCountsRepository.findByIdForUpdate(BOB_ID)).thenReturn(Optional.of(bob));
+
+        userSocialCountsService.recordRequestSent(ALICE_ID, BOB_ID);
+        assertEquals(1, alice.getOutgoingRequestCount());
+        assertEquals(1, bob.getIncomingRequestCount());
+
+        userSocialCountsService.recordRequestAccepted(ALICE_ID, BOB_ID);
+        assertEquals(0, alice.getOutgoingRequestCount());
+        assertEquals(0, bob.getIncomingRequestCount());
+        assertEquals(4, alice.getFriendCount());
+        assertEquals(6, bob.getFriendCount());
+
+        userSocialCountsService.recordFriendshipRemoved(BOB_ID, ALICE_ID);
+        assertEquals(3, alice.getFriendCount());
+        assertEquals(5, bob.getFriendCount());
+    }
+
+    @Test
+    @DisplayName("Should clear both pending counts when a request is withdrawn and never go negative")
+    void shouldTrackWithdrawnRequest() {
+        when(userSocialCountsRepository.findByIdForUpdate(ALICE_ID)).thenReturn(Optional.of(alice));
+        when(userSocialCountsRepository.findByIdForUpdate(BOB_ID)).thenReturn(Optional.of(bob));
+
+        userSocialCountsService.recordRequestSent(BOB_ID, ALICE_ID);
+        userSocialCountsService.recordRequestWithdrawn(BOB_ID, ALICE_ID);
+        userSocialCountsService.recordRequestWithdrawn(BOB_ID, ALICE_ID);
+
+        assertEquals(0, alice.getIncomingRequestCount());
+        assertEquals(0, bob.getOutgoingRequestCount());
+    }
+
+    @Test
+    @DisplayName("Should lock existing counts in id order, then seed and lock only the missing ones")
+    void shouldLockThenSeedMissing() {
+        when(userSocialCountsRepository.findAllByIdForUpdate(List.of(ALICE_ID, BOB_ID))).thenReturn(List.of(alice));
+
+        userSocialCountsService.lock(BOB_ID, ALICE_ID);
+
+        InOrder inOrder = inOrder(userSocialCountsRepository);
+        inOrder.verify(userSocialCountsRepository).findAllByIdForUpdate(List.of(ALICE_ID, BOB_ID));
+        inOrder.verify(userSocialCountsRepository).seedFromFriendships(Set.of(BOB_ID));
+        inOrder.verify(userSocialCountsRepository).findAllByIdForUpdate(Set.of(BOB_ID));
+    }
+
+    @Test
+    @DisplayName("Should not seed when every user already has counts")
+    void shouldNotSeedWhenAllCountsExist() {
+        when(userSocialCountsRepository.findAllByIdForUpdate(List.of(ALICE_ID, BOB_ID))).thenReturn(List.of(alice, bob));
+
+        userSocialCountsService.lock(List.of(BOB_ID, ALICE_ID, BOB_ID));
+
+        verify(userSocialCountsRepository, never()).seedFromFriendships(any());
+    }
+
+    @Test
+    @DisplayName("Should count from friendships without seeding when a user has no counters")
+    void shouldFallBackToCombinedQuery() {
+        when(userSocialCountsRepository.findById(ALICE_ID)).thenReturn(Optional.empty());
+        when(userSocialCountsRepository.countFromFriendships(ALICE_ID))
+            .thenReturn(List.<Object[]>of(new Object[]{7L, 2L, 1L}));
+
+        SocialCountsDto counts = userSocialCountsService.getCounts(ALICE_ID);
+
+        assertEquals(new SocialCountsDto(7L, 2L, 1L), counts);
+        verify(userSocialCountsRepository, never()).seedFromFriendships(any());
+    }
+
+    @Test
+    @DisplayName("Should serve counts from the counters row when present")
+    void shouldServeCountsFromCounters() {
+        when(userSocialCountsRepository.findById(BOB_ID)).thenReturn(Optional.of(bob));
+
+        assertEquals(new SocialCountsDto(5L, 0L, 0L), userSocialCountsService.getCounts(BOB_ID));
+        verify(userSocialCountsRepository, never()).countFromFriendships(any());
+    }
+
+    @Test
+    @DisplayName("Should recount every counters row in locked keyset batches and report the drifted ones")
+    void shouldReconcileInKeysetBatches() {
+        when(userSocialCountsRepository.findUserIdsAfter(0L, 2)).thenReturn(List.of(ALICE_ID, BOB_ID));
+        when(userSocialCountsRepository.findUserIdsAfter(BOB_ID, 2)).thenReturn(List.of(5L));
+        when(userSocialCountsRepository.findUserIdsAfter(5L, 2)).thenReturn(List.of());
+        when(userSocialCountsRepository.recountFromFriendships(List.of(ALICE_ID, BOB_ID))).thenReturn(1);
+        when(userSocialCountsRepository.recountFromFriendships(List.of(5L))).thenReturn(0);
+
+        assertEquals(1, userSocialCountsService.reconcile());
+
+        InOrder inOrder = inOrder(userSocialCountsRepository);
+        inOrder.verify(userSocialCountsRepository).findAllByIdForUpdate(List.of(ALICE_ID, BOB_ID));
+        inOrder.verify(userSocialCountsRepository).recountFromFriendships(List.of(ALICE_ID, BOB_ID));
+        inOrder.verify(userSocialCountsRepository).findAllByIdForUpdate(List.of(5L));
+        inOrder.verify(userSocialCountsRepository).recountFromFriendships(List.of(5L));
+        verify(transactionManager, times(2)).commit(any());
+    }
+}